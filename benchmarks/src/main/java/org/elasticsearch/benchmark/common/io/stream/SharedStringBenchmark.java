@@ -0,0 +1,114 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.io.stream;
+
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the index names, index uuids and node ids of many shards, as in the routing table of a large cluster or in a search
+ * response over many shards, with {@link StreamInput#readString()} and {@link StreamInput#readSharedString()}. Run it with
+ * {@code -prof gc} to compare the allocation rates.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class SharedStringBenchmark {
+
+    @Param({"10000"})
+    private int numShards;
+
+    @Param({"10", "1000"})
+    private int numIndices;
+
+    @Param({"10", "100"})
+    private int numNodes;
+
+    private BytesReference strings;
+    private BytesReference sharedStrings;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] indices = new String[numIndices];
+        String[] uuids = new String[numIndices];
+        for (int i = 0; i < numIndices; i++) {
+            indices[i] = "logs-2018.10." + i;
+            uuids[i] = UUIDs.randomBase64UUID();
+        }
+        String[] nodes = new String[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            nodes[i] = UUIDs.randomBase64UUID();
+        }
+
+        try (BytesStreamOutput stringsOut = new BytesStreamOutput();
+             BytesStreamOutput sharedStringsOut = new BytesStreamOutput()) {
+            for (int i = 0; i < numShards; i++) {
+                int index = i % numIndices;
+                int node = i % numNodes;
+                stringsOut.writeString(indices[index]);
+                stringsOut.writeString(uuids[index]);
+                stringsOut.writeString(nodes[node]);
+                sharedStringsOut.writeSharedString(indices[index]);
+                sharedStringsOut.writeSharedString(uuids[index]);
+                sharedStringsOut.writeSharedString(nodes[node]);
+            }
+            strings = stringsOut.bytes();
+            sharedStrings = sharedStringsOut.bytes();
+        }
+    }
+
+    @Benchmark
+    public void readString(Blackhole bh) throws IOException {
+        try (StreamInput in = strings.streamInput()) {
+            for (int i = 0; i < numShards * 3; i++) {
+                bh.consume(in.readString());
+            }
+        }
+    }
+
+    @Benchmark
+    public void readSharedString(Blackhole bh) throws IOException {
+        try (StreamInput in = sharedStrings.streamInput()) {
+            for (int i = 0; i < numShards * 3; i++) {
+                bh.consume(in.readSharedString());
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.xcontent;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coerces numbers held in JSON strings, like the status codes, sizes and ids of log documents, with
+ * {@link XContentParser#longValue()} and {@link XContentParser#intValue()}. The {@code *FromText} benchmarks parse the
+ * {@link XContentParser#text()} of the values with the JDK, which is how these values used to be coerced. Run it with
+ * {@code -prof gc} to compare the allocation rates.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class NumberInStringBenchmark {
+
+    @Param({"10000"})
+    private int numValues;
+
+    // at most 9 digits so that the values fit in an int
+    @Param({"3", "9"})
+    private int numDigits;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        int bound = (int) Math.pow(10, numDigits);
+        try (XContentBuilder builder = XContentFactory.jsonBuilder()) {
+            builder.startArray();
+            for (int i = 0; i < numValues; i++) {
+                builder.value(Integer.toString(random.nextInt(bound)));
+            }
+            builder.endArray();
+            json = BytesReference.toBytes(BytesReference.bytes(builder));
+        }
+    }
+
+    private XContentParser createParser() throws IOException {
+        XContentParser parser = JsonXContent.jsonXContent.createParser(NamedXContentRegistry.EMPTY,
+            DeprecationHandler.THROW_UNSUPPORTED_OPERATION, json);
+        parser.nextToken();
+        return parser;
+    }
+
+    @Benchmark
+    public void longValue(Blackhole bh) throws IOException {
+        try (XContentParser parser = createParser()) {
+            while (parser.nextToken() == XContentParser.Token.VALUE_STRING) {
+                bh.consume(parser.longValue());
+            }
+        }
+    }
+
+    @Benchmark
+    public void longValueFromText(Blackhole bh) throws IOException {
+        try (XContentParser parser = createParser()) {
+            while (parser.nextToken() == XContentParser.Token.VALUE_STRING) {
+                bh.consume(Long.parseLong(parser.text()));
+            }
+        }
+    }
+
+    @Benchmark
+    public void intValue(Blackhole bh) throws IOException {
+        try (XContentParser parser = createParser()) {
+            while (parser.nextToken() == XContentParser.Token.VALUE_STRING) {
+                bh.consume(parser.intValue());
+            }
+        }
+    }
+
+    @Benchmark
+    public void intValueFromText(Blackhole bh) throws IOException {
+        try (XContentParser parser = createParser()) {
+            while (parser.nextToken() == XContentParser.Token.VALUE_STRING) {
+                bh.consume((int) Double.parseDouble(parser.text()));
+            }
+        }
+    }
+}
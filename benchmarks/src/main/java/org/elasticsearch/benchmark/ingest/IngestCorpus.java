@@ -0,0 +1,127 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.ingest;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.grok.Grok;
+import org.elasticsearch.grok.ThreadWatchdog;
+import org.elasticsearch.ingest.IngestDocument;
+import org.elasticsearch.ingest.Processor;
+import org.elasticsearch.ingest.common.DateProcessor;
+import org.elasticsearch.ingest.common.DissectProcessor;
+import org.elasticsearch.ingest.common.GrokProcessor;
+import org.elasticsearch.ingest.common.KeyValueProcessor;
+import org.elasticsearch.ingest.common.RemoveProcessor;
+import org.elasticsearch.ingest.common.ScriptProcessor;
+import org.elasticsearch.ingest.common.SetProcessor;
+import org.elasticsearch.painless.PainlessScriptEngine;
+import org.elasticsearch.painless.spi.Whitelist;
+import org.elasticsearch.script.IngestScript;
+import org.elasticsearch.script.ScriptModule;
+import org.elasticsearch.script.ScriptService;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates the documents the ingest benchmarks run on and the processor factories they are built with. Documents look like
+ * what beats ship for web server access logs: a raw access log line, its timestamp in both the access log and the ISO 8601
+ * format, and a line of key-value pairs with host metrics.
+ */
+final class IngestCorpus {
+
+    static final String ACCESS_LOG_TIMESTAMP_FORMAT = "dd/MMM/yyyy:HH:mm:ss Z";
+
+    private static final String[] VERBS = {"GET", "GET", "GET", "POST", "PUT", "DELETE", "HEAD"};
+    private static final String[] PATHS = {"/", "/index.html", "/api/v1/users", "/api/v1/orders", "/static/app.js",
+        "/static/style.css", "/images/logo.png", "/search", "/login", "/logout"};
+    private static final int[] STATUS_CODES = {200, 200, 200, 200, 201, 204, 301, 304, 400, 404, 500, 503};
+
+    private IngestCorpus() {}
+
+    /**
+     * Generates the sources of {@code numDocs} documents. The same seed always generates the same documents.
+     */
+    static List<Map<String, Object>> generate(int numDocs, long seed) {
+        Random random = new Random(seed);
+        DateTimeFormatter accessLogFormatter = DateTimeFormatter.ofPattern(ACCESS_LOG_TIMESTAMP_FORMAT, Locale.ROOT);
+        ZonedDateTime timestamp = ZonedDateTime.of(2018, 10, 10, 13, 55, 36, 0, ZoneOffset.UTC);
+        List<Map<String, Object>> documents = new ArrayList<>(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            timestamp = timestamp.plusNanos(random.nextInt(1_000_000_000));
+            String clientIp = random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+            String verb = VERBS[random.nextInt(VERBS.length)];
+            String path = PATHS[random.nextInt(PATHS.length)] + (random.nextBoolean() ? "" : "?id=" + random.nextInt(100_000));
+            int status = STATUS_CODES[random.nextInt(STATUS_CODES.length)];
+            int size = random.nextInt(100_000);
+            String accessLogTimestamp = accessLogFormatter.format(timestamp);
+
+            Map<String, Object> source = new HashMap<>();
+            source.put("message", clientIp + " - - [" + accessLogTimestamp + "] \"" + verb + " " + path + " HTTP/1.1\" " +
+                status + " " + size);
+            source.put("timestamp", accessLogTimestamp);
+            source.put("@timestamp", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(timestamp));
+            source.put("metrics", "host=web-" + random.nextInt(20) + " cpu=" + random.nextInt(100) + " load=" +
+                random.nextInt(16) + "." + random.nextInt(100) + " mem_used=" + random.nextInt(64_000) + " disk_used=" +
+                random.nextInt(1_000_000) + " connections=" + random.nextInt(10_000));
+            source.put("bytes", Integer.toString(size));
+            documents.add(source);
+        }
+        return documents;
+    }
+
+    /**
+     * Creates a document out of a copy of the given source, since processors modify the source they run on.
+     */
+    static IngestDocument newDocument(Map<String, Object> source) {
+        return new IngestDocument("index", "_doc", "id", null, null, null, new HashMap<>(source));
+    }
+
+    /**
+     * Creates a script service that can compile painless ingest scripts.
+     */
+    static ScriptService newScriptService() {
+        PainlessScriptEngine engine = new PainlessScriptEngine(Settings.EMPTY,
+            Collections.singletonMap(IngestScript.CONTEXT, Whitelist.BASE_WHITELISTS));
+        return new ScriptService(Settings.EMPTY, Collections.singletonMap(engine.getType(), engine), ScriptModule.CORE_CONTEXTS);
+    }
+
+    /**
+     * Creates the factories of the processors the ingest benchmarks use, keyed by processor type.
+     */
+    static Map<String, Processor.Factory> processorFactories(ScriptService scriptService) {
+        Map<String, Processor.Factory> factories = new HashMap<>();
+        factories.put(GrokProcessor.TYPE, new GrokProcessor.Factory(Grok.getBuiltinPatterns(), ThreadWatchdog.noop()));
+        factories.put(DissectProcessor.TYPE, new DissectProcessor.Factory());
+        factories.put(DateProcessor.TYPE, new DateProcessor.Factory(scriptService));
+        factories.put(KeyValueProcessor.TYPE, new KeyValueProcessor.Factory());
+        factories.put(ScriptProcessor.TYPE, new ScriptProcessor.Factory(scriptService));
+        factories.put(SetProcessor.TYPE, new SetProcessor.Factory(scriptService));
+        factories.put(RemoveProcessor.TYPE, new RemoveProcessor.Factory(scriptService));
+        return factories;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.ingest;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.ingest.IngestDocument;
+import org.elasticsearch.ingest.LazySourceMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the round trip of a log event through an {@link IngestDocument} that reads one field and sets another, which is
+ * what most pipelines built around a grok or date processor do, with the source either parsed eagerly into maps or lazily.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class IngestDocumentBenchmark {
+
+    @Param({"1", "16", "64"})
+    private int nestedObjects;
+
+    private BytesReference source;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+        builder.field("message", "127.0.0.1 - - [10/Oct/2018:13:55:36 +0000] \"GET /index.html HTTP/1.1\" 200 2326");
+        builder.field("@timestamp", "2018-10-10T13:55:36.000Z");
+        for (int i = 0; i < nestedObjects; i++) {
+            builder.startObject("object_" + i);
+            builder.field("name", "name_" + random.nextInt());
+            builder.field("value", random.nextLong());
+            builder.array("tags", "a", "b", "c", Integer.toString(random.nextInt()));
+            builder.startObject("labels");
+            builder.field("host", "host-" + random.nextInt(100));
+            builder.field("zone", "zone-" + random.nextInt(3));
+            builder.endObject();
+            builder.endObject();
+        }
+        builder.endObject();
+        source = BytesReference.bytes(builder);
+    }
+
+    @Benchmark
+    public BytesReference eager() throws IOException {
+        Map<String, Object> sourceAsMap = XContentHelper.convertToMap(source, false, XContentType.JSON).v2();
+        IngestDocument document = new IngestDocument("index", "_doc", "id", null, null, null, sourceAsMap);
+        process(document);
+        return BytesReference.bytes(XContentFactory.jsonBuilder().map(document.getSourceAndMetadata()));
+    }
+
+    @Benchmark
+    public BytesReference lazy() throws IOException {
+        IngestDocument document = new IngestDocument("index", "_doc", "id", null, null, null, source, XContentType.JSON);
+        process(document);
+        XContentBuilder builder = XContentFactory.jsonBuilder();
+        ((LazySourceMap) document.getSourceAndMetadata()).toXContent(builder);
+        return BytesReference.bytes(builder);
+    }
+
+    private static void process(IngestDocument document) {
+        String message = document.getFieldValue("message", String.class);
+        document.setFieldValue("client.ip", message.substring(0, message.indexOf(' ')));
+        document.extractMetadata();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.ingest;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.ingest.IngestDocument;
+import org.elasticsearch.ingest.Pipeline;
+import org.elasticsearch.ingest.Processor;
+import org.elasticsearch.script.ScriptService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures whole pipelines, as they'd be defined for parsing web server access logs, on the documents of {@link IngestCorpus}.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(PipelineBenchmark.NUM_DOCS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class PipelineBenchmark {
+
+    static final int NUM_DOCS = 1000;
+
+    private static final String GROK_PIPELINE = "{\"processors\": [" +
+        "  {\"grok\": {\"field\": \"message\", \"patterns\": [\"%{COMMONAPACHELOG}\"]}}," +
+        "  {\"date\": {\"field\": \"timestamp\", \"formats\": [\"" + IngestCorpus.ACCESS_LOG_TIMESTAMP_FORMAT + "\"]}}," +
+        "  {\"kv\": {\"field\": \"metrics\", \"field_split\": \" \", \"value_split\": \"=\", \"target_field\": \"host\"}}," +
+        "  {\"script\": {\"source\": \"ctx.kilobytes = Integer.parseInt(ctx.bytes) / 1024\"}}," +
+        "  {\"set\": {\"field\": \"event.dataset\", \"value\": \"apache.access\"}}," +
+        "  {\"remove\": {\"field\": [\"message\", \"metrics\"]}}" +
+        "]}";
+
+    private static final String DISSECT_PIPELINE = "{\"processors\": [" +
+        "  {\"dissect\": {\"field\": \"message\", \"pattern\": " +
+        "    \"%{clientip} %{ident} %{auth} [%{timestamp}] \\\"%{verb} %{request} HTTP/%{httpversion}\\\" %{response} %{bytes}\"}}," +
+        "  {\"date\": {\"field\": \"@timestamp\", \"formats\": [\"ISO8601\"]}}," +
+        "  {\"kv\": {\"field\": \"metrics\", \"field_split\": \" \", \"value_split\": \"=\", \"target_field\": \"host\"}}," +
+        "  {\"set\": {\"field\": \"event.dataset\", \"value\": \"apache.access\"}}," +
+        "  {\"remove\": {\"field\": [\"message\", \"metrics\"]}}" +
+        "]}";
+
+    @Param({"grok", "dissect"})
+    private String pipeline;
+
+    private Pipeline instance;
+
+    private List<Map<String, Object>> documents;
+
+    @Setup
+    public void setUp() throws Exception {
+        documents = IngestCorpus.generate(NUM_DOCS, 42);
+        ScriptService scriptService = IngestCorpus.newScriptService();
+        Map<String, Processor.Factory> factories = IngestCorpus.processorFactories(scriptService);
+        String definition;
+        switch (pipeline) {
+            case "grok":
+                definition = GROK_PIPELINE;
+                break;
+            case "dissect":
+                definition = DISSECT_PIPELINE;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown pipeline [" + pipeline + "]");
+        }
+        Map<String, Object> config = XContentHelper.convertToMap(new BytesArray(definition), false, XContentType.JSON).v2();
+        instance = Pipeline.create(pipeline, config, factories, scriptService);
+    }
+
+    @Benchmark
+    public void execute(Blackhole blackhole) throws Exception {
+        for (Map<String, Object> source : documents) {
+            IngestDocument document = IngestCorpus.newDocument(source);
+            blackhole.consume(instance.execute(document));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.ingest;
+
+import org.elasticsearch.ingest.IngestDocument;
+import org.elasticsearch.ingest.Processor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single ingest processor on the documents of {@link IngestCorpus}. Every operation includes creating the
+ * {@link IngestDocument} the processor runs on, which the {@code noop} processor measures on its own.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(ProcessorBenchmark.NUM_DOCS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class ProcessorBenchmark {
+
+    static final int NUM_DOCS = 1000;
+
+    @Param({"noop", "grok", "dissect", "date", "date_iso8601", "kv", "script"})
+    private String processor;
+
+    private Processor instance;
+
+    private List<Map<String, Object>> documents;
+
+    @Setup
+    public void setUp() throws Exception {
+        documents = IngestCorpus.generate(NUM_DOCS, 42);
+        Map<String, Processor.Factory> factories = IngestCorpus.processorFactories(IngestCorpus.newScriptService());
+        Map<String, Object> config = new HashMap<>();
+        String type;
+        switch (processor) {
+            case "noop":
+                instance = null;
+                return;
+            case "grok":
+                type = "grok";
+                config.put("field", "message");
+                config.put("patterns", Arrays.asList("%{COMMONAPACHELOG}"));
+                break;
+            case "dissect":
+                type = "dissect";
+                config.put("field", "message");
+                config.put("pattern", "%{clientip} %{ident} %{auth} [%{timestamp}] \"%{verb} %{request} HTTP/%{httpversion}\" " +
+                    "%{response} %{bytes}");
+                break;
+            case "date":
+                type = "date";
+                config.put("field", "timestamp");
+                config.put("formats", Arrays.asList(IngestCorpus.ACCESS_LOG_TIMESTAMP_FORMAT));
+                break;
+            case "date_iso8601":
+                type = "date";
+                config.put("field", "@timestamp");
+                config.put("formats", Arrays.asList("ISO8601"));
+                break;
+            case "kv":
+                type = "kv";
+                config.put("field", "metrics");
+                config.put("field_split", " ");
+                config.put("value_split", "=");
+                config.put("target_field", "host");
+                break;
+            case "script":
+                type = "script";
+                config.put("source", "ctx.kilobytes = Integer.parseInt(ctx.bytes) / 1024");
+                break;
+            default:
+                throw new IllegalArgumentException("unknown processor [" + processor + "]");
+        }
+        instance = factories.get(type).create(factories, null, config);
+    }
+
+    @Benchmark
+    public void execute(Blackhole blackhole) throws Exception {
+        for (Map<String, Object> source : documents) {
+            IngestDocument document = IngestCorpus.newDocument(source);
+            blackhole.consume(instance == null ? document : instance.execute(document));
+        }
+    }
+}
@@ -75,6 +75,7 @@ public final class Grok {
 
     private final Map<String, String> patternBank;
     private final boolean namedCaptures;
+    private final String expression;
     private final Regex compiledExpression;
     private final ThreadWatchdog threadWatchdog;
 
@@ -101,7 +102,7 @@ public final class Grok {
             forbidCircularReferences(name, new ArrayList<>(), pattern);
         }
 
-        String expression = toRegex(grokPattern);
+        this.expression = toRegex(grokPattern);
         byte[] expressionBytes = expression.getBytes(StandardCharsets.UTF_8);
         this.compiledExpression = new Regex(expressionBytes, 0, expressionBytes.length, Option.DEFAULT, UTF8Encoding.INSTANCE);
     }
@@ -240,12 +241,25 @@ public final class Grok {
      */
     public Map<String, Object> captures(String text) {
         byte[] textAsBytes = text.getBytes(StandardCharsets.UTF_8);
-        Map<String, Object> fields = new HashMap<>();
+        Matcher matcher = search(textAsBytes, textAsBytes.length);
+        if (matcher == null) {
+            // TODO: I think we should throw an error here?
+            return null;
+        }
+        return extractCaptures(textAsBytes, matcher);
+    }
+
+    /**
+     * Searches for the leftmost match of the compiled expression that starts at or before {@code range}.
+     *
+     * @return the matcher holding the match, or {@code null} if the expression doesn't match
+     */
+    Matcher search(byte[] textAsBytes, int range) {
         Matcher matcher = compiledExpression.matcher(textAsBytes);
         int result;
         try {
             threadWatchdog.register();
-            result = matcher.search(0, textAsBytes.length, Option.DEFAULT);
+            result = matcher.search(0, range, Option.DEFAULT);
         } finally {
             threadWatchdog.unregister();
         }
@@ -253,9 +267,17 @@ public final class Grok {
             throw new RuntimeException("grok pattern matching was interrupted after [" +
                 threadWatchdog.maxExecutionTimeInMillis() + "] ms");
         } else if (result == Matcher.FAILED) {
-            // TODO: I think we should throw an error here?
             return null;
-        } else if (compiledExpression.numberOfNames() > 0) {
+        }
+        return matcher;
+    }
+
+    /**
+     * Extracts the named captures of a match returned by {@link #search(byte[], int)}.
+     */
+    Map<String, Object> extractCaptures(byte[] textAsBytes, Matcher matcher) {
+        Map<String, Object> fields = new HashMap<>();
+        if (compiledExpression.numberOfNames() > 0) {
             Region region = matcher.getEagerRegion();
             for (Iterator<NameEntry> entry = compiledExpression.namedBackrefIterator(); entry.hasNext();) {
                 NameEntry e = entry.next();
@@ -274,6 +296,13 @@ public final class Grok {
         return fields;
     }
 
+    /**
+     * @return the regular expression the grok pattern was expanded to
+     */
+    String getExpression() {
+        return expression;
+    }
+
     public static Map<String, String> getBuiltinPatterns() {
         return builtinPatterns;
     }
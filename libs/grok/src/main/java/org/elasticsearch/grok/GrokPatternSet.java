@@ -0,0 +1,290 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.grok;
+
+import org.joni.Matcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Matches a text against several grok patterns and returns the captures of the pattern that matches first in the text,
+ * preferring the pattern that comes first in the list when several match at the same position. This is the same result
+ * an alternation of all patterns would give, but each pattern is compiled on its own so that patterns can be skipped up
+ * front: every pattern that requires a literal string (outside of any group) is only attempted if that literal occurs in
+ * the text, which is checked for all patterns at once with a single pass over the text.
+ */
+public final class GrokPatternSet {
+
+    // inline options may make literals case insensitive or whitespace insignificant
+    private static final Pattern INLINE_OPTIONS = Pattern.compile("\\(\\?[imx-]+[:)]");
+
+    private final Grok[] groks;
+    // the index of the literal each pattern requires, or -1 if it can't be prefiltered
+    private final int[] requiredLiterals;
+    private final LiteralMatcher literalMatcher;
+
+    private final LongAdder[] attempts;
+    private final LongAdder[] misses;
+    private final LongAdder[] timeInNanos;
+
+    public GrokPatternSet(Map<String, String> patternBank, List<String> grokPatterns, ThreadWatchdog threadWatchdog) {
+        this.groks = new Grok[grokPatterns.size()];
+        this.requiredLiterals = new int[grokPatterns.size()];
+        this.attempts = new LongAdder[grokPatterns.size()];
+        this.misses = new LongAdder[grokPatterns.size()];
+        this.timeInNanos = new LongAdder[grokPatterns.size()];
+        List<String> literals = new ArrayList<>();
+        for (int i = 0; i < grokPatterns.size(); i++) {
+            groks[i] = new Grok(patternBank, grokPatterns.get(i), threadWatchdog);
+            String literal = requiredLiteral(groks[i].getExpression());
+            if (literal == null) {
+                requiredLiterals[i] = -1;
+            } else {
+                requiredLiterals[i] = literals.size();
+                literals.add(literal);
+            }
+            attempts[i] = new LongAdder();
+            misses[i] = new LongAdder();
+            timeInNanos[i] = new LongAdder();
+        }
+        this.literalMatcher = literals.isEmpty() ? null : new LiteralMatcher(literals);
+    }
+
+    /**
+     * Checks whether any of the patterns matches the given text.
+     */
+    public boolean match(String text) {
+        return captures(text) != null;
+    }
+
+    /**
+     * Matches the patterns against the given text.
+     *
+     * @return the match, or {@code null} if none of the patterns matches
+     */
+    public Match captures(String text) {
+        final BitSet foundLiterals = literalMatcher == null ? null : literalMatcher.find(text);
+        final byte[] textAsBytes = text.getBytes(StandardCharsets.UTF_8);
+        final BitSet attempted = new BitSet(groks.length);
+        int bestPattern = -1;
+        Matcher bestMatcher = null;
+        for (int i = 0; i < groks.length; i++) {
+            if (requiredLiterals[i] != -1 && foundLiterals.get(requiredLiterals[i]) == false) {
+                continue;
+            }
+            attempted.set(i);
+            final long startTime = System.nanoTime();
+            try {
+                // a later pattern only wins if it matches strictly before the current best match
+                Matcher matcher = groks[i].search(textAsBytes, bestMatcher == null ? textAsBytes.length : bestMatcher.getBegin());
+                if (matcher != null && (bestMatcher == null || matcher.getBegin() < bestMatcher.getBegin())) {
+                    bestPattern = i;
+                    bestMatcher = matcher;
+                }
+            } finally {
+                timeInNanos[i].add(System.nanoTime() - startTime);
+            }
+            if (bestMatcher != null && bestMatcher.getBegin() == 0) {
+                break;
+            }
+        }
+        for (int i = attempted.nextSetBit(0); i >= 0; i = attempted.nextSetBit(i + 1)) {
+            attempts[i].increment();
+            if (i != bestPattern) {
+                misses[i].increment();
+            }
+        }
+        if (bestMatcher == null) {
+            return null;
+        }
+        return new Match(bestPattern, groks[bestPattern].extractCaptures(textAsBytes, bestMatcher));
+    }
+
+    /**
+     * @return the number of patterns in this set
+     */
+    public int size() {
+        return groks.length;
+    }
+
+    /**
+     * @return how many times the pattern at the given index was run, not counting the times it was skipped because the text
+     * didn't contain a literal the pattern requires
+     */
+    public long getAttempts(int pattern) {
+        return attempts[pattern].sum();
+    }
+
+    /**
+     * @return how many of the attempts of the pattern at the given index didn't produce the returned match
+     */
+    public long getMisses(int pattern) {
+        return misses[pattern].sum();
+    }
+
+    /**
+     * @return the total time spent running the pattern at the given index
+     */
+    public long getTimeInNanos(int pattern) {
+        return timeInNanos[pattern].sum();
+    }
+
+    /**
+     * Returns the longest literal string that any match of the given regular expression must contain, or {@code null} if
+     * there is no such literal that is at least two characters long. Only the top level of the expression is considered,
+     * and expressions with a top level alternation or inline options are never prefiltered, so a returned literal is
+     * always safe to require.
+     */
+    static String requiredLiteral(String regex) {
+        if (INLINE_OPTIONS.matcher(regex).find()) {
+            return null;
+        }
+        String longest = "";
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 == regex.length()) {
+                    return null;
+                }
+                char escaped = regex.charAt(++i);
+                if (depth == 0 && Character.isLetterOrDigit(escaped) == false) {
+                    current.append(escaped);
+                } else if (depth == 0) {
+                    // a character class, anchor, back reference or code point: skip its arguments too
+                    longest = longer(longest, current);
+                    current.setLength(0);
+                    while (i + 1 < regex.length() && Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                        i++;
+                    }
+                    if (i + 1 < regex.length()) {
+                        char next = regex.charAt(i + 1);
+                        int end = -1;
+                        if (next == '<') {
+                            end = regex.indexOf('>', i + 1);
+                        } else if (next == '{') {
+                            end = regex.indexOf('}', i + 1);
+                        } else if (next == '\'') {
+                            end = regex.indexOf('\'', i + 2);
+                        }
+                        if (end != -1) {
+                            i = end;
+                        }
+                    }
+                }
+            } else if (c == '[') {
+                i = skipCharacterClass(regex, i);
+                if (i == -1) {
+                    return null;
+                }
+                if (depth == 0) {
+                    longest = longer(longest, current);
+                    current.setLength(0);
+                }
+            } else if (c == '(') {
+                if (depth++ == 0) {
+                    longest = longer(longest, current);
+                    current.setLength(0);
+                }
+            } else if (c == ')') {
+                depth--;
+            } else if (depth > 0) {
+                continue;
+            } else if (c == '|') {
+                return null;
+            } else if (c == '?' || c == '*' || c == '{') {
+                // the previous character is optional
+                if (current.length() > 0) {
+                    current.setLength(current.length() - 1);
+                }
+                longest = longer(longest, current);
+                current.setLength(0);
+                if (c == '{') {
+                    int end = regex.indexOf('}', i);
+                    i = end == -1 ? regex.length() : end;
+                }
+            } else if (c == '+' || c == '.' || c == '^' || c == '$') {
+                // the previous character is required but may be repeated
+                longest = longer(longest, current);
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (depth != 0) {
+            return null;
+        }
+        longest = longer(longest, current);
+        return longest.length() >= 2 ? longest : null;
+    }
+
+    private static String longer(String longest, StringBuilder current) {
+        return current.length() > longest.length() ? current.toString() : longest;
+    }
+
+    private static int skipCharacterClass(String regex, int start) {
+        int depth = 0;
+        // a ']' right after the opening '[' or '[^' of a class is a literal
+        int literalBracket = -1;
+        for (int i = start; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+                literalBracket = i + 1 < regex.length() && regex.charAt(i + 1) == '^' ? i + 2 : i + 1;
+            } else if (c == ']' && i != literalBracket && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The captures of the pattern that matched.
+     */
+    public static final class Match {
+        private final int pattern;
+        private final Map<String, Object> captures;
+
+        Match(int pattern, Map<String, Object> captures) {
+            this.pattern = pattern;
+            this.captures = captures;
+        }
+
+        /**
+         * @return the index of the pattern that matched
+         */
+        public int getPattern() {
+            return pattern;
+        }
+
+        public Map<String, Object> getCaptures() {
+            return captures;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.grok;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Finds which of a set of literal strings occur in a text with a single pass over the text (Aho-Corasick).
+ */
+final class LiteralMatcher {
+
+    private final Node root = new Node();
+    private final int numLiterals;
+
+    LiteralMatcher(List<String> literals) {
+        this.numLiterals = literals.size();
+        for (int i = 0; i < literals.size(); i++) {
+            Node node = root;
+            String literal = literals.get(i);
+            for (int j = 0; j < literal.length(); j++) {
+                node = node.children.computeIfAbsent(literal.charAt(j), c -> new Node());
+            }
+            node.outputs.set(i);
+        }
+        // breadth first, so that the failure link of a node's parent is always known
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (queue.isEmpty() == false) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                Node child = entry.getValue();
+                Node failure = node.failure;
+                while (failure != root && failure.children.containsKey(entry.getKey()) == false) {
+                    failure = failure.failure;
+                }
+                Node target = failure.children.get(entry.getKey());
+                child.failure = target != null && target != child ? target : root;
+                child.outputs.or(child.failure.outputs);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @return the indices of the literals that occur in the given text
+     */
+    BitSet find(String text) {
+        BitSet found = new BitSet(numLiterals);
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Node next = node.children.get(c);
+            while (next == null && node != root) {
+                node = node.failure;
+                next = node.children.get(c);
+            }
+            node = next == null ? root : next;
+            if (node.outputs.isEmpty() == false) {
+                found.or(node.outputs);
+                if (found.cardinality() == numLiterals) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final BitSet outputs = new BitSet();
+        private Node failure;
+    }
+}
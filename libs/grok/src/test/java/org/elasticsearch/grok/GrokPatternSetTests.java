@@ -0,0 +1,123 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.grok;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class GrokPatternSetTests extends ESTestCase {
+
+    public void testRequiredLiteral() {
+        assertThat(GrokPatternSet.requiredLiteral("foo"), equalTo("foo"));
+        assertThat(GrokPatternSet.requiredLiteral("(?<a>x+) - - \\[(?<b>.*)\\]"), equalTo(" - - ["));
+        assertThat(GrokPatternSet.requiredLiteral("GET (?<a>\\d+) HTTP/1.1"), equalTo(" HTTP/1"));
+        assertThat(GrokPatternSet.requiredLiteral("abc?de"), equalTo("ab"));
+        assertThat(GrokPatternSet.requiredLiteral("ab{2,3}cde"), equalTo("cde"));
+        assertThat(GrokPatternSet.requiredLiteral("[a-z]+ hello"), equalTo(" hello"));
+        assertThat(GrokPatternSet.requiredLiteral("\\k<name>xy"), equalTo("xy"));
+        assertThat(GrokPatternSet.requiredLiteral("(?:optional)?x"), nullValue());
+        assertThat(GrokPatternSet.requiredLiteral("foo|bar"), nullValue());
+        assertThat(GrokPatternSet.requiredLiteral("(?i)foo"), nullValue());
+        assertThat(GrokPatternSet.requiredLiteral("(?<a>x)(?<b>y)"), nullValue());
+        // a ']' right after the opening of a class, negated or not, doesn't close it
+        assertThat(GrokPatternSet.requiredLiteral("[]a-z]+ hello"), equalTo(" hello"));
+        assertThat(GrokPatternSet.requiredLiteral("[^]] hello"), equalTo(" hello"));
+        assertThat(GrokPatternSet.requiredLiteral("x[^]xyz]yz"), equalTo("yz"));
+        assertThat(GrokPatternSet.requiredLiteral("[^]]"), nullValue());
+        // nested classes are skipped as a whole
+        assertThat(GrokPatternSet.requiredLiteral("[a-z&&[^aeiou]] hello"), equalTo(" hello"));
+        assertThat(GrokPatternSet.requiredLiteral("[[:alpha:]]+ hello"), equalTo(" hello"));
+        assertThat(GrokPatternSet.requiredLiteral("ab[x[^]yz]]cde"), equalTo("cde"));
+        assertThat(GrokPatternSet.requiredLiteral("foo[^]"), nullValue());
+    }
+
+    public void testLiteralMatcher() {
+        List<String> literals = Arrays.asList("he", "she", "his", "hers", "xyz");
+        BitSet found = new LiteralMatcher(literals).find("ushers");
+        assertTrue(found.get(0));
+        assertTrue(found.get(1));
+        assertFalse(found.get(2));
+        assertTrue(found.get(3));
+        assertFalse(found.get(4));
+
+        for (int iter = 0; iter < 100; iter++) {
+            List<String> randomLiterals = new ArrayList<>();
+            int numLiterals = randomIntBetween(1, 8);
+            for (int i = 0; i < numLiterals; i++) {
+                randomLiterals.add(randomAlphaOfLengthBetween(1, 4).toLowerCase(Locale.ROOT).replaceAll("[d-z]", "a"));
+            }
+            String text = randomAlphaOfLengthBetween(0, 32).toLowerCase(Locale.ROOT).replaceAll("[d-z]", "b");
+            found = new LiteralMatcher(randomLiterals).find(text);
+            for (int i = 0; i < numLiterals; i++) {
+                assertThat(randomLiterals.get(i) + " in " + text, found.get(i), equalTo(text.contains(randomLiterals.get(i))));
+            }
+        }
+    }
+
+    public void testLeftmostMatchWins() {
+        GrokPatternSet patternSet = new GrokPatternSet(Grok.getBuiltinPatterns(),
+            Arrays.asList("world %{WORD:second}", "hello %{WORD:first}"), ThreadWatchdog.noop());
+        GrokPatternSet.Match match = patternSet.captures("hello world again");
+        assertThat(match.getPattern(), equalTo(1));
+        assertThat(match.getCaptures().get("first"), equalTo("world"));
+
+        // same as the alternation of both patterns
+        Grok alternation = new Grok(Grok.getBuiltinPatterns(), "(?:world %{WORD:second})|(?:hello %{WORD:first})");
+        assertThat(match.getCaptures(), equalTo(alternation.captures("hello world again")));
+
+        // on ties the first pattern wins
+        patternSet = new GrokPatternSet(Grok.getBuiltinPatterns(),
+            Arrays.asList("hello %{WORD:first}", "hello %{WORD:second}"), ThreadWatchdog.noop());
+        match = patternSet.captures("hello world");
+        assertThat(match.getPattern(), equalTo(0));
+        assertThat(match.getCaptures().get("first"), equalTo("world"));
+    }
+
+    public void testStats() {
+        GrokPatternSet patternSet = new GrokPatternSet(Grok.getBuiltinPatterns(),
+            Arrays.asList("GET %{URIPATH:path}", "POST %{URIPATH:path}", "%{WORD:verb} %{URIPATH:path}"), ThreadWatchdog.noop());
+        assertThat(patternSet.size(), equalTo(3));
+        Map<String, Object> captures = patternSet.captures("POST /index").getCaptures();
+        assertThat(captures.get("path"), equalTo("/index"));
+        assertThat(patternSet.getAttempts(0), equalTo(0L));
+        assertThat(patternSet.getAttempts(1), equalTo(1L));
+        assertThat(patternSet.getMisses(1), equalTo(0L));
+        assertThat(patternSet.getAttempts(2), equalTo(0L));
+
+        // "POST " isn't in the text, so the second pattern is skipped
+        assertNull(patternSet.captures("GET index"));
+        assertThat(patternSet.getAttempts(0), equalTo(1L));
+        assertThat(patternSet.getMisses(0), equalTo(1L));
+        assertThat(patternSet.getAttempts(1), equalTo(1L));
+        assertThat(patternSet.getAttempts(2), equalTo(1L));
+        assertThat(patternSet.getMisses(2), equalTo(1L));
+        assertFalse(patternSet.match("GET index"));
+        assertTrue(patternSet.match("PUT /index"));
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A pool of direct pages that belongs to a {@link NioSelector}. Reading from or writing to a socket with heap buffers makes the
+ * JDK copy them to temporary direct buffers of its own, so channels can read into pages of this pool and heap buffers are copied
+ * to pages of this pool before they are written. The pool is confined to the thread of its selector and doesn't lock. Pages that
+ * are released from other threads are not pooled again. The pool never hands out more than a maximum number of bytes of direct
+ * pages at once, past which it falls back to heap pages, so that large messages can't exhaust the direct memory.
+ */
+public final class DirectBufferPool {
+
+    public static final int PAGE_SIZE = InboundChannelBuffer.PAGE_SIZE;
+    /**
+     * The maximum number of pages that are written to a channel at once.
+     */
+    static final int MAX_WRITE_PAGES = 16;
+
+    private final BooleanSupplier isOwnerThread;
+    private final int maxPooledPages;
+    private final long maxBytesInUse;
+    private final ArrayDeque<ByteBuffer> pooledPages = new ArrayDeque<>();
+    private final ByteBuffer[] writePages = new ByteBuffer[MAX_WRITE_PAGES];
+
+    // these are only modified by the owner thread, except for bytesInUse, but are read by stats from any thread
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong bytesInUse = new AtomicLong();
+
+    /**
+     * @param isOwnerThread  tells whether the current thread is the one that the pool is confined to
+     * @param maxPooledPages the maximum number of released pages that are kept for reuse
+     * @param maxBytesInUse  the maximum number of bytes of the pages that are acquired and not released yet
+     */
+    public DirectBufferPool(BooleanSupplier isOwnerThread, int maxPooledPages, long maxBytesInUse) {
+        this.isOwnerThread = isOwnerThread;
+        this.maxPooledPages = maxPooledPages;
+        this.maxBytesInUse = maxBytesInUse;
+    }
+
+    /**
+     * Returns a page that is returned to this pool when it is closed, or a heap page if the pool already handed out its maximum
+     * number of bytes. Must be called from the owner thread.
+     */
+    public InboundChannelBuffer.Page acquirePage() {
+        return acquirePage(() -> new InboundChannelBuffer.Page(ByteBuffer.allocate(PAGE_SIZE), () -> {}));
+    }
+
+    /**
+     * Returns a page that is returned to this pool when it is closed, or a page of the given supplier if the pool already handed
+     * out its maximum number of bytes. Must be called from the owner thread.
+     */
+    public InboundChannelBuffer.Page acquirePage(Supplier<InboundChannelBuffer.Page> fallbackPageSupplier) {
+        ByteBuffer page = tryAcquire();
+        if (page == null) {
+            return fallbackPageSupplier.get();
+        }
+        return new InboundChannelBuffer.Page(page, () -> release(page));
+    }
+
+    /**
+     * Writes the provided buffers to the channel and advances their positions by the number of bytes that were written. If any of
+     * the buffers is a heap buffer, up to {@link #MAX_WRITE_PAGES} pages of the buffers are first copied to pages of this pool,
+     * as long as the pool didn't hand out its maximum number of bytes. Must be called from the owner thread.
+     */
+    public long write(GatheringByteChannel channel, ByteBuffer[] buffers) throws IOException {
+        boolean allDirect = true;
+        for (ByteBuffer buffer : buffers) {
+            allDirect &= buffer.isDirect();
+        }
+        if (allDirect) {
+            return channel.write(buffers);
+        }
+
+        int pageCount = 0;
+        try {
+            ByteBuffer page = null;
+            copy:
+            for (ByteBuffer buffer : buffers) {
+                ByteBuffer source = buffer.duplicate();
+                while (source.hasRemaining()) {
+                    if (page == null || page.hasRemaining() == false) {
+                        if (pageCount == MAX_WRITE_PAGES) {
+                            break copy;
+                        }
+                        page = tryAcquire();
+                        if (page == null) {
+                            break copy;
+                        }
+                        writePages[pageCount++] = page;
+                    }
+                    int length = Math.min(source.remaining(), page.remaining());
+                    ByteBuffer slice = source.slice();
+                    slice.limit(length);
+                    page.put(slice);
+                    source.position(source.position() + length);
+                }
+            }
+            if (pageCount == 0) {
+                // the pool is exhausted, let the JDK copy the buffers
+                return channel.write(buffers);
+            }
+            for (int i = 0; i < pageCount; i++) {
+                writePages[i].flip();
+            }
+
+            long written = channel.write(writePages, 0, pageCount);
+            long remaining = written;
+            for (ByteBuffer buffer : buffers) {
+                int length = (int) Math.min(buffer.remaining(), remaining);
+                buffer.position(buffer.position() + length);
+                remaining -= length;
+            }
+            return written;
+        } finally {
+            for (int i = 0; i < pageCount; i++) {
+                release(writePages[i]);
+                writePages[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Returns a direct page, or {@code null} if the pool already handed out its maximum number of bytes. Only the owner thread
+     * increases the bytes in use, so they can't go over the maximum between the check and the increment.
+     */
+    private ByteBuffer tryAcquire() {
+        assert isOwnerThread.getAsBoolean() : "direct buffer pool must only be used from its owner thread";
+        if (bytesInUse.get() + PAGE_SIZE > maxBytesInUse) {
+            return null;
+        }
+        ByteBuffer page = pooledPages.pollFirst();
+        if (page == null) {
+            misses.incrementAndGet();
+            page = ByteBuffer.allocateDirect(PAGE_SIZE);
+        } else {
+            hits.incrementAndGet();
+            pooledBytes.addAndGet(-PAGE_SIZE);
+        }
+        bytesInUse.addAndGet(PAGE_SIZE);
+        return page;
+    }
+
+    private void release(ByteBuffer page) {
+        bytesInUse.addAndGet(-PAGE_SIZE);
+        if (isOwnerThread.getAsBoolean() && pooledPages.size() < maxPooledPages) {
+            page.clear();
+            pooledPages.addFirst(page);
+            pooledBytes.addAndGet(PAGE_SIZE);
+        }
+    }
+
+    /**
+     * The number of pages that were reused from the pool.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of pages that had to be allocated because the pool was empty.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The number of bytes of the pages that are kept for reuse.
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * The number of bytes of the pages that were acquired and not released yet.
+     */
+    public long getBytesInUse() {
+        return bytesInUse.get();
+    }
+}
@@ -24,6 +24,7 @@ import org.elasticsearch.nio.utils.ExceptionsHelper;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadFactory;
@@ -135,6 +136,13 @@ public class NioGroup implements AutoCloseable {
         return factory.openNioChannel(address, selectorSupplier);
     }
 
+    /**
+     * Returns the selectors that handle the child channels of this group.
+     */
+    public List<NioSelector> getSelectors() {
+        return Collections.unmodifiableList(selectors);
+    }
+
     @Override
     public void close() throws IOException {
         if (isOpen.compareAndSet(true, false)) {
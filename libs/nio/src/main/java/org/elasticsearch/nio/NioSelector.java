@@ -46,6 +46,15 @@ import java.util.stream.Collectors;
  */
 public class NioSelector implements Closeable {
 
+    /**
+     * The maximum number of released direct pages that a selector keeps for reuse, 1MB.
+     */
+    private static final int MAX_POOLED_PAGES = 64;
+    /**
+     * The maximum number of bytes of direct pages that a selector hands out at once, 4MB. Channels use heap pages past that.
+     */
+    private static final long MAX_BYTES_IN_USE = 4 * 1024 * 1024;
+
     private final ConcurrentLinkedQueue<WriteOperation> queuedWrites = new ConcurrentLinkedQueue<>();
     private final ConcurrentLinkedQueue<ChannelContext<?>> channelsToClose = new ConcurrentLinkedQueue<>();
     private final ConcurrentLinkedQueue<ChannelContext<?>> channelsToRegister = new ConcurrentLinkedQueue<>();
@@ -57,6 +66,8 @@ public class NioSelector implements Closeable {
     private final AtomicBoolean isClosed = new AtomicBoolean(false);
     private final CompletableFuture<Void> isRunningFuture = new CompletableFuture<>();
     private final AtomicReference<Thread> thread = new AtomicReference<>(null);
+    private final DirectBufferPool bufferPool = new DirectBufferPool(this::isOnCurrentThread, MAX_POOLED_PAGES,
+        MAX_BYTES_IN_USE);
 
     public NioSelector(EventHandler eventHandler) throws IOException {
         this(eventHandler, Selector.open());
@@ -67,6 +78,13 @@ public class NioSelector implements Closeable {
         this.eventHandler = eventHandler;
     }
 
+    /**
+     * Returns the pool of direct pages of this selector, which must only be used from the selector thread.
+     */
+    public DirectBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
     public Selector rawSelector() {
         return selector;
     }
@@ -273,7 +273,8 @@ public abstract class SocketChannelContext extends ChannelContext<SocketChannel>
 
     protected int flushToChannel(ByteBuffer[] buffers) throws IOException {
         try {
-            return (int) rawChannel.write(buffers);
+            // heap buffers are copied to direct pages of the selector rather than to temporary direct buffers of the JDK
+            return (int) selector.getBufferPool().write(rawChannel, buffers);
         } catch (IOException e) {
             closeNow = true;
             throw e;
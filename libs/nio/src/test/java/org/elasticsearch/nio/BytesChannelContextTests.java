@@ -32,6 +32,7 @@ import java.util.function.Consumer;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -64,6 +65,7 @@ public class BytesChannelContextTests extends ESTestCase {
         context = new BytesChannelContext(channel, selector, mock(Consumer.class), handler, channelBuffer);
 
         when(selector.isOnCurrentThread()).thenReturn(true);
+        when(selector.getBufferPool()).thenReturn(new DirectBufferPool(() -> true, 16, Long.MAX_VALUE));
     }
 
     public void testSuccessfulRead() throws IOException {
@@ -168,7 +170,7 @@ public class BytesChannelContextTests extends ESTestCase {
         when(flushOperation.getListener()).thenReturn(listener);
         context.flushChannel();
 
-        verify(rawChannel).write(buffers, 0, buffers.length);
+        verify(rawChannel).write(any(ByteBuffer[].class), eq(0), eq(1));
         verify(selector).executeListener(listener, null);
         assertFalse(context.readyForFlush());
     }
@@ -231,7 +233,7 @@ public class BytesChannelContextTests extends ESTestCase {
 
         IOException exception = new IOException();
         when(flushOperation.getBuffersToWrite()).thenReturn(buffers);
-        when(rawChannel.write(buffers, 0, buffers.length)).thenThrow(exception);
+        when(rawChannel.write(any(ByteBuffer[].class), eq(0), eq(1))).thenThrow(exception);
         when(flushOperation.getListener()).thenReturn(listener);
         expectThrows(IOException.class, () -> context.flushChannel());
 
@@ -246,7 +248,7 @@ public class BytesChannelContextTests extends ESTestCase {
 
         IOException exception = new IOException();
         when(flushOperation.getBuffersToWrite()).thenReturn(buffers);
-        when(rawChannel.write(buffers, 0, buffers.length)).thenThrow(exception);
+        when(rawChannel.write(any(ByteBuffer[].class), eq(0), eq(1))).thenThrow(exception);
 
         assertFalse(context.selectorShouldClose());
         expectThrows(IOException.class, () -> context.flushChannel());
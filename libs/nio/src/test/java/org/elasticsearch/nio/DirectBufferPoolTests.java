@@ -0,0 +1,201 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.nio;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class DirectBufferPoolTests extends ESTestCase {
+
+    public void testPagesAreReused() {
+        DirectBufferPool pool = new DirectBufferPool(() -> true, 1, Long.MAX_VALUE);
+        InboundChannelBuffer.Page first = pool.acquirePage();
+        assertTrue(first.getByteBuffer().isDirect());
+        assertEquals(DirectBufferPool.PAGE_SIZE, first.getByteBuffer().capacity());
+        InboundChannelBuffer.Page second = pool.acquirePage();
+        assertEquals(0, pool.getHits());
+        assertEquals(2, pool.getMisses());
+        assertEquals(2 * DirectBufferPool.PAGE_SIZE, pool.getBytesInUse());
+
+        first.getByteBuffer().put((byte) 1);
+        first.close();
+        // the pool is full, so this page is dropped
+        second.close();
+        assertEquals(0, pool.getBytesInUse());
+        assertEquals(DirectBufferPool.PAGE_SIZE, pool.getPooledBytes());
+
+        InboundChannelBuffer.Page third = pool.acquirePage();
+        assertEquals(1, pool.getHits());
+        assertEquals(0, pool.getPooledBytes());
+        assertEquals(0, third.getByteBuffer().position());
+        assertEquals(DirectBufferPool.PAGE_SIZE, third.getByteBuffer().remaining());
+        third.close();
+    }
+
+    public void testPagesReleasedFromOtherThreadsAreNotPooled() {
+        AtomicBoolean isOwnerThread = new AtomicBoolean(true);
+        DirectBufferPool pool = new DirectBufferPool(isOwnerThread::get, 16, Long.MAX_VALUE);
+        InboundChannelBuffer.Page page = pool.acquirePage();
+        isOwnerThread.set(false);
+        page.close();
+        assertEquals(0, pool.getBytesInUse());
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    public void testWriteCopiesHeapBuffers() throws IOException {
+        DirectBufferPool pool = new DirectBufferPool(() -> true, 32, Long.MAX_VALUE);
+        int maxLength = DirectBufferPool.PAGE_SIZE * (DirectBufferPool.MAX_WRITE_PAGES + 2);
+        byte[] expected = randomByteArrayOfLength(randomIntBetween(1, maxLength));
+        int split = randomIntBetween(0, expected.length);
+        ByteBuffer[] buffers = {ByteBuffer.wrap(expected, 0, split), ByteBuffer.wrap(expected, split, expected.length - split)};
+        TestChannel channel = new TestChannel();
+
+        long total = 0;
+        while (buffers[0].hasRemaining() || buffers[1].hasRemaining()) {
+            long written = pool.write(channel, buffers);
+            assertTrue(written > 0);
+            assertTrue(written <= DirectBufferPool.PAGE_SIZE * DirectBufferPool.MAX_WRITE_PAGES);
+            total += written;
+            assertEquals(total, buffers[0].position() + buffers[1].position() - split);
+            assertEquals(0, pool.getBytesInUse());
+        }
+        assertEquals(expected.length, total);
+        assertArrayEquals(expected, channel.bytes.toByteArray());
+        assertTrue(channel.allDirect);
+    }
+
+    public void testBytesInUseAreCapped() {
+        final int maxPages = randomIntBetween(1, 8);
+        DirectBufferPool pool = new DirectBufferPool(() -> true, 16, maxPages * DirectBufferPool.PAGE_SIZE);
+        List<InboundChannelBuffer.Page> pages = new ArrayList<>();
+        for (int i = 0; i < maxPages + randomIntBetween(1, 8); i++) {
+            InboundChannelBuffer.Page page = pool.acquirePage();
+            assertEquals(i < maxPages, page.getByteBuffer().isDirect());
+            assertEquals(DirectBufferPool.PAGE_SIZE, page.getByteBuffer().capacity());
+            assertThat(pool.getBytesInUse(), lessThanOrEqualTo((long) maxPages * DirectBufferPool.PAGE_SIZE));
+            pages.add(page);
+        }
+        assertEquals(maxPages, pool.getMisses());
+
+        // pages of the fallback supplier are used past the cap
+        AtomicBoolean fallback = new AtomicBoolean(false);
+        InboundChannelBuffer.Page fallbackPage = pool.acquirePage(() -> {
+            fallback.set(true);
+            return new InboundChannelBuffer.Page(ByteBuffer.allocate(DirectBufferPool.PAGE_SIZE), () -> {});
+        });
+        assertTrue(fallback.get());
+        fallbackPage.close();
+
+        // releasing a direct page makes room for another one
+        pages.remove(0).close();
+        InboundChannelBuffer.Page page = pool.acquirePage();
+        assertTrue(page.getByteBuffer().isDirect());
+        assertEquals(1, pool.getHits());
+        pages.add(page);
+
+        for (InboundChannelBuffer.Page p : pages) {
+            p.close();
+        }
+        assertEquals(0, pool.getBytesInUse());
+    }
+
+    public void testWriteWithExhaustedPool() throws IOException {
+        DirectBufferPool pool = new DirectBufferPool(() -> true, 16, DirectBufferPool.PAGE_SIZE);
+        InboundChannelBuffer.Page page = pool.acquirePage();
+        byte[] expected = randomByteArrayOfLength(randomIntBetween(1, 4 * DirectBufferPool.PAGE_SIZE));
+        ByteBuffer[] buffers = {ByteBuffer.wrap(expected)};
+        TestChannel channel = new TestChannel();
+
+        while (buffers[0].hasRemaining()) {
+            assertTrue(pool.write(channel, buffers) > 0);
+            assertEquals(DirectBufferPool.PAGE_SIZE, pool.getBytesInUse());
+        }
+        assertArrayEquals(expected, channel.bytes.toByteArray());
+        // the heap buffers were written as they are since the pool had no page left
+        assertFalse(channel.allDirect);
+        assertEquals(1, pool.getMisses());
+        page.close();
+    }
+
+    public void testWriteDirectBuffers() throws IOException {
+        DirectBufferPool pool = new DirectBufferPool(() -> true, 16, Long.MAX_VALUE);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(randomIntBetween(1, 1024));
+        TestChannel channel = new TestChannel();
+        assertEquals(buffer.capacity(), pool.write(channel, new ByteBuffer[] {buffer}));
+        assertFalse(buffer.hasRemaining());
+        assertEquals(0, pool.getMisses());
+    }
+
+    /**
+     * A channel that writes a random number of the remaining bytes and records whether it was only given direct buffers.
+     */
+    private static class TestChannel implements GatheringByteChannel {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private boolean allDirect = true;
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            long remaining = 0;
+            for (int i = offset; i < offset + length; i++) {
+                remaining += srcs[i].remaining();
+            }
+            long toWrite = randomLongBetween(Math.min(1, remaining), remaining);
+            long written = 0;
+            for (int i = offset; i < offset + length && written < toWrite; i++) {
+                allDirect &= srcs[i].isDirect();
+                int count = (int) Math.min(srcs[i].remaining(), toWrite - written);
+                byte[] copy = new byte[count];
+                srcs[i].get(copy);
+                bytes.write(copy, 0, count);
+                written += count;
+            }
+            return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[] {src});
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
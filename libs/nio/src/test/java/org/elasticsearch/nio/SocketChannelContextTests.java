@@ -71,6 +71,7 @@ public class SocketChannelContextTests extends ESTestCase {
         context = new TestSocketChannelContext(channel, selector, exceptionHandler, readWriteHandler, channelBuffer);
 
         when(selector.isOnCurrentThread()).thenReturn(true);
+        when(selector.getBufferPool()).thenReturn(new DirectBufferPool(() -> true, 16, Long.MAX_VALUE));
     }
 
     public void testIOExceptionSetIfEncountered() throws IOException {
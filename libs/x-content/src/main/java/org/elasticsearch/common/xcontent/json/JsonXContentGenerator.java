@@ -71,6 +71,8 @@ public class JsonXContentGenerator implements XContentGenerator {
     private static final SerializedString LF = new SerializedString("\n");
     private static final DefaultPrettyPrinter.Indenter INDENTER = new DefaultIndenter("  ", LF.getValue());
     private boolean prettyPrint = false;
+    // the buffer that raw fields and values are copied with, which is reused as responses may hold many of them, e.g. search hits
+    private byte[] copyBuffer;
 
     public JsonXContentGenerator(JsonGenerator jsonGenerator, OutputStream os, Set<String> includes, Set<String> excludes) {
         Objects.requireNonNull(includes, "Including filters must not be null");
@@ -370,12 +372,12 @@ public class JsonXContentGenerator implements XContentGenerator {
     }
 
     // A basic copy of Java 9's InputStream#transferTo
-    private static long transfer(InputStream in, OutputStream out) throws IOException {
+    private long transfer(InputStream in, OutputStream out) throws IOException {
         Objects.requireNonNull(out, "out");
         long transferred = 0;
-        byte[] buffer = new byte[8192];
+        byte[] buffer = copyBuffer();
         int read;
-        while ((read = in.read(buffer, 0, 8192)) >= 0) {
+        while ((read = in.read(buffer, 0, buffer.length)) >= 0) {
             out.write(buffer, 0, read);
             transferred += read;
         }
@@ -490,10 +492,10 @@ public class JsonXContentGenerator implements XContentGenerator {
      * @return the number of bytes copied
      * @throws IOException in case of I/O errors
      */
-    private static long copyStream(InputStream in, OutputStream out) throws IOException {
+    private long copyStream(InputStream in, OutputStream out) throws IOException {
         Objects.requireNonNull(in, "No InputStream specified");
         Objects.requireNonNull(out, "No OutputStream specified");
-        final byte[] buffer = new byte[8192];
+        final byte[] buffer = copyBuffer();
         boolean success = false;
         try {
             long byteCount = 0;
@@ -513,4 +515,11 @@ public class JsonXContentGenerator implements XContentGenerator {
             }
         }
     }
+
+    private byte[] copyBuffer() {
+        if (copyBuffer == null) {
+            copyBuffer = new byte[8192];
+        }
+        return copyBuffer;
+    }
 }
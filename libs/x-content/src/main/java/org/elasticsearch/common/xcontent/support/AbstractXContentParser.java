@@ -111,7 +111,7 @@ public abstract class AbstractXContentParser implements XContentParser {
         if (token == Token.VALUE_STRING) {
             checkCoerceString(coerce, Short.class);
 
-            double doubleValue = Double.parseDouble(text());
+            double doubleValue = stringToDouble();
 
             if (doubleValue < Short.MIN_VALUE || doubleValue > Short.MAX_VALUE) {
                 throw new IllegalArgumentException("Value [" + text() + "] is out of range for a short");
@@ -136,7 +136,7 @@ public abstract class AbstractXContentParser implements XContentParser {
         Token token = currentToken();
         if (token == Token.VALUE_STRING) {
             checkCoerceString(coerce, Integer.class);
-            double doubleValue = Double.parseDouble(text());
+            double doubleValue = stringToDouble();
 
             if (doubleValue < Integer.MIN_VALUE || doubleValue > Integer.MAX_VALUE) {
                 throw new IllegalArgumentException("Value [" + text() + "] is out of range for an integer");
@@ -151,6 +151,57 @@ public abstract class AbstractXContentParser implements XContentParser {
 
     protected abstract int doIntValue() throws IOException;
 
+    // longs of at most 18 digits can't overflow, and doubles hold integers of at most 15 digits exactly
+    private static final int MAX_SIMPLE_LONG_DIGITS = 18;
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+
+    /**
+     * Whether the characters are an optional sign followed by at most {@link #MAX_SIMPLE_LONG_DIGITS} digits, which
+     * {@link #parseSimpleLong(char[], int, int)} parses without creating a {@link String} first. Numbers in strings are common in
+     * logs, and anything else is left to the JDK.
+     */
+    private static boolean isSimpleLong(char[] chars, int offset, int length) {
+        int start = offset;
+        if (length > 0 && (chars[start] == '-' || chars[start] == '+')) {
+            start++;
+        }
+        final int end = offset + length;
+        if (start == end || end - start > MAX_SIMPLE_LONG_DIGITS) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (chars[i] < '0' || chars[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseSimpleLong(char[] chars, int offset, int length) {
+        final boolean negative = chars[offset] == '-';
+        int i = chars[offset] == '-' || chars[offset] == '+' ? offset + 1 : offset;
+        long value = 0;
+        for (final int end = offset + length; i < end; i++) {
+            value = value * 10 + (chars[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the current string value as a double, without creating a {@link String} if it is a small integer.
+     */
+    private double stringToDouble() throws IOException {
+        final char[] chars = textCharacters();
+        final int offset = textOffset();
+        final int length = textLength();
+        if (length <= MAX_EXACT_DOUBLE_DIGITS && isSimpleLong(chars, offset, length)) {
+            final long value = parseSimpleLong(chars, offset, length);
+            // Double.parseDouble returns negative zero for "-0"
+            return value == 0 && chars[offset] == '-' ? -0.0d : value;
+        }
+        return Double.parseDouble(text());
+    }
+
     /** Return the long that {@code stringValue} stores or throws an exception if the
      *  stored value cannot be converted to a long that stores the exact same
      *  value and {@code coerce} is false. */
@@ -189,6 +240,10 @@ public abstract class AbstractXContentParser implements XContentParser {
         Token token = currentToken();
         if (token == Token.VALUE_STRING) {
             checkCoerceString(coerce, Long.class);
+            final char[] chars = textCharacters();
+            if (isSimpleLong(chars, textOffset(), textLength())) {
+                return parseSimpleLong(chars, textOffset(), textLength());
+            }
             return toLong(text(), coerce);
         }
         long result = doLongValue();
@@ -26,6 +26,7 @@ import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -86,6 +87,44 @@ public class XContentParserTests extends ESTestCase {
         }
     }
 
+    public void testNumbersInStrings() throws IOException {
+        final long longValue = randomFrom(randomLong(), randomIntBetween(-1000, 1000), 0L, Long.MAX_VALUE, Long.MIN_VALUE);
+        final String[] strings = new String[] {
+            Long.toString(longValue),
+            "+" + Math.abs(longValue / 10),
+            "-0",
+            Long.toString(longValue / 1000) + ".9",
+            randomIntBetween(1, 1000) + "e3",
+            " " + randomIntBetween(0, 1000)
+        };
+        for (String string : strings) {
+            try (XContentParser parser = createParser(JsonXContent.jsonXContent, "{\"field\":\"" + string + "\"}")) {
+                assertEquals(XContentParser.Token.START_OBJECT, parser.nextToken());
+                assertEquals(XContentParser.Token.FIELD_NAME, parser.nextToken());
+                assertEquals(XContentParser.Token.VALUE_STRING, parser.nextToken());
+
+                final double doubleValue = Double.parseDouble(string);
+                assertEquals(string, Double.doubleToLongBits(doubleValue), Double.doubleToLongBits(parser.doubleValue()));
+                if (doubleValue >= Integer.MIN_VALUE && doubleValue <= Integer.MAX_VALUE) {
+                    assertEquals(string, (int) doubleValue, parser.intValue());
+                } else {
+                    expectThrows(IllegalArgumentException.class, parser::intValue);
+                }
+                if (doubleValue >= Short.MIN_VALUE && doubleValue <= Short.MAX_VALUE) {
+                    assertEquals(string, (short) doubleValue, parser.shortValue());
+                } else {
+                    expectThrows(IllegalArgumentException.class, parser::shortValue);
+                }
+                if (string.startsWith(" ")) {
+                    expectThrows(IllegalArgumentException.class, parser::longValue);
+                } else {
+                    assertEquals(string, new BigDecimal(string).toBigInteger().longValueExact(), parser.longValue());
+                }
+                expectThrows(IllegalArgumentException.class, () -> parser.longValue(false));
+            }
+        }
+    }
+
     public void testReadList() throws IOException {
         assertThat(readList("{\"foo\": [\"bar\"]}"), contains("bar"));
         assertThat(readList("{\"foo\": [\"bar\",\"baz\"]}"), contains("bar", "baz"));
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.ingest.common;
 
+import org.elasticsearch.common.time.FastDateParser;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormat;
@@ -32,7 +33,12 @@ enum DateFormat {
     Iso8601 {
         @Override
         Function<String, DateTime> getFunction(String format, DateTimeZone timezone, Locale locale) {
-            return ISODateTimeFormat.dateTimeParser().withZone(timezone)::parseDateTime;
+            DateTimeFormatter parser = ISODateTimeFormat.dateTimeParser().withZone(timezone);
+            boolean utc = DateTimeZone.UTC.equals(timezone);
+            return text -> {
+                long millis = FastDateParser.parseIsoMillis(text, utc);
+                return millis == FastDateParser.UNPARSED ? parser.parseDateTime(text) : new DateTime(millis, timezone);
+            };
         }
     },
     Unix {
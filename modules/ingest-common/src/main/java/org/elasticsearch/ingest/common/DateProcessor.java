@@ -61,7 +61,13 @@ public final class DateProcessor extends AbstractProcessor {
         this.dateParsers = new ArrayList<>(this.formats.size());
         for (String format : formats) {
             DateFormat dateFormat = DateFormat.fromString(format);
-            dateParsers.add((params) -> dateFormat.getFunction(format, newDateTimeZone(params), newLocale(params)));
+            if (timezone == null && locale == null) {
+                // nothing depends on the document, so the parser can be built once rather than for every document
+                Function<String, DateTime> function = dateFormat.getFunction(format, DateTimeZone.UTC, Locale.ROOT);
+                dateParsers.add((params) -> function);
+            } else {
+                dateParsers.add((params) -> dateFormat.getFunction(format, newDateTimeZone(params), newLocale(params)));
+            }
         }
     }
 
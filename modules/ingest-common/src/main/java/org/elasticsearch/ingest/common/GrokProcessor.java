@@ -19,27 +19,31 @@
 
 package org.elasticsearch.ingest.common;
 
-import org.elasticsearch.grok.Grok;
+import org.elasticsearch.grok.GrokPatternSet;
 import org.elasticsearch.grok.ThreadWatchdog;
 import org.elasticsearch.ingest.AbstractProcessor;
 import org.elasticsearch.ingest.ConfigurationUtils;
+import org.elasticsearch.ingest.DetailedStatsProcessor;
 import org.elasticsearch.ingest.IngestDocument;
+import org.elasticsearch.ingest.IngestStats;
 import org.elasticsearch.ingest.Processor;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.elasticsearch.ingest.ConfigurationUtils.newConfigurationException;
 
-public final class GrokProcessor extends AbstractProcessor {
+public final class GrokProcessor extends AbstractProcessor implements DetailedStatsProcessor {
 
     public static final String TYPE = "grok";
     private static final String PATTERN_MATCH_KEY = "_ingest._grok_match_index";
 
     private final String matchField;
     private final List<String> matchPatterns;
-    private final Grok grok;
+    private final GrokPatternSet grok;
     private final boolean traceMatch;
     private final boolean ignoreMissing;
 
@@ -48,7 +52,7 @@ public final class GrokProcessor extends AbstractProcessor {
         super(tag);
         this.matchField = matchField;
         this.matchPatterns = matchPatterns;
-        this.grok = new Grok(patternBank, combinePatterns(matchPatterns, traceMatch), threadWatchdog);
+        this.grok = new GrokPatternSet(patternBank, matchPatterns, threadWatchdog);
         this.traceMatch = traceMatch;
         this.ignoreMissing = ignoreMissing;
     }
@@ -63,23 +67,15 @@ public final class GrokProcessor extends AbstractProcessor {
             throw new IllegalArgumentException("field [" + matchField + "] is null, cannot process it.");
         }
 
-        Map<String, Object> matches = grok.captures(fieldValue);
-        if (matches == null) {
+        GrokPatternSet.Match match = grok.captures(fieldValue);
+        if (match == null) {
             throw new IllegalArgumentException("Provided Grok expressions do not match field value: [" + fieldValue + "]");
         }
 
-        matches.forEach(ingestDocument::setFieldValue);
+        match.getCaptures().forEach(ingestDocument::setFieldValue);
 
         if (traceMatch) {
-            if (matchPatterns.size() > 1) {
-                @SuppressWarnings("unchecked")
-                HashMap<String, String> matchMap = (HashMap<String, String>) ingestDocument.getFieldValue(PATTERN_MATCH_KEY, Object.class);
-                matchMap.keySet().stream().findFirst().ifPresent((index) -> {
-                    ingestDocument.setFieldValue(PATTERN_MATCH_KEY, index);
-                });
-            } else {
-                ingestDocument.setFieldValue(PATTERN_MATCH_KEY, "0");
-            }
+            ingestDocument.setFieldValue(PATTERN_MATCH_KEY, Integer.toString(match.getPattern()));
         }
         return ingestDocument;
     }
@@ -89,7 +85,22 @@ public final class GrokProcessor extends AbstractProcessor {
         return TYPE;
     }
 
-    Grok getGrok() {
+    /**
+     * Reports the statistics of each pattern keyed by its index: the number of times it was run, the time spent running it and
+     * the number of runs that didn't produce the match. Patterns that were skipped because the field value lacks a literal they
+     * require aren't counted.
+     */
+    @Override
+    public Map<String, IngestStats.DetailedStats> getDetailedStats() {
+        Map<String, IngestStats.DetailedStats> detailedStats = new LinkedHashMap<>(grok.size());
+        for (int i = 0; i < grok.size(); i++) {
+            detailedStats.put(Integer.toString(i), new IngestStats.DetailedStats(grok.getAttempts(i),
+                TimeUnit.NANOSECONDS.toMillis(grok.getTimeInNanos(i)), grok.getMisses(i)));
+        }
+        return detailedStats;
+    }
+
+    GrokPatternSet getGrok() {
         return grok;
     }
 
@@ -105,31 +116,6 @@ public final class GrokProcessor extends AbstractProcessor {
         return matchPatterns;
     }
 
-    static String combinePatterns(List<String> patterns, boolean traceMatch) {
-        String combinedPattern;
-        if (patterns.size() > 1) {
-            combinedPattern = "";
-            for (int i = 0; i < patterns.size(); i++) {
-                String pattern = patterns.get(i);
-                String valueWrap;
-                if (traceMatch) {
-                    valueWrap = "(?<" + PATTERN_MATCH_KEY + "." + i + ">" + pattern + ")";
-                } else {
-                    valueWrap = "(?:" + patterns.get(i) + ")";
-                }
-                if (combinedPattern.equals("")) {
-                    combinedPattern = valueWrap;
-                } else {
-                    combinedPattern = combinedPattern + "|" + valueWrap;
-                }
-            }
-        }  else {
-            combinedPattern = patterns.get(0);
-        }
-
-        return combinedPattern;
-    }
-
     public static final class Factory implements Processor.Factory {
 
         private final Map<String, String> builtinPatterns;
@@ -21,6 +21,7 @@ package org.elasticsearch.ingest.common;
 
 import org.elasticsearch.grok.ThreadWatchdog;
 import org.elasticsearch.ingest.IngestDocument;
+import org.elasticsearch.ingest.IngestStats;
 import org.elasticsearch.ingest.RandomDocumentPicks;
 import org.elasticsearch.test.ESTestCase;
 
@@ -30,6 +31,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.elasticsearch.ingest.IngestDocumentMatcher.assertIngestDocument;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 
 
@@ -182,20 +184,47 @@ public class GrokProcessorTests extends ESTestCase {
         assertThat(doc.getFieldValue("_ingest._grok_match_index", String.class), equalTo("0"));
     }
 
-    public void testCombinedPatterns() {
-        String combined;
-        combined = GrokProcessor.combinePatterns(Arrays.asList(""), false);
-        assertThat(combined, equalTo(""));
-        combined = GrokProcessor.combinePatterns(Arrays.asList(""), true);
-        assertThat(combined, equalTo(""));
-        combined = GrokProcessor.combinePatterns(Arrays.asList("foo"), false);
-        assertThat(combined, equalTo("foo"));
-        combined = GrokProcessor.combinePatterns(Arrays.asList("foo"), true);
-        assertThat(combined, equalTo("foo"));
-        combined = GrokProcessor.combinePatterns(Arrays.asList("foo", "bar"), false);
-        assertThat(combined, equalTo("(?:foo)|(?:bar)"));
-        combined = GrokProcessor.combinePatterns(Arrays.asList("foo", "bar"), true);
-        assertThat(combined, equalTo("(?<_ingest._grok_match_index.0>foo)|(?<_ingest._grok_match_index.1>bar)"));
+    public void testDetailedStats() throws Exception {
+        String fieldName = RandomDocumentPicks.randomFieldName(random());
+        Map<String, String> patternBank = new HashMap<>();
+        patternBank.put("NUMBER", "\\d+");
+        GrokProcessor processor = new GrokProcessor(randomAlphaOfLength(10), patternBank,
+            Arrays.asList("GET %{NUMBER:get}", "POST %{NUMBER:post}", "%{NUMBER:other}"), fieldName, true, false, ThreadWatchdog.noop());
+
+        IngestDocument doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        doc.setFieldValue(fieldName, "POST 42");
+        processor.execute(doc);
+        assertThat(doc.getFieldValue("post", String.class), equalTo("42"));
+        assertThat(doc.getFieldValue("_ingest._grok_match_index", String.class), equalTo("1"));
+
+        Map<String, IngestStats.DetailedStats> stats = processor.getDetailedStats();
+        assertThat(stats.keySet(), contains("0", "1", "2"));
+        // the first pattern is skipped since the value doesn't contain "GET "
+        assertThat(stats.get("0").getCount(), equalTo(0L));
+        assertThat(stats.get("1").getCount(), equalTo(1L));
+        assertThat(stats.get("1").getNoMatchCount(), equalTo(0L));
+        // the last pattern can't be prefiltered, but it isn't needed once a match starts at the beginning of the value
+        assertThat(stats.get("2").getCount(), equalTo(0L));
+
+        doc.setFieldValue(fieldName, "PUT 7");
+        processor.execute(doc);
+        assertThat(doc.getFieldValue("other", String.class), equalTo("7"));
+        assertThat(doc.getFieldValue("_ingest._grok_match_index", String.class), equalTo("2"));
+        stats = processor.getDetailedStats();
+        assertThat(stats.get("0").getCount(), equalTo(0L));
+        assertThat(stats.get("1").getCount(), equalTo(1L));
+        assertThat(stats.get("2").getCount(), equalTo(1L));
+        assertThat(stats.get("2").getNoMatchCount(), equalTo(0L));
+
+        // patterns that pass the prefilter but don't match are counted as no match
+        doc.setFieldValue(fieldName, "GET none");
+        expectThrows(IllegalArgumentException.class, () -> processor.execute(doc));
+        stats = processor.getDetailedStats();
+        assertThat(stats.get("0").getCount(), equalTo(1L));
+        assertThat(stats.get("0").getNoMatchCount(), equalTo(1L));
+        assertThat(stats.get("1").getCount(), equalTo(1L));
+        assertThat(stats.get("2").getCount(), equalTo(2L));
+        assertThat(stats.get("2").getNoMatchCount(), equalTo(1L));
     }
 
     public void testCombineSamePatternNameAcrossPatterns() throws Exception {
@@ -0,0 +1,146 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script.expression;
+
+import org.apache.lucene.expressions.Expression;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.queries.function.FunctionValues;
+import org.apache.lucene.queries.function.ValueSource;
+import org.apache.lucene.search.DoubleValues;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Evaluates an expression over blocks of consecutive doc ids of a segment. The values of every variable are read for the
+ * whole block into primitive arrays, one variable at a time, before the expression is evaluated for each document of the
+ * block. This replaces the chain of virtual calls through the {@link org.apache.lucene.search.DoubleValuesSource}s of the
+ * expression with tight loops, which pays off when scoring or sorting large numbers of matching documents.
+ * <p>
+ * The size of the blocks adapts to how many of their documents are actually asked for, so that sparse matches don't
+ * read much more than the doc-at-a-time evaluation would. Doc ids must be asked for in increasing order.
+ */
+final class ExpressionBlockEvaluator {
+
+    static final int MIN_BLOCK_SIZE = 1;
+    static final int INITIAL_BLOCK_SIZE = 16;
+    static final int MAX_BLOCK_SIZE = 256;
+
+    private final Expression expression;
+    private final FunctionValues[] functionValues;
+    private final double[][] values;
+    private final DoubleValues[] blockValues;
+    private final double[] results = new double[MAX_BLOCK_SIZE];
+    private final int maxDoc;
+
+    private int blockSize = INITIAL_BLOCK_SIZE;
+    private int blockStart = 0;
+    private int blockEnd = 0;
+    private int docsRead = 0;
+    // the position in the block of the document the variables are evaluated for
+    private int position;
+
+    /**
+     * @param sources the value sources of the variables of the expression, in the order of {@link Expression#variables}
+     */
+    ExpressionBlockEvaluator(Expression expression, ValueSource[] sources, LeafReaderContext leaf) throws IOException {
+        this.expression = expression;
+        this.maxDoc = leaf.reader().maxDoc();
+        Map<Object, Object> context = new HashMap<>();
+        this.functionValues = new FunctionValues[sources.length];
+        this.values = new double[sources.length][MAX_BLOCK_SIZE];
+        this.blockValues = new DoubleValues[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            functionValues[i] = sources[i].getValues(context, leaf);
+            blockValues[i] = new BlockDoubleValues(values[i]);
+        }
+    }
+
+    /**
+     * Whether the value sources of all variables are known, which isn't the case for special variables like {@code _score}.
+     */
+    static boolean canEvaluate(ValueSource[] sources) {
+        for (ValueSource source : sources) {
+            if (source == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates the expression for the given document, along with the following documents of its block if the document
+     * isn't part of the current block.
+     */
+    double evaluate(int doc) throws IOException {
+        if (doc < blockStart || doc >= blockEnd) {
+            nextBlock(doc);
+        }
+        docsRead++;
+        return results[doc - blockStart];
+    }
+
+    private void nextBlock(int doc) throws IOException {
+        if (blockEnd > blockStart) {
+            int previousSize = blockEnd - blockStart;
+            if (docsRead * 2 >= previousSize) {
+                blockSize = Math.min(blockSize * 2, MAX_BLOCK_SIZE);
+            } else if (docsRead * 8 < previousSize) {
+                blockSize = Math.max(blockSize / 2, MIN_BLOCK_SIZE);
+            }
+        }
+        blockStart = doc;
+        blockEnd = Math.min(doc + blockSize, maxDoc);
+        docsRead = 0;
+        final int length = blockEnd - blockStart;
+        for (int i = 0; i < functionValues.length; i++) {
+            final FunctionValues docValues = functionValues[i];
+            final double[] variableValues = values[i];
+            for (int j = 0; j < length; j++) {
+                variableValues[j] = docValues.doubleVal(blockStart + j);
+            }
+        }
+        for (position = 0; position < length; position++) {
+            results[position] = expression.evaluate(blockValues);
+        }
+    }
+
+    /**
+     * The value of a variable for the document of the block that the expression is evaluated for.
+     */
+    private final class BlockDoubleValues extends DoubleValues {
+        private final double[] values;
+
+        BlockDoubleValues(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public double doubleValue() {
+            return values[position];
+        }
+
+        @Override
+        public boolean advanceExact(int doc) {
+            return true;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.lucene.expressions.Bindings;
 import org.apache.lucene.expressions.Expression;
 import org.apache.lucene.expressions.SimpleBindings;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.queries.function.ValueSource;
 import org.apache.lucene.search.DoubleValues;
 import org.apache.lucene.search.DoubleValuesSource;
 import org.elasticsearch.script.GeneralScriptException;
@@ -39,16 +40,25 @@ class ExpressionNumberSortScript implements NumberSortScript.LeafFactory {
     final SimpleBindings bindings;
     final DoubleValuesSource source;
     final boolean needsScores;
+    final ValueSource[] variableSources;
 
-    ExpressionNumberSortScript(Expression e, SimpleBindings b, boolean needsScores) {
+    /**
+     * @param variableSources the value sources bound to the variables of the expression, with {@code null} for the ones that
+     *                        can only be evaluated one document at a time like {@code _score}
+     */
+    ExpressionNumberSortScript(Expression e, SimpleBindings b, boolean needsScores, ValueSource[] variableSources) {
         exprScript = e;
         bindings = b;
         source = exprScript.getDoubleValuesSource(bindings);
         this.needsScores = needsScores;
+        this.variableSources = variableSources;
     }
 
     @Override
     public NumberSortScript newInstance(final LeafReaderContext leaf) throws IOException {
+        if (leaf != null && needsScores == false && ExpressionBlockEvaluator.canEvaluate(variableSources)) {
+            return newBlockInstance(leaf);
+        }
         return new NumberSortScript() {
             // Fake the scorer until setScorer is called.
             DoubleValues values = source.getValues(leaf, new DoubleValues() {
@@ -83,6 +93,27 @@ class ExpressionNumberSortScript implements NumberSortScript.LeafFactory {
         };
     }
 
+    private NumberSortScript newBlockInstance(final LeafReaderContext leaf) throws IOException {
+        final ExpressionBlockEvaluator evaluator = new ExpressionBlockEvaluator(exprScript, variableSources, leaf);
+        return new NumberSortScript() {
+            double value;
+
+            @Override
+            public double execute() {
+                return value;
+            }
+
+            @Override
+            public void setDocument(int d) {
+                try {
+                    value = evaluator.evaluate(d);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Can't advance to doc using " + exprScript, e);
+                }
+            }
+        };
+    }
+
     @Override
     public boolean needs_score() {
         return needsScores;
@@ -23,6 +23,7 @@ import org.apache.lucene.expressions.Bindings;
 import org.apache.lucene.expressions.Expression;
 import org.apache.lucene.expressions.SimpleBindings;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.queries.function.ValueSource;
 import org.apache.lucene.search.DoubleValues;
 import org.apache.lucene.search.DoubleValuesSource;
 import org.elasticsearch.script.GeneralScriptException;
@@ -39,11 +40,17 @@ class ExpressionScoreScript implements ScoreScript.LeafFactory {
     private final Expression exprScript;
     private final DoubleValuesSource source;
     private final boolean needsScores;
+    private final ValueSource[] variableSources;
 
-    ExpressionScoreScript(Expression e, SimpleBindings b, boolean needsScores) {
+    /**
+     * @param variableSources the value sources bound to the variables of the expression, with {@code null} for the ones that
+     *                        can only be evaluated one document at a time like {@code _score}
+     */
+    ExpressionScoreScript(Expression e, SimpleBindings b, boolean needsScores, ValueSource[] variableSources) {
         this.exprScript = e;
         this.source = exprScript.getDoubleValuesSource(b);
         this.needsScores = needsScores;
+        this.variableSources = variableSources;
     }
 
     @Override
@@ -53,6 +60,9 @@ class ExpressionScoreScript implements ScoreScript.LeafFactory {
 
     @Override
     public ScoreScript newInstance(final LeafReaderContext leaf) throws IOException {
+        if (leaf != null && needsScores == false && ExpressionBlockEvaluator.canEvaluate(variableSources)) {
+            return newBlockInstance(leaf);
+        }
         return new ScoreScript(null, null, null) {
             // Fake the scorer until setScorer is called.
             DoubleValues values = source.getValues(leaf, new DoubleValues() {
@@ -87,4 +97,25 @@ class ExpressionScoreScript implements ScoreScript.LeafFactory {
         };
     }
 
+    private ScoreScript newBlockInstance(final LeafReaderContext leaf) throws IOException {
+        final ExpressionBlockEvaluator evaluator = new ExpressionBlockEvaluator(exprScript, variableSources, leaf);
+        return new ScoreScript(null, null, null) {
+            double value;
+
+            @Override
+            public double execute() {
+                return value;
+            }
+
+            @Override
+            public void setDocument(int d) {
+                try {
+                    value = evaluator.evaluate(d);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Can't advance to doc using " + exprScript, e);
+                }
+            }
+        };
+    }
+
 }
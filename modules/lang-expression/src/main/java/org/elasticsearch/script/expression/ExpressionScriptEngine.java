@@ -170,27 +170,31 @@ public class ExpressionScriptEngine implements ScriptEngine {
         // NOTE: if we need to do anything complicated with bindings in the future, we can just extend Bindings,
         // instead of complicating SimpleBindings (which should stay simple)
         SimpleBindings bindings = new SimpleBindings();
+        // the value sources of the variables, for evaluating the expression over blocks of documents
+        ValueSource[] variableSources = new ValueSource[expr.variables.length];
         boolean needsScores = false;
-        for (String variable : expr.variables) {
+        for (int i = 0; i < expr.variables.length; i++) {
+            String variable = expr.variables[i];
             try {
                 if (variable.equals("_score")) {
                     bindings.add(new SortField("_score", SortField.Type.SCORE));
                     needsScores = true;
                 } else if (vars != null && vars.containsKey(variable)) {
-                    bindFromParams(vars, bindings, variable);
+                    variableSources[i] = bindFromParams(vars, bindings, variable);
                 } else {
                     // delegate valuesource creation based on field's type
                     // there are three types of "fields" to expressions, and each one has a different "api" of variables and methods.
                     final ValueSource valueSource = getDocValueSource(variable, lookup);
                     needsScores |= valueSource.getSortField(false).needsScores();
                     bindings.add(variable, valueSource.asDoubleValuesSource());
+                    variableSources[i] = valueSource;
                 }
             } catch (Exception e) {
                 // we defer "binding" of variables until here: give context for that variable
                 throw convertToScriptException("link error", expr.sourceText, variable, e);
             }
         }
-        return new ExpressionNumberSortScript(expr, bindings, needsScores);
+        return new ExpressionNumberSortScript(expr, bindings, needsScores, variableSources);
     }
 
     private TermsSetQueryScript.LeafFactory newTermsSetQueryScript(Expression expr, SearchLookup lookup,
@@ -289,9 +293,12 @@ public class ExpressionScriptEngine implements ScriptEngine {
         // NOTE: if we need to do anything complicated with bindings in the future, we can just extend Bindings,
         // instead of complicating SimpleBindings (which should stay simple)
         SimpleBindings bindings = new SimpleBindings();
+        // the value sources of the variables, for evaluating the expression over blocks of documents
+        ValueSource[] variableSources = new ValueSource[expr.variables.length];
         ReplaceableConstDoubleValueSource specialValue = null;
         boolean needsScores = false;
-        for (String variable : expr.variables) {
+        for (int i = 0; i < expr.variables.length; i++) {
+            String variable = expr.variables[i];
             try {
                 if (variable.equals("_score")) {
                     bindings.add(new SortField("_score", SortField.Type.SCORE));
@@ -303,20 +310,21 @@ public class ExpressionScriptEngine implements ScriptEngine {
                     // TODO: if some uses it in a scoring expression, they will get a nasty failure when evaluating...need a
                     // way to know this is for aggregations and so _value is ok to have...
                 } else if (vars != null && vars.containsKey(variable)) {
-                    bindFromParams(vars, bindings, variable);
+                    variableSources[i] = bindFromParams(vars, bindings, variable);
                 } else {
                     // delegate valuesource creation based on field's type
                     // there are three types of "fields" to expressions, and each one has a different "api" of variables and methods.
                     final ValueSource valueSource = getDocValueSource(variable, lookup);
                     needsScores |= valueSource.getSortField(false).needsScores();
                     bindings.add(variable, valueSource.asDoubleValuesSource());
+                    variableSources[i] = valueSource;
                 }
             } catch (Exception e) {
                 // we defer "binding" of variables until here: give context for that variable
                 throw convertToScriptException("link error", expr.sourceText, variable, e);
             }
         }
-        return new ExpressionScoreScript(expr, bindings, needsScores);
+        return new ExpressionScoreScript(expr, bindings, needsScores, variableSources);
     }
 
     /**
@@ -428,13 +436,15 @@ public class ExpressionScriptEngine implements ScriptEngine {
     // TODO: document and/or error if params contains _score?
     // NOTE: by checking for the variable in params first, it allows masking document fields with a global constant,
     // but if we were to reverse it, we could provide a way to supply dynamic defaults for documents missing the field?
-    private static void bindFromParams(@Nullable final Map<String, Object> params,
+    private static ValueSource bindFromParams(@Nullable final Map<String, Object> params,
             final SimpleBindings bindings, final String variable) throws ParseException {
         // NOTE: by checking for the variable in vars first, it allows masking document fields with a global constant,
         // but if we were to reverse it, we could provide a way to supply dynamic defaults for documents missing the field?
         Object value = params.get(variable);
         if (value instanceof Number) {
-            bindings.add(variable, new DoubleConstValueSource(((Number) value).doubleValue()).asDoubleValuesSource());
+            ValueSource valueSource = new DoubleConstValueSource(((Number) value).doubleValue());
+            bindings.add(variable, valueSource.asDoubleValuesSource());
+            return valueSource;
         } else {
             throw new ParseException("Parameter [" + variable + "] must be a numeric type", 0);
         }
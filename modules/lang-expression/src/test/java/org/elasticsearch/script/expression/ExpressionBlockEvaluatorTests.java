@@ -0,0 +1,81 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script.expression;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.expressions.Expression;
+import org.apache.lucene.expressions.SimpleBindings;
+import org.apache.lucene.expressions.js.JavascriptCompiler;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.queries.function.ValueSource;
+import org.apache.lucene.queries.function.valuesource.DoubleConstValueSource;
+import org.apache.lucene.queries.function.valuesource.LongFieldSource;
+import org.apache.lucene.search.DoubleValues;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.test.ESTestCase;
+
+public class ExpressionBlockEvaluatorTests extends ESTestCase {
+
+    public void testEvaluateLikeDocValuesSource() throws Exception {
+        Expression expression = JavascriptCompiler.compile("ln(a + 1) * b + c");
+        ValueSource[] sources = new ValueSource[expression.variables.length];
+        SimpleBindings bindings = new SimpleBindings();
+        for (int i = 0; i < expression.variables.length; i++) {
+            String variable = expression.variables[i];
+            sources[i] = variable.equals("c") ? new DoubleConstValueSource(randomDouble()) : new LongFieldSource(variable);
+            bindings.add(variable, sources[i].asDoubleValuesSource());
+        }
+
+        try (Directory directory = newDirectory();
+             RandomIndexWriter writer = new RandomIndexWriter(random(), directory)) {
+            int numDocs = scaledRandomIntBetween(1, 2000);
+            for (int i = 0; i < numDocs; i++) {
+                Document document = new Document();
+                if (randomBoolean()) {
+                    document.add(new NumericDocValuesField("a", randomIntBetween(0, 1000)));
+                }
+                document.add(new NumericDocValuesField("b", randomIntBetween(-100, 100)));
+                writer.addDocument(document);
+            }
+            try (DirectoryReader reader = writer.getReader()) {
+                for (LeafReaderContext leaf : reader.leaves()) {
+                    ExpressionBlockEvaluator evaluator = new ExpressionBlockEvaluator(expression, sources, leaf);
+                    DoubleValues values = expression.getDoubleValuesSource(bindings).getValues(leaf, null);
+                    // mix dense and sparse doc ids so that the blocks grow and shrink
+                    int doc = 0;
+                    while (doc < leaf.reader().maxDoc()) {
+                        assertTrue(values.advanceExact(doc));
+                        assertEquals(values.doubleValue(), evaluator.evaluate(doc), 0.0);
+                        doc += randomBoolean() ? 1 : randomIntBetween(1, 500);
+                    }
+                }
+            }
+        }
+    }
+
+    public void testCanEvaluate() {
+        assertTrue(ExpressionBlockEvaluator.canEvaluate(new ValueSource[0]));
+        assertTrue(ExpressionBlockEvaluator.canEvaluate(new ValueSource[] { new DoubleConstValueSource(1) }));
+        assertFalse(ExpressionBlockEvaluator.canEvaluate(new ValueSource[] { new DoubleConstValueSource(1), null }));
+    }
+}
@@ -27,6 +27,7 @@ import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.index.fielddata.plain.SortedSetDVOrdinalsIndexFieldData;
 import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.join.fielddata.ParentChildrenIndexFieldData;
 import org.elasticsearch.join.mapper.ParentIdFieldMapper;
 import org.elasticsearch.join.mapper.ParentJoinFieldMapper;
 import org.elasticsearch.search.aggregations.AggregationBuilder;
@@ -53,6 +54,7 @@ public class ChildrenAggregationBuilder
     private final String childType;
     private Query parentFilter;
     private Query childFilter;
+    private ParentChildrenIndexFieldData childrenFieldData;
 
     /**
      * @param name
@@ -74,6 +76,7 @@ public class ChildrenAggregationBuilder
         this.childType = clone.childType;
         this.childFilter = clone.childFilter;
         this.parentFilter = clone.parentFilter;
+        this.childrenFieldData = clone.childrenFieldData;
     }
 
     @Override
@@ -99,7 +102,7 @@ public class ChildrenAggregationBuilder
                                                                         ValuesSourceConfig<WithOrdinals> config,
                                                                         AggregatorFactory<?> parent,
                                                                         Builder subFactoriesBuilder) throws IOException {
-        return new ChildrenAggregatorFactory(name, config, childFilter, parentFilter, context, parent,
+        return new ChildrenAggregatorFactory(name, config, childFilter, parentFilter, childrenFieldData, context, parent,
                 subFactoriesBuilder, metaData);
     }
 
@@ -119,6 +122,7 @@ public class ChildrenAggregationBuilder
             MappedFieldType fieldType = parentIdFieldMapper.fieldType();
             final SortedSetDVOrdinalsIndexFieldData fieldData = context.getForField(fieldType);
             config.fieldContext(new FieldContext(fieldType.name(), fieldData, fieldType));
+            childrenFieldData = context.getForField(parentIdFieldMapper.getChildrenFieldType(childType));
         } else {
             config.unmapped(true);
         }
@@ -20,6 +20,7 @@
 package org.elasticsearch.join.aggregations;
 
 import org.apache.lucene.search.Query;
+import org.elasticsearch.join.fielddata.ParentChildrenIndexFieldData;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.AggregatorFactory;
@@ -39,11 +40,13 @@ public class ChildrenAggregatorFactory extends ValuesSourceAggregatorFactory<Wit
 
     private final Query parentFilter;
     private final Query childFilter;
+    private final ParentChildrenIndexFieldData childrenFieldData;
 
     public ChildrenAggregatorFactory(String name,
                                         ValuesSourceConfig<WithOrdinals> config,
                                         Query childFilter,
                                         Query parentFilter,
+                                        ParentChildrenIndexFieldData childrenFieldData,
                                         SearchContext context,
                                         AggregatorFactory<?> parent,
                                         AggregatorFactories.Builder subFactoriesBuilder,
@@ -52,6 +55,7 @@ public class ChildrenAggregatorFactory extends ValuesSourceAggregatorFactory<Wit
 
         this.childFilter = childFilter;
         this.parentFilter = parentFilter;
+        this.childrenFieldData = childrenFieldData;
     }
 
     @Override
@@ -75,7 +79,7 @@ public class ChildrenAggregatorFactory extends ValuesSourceAggregatorFactory<Wit
         long maxOrd = valuesSource.globalMaxOrd(context.searcher());
         if (collectsFromSingleBucket) {
             return new ParentToChildrenAggregator(name, factories, context, parent, childFilter,
-                parentFilter, valuesSource, maxOrd, pipelineAggregators, metaData);
+                parentFilter, childrenFieldData, valuesSource, maxOrd, pipelineAggregators, metaData);
         } else {
             return asMultiBucketAggregator(this, context, parent);
         }
@@ -27,11 +27,16 @@ import org.apache.lucene.search.Scorable;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.util.BitArray;
 import org.elasticsearch.common.util.LongHash;
+import org.elasticsearch.join.fielddata.ParentChildrenAtomicFieldData;
+import org.elasticsearch.join.fielddata.ParentChildrenIndexFieldData;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
@@ -44,6 +49,7 @@ import org.elasticsearch.search.internal.SearchContext;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongUnaryOperator;
 
 /**
  * An aggregator that joins documents based on global ordinals.
@@ -53,6 +59,10 @@ import java.util.Map;
 public abstract class ParentJoinAggregator extends BucketsAggregator implements SingleBucketAggregator {
     private final Weight inFilter;
     private final Weight outFilter;
+    /**
+     * Maps the segment ordinals to the documents that match the <code>outFilter</code> query, if available.
+     */
+    private final ParentChildrenIndexFieldData outFieldData;
     private final ValuesSource.Bytes.WithOrdinals valuesSource;
     private final boolean singleAggregator;
 
@@ -71,6 +81,7 @@ public abstract class ParentJoinAggregator extends BucketsAggregator implements
                                     Aggregator parent,
                                     Query inFilter,
                                     Query outFilter,
+                                    @Nullable ParentChildrenIndexFieldData outFieldData,
                                     ValuesSource.Bytes.WithOrdinals valuesSource,
                                     long maxOrd,
                                     List<PipelineAggregator> pipelineAggregators,
@@ -85,6 +96,7 @@ public abstract class ParentJoinAggregator extends BucketsAggregator implements
         // these two filters are cached in the parser
         this.inFilter = context.searcher().createWeight(context.searcher().rewrite(inFilter), ScoreMode.COMPLETE_NO_SCORES, 1f);
         this.outFilter = context.searcher().createWeight(context.searcher().rewrite(outFilter), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        this.outFieldData = outFieldData;
         this.valuesSource = valuesSource;
         this.singleAggregator = parent == null;
         this.ordsBit = singleAggregator ? new BitArray((int) maxOrd, context.bigArrays()) : null;
@@ -128,15 +140,22 @@ public abstract class ParentJoinAggregator extends BucketsAggregator implements
     protected final void doPostCollection() throws IOException {
         IndexReader indexReader = context().searcher().getIndexReader();
         for (LeafReaderContext ctx : indexReader.leaves()) {
-            Scorer childDocsScorer = outFilter.scorer(ctx);
-            if (childDocsScorer == null) {
+            final DocIdSetIterator childDocsIter;
+            final SortedSetDocValues globalOrdinals;
+            if (outFieldData != null) {
+                childDocsIter = joinedOutDocs(ctx);
+                globalOrdinals = null;
+            } else {
+                Scorer childDocsScorer = outFilter.scorer(ctx);
+                childDocsIter = childDocsScorer == null ? null : childDocsScorer.iterator();
+                globalOrdinals = valuesSource.globalOrdinalsValues(ctx);
+            }
+            if (childDocsIter == null) {
                 continue;
             }
-            DocIdSetIterator childDocsIter = childDocsScorer.iterator();
 
             final LeafBucketCollector sub = collectableSubAggregators.getLeafCollector(ctx);
 
-            final SortedSetDocValues globalOrdinals = valuesSource.globalOrdinalsValues(ctx);
             // Set the scorer, since we now replay only the child docIds
             sub.setScorer(new Scorable() {
                 @Override
@@ -155,7 +174,9 @@ public abstract class ParentJoinAggregator extends BucketsAggregator implements
                 if (liveDocs != null && liveDocs.get(docId) == false) {
                     continue;
                 }
-                if (globalOrdinals.advanceExact(docId)) {
+                if (globalOrdinals == null) {
+                    collectBucket(sub, docId, 0);
+                } else if (globalOrdinals.advanceExact(docId)) {
                     int globalOrdinal = (int) globalOrdinals.nextOrd();
                     assert globalOrdinal != -1 && globalOrdinals.nextOrd() == SortedSetDocValues.NO_MORE_ORDS;
                     if (existsGlobalOrdinal(globalOrdinal)) {
@@ -166,6 +187,29 @@ public abstract class ParentJoinAggregator extends BucketsAggregator implements
         }
     }
 
+    /**
+     * Returns the documents of the segment that match the <code>outFilter</code> query and the collected global ordinals,
+     * including deleted documents. Only the out documents of the collected ordinals are visited, so when few ordinals were
+     * collected this is much cheaper than reading the ordinals of all the out documents.
+     */
+    private DocIdSetIterator joinedOutDocs(LeafReaderContext ctx) throws IOException {
+        final ParentChildrenAtomicFieldData outDocs = outFieldData.load(ctx);
+        final LongUnaryOperator globalOrdinals = valuesSource.globalOrdinalsMapping(ctx);
+        FixedBitSet docs = null;
+        long cost = 0;
+        for (long ord = 0; ord < outDocs.getValueCount(); ord++) {
+            int count = outDocs.getChildCount(ord);
+            if (count > 0 && existsGlobalOrdinal((int) globalOrdinals.applyAsLong(ord))) {
+                if (docs == null) {
+                    docs = new FixedBitSet(ctx.reader().maxDoc());
+                }
+                outDocs.addChildren(ord, docs);
+                cost += count;
+            }
+        }
+        return docs == null ? null : new BitSetIterator(docs, cost);
+    }
+
     @Override
     protected void doClose() {
         Releasables.close(ordsBit, ordsHash);
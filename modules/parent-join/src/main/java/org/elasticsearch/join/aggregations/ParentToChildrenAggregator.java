@@ -20,6 +20,7 @@ package org.elasticsearch.join.aggregations;
 
 import org.apache.lucene.search.Query;
 import org.elasticsearch.common.ParseField;
+import org.elasticsearch.join.fielddata.ParentChildrenIndexFieldData;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.InternalAggregation;
@@ -37,9 +38,10 @@ public class ParentToChildrenAggregator extends ParentJoinAggregator {
 
     public ParentToChildrenAggregator(String name, AggregatorFactories factories,
             SearchContext context, Aggregator parent, Query childFilter,
-            Query parentFilter, ValuesSource.Bytes.WithOrdinals valuesSource,
+            Query parentFilter, ParentChildrenIndexFieldData childrenFieldData, ValuesSource.Bytes.WithOrdinals valuesSource,
             long maxOrd, List<PipelineAggregator> pipelineAggregators, Map<String, Object> metaData) throws IOException {
-        super(name, factories, context, parent, parentFilter, childFilter, valuesSource, maxOrd, pipelineAggregators, metaData);
+        super(name, factories, context, parent, parentFilter, childFilter, childrenFieldData, valuesSource, maxOrd,
+            pipelineAggregators, metaData);
     }
 
     @Override
@@ -0,0 +1,107 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.join.fielddata;
+
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Accountables;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.packed.PackedInts;
+import org.apache.lucene.util.packed.PackedLongValues;
+import org.elasticsearch.index.fielddata.AtomicFieldData;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The children of a segment grouped by the segment ordinal of their parent id. The children of an ordinal are stored
+ * packed and in doc id order, between the offset of the ordinal and the offset of the next ordinal.
+ */
+public final class ParentChildrenAtomicFieldData implements AtomicFieldData {
+
+    private final PackedLongValues offsets;
+    private final PackedInts.Reader docs;
+
+    ParentChildrenAtomicFieldData(PackedLongValues offsets, PackedInts.Reader docs) {
+        assert offsets.size() > 0;
+        this.offsets = offsets;
+        this.docs = docs;
+    }
+
+    static ParentChildrenAtomicFieldData empty() {
+        PackedLongValues.Builder offsets = PackedLongValues.monotonicBuilder(PackedInts.COMPACT);
+        offsets.add(0);
+        return new ParentChildrenAtomicFieldData(offsets.build(), new PackedInts.NullReader(0));
+    }
+
+    /**
+     * Returns the number of parent id ordinals of the segment.
+     */
+    public long getValueCount() {
+        return offsets.size() - 1;
+    }
+
+    /**
+     * Returns the number of children of the provided parent id ordinal, including deleted children.
+     */
+    public int getChildCount(long ord) {
+        return (int) (offsets.get(ord + 1) - offsets.get(ord));
+    }
+
+    /**
+     * Sets the doc ids of the children of the provided parent id ordinal, including deleted children, in the provided bit set.
+     */
+    public void addChildren(long ord, FixedBitSet bits) {
+        int end = (int) offsets.get(ord + 1);
+        for (int i = (int) offsets.get(ord); i < end; i++) {
+            bits.set((int) docs.get(i));
+        }
+    }
+
+    @Override
+    public ScriptDocValues<?> getScriptValues() {
+        throw new UnsupportedOperationException("the children of parent ids can't be accessed from scripts");
+    }
+
+    @Override
+    public SortedBinaryDocValues getBytesValues() {
+        throw new UnsupportedOperationException("the children of parent ids have no values");
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return offsets.ramBytesUsed() + docs.ramBytesUsed();
+    }
+
+    @Override
+    public Collection<Accountable> getChildResources() {
+        List<Accountable> resources = new ArrayList<>();
+        resources.add(Accountables.namedAccountable("offsets", offsets));
+        resources.add(Accountables.namedAccountable("docs", docs));
+        return Collections.unmodifiableList(resources);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.join.fielddata;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.util.packed.PackedInts;
+import org.apache.lucene.util.packed.PackedLongValues;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.plain.AbstractIndexFieldData;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.search.MultiValueMode;
+
+import java.util.Objects;
+
+/**
+ * Field data that maps the segment ordinals of a parent id field to the children of a child type. It is loaded per segment
+ * and cached like any other field data, so that only the segments that were added by a refresh need to be loaded. It is
+ * reported in the field data stats as {@code <parent id field>#<child type>}.
+ */
+public class ParentChildrenIndexFieldData extends AbstractIndexFieldData<ParentChildrenAtomicFieldData> {
+
+    private final String parentIdField;
+    private final Term childTerm;
+    private final CircuitBreakerService breakerService;
+
+    public ParentChildrenIndexFieldData(IndexSettings indexSettings, String fieldName, IndexFieldDataCache cache,
+                                        CircuitBreakerService breakerService, String parentIdField, Term childTerm) {
+        super(indexSettings, fieldName, cache);
+        this.parentIdField = parentIdField;
+        this.childTerm = childTerm;
+        this.breakerService = breakerService;
+    }
+
+    @Override
+    public ParentChildrenAtomicFieldData load(LeafReaderContext context) {
+        if (context.reader().getFieldInfos().fieldInfo(parentIdField) == null) {
+            // the field name of this field data isn't indexed, so check the parent id field instead
+            return empty(context.reader().maxDoc());
+        }
+        try {
+            return cache.load(context, this);
+        } catch (Exception e) {
+            if (e instanceof ElasticsearchException) {
+                throw (ElasticsearchException) e;
+            } else {
+                throw new ElasticsearchException(e);
+            }
+        }
+    }
+
+    @Override
+    public ParentChildrenAtomicFieldData loadDirect(LeafReaderContext context) throws Exception {
+        final LeafReader reader = context.reader();
+        SortedSetDocValues parentIds = DocValues.getSortedSet(reader, parentIdField);
+        PostingsEnum children = reader.postings(childTerm, PostingsEnum.NONE);
+        if (children == null || parentIds.getValueCount() == 0) {
+            return empty(reader.maxDoc());
+        }
+
+        // count the children of each ordinal first, so that they can then be written at the offsets of their ordinals
+        final int[] offsets = new int[Math.toIntExact(parentIds.getValueCount()) + 1];
+        for (int docId = children.nextDoc(); docId != DocIdSetIterator.NO_MORE_DOCS; docId = children.nextDoc()) {
+            if (parentIds.advanceExact(docId)) {
+                offsets[(int) parentIds.nextOrd() + 1]++;
+            }
+        }
+        PackedLongValues.Builder offsetsBuilder = PackedLongValues.monotonicBuilder(PackedInts.COMPACT);
+        offsetsBuilder.add(0);
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+            offsetsBuilder.add(offsets[i]);
+        }
+
+        final PackedInts.Mutable docs = PackedInts.getMutable(offsets[offsets.length - 1],
+            PackedInts.bitsRequired(reader.maxDoc() - 1), PackedInts.COMPACT);
+        parentIds = DocValues.getSortedSet(reader, parentIdField);
+        children = reader.postings(childTerm, PostingsEnum.NONE);
+        for (int docId = children.nextDoc(); docId != DocIdSetIterator.NO_MORE_DOCS; docId = children.nextDoc()) {
+            if (parentIds.advanceExact(docId)) {
+                docs.set(offsets[(int) parentIds.nextOrd()]++, docId);
+            }
+        }
+
+        ParentChildrenAtomicFieldData data = new ParentChildrenAtomicFieldData(offsetsBuilder.build(), docs);
+        // the breaker is released by the field data cache when the segment is closed
+        breakerService.getBreaker(CircuitBreaker.FIELDDATA).addEstimateBytesAndMaybeBreak(data.ramBytesUsed(), getFieldName());
+        return data;
+    }
+
+    @Override
+    protected ParentChildrenAtomicFieldData empty(int maxDoc) {
+        return ParentChildrenAtomicFieldData.empty();
+    }
+
+    @Override
+    public SortField sortField(@Nullable Object missingValue, MultiValueMode sortMode, XFieldComparatorSource.Nested nested,
+                               boolean reverse) {
+        throw new IllegalArgumentException("can't sort on the children of the parent id field [" + parentIdField + "]");
+    }
+
+    public static class Builder implements IndexFieldData.Builder {
+
+        @Override
+        public IndexFieldData<?> build(IndexSettings indexSettings, MappedFieldType fieldType, IndexFieldDataCache cache,
+                                       CircuitBreakerService breakerService, MapperService mapperService) {
+            ChildrenFieldType childrenFieldType = (ChildrenFieldType) fieldType;
+            return new ParentChildrenIndexFieldData(indexSettings, fieldType.name(), cache, breakerService,
+                childrenFieldType.parentIdField, childrenFieldType.childTerm);
+        }
+    }
+
+    /**
+     * The field type that {@link ParentChildrenIndexFieldData} is retrieved with. It isn't part of the mappings.
+     */
+    public static final class ChildrenFieldType extends MappedFieldType {
+
+        private final String parentIdField;
+        private final Term childTerm;
+
+        /**
+         * @param parentIdField the field that holds the parent ids of both the parents and the children
+         * @param childTerm     the term that all the children of the child type have
+         */
+        public ChildrenFieldType(String parentIdField, Term childTerm) {
+            this.parentIdField = parentIdField;
+            this.childTerm = childTerm;
+            setName(parentIdField + "#" + childTerm.text());
+        }
+
+        private ChildrenFieldType(ChildrenFieldType ref) {
+            super(ref);
+            this.parentIdField = ref.parentIdField;
+            this.childTerm = ref.childTerm;
+        }
+
+        @Override
+        public MappedFieldType clone() {
+            return new ChildrenFieldType(this);
+        }
+
+        @Override
+        public String typeName() {
+            return "parent_children";
+        }
+
+        @Override
+        public IndexFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName) {
+            return new Builder();
+        }
+
+        @Override
+        public Query termQuery(Object value, @Nullable QueryShardContext context) {
+            throw new UnsupportedOperationException("the children of the parent id field [" + parentIdField + "] can't be searched");
+        }
+
+        @Override
+        public Query existsQuery(QueryShardContext context) {
+            throw new UnsupportedOperationException("the children of the parent id field [" + parentIdField + "] can't be searched");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (super.equals(o) == false) {
+                return false;
+            }
+            ChildrenFieldType that = (ChildrenFieldType) o;
+            return Objects.equals(parentIdField, that.parentIdField) && Objects.equals(childTerm, that.childTerm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), parentIdField, childTerm);
+        }
+    }
+}
@@ -41,6 +41,7 @@ import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.index.mapper.ParseContext;
 import org.elasticsearch.index.mapper.StringFieldType;
 import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.join.fielddata.ParentChildrenIndexFieldData;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -172,6 +173,14 @@ public final class ParentIdFieldMapper extends FieldMapper {
         return new TermQuery(new Term(name().substring(0, name().indexOf('#')), type));
     }
 
+    /**
+     * Returns the field type of the {@link ParentChildrenIndexFieldData} that maps the parent ids of this mapper
+     * to the documents of the provided child type.
+     */
+    public MappedFieldType getChildrenFieldType(String type) {
+        return new ParentChildrenIndexFieldData.ChildrenFieldType(name(), new Term(name().substring(0, name().indexOf('#')), type));
+    }
+
     public Query getChildrenFilter() {
         BooleanQuery.Builder builder = new BooleanQuery.Builder();
         for (String child : children) {
@@ -0,0 +1,107 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.join.fielddata;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.IndexSettingsModule;
+
+public class ParentChildrenIndexFieldDataTests extends ESTestCase {
+
+    private static final String JOIN_FIELD = "join_field";
+    private static final String PARENT_ID_FIELD = "join_field#parent_type";
+
+    public void testLoadDirect() throws Exception {
+        try (Directory directory = newDirectory();
+             RandomIndexWriter writer = new RandomIndexWriter(random(), directory)) {
+            int numParents = scaledRandomIntBetween(1, 100);
+            for (int i = 0; i < numParents; i++) {
+                String parentId = "parent" + i;
+                writer.addDocument(document("parent_type", parentId));
+                int numChildren = randomIntBetween(0, 10);
+                for (int j = 0; j < numChildren; j++) {
+                    writer.addDocument(document(randomBoolean() ? "child_type" : "other_child_type", parentId));
+                }
+            }
+
+            ParentChildrenIndexFieldData fieldData = new ParentChildrenIndexFieldData(
+                IndexSettingsModule.newIndexSettings("_index", Settings.EMPTY), PARENT_ID_FIELD + "#child_type",
+                new IndexFieldDataCache.None(), new NoneCircuitBreakerService(), PARENT_ID_FIELD, new Term(JOIN_FIELD, "child_type"));
+            try (DirectoryReader reader = writer.getReader()) {
+                for (LeafReaderContext leaf : reader.leaves()) {
+                    ParentChildrenAtomicFieldData children = fieldData.loadDirect(leaf);
+                    SortedDocValues parentIds = DocValues.getSorted(leaf.reader(), PARENT_ID_FIELD);
+                    assertEquals(parentIds.getValueCount(), children.getValueCount());
+                    for (int ord = 0; ord < children.getValueCount(); ord++) {
+                        FixedBitSet expected = new FixedBitSet(leaf.reader().maxDoc());
+                        parentIds = DocValues.getSorted(leaf.reader(), PARENT_ID_FIELD);
+                        for (int docId = 0; docId < leaf.reader().maxDoc(); docId++) {
+                            if (parentIds.advanceExact(docId) && parentIds.ordValue() == ord
+                                    && leaf.reader().document(docId).get(JOIN_FIELD).equals("child_type")) {
+                                expected.set(docId);
+                            }
+                        }
+                        FixedBitSet actual = new FixedBitSet(leaf.reader().maxDoc());
+                        children.addChildren(ord, actual);
+                        assertEquals(expected, actual);
+                        assertEquals(expected.cardinality(), children.getChildCount(ord));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testEmpty() throws Exception {
+        try (Directory directory = newDirectory();
+             RandomIndexWriter writer = new RandomIndexWriter(random(), directory)) {
+            writer.addDocument(document("parent_type", "parent"));
+            ParentChildrenIndexFieldData fieldData = new ParentChildrenIndexFieldData(
+                IndexSettingsModule.newIndexSettings("_index", Settings.EMPTY), PARENT_ID_FIELD + "#child_type",
+                new IndexFieldDataCache.None(), new NoneCircuitBreakerService(), PARENT_ID_FIELD, new Term(JOIN_FIELD, "child_type"));
+            try (DirectoryReader reader = writer.getReader()) {
+                for (LeafReaderContext leaf : reader.leaves()) {
+                    assertEquals(0, fieldData.loadDirect(leaf).getValueCount());
+                }
+            }
+        }
+    }
+
+    private static Document document(String type, String parentId) {
+        Document document = new Document();
+        document.add(new StringField(JOIN_FIELD, type, Field.Store.YES));
+        document.add(new SortedDocValuesField(PARENT_ID_FIELD, new BytesRef(parentId)));
+        return document;
+    }
+}
@@ -35,6 +35,7 @@ import org.apache.lucene.search.Weight;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.BitSet;
 import org.apache.lucene.util.Bits;
 import org.elasticsearch.common.CheckedFunction;
 import org.elasticsearch.common.bytes.BytesReference;
@@ -57,10 +58,12 @@ final class PercolateQuery extends Query implements Accountable {
     private final Query verifiedMatchesQuery;
     private final IndexSearcher percolatorIndexSearcher;
     private final Query nonNestedDocsFilter;
+    private final PercolatorMetrics metrics;
+    private Bits nonNestedDocs;
 
     PercolateQuery(String name, QueryStore queryStore, List<BytesReference> documents,
                    Query candidateMatchesQuery, IndexSearcher percolatorIndexSearcher,
-                   Query nonNestedDocsFilter, Query verifiedMatchesQuery) {
+                   Query nonNestedDocsFilter, Query verifiedMatchesQuery, PercolatorMetrics metrics) {
         this.name = name;
         this.documents = Objects.requireNonNull(documents);
         this.candidateMatchesQuery = Objects.requireNonNull(candidateMatchesQuery);
@@ -68,6 +71,7 @@ final class PercolateQuery extends Query implements Accountable {
         this.percolatorIndexSearcher = Objects.requireNonNull(percolatorIndexSearcher);
         this.nonNestedDocsFilter = nonNestedDocsFilter;
         this.verifiedMatchesQuery = Objects.requireNonNull(verifiedMatchesQuery);
+        this.metrics = Objects.requireNonNull(metrics);
     }
 
     @Override
@@ -75,7 +79,7 @@ final class PercolateQuery extends Query implements Accountable {
         Query rewritten = candidateMatchesQuery.rewrite(reader);
         if (rewritten != candidateMatchesQuery) {
             return new PercolateQuery(name, queryStore, documents, rewritten, percolatorIndexSearcher,
-                    nonNestedDocsFilter, verifiedMatchesQuery);
+                    nonNestedDocsFilter, verifiedMatchesQuery, metrics);
         } else {
             return this;
         }
@@ -137,12 +141,15 @@ final class PercolateQuery extends Query implements Accountable {
                                 }
                                 TopDocs topDocs = percolatorIndexSearcher.search(query, 1);
                                 if (topDocs.scoreDocs.length > 0) {
+                                    metrics.onVerifiedByQuery(true);
                                     score = topDocs.scoreDocs[0].score;
                                     return true;
                                 } else {
+                                    metrics.onVerifiedByQuery(false);
                                     return false;
                                 }
                             } else {
+                                metrics.onMissingQuery();
                                 return false;
                             }
                         }
@@ -153,6 +160,7 @@ final class PercolateQuery extends Query implements Accountable {
                         }
                     };
                 } else {
+                    final Bits nonNestedDocs = getNonNestedDocs();
                     ScorerSupplier verifiedDocsScorer = verifiedMatchesWeight.scorerSupplier(leafReaderContext);
                     Bits verifiedDocsBits = Lucene.asSequentialAccessBits(leafReaderContext.reader().maxDoc(), verifiedDocsScorer);
                     return new BaseScorer(this, approximation) {
@@ -169,19 +177,17 @@ final class PercolateQuery extends Query implements Accountable {
                             // and we determined based on the nature of the query that it is safe to skip
                             // the MemoryIndex verification.
                             if (verifiedDocsBits.get(docId)) {
+                                metrics.onVerifiedByExtraction();
                                 return true;
                             }
                             Query query = percolatorQueries.apply(docId);
                             if (query == null) {
+                                metrics.onMissingQuery();
                                 return false;
                             }
-                            if (nonNestedDocsFilter != null) {
-                                query = new BooleanQuery.Builder()
-                                        .add(query, Occur.MUST)
-                                        .add(nonNestedDocsFilter, Occur.FILTER)
-                                        .build();
-                            }
-                            return Lucene.exists(percolatorIndexSearcher, query);
+                            boolean matched = matchesPercolatedDocuments(query, nonNestedDocs);
+                            metrics.onVerifiedByQuery(matched);
+                            return matched;
                         }
                     };
                 }
@@ -196,6 +202,50 @@ final class PercolateQuery extends Query implements Accountable {
         };
     }
 
+    /**
+     * The percolated documents that aren't nested documents, computed once for all candidate queries of all segments, or
+     * {@code null} if nested documents don't need to be excluded.
+     */
+    private Bits getNonNestedDocs() throws IOException {
+        if (nonNestedDocsFilter == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (nonNestedDocs == null) {
+                // the percolated documents are always indexed in a single segment
+                LeafReaderContext leaf = percolatorIndexSearcher.getIndexReader().leaves().get(0);
+                Weight weight = percolatorIndexSearcher.createWeight(percolatorIndexSearcher.rewrite(nonNestedDocsFilter),
+                    ScoreMode.COMPLETE_NO_SCORES, 1f);
+                Scorer scorer = weight.scorer(leaf);
+                nonNestedDocs = scorer == null ? new Bits.MatchNoBits(leaf.reader().maxDoc()) :
+                    BitSet.of(scorer.iterator(), leaf.reader().maxDoc());
+            }
+            return nonNestedDocs;
+        }
+    }
+
+    /**
+     * Whether the query matches any of the percolated documents that aren't excluded, without wrapping the query of every
+     * candidate in a boolean query with the filter of the documents to exclude.
+     */
+    private boolean matchesPercolatedDocuments(Query query, Bits nonNestedDocs) throws IOException {
+        if (nonNestedDocs == null) {
+            return Lucene.exists(percolatorIndexSearcher, query);
+        }
+        Weight weight = percolatorIndexSearcher.createWeight(percolatorIndexSearcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        Scorer scorer = weight.scorer(percolatorIndexSearcher.getIndexReader().leaves().get(0));
+        if (scorer == null) {
+            return false;
+        }
+        DocIdSetIterator iterator = scorer.iterator();
+        for (int doc = iterator.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+            if (nonNestedDocs.get(doc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     String getName() {
         return name;
     }
@@ -621,9 +621,9 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
         PercolatorFieldMapper.FieldType pft = (PercolatorFieldMapper.FieldType) fieldType;
         String name = this.name != null ? this.name : pft.name();
         QueryShardContext percolateShardContext = wrap(context);
-        PercolateQuery.QueryStore queryStore = createStore(pft.queryBuilderField,
+        PercolateQuery.QueryStore queryStore = pft.queryCache.wrap(createStore(pft.queryBuilderField,
             percolateShardContext,
-            pft.mapUnmappedFieldsAsText);
+            pft.mapUnmappedFieldsAsText), docMapper, percolateShardContext);
 
         return pft.percolateQuery(name, queryStore, documents, docSearcher, excludeNestedDocuments, context.indexVersionCreated());
     }
@@ -115,10 +115,15 @@ public class PercolatorFieldMapper extends FieldMapper {
     static class Builder extends FieldMapper.Builder<Builder, PercolatorFieldMapper> {
 
         private final Supplier<QueryShardContext> queryShardContext;
+        private final PercolatorQueryCache queryCache;
+        private final PercolatorMetrics metrics;
 
-        Builder(String fieldName, Supplier<QueryShardContext> queryShardContext) {
+        Builder(String fieldName, Supplier<QueryShardContext> queryShardContext, PercolatorQueryCache queryCache,
+                PercolatorMetrics metrics) {
             super(fieldName, FIELD_TYPE, FIELD_TYPE);
             this.queryShardContext = queryShardContext;
+            this.queryCache = queryCache;
+            this.metrics = metrics;
         }
 
         @Override
@@ -138,6 +143,8 @@ public class PercolatorFieldMapper extends FieldMapper {
             NumberFieldMapper minimumShouldMatchFieldMapper = createMinimumShouldMatchField(context);
             fieldType.minimumShouldMatchField = minimumShouldMatchFieldMapper.fieldType();
             fieldType.mapUnmappedFieldsAsText = getMapUnmappedFieldAsText(context.indexSettings());
+            fieldType.queryCache = queryCache;
+            fieldType.metrics = metrics;
 
             context.path().remove();
             setupFieldType(context);
@@ -188,9 +195,17 @@ public class PercolatorFieldMapper extends FieldMapper {
 
     static class TypeParser implements FieldMapper.TypeParser {
 
+        private final PercolatorQueryCache queryCache;
+        private final PercolatorMetrics metrics;
+
+        TypeParser(PercolatorQueryCache queryCache, PercolatorMetrics metrics) {
+            this.queryCache = queryCache;
+            this.metrics = metrics;
+        }
+
         @Override
         public Builder parse(String name, Map<String, Object> node, ParserContext parserContext) throws MapperParsingException {
-            return new Builder(name, parserContext.queryShardContextSupplier());
+            return new Builder(name, parserContext.queryShardContextSupplier(), queryCache, metrics);
         }
     }
 
@@ -203,6 +218,8 @@ public class PercolatorFieldMapper extends FieldMapper {
 
         RangeFieldMapper.RangeFieldType rangeField;
         boolean mapUnmappedFieldsAsText;
+        PercolatorQueryCache queryCache;
+        PercolatorMetrics metrics;
 
         FieldType() {
             setIndexOptions(IndexOptions.NONE);
@@ -218,6 +235,8 @@ public class PercolatorFieldMapper extends FieldMapper {
             rangeField = ref.rangeField;
             minimumShouldMatchField = ref.minimumShouldMatchField;
             mapUnmappedFieldsAsText = ref.mapUnmappedFieldsAsText;
+            queryCache = ref.queryCache;
+            metrics = ref.metrics;
         }
 
         @Override
@@ -266,7 +285,7 @@ public class PercolatorFieldMapper extends FieldMapper {
             if (excludeNestedDocuments) {
                 filter = Queries.newNonNestedFilter(indexVersion);
             }
-            return new PercolateQuery(name, queryStore, documents, candidateQuery, searcher, filter, verifiedMatchesQuery);
+            return new PercolateQuery(name, queryStore, documents, candidateQuery, searcher, filter, verifiedMatchesQuery, metrics);
         }
 
         Tuple<BooleanQuery, Boolean> createCandidateQuery(IndexReader indexReader, Version indexVersion) throws IOException {
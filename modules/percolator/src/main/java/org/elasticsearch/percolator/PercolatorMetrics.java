@@ -0,0 +1,76 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.metrics.CounterMetric;
+
+/**
+ * Counts how the candidate queries that the percolate queries of a node select get verified.
+ */
+final class PercolatorMetrics {
+
+    private final PercolatorQueryCache queryCache;
+    private final CounterMetric candidates = new CounterMetric();
+    private final CounterMetric verifiedByExtraction = new CounterMetric();
+    private final CounterMetric verifiedByQuery = new CounterMetric();
+    private final CounterMetric matches = new CounterMetric();
+
+    /**
+     * @param queryCache the cache of the stored queries of the node, whose statistics are reported along with the metrics
+     */
+    PercolatorMetrics(PercolatorQueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    /**
+     * Called for a candidate query that matched because all of its terms were extracted when it was indexed, so that it
+     * didn't need to be run against the percolated documents.
+     */
+    void onVerifiedByExtraction() {
+        candidates.inc();
+        verifiedByExtraction.inc();
+        matches.inc();
+    }
+
+    /**
+     * Called for a candidate query after running it against the percolated documents.
+     */
+    void onVerifiedByQuery(boolean matched) {
+        candidates.inc();
+        verifiedByQuery.inc();
+        if (matched) {
+            matches.inc();
+        }
+    }
+
+    /**
+     * Called for a candidate without a stored query.
+     */
+    void onMissingQuery() {
+        candidates.inc();
+    }
+
+    PercolatorStats stats() {
+        Cache.CacheStats cacheStats = queryCache.stats();
+        return new PercolatorStats(candidates.count(), verifiedByExtraction.count(), verifiedByQuery.count(), matches.count(),
+            queryCache.count(), cacheStats.getHits(), cacheStats.getMisses(), cacheStats.getEvictions());
+    }
+}
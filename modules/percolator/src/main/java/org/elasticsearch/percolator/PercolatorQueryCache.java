@@ -0,0 +1,172 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.CheckedFunction;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.query.QueryShardContext;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A node level cache of the queries stored in percolator fields, so that the candidate queries of percolate queries don't
+ * need to be read and converted from their query builders on every request. Queries are cached per segment and doc id, and
+ * for the mapping they were converted with. Queries that depend on the time or on scripts aren't cached, as converting
+ * them again can yield a different query. The queries of a segment are removed from the cache by a periodic cleanup once
+ * the segment is closed. The size of the cache is bounded by the estimated memory usage of the cached queries.
+ */
+final class PercolatorQueryCache {
+
+    static final Setting<ByteSizeValue> QUERY_CACHE_SIZE_SETTING =
+        Setting.memorySizeSetting("indices.percolator.query_cache.size", "1%", Setting.Property.NodeScope);
+
+    // the estimate used for queries that don't report their memory usage, like the query cache of Lucene does
+    static final long QUERY_DEFAULT_RAM_BYTES_USED = 1024;
+
+    private final Cache<Key, Query> cache;
+    private final Set<IndexReader.CacheKey> segments = ConcurrentCollections.newConcurrentSet();
+    private final Set<IndexReader.CacheKey> closedSegments = ConcurrentCollections.newConcurrentSet();
+
+    PercolatorQueryCache(Settings settings) {
+        long sizeInBytes = QUERY_CACHE_SIZE_SETTING.get(settings).getBytes();
+        this.cache = sizeInBytes > 0 ? CacheBuilder.<Key, Query>builder().setMaximumWeight(sizeInBytes)
+            .weigher((key, query) -> Key.BASE_RAM_BYTES_USED + ramBytesUsed(query)).build() : null;
+    }
+
+    /**
+     * Wraps a query store so that it only reads and converts the queries that aren't cached.
+     *
+     * @param mapping the mapping the queries are converted with, queries that were converted with other mappings aren't used
+     * @param context the context the queries are converted with, which tells whether they can be cached
+     */
+    PercolateQuery.QueryStore wrap(PercolateQuery.QueryStore queryStore, Object mapping, QueryShardContext context) {
+        if (cache == null) {
+            return queryStore;
+        }
+        return ctx -> wrap(ctx, mapping, context, queryStore.getQueries(ctx));
+    }
+
+    private CheckedFunction<Integer, Query, IOException> wrap(LeafReaderContext ctx, Object mapping, QueryShardContext context,
+                                                              CheckedFunction<Integer, Query, IOException> queries) {
+        IndexReader.CacheHelper cacheHelper = ctx.reader().getCoreCacheHelper();
+        if (cacheHelper == null) {
+            return queries;
+        }
+        IndexReader.CacheKey segment = cacheHelper.getKey();
+        if (segments.add(segment)) {
+            cacheHelper.addClosedListener(this::onClose);
+        }
+        return docId -> {
+            Key key = new Key(segment, docId, mapping);
+            Query query = cache.get(key);
+            if (query != null) {
+                return query;
+            }
+            // the context can't tell which of the queries it converted made it uncacheable, so none are cached after that
+            boolean cacheable = context.isCachable();
+            query = queries.apply(docId);
+            if (query != null && cacheable && context.isCachable()) {
+                cache.put(key, query);
+            }
+            return query;
+        };
+    }
+
+    private void onClose(IndexReader.CacheKey segment) {
+        segments.remove(segment);
+        closedSegments.add(segment);
+    }
+
+    /**
+     * Removes the queries of the segments that were closed since the last cleanup. This is called periodically rather than
+     * when a segment is closed, so that the cache is scanned once for all the segments closed in the meantime.
+     */
+    synchronized void cleanCache() {
+        if (cache == null || closedSegments.isEmpty()) {
+            return;
+        }
+        final Set<IndexReader.CacheKey> currentClosedSegments = new HashSet<>();
+        for (Iterator<IndexReader.CacheKey> iterator = closedSegments.iterator(); iterator.hasNext(); ) {
+            currentClosedSegments.add(iterator.next());
+            iterator.remove();
+        }
+        for (Iterator<Key> iterator = cache.keys().iterator(); iterator.hasNext(); ) {
+            Key key = iterator.next();
+            if (currentClosedSegments.contains(key.segment)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    static long ramBytesUsed(Query query) {
+        return query instanceof Accountable ? ((Accountable) query).ramBytesUsed() : QUERY_DEFAULT_RAM_BYTES_USED;
+    }
+
+    long count() {
+        return cache == null ? 0 : cache.count();
+    }
+
+    Cache.CacheStats stats() {
+        return cache == null ? new Cache.CacheStats(0, 0, 0) : cache.stats();
+    }
+
+    private static final class Key {
+        static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Key.class);
+
+        final IndexReader.CacheKey segment;
+        final int docId;
+        final Object mapping;
+
+        Key(IndexReader.CacheKey segment, int docId, Object mapping) {
+            this.segment = segment;
+            this.docId = docId;
+            this.mapping = mapping;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return docId == key.docId &&
+                segment == key.segment &&
+                mapping == key.mapping;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(segment), docId, System.identityHashCode(mapping));
+        }
+    }
+}
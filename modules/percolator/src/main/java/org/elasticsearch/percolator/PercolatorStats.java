@@ -0,0 +1,140 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+/**
+ * The number of candidate queries that the percolate queries of a node selected, how they were verified and how the
+ * cache of the queries stored in percolator fields performed.
+ */
+public class PercolatorStats implements Writeable, ToXContentFragment {
+
+    private final long candidates;
+    private final long verifiedByExtraction;
+    private final long verifiedByQuery;
+    private final long matches;
+    private final long queryCacheCount;
+    private final long queryCacheHits;
+    private final long queryCacheMisses;
+    private final long queryCacheEvictions;
+
+    public PercolatorStats(long candidates, long verifiedByExtraction, long verifiedByQuery, long matches,
+                           long queryCacheCount, long queryCacheHits, long queryCacheMisses, long queryCacheEvictions) {
+        this.candidates = candidates;
+        this.verifiedByExtraction = verifiedByExtraction;
+        this.verifiedByQuery = verifiedByQuery;
+        this.matches = matches;
+        this.queryCacheCount = queryCacheCount;
+        this.queryCacheHits = queryCacheHits;
+        this.queryCacheMisses = queryCacheMisses;
+        this.queryCacheEvictions = queryCacheEvictions;
+    }
+
+    public PercolatorStats(StreamInput in) throws IOException {
+        candidates = in.readVLong();
+        verifiedByExtraction = in.readVLong();
+        verifiedByQuery = in.readVLong();
+        matches = in.readVLong();
+        queryCacheCount = in.readVLong();
+        queryCacheHits = in.readVLong();
+        queryCacheMisses = in.readVLong();
+        queryCacheEvictions = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(candidates);
+        out.writeVLong(verifiedByExtraction);
+        out.writeVLong(verifiedByQuery);
+        out.writeVLong(matches);
+        out.writeVLong(queryCacheCount);
+        out.writeVLong(queryCacheHits);
+        out.writeVLong(queryCacheMisses);
+        out.writeVLong(queryCacheEvictions);
+    }
+
+    /**
+     * The number of stored queries that were selected as candidates for matching the percolated documents.
+     */
+    public long getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * The number of candidates that were known to match without running them against the percolated documents.
+     */
+    public long getVerifiedByExtraction() {
+        return verifiedByExtraction;
+    }
+
+    /**
+     * The number of candidates that were run against the percolated documents.
+     */
+    public long getVerifiedByQuery() {
+        return verifiedByQuery;
+    }
+
+    /**
+     * The number of candidates that matched the percolated documents.
+     */
+    public long getMatches() {
+        return matches;
+    }
+
+    public long getQueryCacheCount() {
+        return queryCacheCount;
+    }
+
+    public long getQueryCacheHits() {
+        return queryCacheHits;
+    }
+
+    public long getQueryCacheMisses() {
+        return queryCacheMisses;
+    }
+
+    public long getQueryCacheEvictions() {
+        return queryCacheEvictions;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("percolator");
+        builder.field("candidates", candidates);
+        builder.field("verified_by_extraction", verifiedByExtraction);
+        builder.field("verified_by_query", verifiedByQuery);
+        builder.field("matches", matches);
+        builder.startObject("query_cache");
+        builder.field("count", queryCacheCount);
+        builder.field("hits", queryCacheHits);
+        builder.field("misses", queryCacheMisses);
+        builder.field("evictions", queryCacheEvictions);
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+}
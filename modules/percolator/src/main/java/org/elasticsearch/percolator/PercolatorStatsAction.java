@@ -0,0 +1,225 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.FailedNodeException;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.nodes.BaseNodeRequest;
+import org.elasticsearch.action.support.nodes.BaseNodeResponse;
+import org.elasticsearch.action.support.nodes.BaseNodesRequest;
+import org.elasticsearch.action.support.nodes.BaseNodesResponse;
+import org.elasticsearch.action.support.nodes.TransportNodesAction;
+import org.elasticsearch.client.node.NodeClient;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestController;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.action.RestActions.NodesResponseRestListener;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.elasticsearch.rest.RestRequest.Method.GET;
+
+/**
+ * Retrieves the {@link PercolatorStats} of the nodes of the cluster.
+ */
+public class PercolatorStatsAction extends Action<PercolatorStatsAction.Response> {
+
+    public static final PercolatorStatsAction INSTANCE = new PercolatorStatsAction();
+    public static final String NAME = "cluster:monitor/percolator/stats";
+
+    private PercolatorStatsAction() {
+        super(NAME);
+    }
+
+    @Override
+    public Response newResponse() {
+        return new Response();
+    }
+
+    public static class Request extends BaseNodesRequest<Request> {
+
+        public Request() {
+        }
+
+        /**
+         * Get the percolator statistics of the nodes with the given ids. If none are passed, the statistics of all nodes
+         * are returned.
+         */
+        public Request(String... nodesIds) {
+            super(nodesIds);
+        }
+    }
+
+    public static class NodeRequest extends BaseNodeRequest {
+
+        public NodeRequest() {
+        }
+
+        NodeRequest(String nodeId) {
+            super(nodeId);
+        }
+    }
+
+    public static class NodeResponse extends BaseNodeResponse implements ToXContentFragment {
+
+        private PercolatorStats stats;
+
+        NodeResponse() {
+        }
+
+        NodeResponse(DiscoveryNode node, PercolatorStats stats) {
+            super(node);
+            this.stats = stats;
+        }
+
+        public PercolatorStats getStats() {
+            return stats;
+        }
+
+        static NodeResponse readNodeResponse(StreamInput in) throws IOException {
+            NodeResponse response = new NodeResponse();
+            response.readFrom(in);
+            return response;
+        }
+
+        @Override
+        public void readFrom(StreamInput in) throws IOException {
+            super.readFrom(in);
+            stats = new PercolatorStats(in);
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            stats.writeTo(out);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            return stats.toXContent(builder, params);
+        }
+    }
+
+    public static class Response extends BaseNodesResponse<NodeResponse> implements ToXContentFragment {
+
+        Response() {
+        }
+
+        Response(ClusterName clusterName, List<NodeResponse> nodes, List<FailedNodeException> failures) {
+            super(clusterName, nodes, failures);
+        }
+
+        @Override
+        protected List<NodeResponse> readNodesFrom(StreamInput in) throws IOException {
+            return in.readList(NodeResponse::readNodeResponse);
+        }
+
+        @Override
+        protected void writeNodesTo(StreamOutput out, List<NodeResponse> nodes) throws IOException {
+            out.writeStreamableList(nodes);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject("nodes");
+            for (NodeResponse node : getNodes()) {
+                builder.startObject(node.getNode().getId());
+                builder.field("name", node.getNode().getName());
+                node.toXContent(builder, params);
+                builder.endObject();
+            }
+            builder.endObject();
+            return builder;
+        }
+    }
+
+    public static class TransportAction extends TransportNodesAction<Request, Response, NodeRequest, NodeResponse> {
+
+        private final PercolatorMetrics metrics;
+
+        @Inject
+        public TransportAction(ThreadPool threadPool, ClusterService clusterService, TransportService transportService,
+                               ActionFilters actionFilters, PercolatorMetrics metrics) {
+            super(NAME, threadPool, clusterService, transportService, actionFilters, Request::new, NodeRequest::new,
+                ThreadPool.Names.MANAGEMENT, NodeResponse.class);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected Response newResponse(Request request, List<NodeResponse> responses, List<FailedNodeException> failures) {
+            return new Response(clusterService.getClusterName(), responses, failures);
+        }
+
+        @Override
+        protected NodeRequest newNodeRequest(String nodeId, Request request) {
+            return new NodeRequest(nodeId);
+        }
+
+        @Override
+        protected NodeResponse newNodeResponse() {
+            return new NodeResponse();
+        }
+
+        @Override
+        protected NodeResponse nodeOperation(NodeRequest request) {
+            return new NodeResponse(clusterService.localNode(), metrics.stats());
+        }
+    }
+
+    public static class RestAction extends BaseRestHandler {
+
+        public RestAction(Settings settings, RestController controller) {
+            super(settings);
+            controller.registerHandler(GET, "/_percolator/stats", this);
+            controller.registerHandler(GET, "/_percolator/stats/{node_id}", this);
+        }
+
+        @Override
+        public String getName() {
+            return "percolator_stats";
+        }
+
+        @Override
+        protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+            Request statsRequest = new Request(Strings.splitStringByCommaToArray(request.param("node_id")));
+            statsRequest.timeout(request.param("timeout"));
+            return channel -> client.execute(INSTANCE, statsRequest, new NodesResponseRestListener<>(channel));
+        }
+
+        @Override
+        public boolean canTripCircuitBreaker() {
+            return false;
+        }
+    }
+}
@@ -44,6 +44,7 @@ import org.apache.lucene.search.spans.SpanNearQuery;
 import org.apache.lucene.search.spans.SpanTermQuery;
 import org.apache.lucene.store.Directory;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.After;
 import org.junit.Before;
@@ -61,6 +62,7 @@ public class PercolateQueryTests extends ESTestCase {
     private Directory directory;
     private IndexWriter indexWriter;
     private DirectoryReader directoryReader;
+    private final PercolatorMetrics metrics = new PercolatorMetrics(new PercolatorQueryCache(Settings.EMPTY));
 
     @Before
     public void init() throws Exception {
@@ -117,17 +119,22 @@ public class PercolateQueryTests extends ESTestCase {
         IndexSearcher percolateSearcher = memoryIndex.createSearcher();
         // no scoring, wrapping it in a constant score query:
         Query query = new ConstantScoreQuery(new PercolateQuery("_name", queryStore, Collections.singletonList(new BytesArray("a")),
-                new TermQuery(new Term("select", "a")), percolateSearcher, null, new MatchNoDocsQuery("")));
+                new TermQuery(new Term("select", "a")), percolateSearcher, null, new MatchNoDocsQuery(""), metrics));
         TopDocs topDocs = shardSearcher.search(query, 10);
         assertThat(topDocs.totalHits.value, equalTo(1L));
         assertThat(topDocs.scoreDocs.length, equalTo(1));
         assertThat(topDocs.scoreDocs[0].doc, equalTo(0));
+        PercolatorStats stats = metrics.stats();
+        assertThat(stats.getCandidates(), equalTo(1L));
+        assertThat(stats.getVerifiedByExtraction(), equalTo(0L));
+        assertThat(stats.getVerifiedByQuery(), equalTo(1L));
+        assertThat(stats.getMatches(), equalTo(1L));
         Explanation explanation = shardSearcher.explain(query, 0);
         assertThat(explanation.isMatch(), is(true));
         assertThat(explanation.getValue(), equalTo(topDocs.scoreDocs[0].score));
 
         query = new ConstantScoreQuery(new PercolateQuery("_name", queryStore, Collections.singletonList(new BytesArray("b")),
-                new TermQuery(new Term("select", "b")), percolateSearcher, null, new MatchNoDocsQuery("")));
+                new TermQuery(new Term("select", "b")), percolateSearcher, null, new MatchNoDocsQuery(""), metrics));
         topDocs = shardSearcher.search(query, 10);
         assertThat(topDocs.totalHits.value, equalTo(3L));
         assertThat(topDocs.scoreDocs.length, equalTo(3));
@@ -147,12 +154,12 @@ public class PercolateQueryTests extends ESTestCase {
         assertThat(explanation.getValue(), equalTo(topDocs.scoreDocs[2].score));
 
         query = new ConstantScoreQuery(new PercolateQuery("_name", queryStore, Collections.singletonList(new BytesArray("c")),
-                new MatchAllDocsQuery(), percolateSearcher, null, new MatchAllDocsQuery()));
+                new MatchAllDocsQuery(), percolateSearcher, null, new MatchAllDocsQuery(), metrics));
         topDocs = shardSearcher.search(query, 10);
         assertThat(topDocs.totalHits.value, equalTo(4L));
 
         query = new PercolateQuery("_name", queryStore, Collections.singletonList(new BytesArray("{}")),
-            new TermQuery(new Term("select", "b")), percolateSearcher, null, new MatchNoDocsQuery(""));
+            new TermQuery(new Term("select", "b")), percolateSearcher, null, new MatchNoDocsQuery(""), metrics);
         topDocs = shardSearcher.search(query, 10);
         assertThat(topDocs.totalHits.value, equalTo(3L));
         assertThat(topDocs.scoreDocs.length, equalTo(3));
@@ -0,0 +1,188 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.CheckedFunction;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class PercolatorQueryCacheTests extends ESTestCase {
+
+    public void testCacheHits() throws Exception {
+        PercolatorQueryCache queryCache = new PercolatorQueryCache(Settings.EMPTY);
+        AtomicInteger loads = new AtomicInteger();
+        PercolateQuery.QueryStore queryStore = queryStore(loads, () -> {});
+        Object mapping = new Object();
+        try (Directory directory = newDirectory()) {
+            indexDocs(directory, 3);
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReaderContext leaf = reader.leaves().get(0);
+                QueryShardContext context = createContext();
+                CheckedFunction<Integer, Query, IOException> queries = queryCache.wrap(queryStore, mapping, context).getQueries(leaf);
+                Query first = queries.apply(1);
+                assertThat(loads.get(), equalTo(1));
+                assertThat(queryCache.count(), equalTo(1L));
+
+                queries = queryCache.wrap(queryStore, mapping, createContext()).getQueries(leaf);
+                assertThat(queries.apply(1), sameInstance(first));
+                assertThat(loads.get(), equalTo(1));
+                assertThat(queryCache.stats().getHits(), equalTo(1L));
+
+                // queries converted with another mapping aren't used
+                queries = queryCache.wrap(queryStore, new Object(), createContext()).getQueries(leaf);
+                queries.apply(1);
+                assertThat(loads.get(), equalTo(2));
+                assertThat(queryCache.count(), equalTo(2L));
+            }
+        }
+    }
+
+    public void testInvalidationOnSegmentClose() throws Exception {
+        PercolatorQueryCache queryCache = new PercolatorQueryCache(Settings.EMPTY);
+        AtomicInteger loads = new AtomicInteger();
+        PercolateQuery.QueryStore queryStore = queryStore(loads, () -> {});
+        Object mapping = new Object();
+        try (Directory directory = newDirectory()) {
+            indexDocs(directory, 3);
+            DirectoryReader reader = DirectoryReader.open(directory);
+            CheckedFunction<Integer, Query, IOException> queries =
+                queryCache.wrap(queryStore, mapping, createContext()).getQueries(reader.leaves().get(0));
+            for (int docId = 0; docId < 3; docId++) {
+                queries.apply(docId);
+            }
+            assertThat(queryCache.count(), equalTo(3L));
+
+            // entries of open segments are kept
+            queryCache.cleanCache();
+            assertThat(queryCache.count(), equalTo(3L));
+
+            reader.close();
+            assertThat(queryCache.count(), equalTo(3L));
+            queryCache.cleanCache();
+            assertThat(queryCache.count(), equalTo(0L));
+        }
+    }
+
+    public void testNonCacheableQueriesAreNotCached() throws Exception {
+        PercolatorQueryCache queryCache = new PercolatorQueryCache(Settings.EMPTY);
+        AtomicInteger loads = new AtomicInteger();
+        Object mapping = new Object();
+        try (Directory directory = newDirectory()) {
+            indexDocs(directory, 3);
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReaderContext leaf = reader.leaves().get(0);
+                // converting a range query on `now` or a script query makes the context uncacheable
+                QueryShardContext nowContext = createContext();
+                QueryShardContext scriptContext = createContext();
+                assertNotCached(queryCache, queryStore(loads, nowContext::nowInMillis), mapping, nowContext, leaf);
+                assertNotCached(queryCache, queryStore(loads, scriptContext::getScriptService), mapping, scriptContext, leaf);
+                assertThat(loads.get(), equalTo(4));
+                assertThat(queryCache.count(), equalTo(0L));
+            }
+        }
+    }
+
+    private static void assertNotCached(PercolatorQueryCache queryCache, PercolateQuery.QueryStore queryStore, Object mapping,
+                                        QueryShardContext context, LeafReaderContext leaf) throws IOException {
+        CheckedFunction<Integer, Query, IOException> queries = queryCache.wrap(queryStore, mapping, context).getQueries(leaf);
+        queries.apply(0);
+        queries.apply(0);
+        assertFalse(context.isCachable());
+    }
+
+    public void testSizeIsBoundedByMemory() throws Exception {
+        // room for about three queries that don't report their memory usage
+        long sizeInBytes = 3 * PercolatorQueryCache.QUERY_DEFAULT_RAM_BYTES_USED + 256;
+        Settings settings = Settings.builder().put(PercolatorQueryCache.QUERY_CACHE_SIZE_SETTING.getKey(), sizeInBytes + "b").build();
+        PercolatorQueryCache queryCache = new PercolatorQueryCache(settings);
+        AtomicInteger loads = new AtomicInteger();
+        PercolateQuery.QueryStore queryStore = queryStore(loads, () -> {});
+        try (Directory directory = newDirectory()) {
+            indexDocs(directory, 10);
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                CheckedFunction<Integer, Query, IOException> queries =
+                    queryCache.wrap(queryStore, new Object(), createContext()).getQueries(reader.leaves().get(0));
+                for (int docId = 0; docId < 10; docId++) {
+                    queries.apply(docId);
+                }
+                assertThat(loads.get(), equalTo(10));
+                assertThat(queryCache.count(), equalTo(3L));
+                assertThat(queryCache.stats().getEvictions(), equalTo(7L));
+            }
+        }
+    }
+
+    public void testDisabled() throws Exception {
+        Settings settings = Settings.builder().put(PercolatorQueryCache.QUERY_CACHE_SIZE_SETTING.getKey(), 0).build();
+        PercolatorQueryCache queryCache = new PercolatorQueryCache(settings);
+        PercolateQuery.QueryStore queryStore = queryStore(new AtomicInteger(), () -> {});
+        assertThat(queryCache.wrap(queryStore, new Object(), createContext()), sameInstance(queryStore));
+        queryCache.cleanCache();
+        assertThat(queryCache.count(), equalTo(0L));
+    }
+
+    private static PercolateQuery.QueryStore queryStore(AtomicInteger loads, Runnable convert) {
+        return ctx -> docId -> {
+            loads.incrementAndGet();
+            convert.run();
+            return new TermQuery(new Term("field", Integer.toString(docId)));
+        };
+    }
+
+    private static void indexDocs(Directory directory, int numDocs) throws IOException {
+        try (IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig(new WhitespaceAnalyzer()))) {
+            for (int i = 0; i < numDocs; i++) {
+                Document document = new Document();
+                document.add(new StringField("field", Integer.toString(i), Field.Store.NO));
+                indexWriter.addDocument(document);
+            }
+            indexWriter.forceMerge(1);
+        }
+    }
+
+    private QueryShardContext createContext() {
+        Settings indexSettings = Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT)
+            .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1).put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0).build();
+        return new QueryShardContext(0, new IndexSettings(IndexMetaData.builder("index").settings(indexSettings).build(), indexSettings),
+            null, null, null, null, null, xContentRegistry(), writableRegistry(), null, null, System::currentTimeMillis, null);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.http.netty4;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpChunkedInput;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.stream.ChunkedInput;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.http.HttpPipelinedMessage;
+import org.elasticsearch.http.HttpResponse;
+import org.elasticsearch.rest.ChunkedRestResponseBody;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.transport.netty4.Netty4Utils;
+
+/**
+ * The head of a response whose content is sent with chunked transfer encoding. The content is encoded by the
+ * {@link io.netty.handler.stream.ChunkedWriteHandler} one chunk at a time, and only while the channel is writable, so that a slow
+ * client doesn't cause the whole content to be buffered.
+ */
+public class Netty4ChunkedHttpResponse extends DefaultHttpResponse implements HttpResponse, HttpPipelinedMessage {
+
+    private final int sequence;
+    private final Netty4HttpRequest request;
+    private final HttpChunkedInput content;
+
+    Netty4ChunkedHttpResponse(Netty4HttpRequest request, RestStatus status, BytesReference firstChunk,
+                              ChunkedRestResponseBody remainingChunks, int chunkSize) {
+        super(request.nettyRequest().protocolVersion(), HttpResponseStatus.valueOf(status.getStatus()));
+        this.sequence = request.sequence();
+        this.request = request;
+        this.content = new HttpChunkedInput(new BodyInput(firstChunk, remainingChunks, chunkSize));
+        HttpUtil.setTransferEncodingChunked(this, true);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers().add(name, value);
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers().contains(name);
+    }
+
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    public Netty4HttpRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * The content of this response, to be written after it.
+     */
+    HttpChunkedInput content() {
+        return content;
+    }
+
+    private static class BodyInput implements ChunkedInput<ByteBuf> {
+
+        private final ChunkedRestResponseBody body;
+        private final int chunkSize;
+        private BytesReference firstChunk;
+        private long progress;
+
+        private BodyInput(BytesReference firstChunk, ChunkedRestResponseBody body, int chunkSize) {
+            this.firstChunk = firstChunk;
+            this.body = body;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public boolean isEndOfInput() {
+            return firstChunk == null && body.isDone();
+        }
+
+        @Override
+        public void close() {
+            // the resources that back the body are released by the rest channel once the response was sent or failed
+        }
+
+        @Override
+        @Deprecated
+        public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+            return readChunk(ctx.alloc());
+        }
+
+        @Override
+        public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+            final BytesReference chunk;
+            if (firstChunk != null) {
+                chunk = firstChunk;
+                firstChunk = null;
+            } else if (body.isDone()) {
+                return null;
+            } else {
+                chunk = body.encodeChunk(chunkSize);
+            }
+            progress += chunk.length();
+            return Netty4Utils.toByteBuf(chunk);
+        }
+
+        @Override
+        public long length() {
+            return -1;
+        }
+
+        @Override
+        public long progress() {
+            return progress;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.http.netty4;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies backpressure to HTTP clients by pausing the reads of a channel once the content of the requests that the node received
+ * but didn't respond to yet exceeds a limit. The reads are resumed once enough of these requests were responded to. Requests are
+ * only accounted once they are complete, so that they can be handled and the content that is in flight can always be released.
+ * This handler must be placed after the HTTP object aggregator, so that the requests that the aggregator rejects and responds to
+ * itself, like requests whose content is too large, are neither accounted nor released.
+ */
+class Netty4HttpFlowControlHandler extends ChannelDuplexHandler {
+
+    private final InFlightContent inFlightContent;
+    /**
+     * The content lengths of the requests of this channel that were received but not responded to yet, in order.
+     */
+    private final Queue<Long> unansweredRequests = new ArrayDeque<>();
+
+    Netty4HttpFlowControlHandler(InFlightContent inFlightContent) {
+        this.inFlightContent = inFlightContent;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof FullHttpRequest) {
+            final long length = ((FullHttpRequest) msg).content().readableBytes();
+            inFlightContent.add(length);
+            unansweredRequests.add(length);
+            inFlightContent.maybePause(ctx.channel());
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (msg instanceof LastHttpContent) {
+            Long length = unansweredRequests.poll();
+            if (length != null) {
+                inFlightContent.release(length);
+            }
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        for (Long length = unansweredRequests.poll(); length != null; length = unansweredRequests.poll()) {
+            inFlightContent.release(length);
+        }
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * The content of the HTTP requests that the node received but didn't respond to yet, shared by all the HTTP channels.
+     */
+    static final class InFlightContent {
+
+        private final long limit;
+        private final AtomicLong bytes = new AtomicLong();
+        private final Queue<Channel> pausedChannels = ConcurrentCollections.newQueue();
+
+        InFlightContent(long limit) {
+            this.limit = limit;
+        }
+
+        long getBytes() {
+            return bytes.get();
+        }
+
+        void maybePause(Channel channel) {
+            if (bytes.get() >= limit) {
+                channel.config().setAutoRead(false);
+                pausedChannels.add(channel);
+                // requests may have been responded to since the limit was checked, in which case nothing would resume the channel
+                if (bytes.get() < limit) {
+                    resumePausedChannels();
+                }
+            }
+        }
+
+        void add(long length) {
+            bytes.addAndGet(length);
+        }
+
+        void release(long length) {
+            if (bytes.addAndGet(-length) < limit) {
+                resumePausedChannels();
+            }
+        }
+
+        private void resumePausedChannels() {
+            for (Channel channel = pausedChannels.poll(); channel != null; channel = pausedChannels.poll()) {
+                channel.config().setAutoRead(true);
+            }
+        }
+    }
+}
@@ -20,11 +20,13 @@
 package org.elasticsearch.http.netty4;
 
 import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.FullHttpRequest;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.http.HttpPipelinedMessage;
 import org.elasticsearch.http.HttpPipelinedRequest;
 import org.elasticsearch.http.HttpPipeliningAggregator;
 
@@ -33,11 +35,13 @@ import java.util.List;
 
 /**
  * Implements HTTP pipelining ordering, ensuring that responses are completely served in the same order as their corresponding requests.
+ * The content of chunked responses is written after their head, and is encoded by the {@link io.netty.handler.stream.ChunkedWriteHandler}
+ * further down the pipeline.
  */
 public class Netty4HttpPipeliningHandler extends ChannelDuplexHandler {
 
     private final Logger logger;
-    private final HttpPipeliningAggregator<Netty4HttpResponse, ChannelPromise> aggregator;
+    private final HttpPipeliningAggregator<HttpPipelinedMessage, ChannelPromise> aggregator;
 
     /**
      * Construct a new pipelining handler; this handler should be used downstream of HTTP decoding/aggregation.
@@ -60,13 +64,21 @@ public class Netty4HttpPipeliningHandler extends ChannelDuplexHandler {
 
     @Override
     public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
-        assert msg instanceof Netty4HttpResponse : "Invalid message type: " + msg.getClass();
-        Netty4HttpResponse response = (Netty4HttpResponse) msg;
+        assert msg instanceof Netty4HttpResponse || msg instanceof Netty4ChunkedHttpResponse : "Invalid message type: " + msg.getClass();
+        HttpPipelinedMessage response = (HttpPipelinedMessage) msg;
         boolean success = false;
         try {
-            List<Tuple<Netty4HttpResponse, ChannelPromise>> readyResponses = aggregator.write(response, promise);
-            for (Tuple<Netty4HttpResponse, ChannelPromise> readyResponse : readyResponses) {
-                ctx.write(readyResponse.v1(), readyResponse.v2());
+            List<Tuple<HttpPipelinedMessage, ChannelPromise>> readyResponses = aggregator.write(response, promise);
+            for (Tuple<HttpPipelinedMessage, ChannelPromise> readyResponse : readyResponses) {
+                if (readyResponse.v1() instanceof Netty4ChunkedHttpResponse) {
+                    Netty4ChunkedHttpResponse chunkedResponse = (Netty4ChunkedHttpResponse) readyResponse.v1();
+                    ctx.write(chunkedResponse);
+                    // a response that fails half way through can't be completed anymore, so the channel needs to be closed
+                    readyResponse.v2().addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+                    ctx.write(chunkedResponse.content(), readyResponse.v2());
+                } else {
+                    ctx.write(readyResponse.v1(), readyResponse.v2());
+                }
             }
             success = true;
         } catch (IllegalStateException e) {
@@ -80,11 +92,11 @@ public class Netty4HttpPipeliningHandler extends ChannelDuplexHandler {
 
     @Override
     public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
-        List<Tuple<Netty4HttpResponse, ChannelPromise>> inflightResponses = aggregator.removeAllInflightResponses();
+        List<Tuple<HttpPipelinedMessage, ChannelPromise>> inflightResponses = aggregator.removeAllInflightResponses();
 
         if (inflightResponses.isEmpty() == false) {
             ClosedChannelException closedChannelException = new ClosedChannelException();
-            for (Tuple<Netty4HttpResponse, ChannelPromise> inflightResponse : inflightResponses) {
+            for (Tuple<HttpPipelinedMessage, ChannelPromise> inflightResponse : inflightResponses) {
                 try {
                     inflightResponse.v2().setFailure(closedChannelException);
                 } catch (RuntimeException e) {
@@ -38,6 +38,7 @@ import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.ReadTimeoutException;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.util.AttributeKey;
@@ -142,6 +143,13 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
     public static final Setting<ByteSizeValue> SETTING_HTTP_NETTY_RECEIVE_PREDICTOR_SIZE =
         Setting.byteSizeSetting("http.netty.receive_predictor_size", new ByteSizeValue(64, ByteSizeUnit.KB), Property.NodeScope);
 
+    /*
+     * Once the content of the HTTP requests that were received but not responded to yet reaches this limit, the channels stop
+     * reading new requests until enough of these requests were responded to.
+     */
+    public static final Setting<ByteSizeValue> SETTING_HTTP_NETTY_MAX_IN_FLIGHT_CONTENT_LENGTH =
+        Setting.memorySizeSetting("http.netty.max_in_flight_content_length", "10%", Property.NodeScope);
+
     private final ByteSizeValue maxInitialLineLength;
     private final ByteSizeValue maxHeaderSize;
     private final ByteSizeValue maxChunkSize;
@@ -155,6 +163,8 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
 
     private final int maxCompositeBufferComponents;
 
+    private final Netty4HttpFlowControlHandler.InFlightContent inFlightContent;
+
     protected volatile ServerBootstrap serverBootstrap;
 
     private final Netty4CorsConfig corsConfig;
@@ -179,10 +189,13 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
 
         this.corsConfig = buildCorsConfig(settings);
 
+        ByteSizeValue maxInFlightContentLength = SETTING_HTTP_NETTY_MAX_IN_FLIGHT_CONTENT_LENGTH.get(settings);
+        this.inFlightContent = new Netty4HttpFlowControlHandler.InFlightContent(maxInFlightContentLength.getBytes());
+
         logger.debug("using max_chunk_size[{}], max_header_size[{}], max_initial_line_length[{}], max_content_length[{}], " +
-                "receive_predictor[{}], max_composite_buffer_components[{}], pipelining_max_events[{}]",
+                "receive_predictor[{}], max_composite_buffer_components[{}], pipelining_max_events[{}], max_in_flight_content_length[{}]",
             maxChunkSize, maxHeaderSize, maxInitialLineLength, maxContentLength, receivePredictor, maxCompositeBufferComponents,
-            pipeliningMaxEvents);
+            pipeliningMaxEvents, maxInFlightContentLength);
     }
 
     public Settings settings() {
@@ -332,9 +345,11 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
             final HttpObjectAggregator aggregator = new HttpObjectAggregator(handlingSettings.getMaxContentLength());
             aggregator.setMaxCumulationBufferComponents(transport.maxCompositeBufferComponents);
             ch.pipeline().addLast("aggregator", aggregator);
+            ch.pipeline().addLast("flow_control", new Netty4HttpFlowControlHandler(transport.inFlightContent));
             if (handlingSettings.isCompression()) {
                 ch.pipeline().addLast("encoder_compress", new HttpContentCompressor(handlingSettings.getCompressionLevel()));
             }
+            ch.pipeline().addLast("chunked_writer", new ChunkedWriteHandler());
             if (handlingSettings.isCorsEnabled()) {
                 ch.pipeline().addLast("cors", new Netty4CorsHandler(transport.corsConfig));
             }
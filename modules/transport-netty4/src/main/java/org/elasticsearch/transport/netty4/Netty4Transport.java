@@ -54,10 +54,16 @@ import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TcpTransport;
+import org.elasticsearch.transport.TransportRequestOptions;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
@@ -91,21 +97,47 @@ public class Netty4Transport extends TcpTransport {
         byteSizeSetting("transport.netty.receive_predictor_max", NETTY_RECEIVE_PREDICTOR_SIZE, Property.NodeScope);
     public static final Setting<Integer> NETTY_BOSS_COUNT =
         intSetting("transport.netty.boss_count", 1, 1, Property.NodeScope);
-
+    /**
+     * The number of workers of the event loop group that is dedicated to the connections of a type of requests, e.g.
+     * {@code transport.netty.dedicated_worker_count.bulk: 2}. The connections that this node opens for the types without dedicated
+     * workers, as well as all the connections that are accepted by this node, use the shared workers.
+     */
+    public static final Setting.AffixSetting<Integer> DEDICATED_WORKER_COUNT = Setting.prefixKeySetting(
+        "transport.netty.dedicated_worker_count.", key -> new Setting<>(key, "1", s -> Setting.parseInt(s, 1, key),
+            (value, settings) -> dedicatedWorkerType(key), Property.NodeScope));
+
+    private static TransportRequestOptions.Type dedicatedWorkerType(String key) {
+        final String type = key.substring(key.lastIndexOf('.') + 1);
+        try {
+            return TransportRequestOptions.Type.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown connection type [" + type + "] for setting [" + key + "]", e);
+        }
+    }
 
     private final RecvByteBufAllocator recvByteBufAllocator;
     private final int workerCount;
     private final ByteSizeValue receivePredictorMin;
     private final ByteSizeValue receivePredictorMax;
+    private final Map<TransportRequestOptions.Type, Integer> dedicatedWorkerCounts;
     private final Map<String, ServerBootstrap> serverBootstraps = newConcurrentMap();
     private volatile Bootstrap clientBootstrap;
     private volatile NioEventLoopGroup eventLoopGroup;
+    private final Map<TransportRequestOptions.Type, NioEventLoopGroup> dedicatedEventLoopGroups =
+        new EnumMap<>(TransportRequestOptions.Type.class);
+    private final Map<TransportRequestOptions.Type, Bootstrap> dedicatedClientBootstraps =
+        new EnumMap<>(TransportRequestOptions.Type.class);
 
     public Netty4Transport(Settings settings, Version version, ThreadPool threadPool, NetworkService networkService, BigArrays bigArrays,
                            NamedWriteableRegistry namedWriteableRegistry, CircuitBreakerService circuitBreakerService) {
         super("netty", settings, version, threadPool, bigArrays, circuitBreakerService, namedWriteableRegistry, networkService);
         Netty4Utils.setAvailableProcessors(EsExecutors.PROCESSORS_SETTING.get(settings));
         this.workerCount = WORKER_COUNT.get(settings);
+        this.dedicatedWorkerCounts = new EnumMap<>(TransportRequestOptions.Type.class);
+        for (Map.Entry<String, Integer> entry : DEDICATED_WORKER_COUNT.getAsMap(settings).entrySet()) {
+            final String key = DEDICATED_WORKER_COUNT.getConcreteSettingForNamespace(entry.getKey()).getKey();
+            dedicatedWorkerCounts.put(dedicatedWorkerType(key), entry.getValue());
+        }
 
         // See AdaptiveReceiveBufferSizePredictor#DEFAULT_XXX for default values in netty..., we can use higher ones for us, even fixed one
         this.receivePredictorMin = NETTY_RECEIVE_PREDICTOR_MIN.get(settings);
@@ -125,6 +157,13 @@ public class Netty4Transport extends TcpTransport {
             ThreadFactory threadFactory = daemonThreadFactory(settings, TRANSPORT_WORKER_THREAD_NAME_PREFIX);
             eventLoopGroup = new NioEventLoopGroup(workerCount, threadFactory);
             clientBootstrap = createClientBootstrap(eventLoopGroup);
+            for (Map.Entry<TransportRequestOptions.Type, Integer> entry : dedicatedWorkerCounts.entrySet()) {
+                final String type = entry.getKey().name().toLowerCase(Locale.ROOT);
+                ThreadFactory dedicatedThreadFactory = daemonThreadFactory(settings, TRANSPORT_WORKER_THREAD_NAME_PREFIX + "_" + type);
+                NioEventLoopGroup dedicatedEventLoopGroup = new NioEventLoopGroup(entry.getValue(), dedicatedThreadFactory);
+                dedicatedEventLoopGroups.put(entry.getKey(), dedicatedEventLoopGroup);
+                dedicatedClientBootstraps.put(entry.getKey(), createClientBootstrap(dedicatedEventLoopGroup));
+            }
             if (NetworkService.NETWORK_SERVER.get(settings)) {
                 for (ProfileSettings profileSettings : profileSettings) {
                     createServerBootstrap(profileSettings, eventLoopGroup);
@@ -217,8 +256,23 @@ public class Netty4Transport extends TcpTransport {
 
     @Override
     protected Netty4TcpChannel initiateChannel(DiscoveryNode node) throws IOException {
+        return initiateChannel(node, clientBootstrap);
+    }
+
+    @Override
+    protected Netty4TcpChannel initiateChannel(DiscoveryNode node, Set<TransportRequestOptions.Type> types) throws IOException {
+        if (types.size() == 1) {
+            Bootstrap dedicatedClientBootstrap = dedicatedClientBootstraps.get(types.iterator().next());
+            if (dedicatedClientBootstrap != null) {
+                return initiateChannel(node, dedicatedClientBootstrap);
+            }
+        }
+        return initiateChannel(node);
+    }
+
+    private Netty4TcpChannel initiateChannel(DiscoveryNode node, Bootstrap bootstrap) throws IOException {
         InetSocketAddress address = node.getAddress().address();
-        Bootstrap bootstrapWithHandler = clientBootstrap.clone();
+        Bootstrap bootstrapWithHandler = bootstrap.clone();
         bootstrapWithHandler.handler(getClientChannelInitializer(node));
         bootstrapWithHandler.remoteAddress(address);
         ChannelFuture connectFuture = bootstrapWithHandler.connect();
@@ -256,14 +310,23 @@ public class Netty4Transport extends TcpTransport {
     @SuppressForbidden(reason = "debug")
     protected void stopInternal() {
         Releasables.close(() -> {
-            Future<?> shutdownFuture = eventLoopGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
-            shutdownFuture.awaitUninterruptibly();
-            if (shutdownFuture.isSuccess() == false) {
-                logger.warn("Error closing netty event loop group", shutdownFuture.cause());
+            List<NioEventLoopGroup> eventLoopGroups = new ArrayList<>(dedicatedEventLoopGroups.values());
+            eventLoopGroups.add(eventLoopGroup);
+            List<Future<?>> shutdownFutures = new ArrayList<>(eventLoopGroups.size());
+            for (NioEventLoopGroup group : eventLoopGroups) {
+                shutdownFutures.add(group.shutdownGracefully(0, 5, TimeUnit.SECONDS));
+            }
+            for (Future<?> shutdownFuture : shutdownFutures) {
+                shutdownFuture.awaitUninterruptibly();
+                if (shutdownFuture.isSuccess() == false) {
+                    logger.warn("Error closing netty event loop group", shutdownFuture.cause());
+                }
             }
 
             serverBootstraps.clear();
             clientBootstrap = null;
+            dedicatedEventLoopGroups.clear();
+            dedicatedClientBootstraps.clear();
         });
     }
 
@@ -100,7 +100,7 @@ public class Netty4Utils {
             return ((ByteBufBytesReference) reference).toByteBuf();
         } else {
             final BytesRefIterator iterator = reference.iterator();
-            // usually we have one, two, or three components from the header, the message, and a buffer
+            // usually we have a few components from the header, the message, and the large bytes references of the message
             final List<ByteBuf> buffers = new ArrayList<>(3);
             try {
                 BytesRef slice;
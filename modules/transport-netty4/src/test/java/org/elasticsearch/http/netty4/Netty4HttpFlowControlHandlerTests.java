@@ -0,0 +1,123 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.http.netty4;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import org.elasticsearch.test.ESTestCase;
+
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+
+public class Netty4HttpFlowControlHandlerTests extends ESTestCase {
+
+    public void testPausesRequestsUntilResponded() {
+        Netty4HttpFlowControlHandler.InFlightContent inFlightContent = new Netty4HttpFlowControlHandler.InFlightContent(10);
+        EmbeddedChannel first = new EmbeddedChannel(new Netty4HttpFlowControlHandler(inFlightContent));
+        EmbeddedChannel second = new EmbeddedChannel(new Netty4HttpFlowControlHandler(inFlightContent));
+
+        receiveRequest(first, 6);
+        assertEquals(6, inFlightContent.getBytes());
+        assertTrue(first.config().isAutoRead());
+
+        // the limit is exceeded, so the channel that received the last request stops reading
+        receiveRequest(second, 6);
+        assertEquals(12, inFlightContent.getBytes());
+        assertTrue(first.config().isAutoRead());
+        assertFalse(second.config().isAutoRead());
+
+        // and so does any channel that receives a request while the limit is exceeded
+        receiveRequest(first, 0);
+        assertFalse(first.config().isAutoRead());
+
+        first.writeOutbound(new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.OK));
+        assertEquals(6, inFlightContent.getBytes());
+        assertTrue(first.config().isAutoRead());
+        assertTrue(second.config().isAutoRead());
+
+        // the content of requests that were not responded to is released when the channel is closed
+        second.close();
+        assertEquals(0, inFlightContent.getBytes());
+        first.close();
+    }
+
+    public void testPartialRequestsAreNotPaused() {
+        Netty4HttpFlowControlHandler.InFlightContent inFlightContent = new Netty4HttpFlowControlHandler.InFlightContent(4);
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpObjectAggregator(1024), new Netty4HttpFlowControlHandler(inFlightContent));
+        channel.writeInbound(new DefaultHttpRequest(HTTP_1_1, HttpMethod.POST, "/_bulk"));
+        for (int i = 0; i < 3; i++) {
+            channel.writeInbound(new DefaultHttpContent(Unpooled.wrappedBuffer(new byte[4])));
+            assertTrue(channel.config().isAutoRead());
+            assertEquals(0, inFlightContent.getBytes());
+        }
+        channel.writeInbound(new DefaultLastHttpContent());
+        assertEquals(12, inFlightContent.getBytes());
+        assertFalse(channel.config().isAutoRead());
+        channel.close();
+        assertEquals(0, inFlightContent.getBytes());
+    }
+
+    public void testRequestsRejectedByTheAggregatorAreNotAccounted() {
+        Netty4HttpFlowControlHandler.InFlightContent inFlightContent = new Netty4HttpFlowControlHandler.InFlightContent(100);
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpObjectAggregator(10), new Netty4HttpFlowControlHandler(inFlightContent));
+
+        // an oversized request is responded to by the aggregator and the keep-alive channel is kept open
+        HttpRequest oversized = new DefaultHttpRequest(HTTP_1_1, HttpMethod.POST, "/_bulk");
+        HttpUtil.setContentLength(oversized, 20);
+        channel.writeInbound(oversized);
+        channel.writeInbound(new DefaultLastHttpContent(Unpooled.wrappedBuffer(new byte[20])));
+        FullHttpResponse tooLarge = channel.readOutbound();
+        assertEquals(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE, tooLarge.status());
+        tooLarge.release();
+        assertNull(channel.readInbound());
+        assertTrue(channel.isOpen());
+        assertEquals(0, inFlightContent.getBytes());
+
+        // the next request on the same channel is accounted and released on its own response
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, HttpMethod.POST, "/_bulk",
+            Unpooled.wrappedBuffer(new byte[6]));
+        request.headers().set(HttpHeaderNames.CONTENT_LENGTH, 6);
+        channel.writeInbound(request);
+        assertEquals(6, inFlightContent.getBytes());
+        FullHttpRequest received = channel.readInbound();
+        assertEquals(6, received.content().readableBytes());
+        received.release();
+        channel.writeOutbound(new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.OK));
+        assertEquals(0, inFlightContent.getBytes());
+        channel.close();
+        assertEquals(0, inFlightContent.getBytes());
+    }
+
+    private static void receiveRequest(EmbeddedChannel channel, int length) {
+        channel.writeInbound(new DefaultFullHttpRequest(HTTP_1_1, HttpMethod.POST, "/_bulk", Unpooled.wrappedBuffer(new byte[length])));
+    }
+}
@@ -27,14 +27,18 @@ import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import org.elasticsearch.common.Randomness;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.http.HttpPipelinedRequest;
+import org.elasticsearch.rest.ChunkedRestResponseBody;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.After;
@@ -56,6 +60,7 @@ import java.util.stream.IntStream;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.core.Is.is;
 
 public class Netty4HttpPipeliningHandlerTests extends ESTestCase {
@@ -208,6 +213,66 @@ public class Netty4HttpPipeliningHandlerTests extends ESTestCase {
         }
     }
 
+    public void testChunkedResponsesAreWrittenInOrder() throws Exception {
+        final EmbeddedChannel embeddedChannel = new EmbeddedChannel(new ChunkedWriteHandler(),
+            new Netty4HttpPipeliningHandler(logger, 2));
+        embeddedChannel.writeInbound(createHttpRequest("/chunked"));
+        embeddedChannel.writeInbound(createHttpRequest("/full"));
+        HttpPipelinedRequest<FullHttpRequest> chunkedRequest = embeddedChannel.readInbound();
+        HttpPipelinedRequest<FullHttpRequest> fullRequest = embeddedChannel.readInbound();
+
+        final List<String> chunks = new ArrayList<>();
+        final int numberOfChunks = randomIntBetween(1, 10);
+        for (int i = 0; i < numberOfChunks; i++) {
+            chunks.add(randomAlphaOfLengthBetween(1, 10));
+        }
+        final ChunkedRestResponseBody body = new ChunkedRestResponseBody() {
+
+            private int next = 1;
+
+            @Override
+            public boolean isDone() {
+                return next == chunks.size();
+            }
+
+            @Override
+            public BytesReference encodeChunk(int sizeHint) {
+                return new BytesArray(chunks.get(next++));
+            }
+
+            @Override
+            public String getResponseContentTypeString() {
+                return "text/plain";
+            }
+        };
+
+        // the second response is held back until the first one was written
+        ChannelPromise fullPromise = embeddedChannel.newPromise();
+        Netty4HttpRequest fullHttpRequest = new Netty4HttpRequest(fullRequest.getRequest(), fullRequest.getSequence());
+        embeddedChannel.writeAndFlush(fullHttpRequest.createResponse(RestStatus.OK, new BytesArray("full")), fullPromise);
+        assertTrue(embeddedChannel.outboundMessages().isEmpty());
+
+        ChannelPromise chunkedPromise = embeddedChannel.newPromise();
+        Netty4HttpRequest chunkedHttpRequest = new Netty4HttpRequest(chunkedRequest.getRequest(), chunkedRequest.getSequence());
+        embeddedChannel.writeAndFlush(chunkedHttpRequest.createChunkedResponse(RestStatus.OK, new BytesArray(chunks.get(0)), body, 1),
+            chunkedPromise);
+
+        io.netty.handler.codec.http.HttpResponse head = embeddedChannel.readOutbound();
+        assertThat(head, instanceOf(Netty4ChunkedHttpResponse.class));
+        assertTrue(HttpUtil.isTransferEncodingChunked(head));
+        StringBuilder content = new StringBuilder();
+        HttpContent chunk;
+        do {
+            chunk = embeddedChannel.readOutbound();
+            content.append(chunk.content().toString(StandardCharsets.UTF_8));
+            chunk.release();
+        } while (chunk instanceof LastHttpContent == false);
+        assertEquals(String.join("", chunks), content.toString());
+        assertTrue(chunkedPromise.isSuccess());
+
+        assertReadHttpMessageHasContent(embeddedChannel, "full");
+        assertTrue(fullPromise.isSuccess());
+    }
 
     private void assertReadHttpMessageHasContent(EmbeddedChannel embeddedChannel, String expectedContent) {
         FullHttpResponse response = (FullHttpResponse) embeddedChannel.outboundMessages().poll();
@@ -36,10 +36,17 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.AbstractSimpleTransportTestCase;
 import org.elasticsearch.transport.BindTransportException;
 import org.elasticsearch.transport.ConnectTransportException;
+import org.elasticsearch.transport.ConnectionProfile;
+import org.elasticsearch.transport.EmptyTransportResponseHandler;
+import org.elasticsearch.transport.PlainTransportFuture;
 import org.elasticsearch.transport.TcpChannel;
 import org.elasticsearch.transport.TcpTransport;
 import org.elasticsearch.transport.Transport;
+import org.elasticsearch.transport.TransportRequest;
+import org.elasticsearch.transport.TransportRequestOptions;
+import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportService;
+import org.elasticsearch.transport.TransportStats;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -48,6 +55,9 @@ import java.util.Collections;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
 
 public class SimpleNetty4TransportTests extends AbstractSimpleTransportTestCase {
 
@@ -114,4 +124,57 @@ public class SimpleNetty4TransportTests extends AbstractSimpleTransportTestCase
         assertEquals("Failed to bind to ["+ port + "]", bindTransportException.getMessage());
     }
 
+    public void testDedicatedWorkers() throws Exception {
+        serviceA.registerRequestHandler("internal:bulk", TransportRequest.Empty::new, ThreadPool.Names.SAME,
+            (request, channel, task) -> channel.sendResponse(TransportResponse.Empty.INSTANCE));
+        Settings settings = Settings.builder().put("transport.netty.dedicated_worker_count.bulk", 1).build();
+        try (MockTransportService serviceC = buildService("TS_C", Version.CURRENT, null, settings)) {
+            ConnectionProfile.Builder builder = new ConnectionProfile.Builder();
+            builder.addConnections(1, TransportRequestOptions.Type.BULK);
+            builder.addConnections(1, TransportRequestOptions.Type.PING, TransportRequestOptions.Type.RECOVERY,
+                TransportRequestOptions.Type.REG, TransportRequestOptions.Type.STATE);
+            TcpTransport transport = (TcpTransport) serviceC.getOriginalTransport();
+            try (TcpTransport.NodeChannels connection = transport.openConnection(nodeA, builder.build())) {
+                // only the channel that carries nothing but bulk requests is registered on the dedicated workers
+                String bulkWorker = workerThreadName(connection.channel(TransportRequestOptions.Type.BULK));
+                assertThat(bulkWorker, containsString(TcpTransport.TRANSPORT_WORKER_THREAD_NAME_PREFIX + "_bulk"));
+                String regWorker = workerThreadName(connection.channel(TransportRequestOptions.Type.REG));
+                assertThat(regWorker, containsString(TcpTransport.TRANSPORT_WORKER_THREAD_NAME_PREFIX));
+                assertThat(regWorker, not(containsString(TcpTransport.TRANSPORT_WORKER_THREAD_NAME_PREFIX + "_bulk")));
+
+                PlainTransportFuture<TransportResponse.Empty> future =
+                    new PlainTransportFuture<>(EmptyTransportResponseHandler.INSTANCE_SAME);
+                serviceC.sendRequest(connection, "internal:bulk", TransportRequest.Empty.INSTANCE,
+                    TransportRequestOptions.builder().withType(TransportRequestOptions.Type.BULK).build(), future);
+                future.txGet();
+
+                TransportStats stats = serviceC.stats();
+                TransportStats.ConnectionTypeStats bulkStats = stats.getConnectionTypes().get(TransportRequestOptions.Type.BULK);
+                assertThat(bulkStats, notNullValue());
+                assertThat(bulkStats.getTxCount(), greaterThan(0L));
+                assertThat(bulkStats.getRxCount(), greaterThan(0L));
+                // channels that carry several types aren't accounted per type
+                assertNull(stats.getConnectionTypes().get(TransportRequestOptions.Type.REG));
+            }
+        }
+    }
+
+    private static String workerThreadName(TcpChannel channel) throws Exception {
+        return ((Netty4TcpChannel) channel).getNettyChannel().eventLoop().submit(() -> Thread.currentThread().getName()).get();
+    }
+
+    public void testUnknownDedicatedWorkerType() {
+        Settings settings = Settings.builder()
+            .put(TcpTransport.PORT.getKey(), "0")
+            .put("transport.netty.dedicated_worker_count.foo", 1)
+            .build();
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> Netty4Transport.DEDICATED_WORKER_COUNT.getConcreteSettingForNamespace("foo").get(settings));
+        assertEquals("unknown connection type [foo] for setting [transport.netty.dedicated_worker_count.foo]", e.getMessage());
+
+        e = expectThrows(IllegalArgumentException.class,
+            () -> nettyFromThreadPool(settings, threadPool, Version.CURRENT, null, true));
+        assertEquals("unknown connection type [foo] for setting [transport.netty.dedicated_worker_count.foo]", e.getMessage());
+    }
+
 }
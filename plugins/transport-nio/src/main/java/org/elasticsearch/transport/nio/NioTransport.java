@@ -33,6 +33,7 @@ import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.nio.BytesChannelContext;
 import org.elasticsearch.nio.ChannelFactory;
+import org.elasticsearch.nio.DirectBufferPool;
 import org.elasticsearch.nio.EventHandler;
 import org.elasticsearch.nio.InboundChannelBuffer;
 import org.elasticsearch.nio.NioGroup;
@@ -41,6 +42,7 @@ import org.elasticsearch.nio.NioSocketChannel;
 import org.elasticsearch.nio.ServerChannelContext;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TcpTransport;
+import org.elasticsearch.transport.TransportStats;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -127,6 +129,26 @@ public class NioTransport extends TcpTransport {
         profileToChannelFactory.clear();
     }
 
+    @Override
+    protected TransportStats.BufferPoolStats getBufferPoolStats() {
+        NioGroup nioGroup = this.nioGroup;
+        if (nioGroup == null) {
+            return null;
+        }
+        long hits = 0;
+        long misses = 0;
+        long pooledBytes = 0;
+        long bytesInUse = 0;
+        for (NioSelector selector : nioGroup.getSelectors()) {
+            DirectBufferPool bufferPool = selector.getBufferPool();
+            hits += bufferPool.getHits();
+            misses += bufferPool.getMisses();
+            pooledBytes += bufferPool.getPooledBytes();
+            bytesInUse += bufferPool.getBytesInUse();
+        }
+        return new TransportStats.BufferPoolStats(hits, misses, pooledBytes, bytesInUse);
+    }
+
     protected void acceptChannel(NioSocketChannel channel) {
         serverAcceptedChannel((NioTcpChannel) channel);
     }
@@ -158,10 +180,14 @@ public class NioTransport extends TcpTransport {
         @Override
         public NioTcpChannel createChannel(NioSelector selector, SocketChannel channel) throws IOException {
             NioTcpChannel nioChannel = new NioTcpChannel(profileName, channel);
-            Supplier<InboundChannelBuffer.Page> pageSupplier = () -> {
+            // transport messages are consumed before the pages are released, so they can be direct pages of the selector, and
+            // heap pages of the recycler are used once the selector handed out all the direct pages it may
+            Supplier<InboundChannelBuffer.Page> recyclerPageSupplier = () -> {
                 Recycler.V<byte[]> bytes = pageCacheRecycler.bytePage(false);
                 return new InboundChannelBuffer.Page(ByteBuffer.wrap(bytes.v()), bytes::close);
             };
+            DirectBufferPool bufferPool = selector.getBufferPool();
+            Supplier<InboundChannelBuffer.Page> pageSupplier = () -> bufferPool.acquirePage(recyclerPageSupplier);
             TcpReadWriteHandler readWriteHandler = new TcpReadWriteHandler(nioChannel, NioTransport.this);
             Consumer<Exception> exceptionHandler = (e) -> onException(nioChannel, e);
             BytesChannelContext context = new BytesChannelContext(nioChannel, selector, exceptionHandler, readWriteHandler,
@@ -23,6 +23,8 @@ import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.network.NetworkService;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
@@ -40,7 +42,14 @@ import org.elasticsearch.transport.ConnectTransportException;
 import org.elasticsearch.transport.TcpChannel;
 import org.elasticsearch.transport.TcpTransport;
 import org.elasticsearch.transport.Transport;
+import org.elasticsearch.transport.TransportException;
+import org.elasticsearch.transport.TransportFuture;
+import org.elasticsearch.transport.TransportRequest;
+import org.elasticsearch.transport.TransportRequestOptions;
+import org.elasticsearch.transport.TransportResponse;
+import org.elasticsearch.transport.TransportResponseHandler;
 import org.elasticsearch.transport.TransportService;
+import org.elasticsearch.transport.TransportStats;
 
 import java.io.IOException;
 import java.net.InetAddress;
@@ -50,6 +59,7 @@ import java.util.Collections;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.instanceOf;
 
 public class SimpleNioTransportTests extends AbstractSimpleTransportTestCase {
@@ -120,4 +130,78 @@ public class SimpleNioTransportTests extends AbstractSimpleTransportTestCase {
         });
         assertEquals("Failed to bind to ["+ port + "]", bindTransportException.getMessage());
     }
+
+    public void testRoundTripThroughPooledDirectPages() throws Exception {
+        serviceA.registerRequestHandler("internal:echo", PayloadRequest::new, ThreadPool.Names.GENERIC,
+            (request, channel, task) -> channel.sendResponse(new PayloadResponse(request.payload)));
+
+        // the payload spans several pages, and the messages are read from slices of the pages past their headers
+        final byte[] payload = randomByteArrayOfLength(randomIntBetween(1, 3 * BigArrays.BYTE_PAGE_SIZE));
+        final TransportRequestOptions options = TransportRequestOptions.builder().withCompress(randomBoolean()).build();
+        final TransportFuture<PayloadResponse> future = serviceB.submitRequest(nodeA, "internal:echo", new PayloadRequest(payload),
+            options, new TransportResponseHandler<PayloadResponse>() {
+                @Override
+                public PayloadResponse read(StreamInput in) throws IOException {
+                    return new PayloadResponse(in);
+                }
+
+                @Override
+                public void handleResponse(PayloadResponse response) {
+                }
+
+                @Override
+                public void handleException(TransportException exp) {
+                }
+
+                @Override
+                public String executor() {
+                    return ThreadPool.Names.SAME;
+                }
+            });
+        assertArrayEquals(payload, future.txGet().payload);
+
+        final TransportStats.BufferPoolStats bufferPoolStats = serviceA.stats().getBufferPool();
+        assertNotNull(bufferPoolStats);
+        assertThat(bufferPoolStats.getHits() + bufferPoolStats.getMisses(), greaterThan(0L));
+    }
+
+    private static final class PayloadRequest extends TransportRequest {
+
+        private final byte[] payload;
+
+        PayloadRequest(byte[] payload) {
+            this.payload = payload;
+        }
+
+        PayloadRequest(StreamInput in) throws IOException {
+            super(in);
+            payload = in.readByteArray();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            out.writeByteArray(payload);
+        }
+    }
+
+    private static final class PayloadResponse extends TransportResponse {
+
+        private final byte[] payload;
+
+        PayloadResponse(byte[] payload) {
+            this.payload = payload;
+        }
+
+        PayloadResponse(StreamInput in) throws IOException {
+            super(in);
+            payload = in.readByteArray();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            out.writeByteArray(payload);
+        }
+    }
 }
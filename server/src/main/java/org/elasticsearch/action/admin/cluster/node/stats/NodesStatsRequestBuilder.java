@@ -149,4 +149,12 @@ public class NodesStatsRequestBuilder
         return this;
     }
 
+    /**
+     * Should indexing pressure statistics be returned.
+     */
+    public NodesStatsRequestBuilder setIndexingPressure(boolean indexingPressure) {
+        request.indexingPressure(indexingPressure);
+        return this;
+    }
+
 }
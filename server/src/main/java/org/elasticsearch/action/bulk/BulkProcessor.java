@@ -88,6 +88,7 @@ public class BulkProcessor implements Closeable {
         private int bulkActions = 1000;
         private ByteSizeValue bulkSize = new ByteSizeValue(5, ByteSizeUnit.MB);
         private TimeValue flushInterval = null;
+        private TimeValue targetLatency = null;
         private BackoffPolicy backoffPolicy = BackoffPolicy.exponentialBackoff();
         private String globalIndex;
         private String globalType;
@@ -141,6 +142,18 @@ public class BulkProcessor implements Closeable {
             return this;
         }
 
+        /**
+         * Adapts the number of concurrent requests to how fast the cluster processes them, between {@code 1} and the
+         * {@link #setConcurrentRequests(int) concurrent requests}. The processor starts with a single request and allows one more
+         * after each bulk request that completed within the given latency and without rejected actions, and halves the number of
+         * concurrent requests after each one that didn't. Defaults to not set, which always allows the configured number of
+         * concurrent requests.
+         */
+        public Builder setTargetLatency(TimeValue targetLatency) {
+            this.targetLatency = targetLatency;
+            return this;
+        }
+
         public Builder setGlobalIndex(String globalIndex) {
             this.globalIndex = globalIndex;
             return this;
@@ -181,8 +194,12 @@ public class BulkProcessor implements Closeable {
          * Builds a new bulk processor.
          */
         public BulkProcessor build() {
+            if (targetLatency != null && concurrentRequests < 1) {
+                throw new IllegalArgumentException("a target latency requires at least one concurrent request but got ["
+                    + concurrentRequests + "]");
+            }
             return new BulkProcessor(consumer, backoffPolicy, listener, concurrentRequests, bulkActions,
-                bulkSize, flushInterval, scheduler, onClose, createBulkRequestWithGlobalDefaults());
+                bulkSize, flushInterval, targetLatency, scheduler, onClose, createBulkRequestWithGlobalDefaults());
         }
 
         private Supplier<BulkRequest> createBulkRequestWithGlobalDefaults() {
@@ -224,11 +241,19 @@ public class BulkProcessor implements Closeable {
     BulkProcessor(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy, Listener listener,
                   int concurrentRequests, int bulkActions, ByteSizeValue bulkSize, @Nullable TimeValue flushInterval,
                   Scheduler scheduler, Runnable onClose, Supplier<BulkRequest> bulkRequestSupplier) {
+        this(consumer, backoffPolicy, listener, concurrentRequests, bulkActions, bulkSize, flushInterval, null, scheduler, onClose,
+            bulkRequestSupplier);
+    }
+
+    BulkProcessor(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy, Listener listener,
+                  int concurrentRequests, int bulkActions, ByteSizeValue bulkSize, @Nullable TimeValue flushInterval,
+                  @Nullable TimeValue targetLatency, Scheduler scheduler, Runnable onClose, Supplier<BulkRequest> bulkRequestSupplier) {
         this.bulkActions = bulkActions;
         this.bulkSize = bulkSize.getBytes();
         this.bulkRequest = bulkRequestSupplier.get();
         this.bulkRequestSupplier = bulkRequestSupplier;
-        this.bulkRequestHandler = new BulkRequestHandler(consumer, backoffPolicy, listener, scheduler, concurrentRequests);
+        this.bulkRequestHandler = new BulkRequestHandler(consumer, backoffPolicy, listener, scheduler, concurrentRequests,
+            targetLatency);
         // Start period flushing task after everything is setup
         this.cancellableFlushTask = startFlushTask(flushInterval, scheduler);
         this.onClose = onClose;
@@ -392,6 +417,98 @@ public class BulkProcessor implements Closeable {
         }
     }
 
+    /**
+     * Returns the stats of the bulk requests that this processor executed so far. Sampling them periodically gives the
+     * throughput and the latency of the ingestion.
+     */
+    public Stats stats() {
+        return bulkRequestHandler.stats();
+    }
+
+    /**
+     * The stats of the bulk requests that a {@link BulkProcessor} executed.
+     */
+    public static final class Stats {
+
+        private final long completedBulks;
+        private final long failedBulks;
+        private final long actions;
+        private final long sizeInBytes;
+        private final long rejectedActions;
+        private final long latencyCount;
+        private final long latencyInNanos;
+        private final int concurrentRequests;
+
+        Stats(long completedBulks, long failedBulks, long actions, long sizeInBytes, long rejectedActions, long latencyCount,
+              long latencyInNanos, int concurrentRequests) {
+            this.completedBulks = completedBulks;
+            this.failedBulks = failedBulks;
+            this.actions = actions;
+            this.sizeInBytes = sizeInBytes;
+            this.rejectedActions = rejectedActions;
+            this.latencyCount = latencyCount;
+            this.latencyInNanos = latencyInNanos;
+            this.concurrentRequests = concurrentRequests;
+        }
+
+        /**
+         * The number of bulk requests that got a response, including the ones with failed actions.
+         */
+        public long getCompletedBulks() {
+            return completedBulks;
+        }
+
+        /**
+         * The number of bulk requests that failed as a whole.
+         */
+        public long getFailedBulks() {
+            return failedBulks;
+        }
+
+        /**
+         * The number of actions of the bulk requests that got a response.
+         */
+        public long getActions() {
+            return actions;
+        }
+
+        /**
+         * The estimated size of the bulk requests that got a response.
+         */
+        public ByteSizeValue getSize() {
+            return new ByteSizeValue(sizeInBytes);
+        }
+
+        /**
+         * The number of actions that the cluster rejected because it was overloaded, after the retries of the backoff policy.
+         */
+        public long getRejectedActions() {
+            return rejectedActions;
+        }
+
+        /**
+         * The total time that the bulk requests took, from their execution until their response or failure, including the
+         * retries of the backoff policy.
+         */
+        public TimeValue getTotalLatency() {
+            return new TimeValue(latencyInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * The average time that the bulk requests took, see {@link #getTotalLatency()}.
+         */
+        public TimeValue getAverageLatency() {
+            return new TimeValue(latencyCount == 0 ? 0 : latencyInNanos / latencyCount, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * The number of bulk requests that are currently allowed to be executed concurrently.
+         */
+        public int getConcurrentRequests() {
+            return concurrentRequests;
+        }
+    }
+
     class Flush implements Runnable {
 
         @Override
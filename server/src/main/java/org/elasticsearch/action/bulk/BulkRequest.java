@@ -168,7 +168,7 @@ public class BulkRequest extends ActionRequest implements CompositeIndicesReques
         requests.add(request);
         addPayload(payload);
         // lack of source is validated in validate() method
-        sizeInBytes += (request.source() != null ? request.source().length() : 0) + REQUEST_OVERHEAD;
+        sizeInBytes += estimatedSizeInBytes(request);
         indices.add(request.index());
         return this;
     }
@@ -190,15 +190,7 @@ public class BulkRequest extends ActionRequest implements CompositeIndicesReques
 
         requests.add(request);
         addPayload(payload);
-        if (request.doc() != null) {
-            sizeInBytes += request.doc().source().length();
-        }
-        if (request.upsertRequest() != null) {
-            sizeInBytes += request.upsertRequest().source().length();
-        }
-        if (request.script() != null) {
-            sizeInBytes += request.script().getIdOrCode().length() * 2;
-        }
+        sizeInBytes += estimatedSizeInBytes(request);
         indices.add(request.index());
         return this;
     }
@@ -216,11 +208,36 @@ public class BulkRequest extends ActionRequest implements CompositeIndicesReques
 
         requests.add(request);
         addPayload(payload);
-        sizeInBytes += REQUEST_OVERHEAD;
+        sizeInBytes += estimatedSizeInBytes(request);
         indices.add(request.index());
         return this;
     }
 
+    /**
+     * Returns the number of bytes that the given request adds to {@link #estimatedSizeInBytes()}.
+     */
+    static long estimatedSizeInBytes(DocWriteRequest<?> request) {
+        if (request instanceof IndexRequest) {
+            final IndexRequest indexRequest = (IndexRequest) request;
+            return (indexRequest.source() != null ? indexRequest.source().length() : 0) + REQUEST_OVERHEAD;
+        } else if (request instanceof UpdateRequest) {
+            final UpdateRequest updateRequest = (UpdateRequest) request;
+            long size = 0;
+            if (updateRequest.doc() != null) {
+                size += updateRequest.doc().source().length();
+            }
+            if (updateRequest.upsertRequest() != null) {
+                size += updateRequest.upsertRequest().source().length();
+            }
+            if (updateRequest.script() != null) {
+                size += updateRequest.script().getIdOrCode().length() * 2;
+            }
+            return size;
+        } else {
+            return REQUEST_OVERHEAD;
+        }
+    }
+
     private void addPayload(Object payload) {
         if (payloads == null) {
             if (payload == null) {
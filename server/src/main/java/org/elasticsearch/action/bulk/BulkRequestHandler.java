@@ -21,7 +21,13 @@ package org.elasticsearch.action.bulk;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.metrics.MeanMetric;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.threadpool.Scheduler;
 
 import java.util.concurrent.CountDownLatch;
@@ -36,19 +42,40 @@ public final class BulkRequestHandler {
     private final Logger logger;
     private final BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer;
     private final BulkProcessor.Listener listener;
-    private final Semaphore semaphore;
+    private final AdjustableSemaphore semaphore;
     private final Retry retry;
     private final int concurrentRequests;
+    // the latency above which the number of concurrent requests is decreased, or -1 if it is fixed
+    private final long targetLatencyInNanos;
+    private int concurrentRequestsLimit; // guarded by this
+    private boolean adapting; // guarded by this
+
+    private final CounterMetric completedBulks = new CounterMetric();
+    private final CounterMetric failedBulks = new CounterMetric();
+    private final CounterMetric actions = new CounterMetric();
+    private final CounterMetric bytes = new CounterMetric();
+    private final CounterMetric rejectedActions = new CounterMetric();
+    private final MeanMetric latency = new MeanMetric();
 
     BulkRequestHandler(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy,
                        BulkProcessor.Listener listener, Scheduler scheduler, int concurrentRequests) {
+        this(consumer, backoffPolicy, listener, scheduler, concurrentRequests, null);
+    }
+
+    BulkRequestHandler(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy,
+                       BulkProcessor.Listener listener, Scheduler scheduler, int concurrentRequests, @Nullable TimeValue targetLatency) {
         assert concurrentRequests >= 0;
+        assert targetLatency == null || concurrentRequests > 0 : "adaptive concurrency requires concurrent requests";
         this.logger = LogManager.getLogger(getClass());
         this.consumer = consumer;
         this.listener = listener;
         this.concurrentRequests = concurrentRequests;
         this.retry = new Retry(backoffPolicy, scheduler);
-        this.semaphore = new Semaphore(concurrentRequests > 0 ? concurrentRequests : 1);
+        this.targetLatencyInNanos = targetLatency == null ? -1 : targetLatency.nanos();
+        this.adapting = targetLatency != null;
+        // adaptive concurrency starts with a single request and grows as long as the cluster keeps up
+        this.concurrentRequestsLimit = adapting ? 1 : Math.max(concurrentRequests, 1);
+        this.semaphore = new AdjustableSemaphore(concurrentRequestsLimit);
     }
 
     public void execute(BulkRequest bulkRequest, long executionId) {
@@ -59,10 +86,12 @@ public final class BulkRequestHandler {
             semaphore.acquire();
             toRelease = semaphore::release;
             CountDownLatch latch = new CountDownLatch(1);
+            final long startNanos = System.nanoTime();
             retry.withBackoff(consumer, bulkRequest, new ActionListener<BulkResponse>() {
                 @Override
                 public void onResponse(BulkResponse response) {
                     try {
+                        onBulkCompleted(bulkRequest, response, System.nanoTime() - startNanos);
                         listener.afterBulk(executionId, bulkRequest, response);
                     } finally {
                         semaphore.release();
@@ -73,6 +102,7 @@ public final class BulkRequestHandler {
                 @Override
                 public void onFailure(Exception e) {
                     try {
+                        onBulkFailed(bulkRequest, e, System.nanoTime() - startNanos);
                         listener.afterBulk(executionId, bulkRequest, e);
                     } finally {
                         semaphore.release();
@@ -98,11 +128,88 @@ public final class BulkRequestHandler {
         }
     }
 
+    private void onBulkCompleted(BulkRequest bulkRequest, BulkResponse response, long latencyInNanos) {
+        completedBulks.inc();
+        actions.inc(bulkRequest.numberOfActions());
+        bytes.inc(bulkRequest.estimatedSizeInBytes());
+        latency.inc(latencyInNanos);
+        long rejected = 0;
+        if (response.hasFailures()) {
+            for (BulkItemResponse item : response.getItems()) {
+                if (item.isFailed() && item.status() == RestStatus.TOO_MANY_REQUESTS) {
+                    rejected++;
+                }
+            }
+            rejectedActions.inc(rejected);
+        }
+        adaptConcurrentRequests(rejected == 0 && latencyInNanos <= targetLatencyInNanos);
+    }
+
+    private void onBulkFailed(BulkRequest bulkRequest, Exception e, long latencyInNanos) {
+        failedBulks.inc();
+        latency.inc(latencyInNanos);
+        if (ExceptionsHelper.status(e) == RestStatus.TOO_MANY_REQUESTS) {
+            rejectedActions.inc(bulkRequest.numberOfActions());
+        }
+        adaptConcurrentRequests(false);
+    }
+
+    /**
+     * Allows one more concurrent request if the cluster kept up with the last one, or halves the number of concurrent requests
+     * otherwise.
+     */
+    private synchronized void adaptConcurrentRequests(boolean keptUp) {
+        if (adapting == false) {
+            return;
+        }
+        if (keptUp) {
+            if (concurrentRequestsLimit < concurrentRequests) {
+                concurrentRequestsLimit++;
+                semaphore.release();
+            }
+        } else if (concurrentRequestsLimit > 1) {
+            final int newLimit = concurrentRequestsLimit / 2;
+            // the requests that are in flight keep their permits, so the new limit only applies once enough of them completed
+            semaphore.reducePermits(concurrentRequestsLimit - newLimit);
+            concurrentRequestsLimit = newLimit;
+        }
+    }
+
+    synchronized int getConcurrentRequestsLimit() {
+        return concurrentRequestsLimit;
+    }
+
+    BulkProcessor.Stats stats() {
+        return new BulkProcessor.Stats(completedBulks.count(), failedBulks.count(), actions.count(), bytes.count(),
+            rejectedActions.count(), latency.count(), latency.sum(), getConcurrentRequestsLimit());
+    }
+
     boolean awaitClose(long timeout, TimeUnit unit) throws InterruptedException {
-        if (semaphore.tryAcquire(this.concurrentRequests, timeout, unit)) {
-            semaphore.release(this.concurrentRequests);
+        final int permits;
+        synchronized (this) {
+            // the limit must not change anymore, otherwise the permits below might never all be released
+            adapting = false;
+            permits = concurrentRequests == 0 ? 0 : concurrentRequestsLimit;
+        }
+        if (semaphore.tryAcquire(permits, timeout, unit)) {
+            semaphore.release(permits);
             return true;
         }
         return false;
     }
+
+    /**
+     * A semaphore whose number of permits can be reduced while some of them are acquired.
+     */
+    private static final class AdjustableSemaphore extends Semaphore {
+
+        AdjustableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
 }
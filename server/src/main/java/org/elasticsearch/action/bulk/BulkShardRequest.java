@@ -32,6 +32,8 @@ import java.util.List;
 public class BulkShardRequest extends ReplicatedWriteRequest<BulkShardRequest> {
 
     private BulkItemRequest[] items;
+    // whether the bytes of this request are accounted for by the bulk request that created it on this node, not serialized
+    private boolean localToCoordinatingNode = false;
 
     public BulkShardRequest() {
     }
@@ -46,6 +48,32 @@ public class BulkShardRequest extends ReplicatedWriteRequest<BulkShardRequest> {
         return items;
     }
 
+    /**
+     * Marks this request as created by a bulk request whose bytes are accounted for on this node until it completes, so that
+     * executing it on a local primary doesn't account for them a second time. Requests received from other nodes are never
+     * marked.
+     */
+    void markLocalToCoordinatingNode() {
+        this.localToCoordinatingNode = true;
+    }
+
+    boolean isLocalToCoordinatingNode() {
+        return localToCoordinatingNode;
+    }
+
+    /**
+     * The estimated size in bytes of the items of this request, computed the same way as {@link BulkRequest#estimatedSizeInBytes()}.
+     */
+    public long estimatedSizeInBytes() {
+        long size = 0;
+        for (BulkItemRequest item : items) {
+            if (item != null) {
+                size += BulkRequest.estimatedSizeInBytes(item.request());
+            }
+        }
+        return size;
+    }
+
     @Override
     public String[] indices() {
         List<String> indices = new ArrayList<>();
@@ -49,10 +49,12 @@ import org.elasticsearch.common.CheckedSupplier;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.IndexingPressure;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.VersionConflictEngineException;
 import org.elasticsearch.index.get.GetResult;
@@ -85,17 +87,32 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
     private final ThreadPool threadPool;
     private final UpdateHelper updateHelper;
     private final MappingUpdatedAction mappingUpdatedAction;
+    private final IndexingPressure indexingPressure;
 
     @Inject
     public TransportShardBulkAction(Settings settings, TransportService transportService, ClusterService clusterService,
                                     IndicesService indicesService, ThreadPool threadPool, ShardStateAction shardStateAction,
                                     MappingUpdatedAction mappingUpdatedAction, UpdateHelper updateHelper, ActionFilters actionFilters,
-                                    IndexNameExpressionResolver indexNameExpressionResolver) {
+                                    IndexNameExpressionResolver indexNameExpressionResolver, IndexingPressure indexingPressure) {
         super(settings, ACTION_NAME, transportService, clusterService, indicesService, threadPool, shardStateAction, actionFilters,
             indexNameExpressionResolver, BulkShardRequest::new, BulkShardRequest::new, ThreadPool.Names.WRITE);
         this.threadPool = threadPool;
         this.updateHelper = updateHelper;
         this.mappingUpdatedAction = mappingUpdatedAction;
+        this.indexingPressure = indexingPressure;
+    }
+
+    @Override
+    protected Releasable checkPrimaryLimits(BulkShardRequest request) {
+        if (request.isLocalToCoordinatingNode()) {
+            return indexingPressure.markPrimaryOperationLocalToCoordinatingNodeStarted(request.estimatedSizeInBytes());
+        }
+        return indexingPressure.markPrimaryOperationStarted(request.estimatedSizeInBytes());
+    }
+
+    @Override
+    protected Releasable checkReplicaLimits(BulkShardRequest request) {
+        return indexingPressure.markReplicaOperationStarted(request.estimatedSizeInBytes());
     }
 
     @Override
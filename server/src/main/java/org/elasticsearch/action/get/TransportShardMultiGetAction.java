@@ -33,6 +33,7 @@ import org.elasticsearch.index.get.GetResult;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
@@ -45,9 +46,10 @@ public class TransportShardMultiGetAction extends TransportSingleShardAction<Mul
     @Inject
     public TransportShardMultiGetAction(ClusterService clusterService, TransportService transportService,
                                         IndicesService indicesService, ThreadPool threadPool, ActionFilters actionFilters,
-                                        IndexNameExpressionResolver indexNameExpressionResolver) {
+                                        IndexNameExpressionResolver indexNameExpressionResolver,
+                                        ResponseCollectorService responseCollectorService) {
         super(ACTION_NAME, threadPool, clusterService, transportService, actionFilters, indexNameExpressionResolver,
-                MultiGetShardRequest::new, ThreadPool.Names.GET);
+                MultiGetShardRequest::new, ThreadPool.Names.GET, responseCollectorService);
         this.indicesService = indicesService;
     }
 
@@ -69,7 +71,8 @@ public class TransportShardMultiGetAction extends TransportSingleShardAction<Mul
     @Override
     protected ShardIterator shards(ClusterState state, InternalRequest request) {
         return clusterService.operationRouting()
-                .getShards(state, request.request().index(), request.request().shardId(), request.request().preference());
+                .getShards(state, request.request().index(), request.request().shardId(), request.request().preference(),
+                    responseCollectorService, pendingReadRequests());
     }
 
     @Override
@@ -82,6 +85,13 @@ public class TransportShardMultiGetAction extends TransportSingleShardAction<Mul
         }
 
         MultiGetShardResponse response = new MultiGetShardResponse();
+        if (request.realtime() == false) {
+            // non-realtime gets all read from the same point-in-time searcher, so they can be resolved as one batch
+            indexShard.getService().multiGet(request.items,
+                (i, getResult) -> response.add(request.locations.get(i), new GetResponse(getResult)),
+                (i, e) -> onItemFailure(request, shardId, response, i, e));
+            return response;
+        }
         for (int i = 0; i < request.locations.size(); i++) {
             MultiGetRequest.Item item = request.items.get(i);
             try {
@@ -89,19 +99,24 @@ public class TransportShardMultiGetAction extends TransportSingleShardAction<Mul
                     item.version(), item.versionType(), item.fetchSourceContext());
                 response.add(request.locations.get(i), new GetResponse(getResult));
             } catch (RuntimeException e) {
-                if (TransportActions.isShardNotAvailableException(e)) {
-                    throw e;
-                } else {
-                    logger.debug(() -> new ParameterizedMessage("{} failed to execute multi_get for [{}]/[{}]", shardId,
-                        item.type(), item.id()), e);
-                    response.add(request.locations.get(i), new MultiGetResponse.Failure(request.index(), item.type(), item.id(), e));
-                }
+                onItemFailure(request, shardId, response, i, e);
             }
         }
 
         return response;
     }
 
+    private void onItemFailure(MultiGetShardRequest request, ShardId shardId, MultiGetShardResponse response, int i,
+                               RuntimeException e) {
+        if (TransportActions.isShardNotAvailableException(e)) {
+            throw e;
+        }
+        MultiGetRequest.Item item = request.items.get(i);
+        logger.debug(() -> new ParameterizedMessage("{} failed to execute multi_get for [{}]/[{}]", shardId,
+            item.type(), item.id()), e);
+        response.add(request.locations.get(i), new MultiGetResponse.Failure(request.index(), item.type(), item.id(), e));
+    }
+
     @Override
     protected String getExecutor(MultiGetShardRequest request, ShardId shardId) {
         IndexService indexService = indicesService.indexServiceSafe(shardId.getIndex());
@@ -78,6 +78,7 @@ import org.elasticsearch.transport.TransportRequestOptions;
 import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportResponse.Empty;
 import org.elasticsearch.transport.TransportResponseHandler;
+import org.elasticsearch.transport.TransportResponseOptions;
 import org.elasticsearch.transport.TransportService;
 
 import java.io.IOException;
@@ -169,6 +170,22 @@ public abstract class TransportReplicationAction<
         new ReroutePhase((ReplicationTask) task, request, listener).run();
     }
 
+    /**
+     * Called when a request is received for execution on the primary. The returned {@link Releasable} is closed once the response
+     * has been sent back, which lets subclasses account for the request while it is in flight. Subclasses may reject the request
+     * by throwing an exception.
+     */
+    protected Releasable checkPrimaryLimits(Request request) {
+        return () -> {};
+    }
+
+    /**
+     * Called when a request is received for execution on a replica, see {@link #checkPrimaryLimits(ReplicationRequest)}.
+     */
+    protected Releasable checkReplicaLimits(ReplicaRequest request) {
+        return () -> {};
+    }
+
     protected ReplicationOperation.Replicas<ReplicaRequest> newReplicasProxy(long primaryTerm) {
         return new ReplicasProxy(primaryTerm);
     }
@@ -279,7 +296,9 @@ public abstract class TransportReplicationAction<
 
         @Override
         public void messageReceived(ConcreteShardRequest<Request> request, TransportChannel channel, Task task) {
-            new AsyncPrimaryAction(request.request, request.targetAllocationID, request.primaryTerm, channel, (ReplicationTask) task).run();
+            final Releasable releasable = checkPrimaryLimits(request.request);
+            new AsyncPrimaryAction(request.request, request.targetAllocationID, request.primaryTerm,
+                new ReleasingTransportChannel(channel, releasable), (ReplicationTask) task).run();
         }
     }
 
@@ -490,13 +509,14 @@ public abstract class TransportReplicationAction<
                 final TransportChannel channel,
                 final Task task)
             throws Exception {
+            final Releasable releasable = checkReplicaLimits(replicaRequest.getRequest());
             new AsyncReplicaAction(
                     replicaRequest.getRequest(),
                     replicaRequest.getTargetAllocationID(),
                     replicaRequest.getPrimaryTerm(),
                     replicaRequest.getGlobalCheckpoint(),
                     replicaRequest.getMaxSeqNoOfUpdatesOrDeletes(),
-                    channel,
+                    new ReleasingTransportChannel(channel, releasable),
                     (ReplicationTask) task).run();
         }
 
@@ -1356,4 +1376,54 @@ public abstract class TransportReplicationAction<
             task.setPhase(phase);
         }
     }
+
+    /**
+     * A {@link TransportChannel} that closes a {@link Releasable} once a response has been sent.
+     */
+    private static final class ReleasingTransportChannel implements TransportChannel {
+
+        private final TransportChannel channel;
+        private final Releasable releasable;
+
+        ReleasingTransportChannel(TransportChannel channel, Releasable releasable) {
+            this.channel = channel;
+            this.releasable = releasable;
+        }
+
+        @Override
+        public String getProfileName() {
+            return channel.getProfileName();
+        }
+
+        @Override
+        public String getChannelType() {
+            return channel.getChannelType();
+        }
+
+        @Override
+        public void sendResponse(TransportResponse response) throws IOException {
+            try (Releasable ignored = releasable) {
+                channel.sendResponse(response);
+            }
+        }
+
+        @Override
+        public void sendResponse(TransportResponse response, TransportResponseOptions options) throws IOException {
+            try (Releasable ignored = releasable) {
+                channel.sendResponse(response, options);
+            }
+        }
+
+        @Override
+        public void sendResponse(Exception exception) throws IOException {
+            try (Releasable ignored = releasable) {
+                channel.sendResponse(exception);
+            }
+        }
+
+        @Override
+        public Version getVersion() {
+            return channel.getVersion();
+        }
+    }
 }
@@ -41,6 +41,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.logging.LoggerMessageFormat;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.tasks.Task;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportChannel;
@@ -50,6 +51,7 @@ import org.elasticsearch.transport.TransportResponseHandler;
 import org.elasticsearch.transport.TransportService;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import static org.elasticsearch.action.support.TransportActions.isShardNotAvailableException;
@@ -67,6 +69,9 @@ public abstract class TransportSingleShardAction<Request extends SingleShardRequ
     protected final TransportService transportService;
     protected final IndexNameExpressionResolver indexNameExpressionResolver;
 
+    @Nullable
+    protected final ResponseCollectorService responseCollectorService;
+
     private final String transportShardAction;
     private final String executor;
 
@@ -74,11 +79,25 @@ public abstract class TransportSingleShardAction<Request extends SingleShardRequ
                                          TransportService transportService, ActionFilters actionFilters,
                                          IndexNameExpressionResolver indexNameExpressionResolver, Supplier<Request> request,
                                          String executor) {
+        this(actionName, threadPool, clusterService, transportService, actionFilters, indexNameExpressionResolver, request, executor,
+            null);
+    }
+
+    /**
+     * @param responseCollectorService if not {@code null}, the response times of the shard level requests sent to other nodes are
+     *                                 recorded in this collector and the number of outstanding requests per node is tracked, so
+     *                                 that implementations can rank shard copies using adaptive replica selection
+     */
+    protected TransportSingleShardAction(String actionName, ThreadPool threadPool, ClusterService clusterService,
+                                         TransportService transportService, ActionFilters actionFilters,
+                                         IndexNameExpressionResolver indexNameExpressionResolver, Supplier<Request> request,
+                                         String executor, @Nullable ResponseCollectorService responseCollectorService) {
         super(actionName, actionFilters, transportService.getTaskManager());
         this.threadPool = threadPool;
         this.clusterService = clusterService;
         this.transportService = transportService;
         this.indexNameExpressionResolver = indexNameExpressionResolver;
+        this.responseCollectorService = responseCollectorService;
 
         this.transportShardAction = actionName + "[s]";
         this.executor = executor;
@@ -251,6 +270,11 @@ public abstract class TransportSingleShardAction<Request extends SingleShardRequ
                             node
                     );
                 }
+                final String nodeId = node.getId();
+                final long startNanos = System.nanoTime();
+                if (responseCollectorService != null) {
+                    responseCollectorService.onReadRequestSent(nodeId);
+                }
                 transportService.sendRequest(node, transportShardAction, internalRequest.request(),
                     new TransportResponseHandler<Response>() {
 
@@ -268,11 +292,18 @@ public abstract class TransportSingleShardAction<Request extends SingleShardRequ
 
                         @Override
                         public void handleResponse(final Response response) {
+                            if (responseCollectorService != null) {
+                                responseCollectorService.onReadRequestCompleted(nodeId);
+                                responseCollectorService.addReadResponseTime(nodeId, System.nanoTime() - startNanos);
+                            }
                             listener.onResponse(response);
                         }
 
                         @Override
                         public void handleException(TransportException exp) {
+                            if (responseCollectorService != null) {
+                                responseCollectorService.onReadRequestCompleted(nodeId);
+                            }
                             onFailure(shardRouting, exp);
                         }
                 });
@@ -321,6 +352,15 @@ public abstract class TransportSingleShardAction<Request extends SingleShardRequ
         }
     }
 
+    /**
+     * Returns a snapshot of the number of outstanding shard level read requests per node, to be used together with
+     * {@link #responseCollectorService} when ranking shard copies, or {@code null} if adaptive replica selection isn't used.
+     */
+    @Nullable
+    protected Map<String, Long> pendingReadRequests() {
+        return responseCollectorService == null ? null : responseCollectorService.getPendingReadRequests();
+    }
+
     protected String getExecutor(Request request, ShardId shardId) {
         return executor;
     }
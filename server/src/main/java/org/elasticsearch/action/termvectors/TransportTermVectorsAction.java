@@ -34,6 +34,7 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.termvectors.TermVectorsService;
 import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
@@ -49,9 +50,10 @@ public class TransportTermVectorsAction extends TransportSingleShardAction<TermV
     @Inject
     public TransportTermVectorsAction(ClusterService clusterService, TransportService transportService,
                                       IndicesService indicesService, ThreadPool threadPool, ActionFilters actionFilters,
-                                      IndexNameExpressionResolver indexNameExpressionResolver) {
+                                      IndexNameExpressionResolver indexNameExpressionResolver,
+                                      ResponseCollectorService responseCollectorService) {
         super(TermVectorsAction.NAME, threadPool, clusterService, transportService, actionFilters, indexNameExpressionResolver,
-                TermVectorsRequest::new, ThreadPool.Names.GET);
+                TermVectorsRequest::new, ThreadPool.Names.GET, responseCollectorService);
         this.indicesService = indicesService;
 
     }
@@ -62,11 +64,14 @@ public class TransportTermVectorsAction extends TransportSingleShardAction<TermV
             // artificial document without routing specified, ignore its "id" and use either random shard or according to preference
             GroupShardsIterator<ShardIterator> groupShardsIter = clusterService.operationRouting().searchShards(state,
                     new String[] { request.concreteIndex() }, null, request.request().preference());
-            return groupShardsIter.iterator().next();
+            // rank the copies of the chosen shard like the other single shard reads rather than on the stats of searches
+            int shardId = groupShardsIter.iterator().next().shardId().id();
+            return clusterService.operationRouting().getShards(state, request.concreteIndex(), shardId, request.request().preference(),
+                    responseCollectorService, pendingReadRequests());
         }
 
         return clusterService.operationRouting().getShards(state, request.concreteIndex(), request.request().id(),
-                request.request().routing(), request.request().preference());
+                request.request().routing(), request.request().preference(), responseCollectorService, pendingReadRequests());
     }
 
     @Override
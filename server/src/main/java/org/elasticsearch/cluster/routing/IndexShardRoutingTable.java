@@ -260,18 +260,28 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
      */
     public ShardIterator activeInitializingShardsRankedIt(@Nullable ResponseCollectorService collector,
                                                           @Nullable Map<String, Long> nodeSearchCounts) {
+        return activeInitializingShardsRankedIt(collector, nodeSearchCounts, false);
+    }
+
+    /**
+     * Same as {@link #activeInitializingShardsRankedIt(ResponseCollectorService, Map)}, but if {@code singleShardRead} is set the
+     * shards are ranked with the response times of single shard reads rather than the ones of searches, and only those are
+     * adjusted, see {@link ResponseCollectorService#getReadNodeStatistics(String)}.
+     */
+    public ShardIterator activeInitializingShardsRankedIt(@Nullable ResponseCollectorService collector,
+                                                          @Nullable Map<String, Long> nodeSearchCounts, boolean singleShardRead) {
         final int seed = shuffler.nextSeed();
         if (allInitializingShards.isEmpty()) {
             return new PlainShardIterator(shardId,
-                    rankShardsAndUpdateStats(shuffler.shuffle(activeShards, seed), collector, nodeSearchCounts));
+                    rankShardsAndUpdateStats(shuffler.shuffle(activeShards, seed), collector, nodeSearchCounts, singleShardRead));
         }
 
         ArrayList<ShardRouting> ordered = new ArrayList<>(activeShards.size() + allInitializingShards.size());
         List<ShardRouting> rankedActiveShards =
-                rankShardsAndUpdateStats(shuffler.shuffle(activeShards, seed), collector, nodeSearchCounts);
+                rankShardsAndUpdateStats(shuffler.shuffle(activeShards, seed), collector, nodeSearchCounts, singleShardRead);
         ordered.addAll(rankedActiveShards);
         List<ShardRouting> rankedInitializingShards =
-                rankShardsAndUpdateStats(allInitializingShards, collector, nodeSearchCounts);
+                rankShardsAndUpdateStats(allInitializingShards, collector, nodeSearchCounts, singleShardRead);
         ordered.addAll(rankedInitializingShards);
         return new PlainShardIterator(shardId, ordered);
     }
@@ -285,11 +295,11 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
     }
 
     private static Map<String, Optional<ResponseCollectorService.ComputedNodeStats>>
-        getNodeStats(final Set<String> nodeIds, final ResponseCollectorService collector) {
+        getNodeStats(final Set<String> nodeIds, final ResponseCollectorService collector, final boolean singleShardRead) {
 
         final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats = new HashMap<>(nodeIds.size());
         for (String nodeId : nodeIds) {
-            nodeStats.put(nodeId, collector.getNodeStatistics(nodeId));
+            nodeStats.put(nodeId, singleShardRead ? collector.getReadNodeStatistics(nodeId) : collector.getNodeStatistics(nodeId));
         }
         return nodeStats;
     }
@@ -317,11 +327,14 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
      * This adjustment takes the "winning" node's statistics and adds the average of those statistics with each non-winning node. Let's say
      * the winning node had a queue size of 10 and a non-winning node had a queue of 18. The average queue size is (10 + 18) / 2 = 14 so the
      * non-winning node will have statistics added for a queue size of 14. This is repeated for the response time and service times as well.
+     * When ranking single shard reads, only the response time of the reads is adjusted, as the queue size and service time are the ones
+     * reported by searches.
      */
     private static void adjustStats(final ResponseCollectorService collector,
                                     final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats,
                                     final String minNodeId,
-                                    final ResponseCollectorService.ComputedNodeStats minStats) {
+                                    final ResponseCollectorService.ComputedNodeStats minStats,
+                                    final boolean singleShardRead) {
         if (minNodeId != null) {
             for (Map.Entry<String, Optional<ResponseCollectorService.ComputedNodeStats>> entry : nodeStats.entrySet()) {
                 final String nodeId = entry.getKey();
@@ -331,21 +344,27 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
                     final int updatedQueue = (minStats.queueSize + stats.queueSize) / 2;
                     final long updatedResponse = (long) (minStats.responseTime + stats.responseTime) / 2;
                     final long updatedService = (long) (minStats.serviceTime + stats.serviceTime) / 2;
-                    collector.addNodeStatistics(nodeId, updatedQueue, updatedResponse, updatedService);
+                    if (singleShardRead) {
+                        collector.addReadResponseTime(nodeId, updatedResponse);
+                    } else {
+                        collector.addNodeStatistics(nodeId, updatedQueue, updatedResponse, updatedService);
+                    }
                 }
             }
         }
     }
 
     private static List<ShardRouting> rankShardsAndUpdateStats(List<ShardRouting> shards, final ResponseCollectorService collector,
-                                                               final Map<String, Long> nodeSearchCounts) {
+                                                               final Map<String, Long> nodeSearchCounts,
+                                                               final boolean singleShardRead) {
         if (collector == null || nodeSearchCounts == null || shards.size() <= 1) {
             return shards;
         }
 
         // Retrieve which nodes we can potentially send the query to
         final Set<String> nodeIds = getAllNodeIds(shards);
-        final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats = getNodeStats(nodeIds, collector);
+        final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats =
+            getNodeStats(nodeIds, collector, singleShardRead);
 
         // Retrieve all the nodes the shards exist on
         final Map<String, Double> nodeRanks = rankNodes(nodeStats, nodeSearchCounts);
@@ -363,7 +382,7 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
                 String minNodeId = minShard.currentNodeId();
                 Optional<ResponseCollectorService.ComputedNodeStats> maybeMinStats = nodeStats.get(minNodeId);
                 if (maybeMinStats.isPresent()) {
-                    adjustStats(collector, nodeStats, minNodeId, maybeMinStats.get());
+                    adjustStats(collector, nodeStats, minNodeId, maybeMinStats.get(), singleShardRead);
                     // Increase the number of searches for the "winning" node by one.
                     // Note that this doesn't actually affect the "real" counts, instead
                     // it only affects the captured node search counts, which is
@@ -75,14 +75,25 @@ public class OperationRouting extends AbstractComponent {
 
     public ShardIterator getShards(ClusterState clusterState, String index, String id, @Nullable String routing,
                                    @Nullable String preference) {
+        return getShards(clusterState, index, id, routing, preference, null, null);
+    }
+
+    public ShardIterator getShards(ClusterState clusterState, String index, String id, @Nullable String routing,
+                                   @Nullable String preference, @Nullable ResponseCollectorService collectorService,
+                                   @Nullable Map<String, Long> nodeCounts) {
         return preferenceActiveShardIterator(shards(clusterState, index, id, routing), clusterState.nodes().getLocalNodeId(),
-            clusterState.nodes(), preference, null, null);
+            clusterState.nodes(), preference, collectorService, nodeCounts, true);
     }
 
     public ShardIterator getShards(ClusterState clusterState, String index, int shardId, @Nullable String preference) {
+        return getShards(clusterState, index, shardId, preference, null, null);
+    }
+
+    public ShardIterator getShards(ClusterState clusterState, String index, int shardId, @Nullable String preference,
+                                   @Nullable ResponseCollectorService collectorService, @Nullable Map<String, Long> nodeCounts) {
         final IndexShardRoutingTable indexShard = clusterState.getRoutingTable().shardRoutingTable(index, shardId);
         return preferenceActiveShardIterator(indexShard, clusterState.nodes().getLocalNodeId(), clusterState.nodes(),
-            preference, null, null);
+            preference, collectorService, nodeCounts, true);
     }
 
     public GroupShardsIterator<ShardIterator> searchShards(ClusterState clusterState,
@@ -103,7 +114,7 @@ public class OperationRouting extends AbstractComponent {
         final Set<ShardIterator> set = new HashSet<>(shards.size());
         for (IndexShardRoutingTable shard : shards) {
             ShardIterator iterator = preferenceActiveShardIterator(shard,
-                    clusterState.nodes().getLocalNodeId(), clusterState.nodes(), preference, collectorService, nodeCounts);
+                    clusterState.nodes().getLocalNodeId(), clusterState.nodes(), preference, collectorService, nodeCounts, false);
             if (iterator != null) {
                 set.add(iterator);
             }
@@ -141,11 +152,11 @@ public class OperationRouting extends AbstractComponent {
     private ShardIterator preferenceActiveShardIterator(IndexShardRoutingTable indexShard, String localNodeId,
                                                         DiscoveryNodes nodes, @Nullable String preference,
                                                         @Nullable ResponseCollectorService collectorService,
-                                                        @Nullable Map<String, Long> nodeCounts) {
+                                                        @Nullable Map<String, Long> nodeCounts, boolean singleShardRead) {
         if (preference == null || preference.isEmpty()) {
             if (awarenessAttributes.isEmpty()) {
                 if (useAdaptiveReplicaSelection) {
-                    return indexShard.activeInitializingShardsRankedIt(collectorService, nodeCounts);
+                    return indexShard.activeInitializingShardsRankedIt(collectorService, nodeCounts, singleShardRead);
                 } else {
                     return indexShard.activeInitializingShardsRandomIt();
                 }
@@ -180,7 +191,7 @@ public class OperationRouting extends AbstractComponent {
                 if (index == -1 || index == preference.length() - 1) {
                     if (awarenessAttributes.isEmpty()) {
                         if (useAdaptiveReplicaSelection) {
-                            return indexShard.activeInitializingShardsRankedIt(collectorService, nodeCounts);
+                            return indexShard.activeInitializingShardsRankedIt(collectorService, nodeCounts, singleShardRead);
                         } else {
                             return indexShard.activeInitializingShardsRandomIt();
                         }
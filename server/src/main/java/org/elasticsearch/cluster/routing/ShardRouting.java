@@ -256,8 +256,8 @@ public final class ShardRouting implements Writeable, ToXContentObject {
 
     public ShardRouting(ShardId shardId, StreamInput in) throws IOException {
         this.shardId = shardId;
-        currentNodeId = in.readOptionalString();
-        relocatingNodeId = in.readOptionalString();
+        currentNodeId = in.readOptionalSharedString();
+        relocatingNodeId = in.readOptionalSharedString();
         primary = in.readBoolean();
         state = ShardRoutingState.fromValue(in.readByte());
         if (state == ShardRoutingState.UNASSIGNED || state == ShardRoutingState.INITIALIZING) {
@@ -289,8 +289,8 @@ public final class ShardRouting implements Writeable, ToXContentObject {
      * @throws IOException if something happens during write
      */
     public void writeToThin(StreamOutput out) throws IOException {
-        out.writeOptionalString(currentNodeId);
-        out.writeOptionalString(relocatingNodeId);
+        out.writeOptionalSharedString(currentNodeId);
+        out.writeOptionalSharedString(relocatingNodeId);
         out.writeBoolean(primary);
         out.writeByte(state.value());
         if (state == ShardRoutingState.UNASSIGNED || state == ShardRoutingState.INITIALIZING) {
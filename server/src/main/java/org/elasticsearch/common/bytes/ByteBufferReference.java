@@ -78,7 +78,10 @@ public class ByteBufferReference extends BytesReference {
             return new BytesRef(buffer.array(), buffer.arrayOffset() + offset, length);
         }
         final byte[] copy = new byte[length];
-        buffer.get(copy, offset, length);
+        // read from a duplicate so that the markers of the shared buffer aren't moved
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.get(copy, 0, length);
         return new BytesRef(copy);
     }
 
@@ -34,6 +34,9 @@ public class CompressorFactory {
 
     public static final Compressor COMPRESSOR = new DeflateCompressor();
 
+    /** Faster but less efficient compressor, only used for transport messages. */
+    public static final Compressor LZ4 = new Lz4Compressor();
+
     public static boolean isCompressed(BytesReference bytes) {
         return compressor(bytes) != null;
     }
@@ -59,6 +62,18 @@ public class CompressorFactory {
         return null;
     }
 
+    /**
+     * Like {@link #compressor(BytesReference)}, but also detects {@link #LZ4}. LZ4 is only accepted for transport messages so that
+     * stored or REST content compressed with it isn't decompressed.
+     */
+    @Nullable
+    public static Compressor transportCompressor(BytesReference bytes) {
+        if (LZ4.isCompressed(bytes)) {
+            return LZ4;
+        }
+        return compressor(bytes);
+    }
+
     /** true if the bytes were compressed with LZF: only used before elasticsearch 2.0 */
     private static boolean isAncient(BytesReference bytes) {
         return bytes.length() >= 3 &&
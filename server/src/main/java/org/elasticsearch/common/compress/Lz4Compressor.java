@@ -0,0 +1,422 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.compress;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * {@link Compressor} implementation based on the LZ4 block format. It compresses much faster than
+ * {@link DeflateCompressor} at the expense of a lower compression ratio, which makes it a better fit for
+ * compressing high volume traffic such as transport messages.
+ * <p>
+ * The stream is made of a header followed by independently compressed blocks of at most {@link #BLOCK_SIZE}
+ * bytes. Each block starts with its uncompressed and compressed lengths as two big-endian ints, blocks that
+ * don't compress are stored as-is and flagged by a compressed length of {@code -1}. An uncompressed length of
+ * {@code 0} marks the end of the stream.
+ * <p>
+ * The buffers of the streams grow with the blocks that they hold, so that compressing small messages doesn't allocate
+ * buffers for full blocks, and the hash table that is used for compressing is shared by the streams of a thread.
+ */
+public class Lz4Compressor implements Compressor {
+
+    // An arbitrary header that we use to identify compressed streams
+    // It needs to be different from other compressors and to not be specific
+    // enough so that no stream starting with these bytes could be detected as
+    // a XContent
+    private static final byte[] HEADER = new byte[]{'L', 'Z', '4', '\0'};
+
+    static final int BLOCK_SIZE = 1 << 16;
+
+    private static final int MIN_MATCH = 4;
+    // the last match must start at least 12 bytes before the end of the block and the last 5 bytes are always literals
+    private static final int MF_LIMIT = 12;
+    private static final int LAST_LITERALS = 5;
+    private static final int MAX_DISTANCE = 1 << 16;
+    private static final int HASH_LOG = 12;
+    private static final int STORED = -1;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 10;
+
+    // compressing a block is a single call that never recurses, so a thread's streams can share a hash table
+    private static final ThreadLocal<int[]> HASH_TABLE = ThreadLocal.withInitial(() -> new int[1 << HASH_LOG]);
+
+    @Override
+    public boolean isCompressed(BytesReference bytes) {
+        if (bytes.length() < HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; ++i) {
+            if (bytes.get(i) != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public StreamInput streamInput(StreamInput in) throws IOException {
+        final byte[] headerBytes = new byte[HEADER.length];
+        int len = 0;
+        while (len < headerBytes.length) {
+            final int read = in.read(headerBytes, len, headerBytes.length - len);
+            if (read == -1) {
+                break;
+            }
+            len += read;
+        }
+        if (len != HEADER.length || Arrays.equals(headerBytes, HEADER) == false) {
+            throw new IllegalArgumentException("Input stream is not compressed with LZ4!");
+        }
+        return new InputStreamStreamInput(new BlockInputStream(in));
+    }
+
+    @Override
+    public StreamOutput streamOutput(StreamOutput out) throws IOException {
+        out.writeBytes(HEADER);
+        return new OutputStreamStreamOutput(new BlockOutputStream(out));
+    }
+
+    /**
+     * Returns the maximum number of bytes that compressing {@code length} bytes may take.
+     */
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+            | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static int hash(int value) {
+        return (value * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static int writeLength(int length, byte[] dest, int offset) {
+        while (length >= 0xFF) {
+            dest[offset++] = (byte) 0xFF;
+            length -= 0xFF;
+        }
+        dest[offset++] = (byte) length;
+        return offset;
+    }
+
+    private static int writeLiterals(byte[] src, int anchor, int literalLength, byte[] dest, int destOff) {
+        final int tokenOff = destOff++;
+        if (literalLength >= 0x0F) {
+            dest[tokenOff] = (byte) 0xF0;
+            destOff = writeLength(literalLength - 0x0F, dest, destOff);
+        } else {
+            dest[tokenOff] = (byte) (literalLength << 4);
+        }
+        System.arraycopy(src, anchor, dest, destOff, literalLength);
+        return destOff + literalLength;
+    }
+
+    /**
+     * Compresses {@code length} bytes of {@code src} starting at {@code srcOff} into {@code dest}, which must have room for
+     * at least {@link #maxCompressedLength(int)} bytes, and returns the number of bytes written.
+     */
+    static int compress(byte[] src, int srcOff, int length, byte[] dest, int[] hashTable) {
+        final int srcEnd = srcOff + length;
+        final int matchLimit = srcEnd - LAST_LITERALS;
+        int destOff = 0;
+        int anchor = srcOff;
+        if (length > MF_LIMIT) {
+            Arrays.fill(hashTable, -1);
+            final int limit = srcEnd - MF_LIMIT;
+            int off = srcOff;
+            while (off < limit) {
+                final int value = readInt(src, off);
+                final int h = hash(value);
+                final int ref = hashTable[h];
+                hashTable[h] = off;
+                if (ref < 0 || off - ref >= MAX_DISTANCE || readInt(src, ref) != value) {
+                    ++off;
+                    continue;
+                }
+                int matchLength = MIN_MATCH;
+                while (off + matchLength < matchLimit && src[ref + matchLength] == src[off + matchLength]) {
+                    ++matchLength;
+                }
+                final int tokenOff = destOff;
+                destOff = writeLiterals(src, anchor, off - anchor, dest, destOff);
+                final int distance = off - ref;
+                dest[destOff++] = (byte) distance;
+                dest[destOff++] = (byte) (distance >>> 8);
+                final int extraMatchLength = matchLength - MIN_MATCH;
+                if (extraMatchLength >= 0x0F) {
+                    dest[tokenOff] |= 0x0F;
+                    destOff = writeLength(extraMatchLength - 0x0F, dest, destOff);
+                } else {
+                    dest[tokenOff] |= (byte) extraMatchLength;
+                }
+                off += matchLength;
+                anchor = off;
+            }
+        }
+        return writeLiterals(src, anchor, srcEnd - anchor, dest, destOff);
+    }
+
+    /**
+     * Decompresses {@code compressedLength} bytes of {@code src} into {@code dest}, and returns the number of bytes written.
+     */
+    static int decompress(byte[] src, int compressedLength, byte[] dest) throws IOException {
+        int srcOff = 0;
+        int destOff = 0;
+        while (srcOff < compressedLength) {
+            final int token = src[srcOff++] & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == 0x0F) {
+                int b;
+                do {
+                    b = src[srcOff++] & 0xFF;
+                    literalLength += b;
+                } while (b == 0xFF);
+            }
+            if (srcOff + literalLength > compressedLength || destOff + literalLength > dest.length) {
+                throw new IOException("Corrupted LZ4 block: literals overflow");
+            }
+            System.arraycopy(src, srcOff, dest, destOff, literalLength);
+            srcOff += literalLength;
+            destOff += literalLength;
+            if (srcOff >= compressedLength) {
+                // the last sequence only has literals
+                break;
+            }
+            final int distance = (src[srcOff] & 0xFF) | ((src[srcOff + 1] & 0xFF) << 8);
+            srcOff += 2;
+            int matchLength = token & 0x0F;
+            if (matchLength == 0x0F) {
+                int b;
+                do {
+                    b = src[srcOff++] & 0xFF;
+                    matchLength += b;
+                } while (b == 0xFF);
+            }
+            matchLength += MIN_MATCH;
+            int ref = destOff - distance;
+            if (distance == 0 || ref < 0 || destOff + matchLength > dest.length) {
+                throw new IOException("Corrupted LZ4 block: invalid match");
+            }
+            if (distance >= matchLength) {
+                System.arraycopy(dest, ref, dest, destOff, matchLength);
+                destOff += matchLength;
+            } else {
+                // overlapping copy, the match repeats the last bytes that were just written
+                for (int i = 0; i < matchLength; ++i) {
+                    dest[destOff++] = dest[ref++];
+                }
+            }
+        }
+        return destOff;
+    }
+
+    /**
+     * Returns a buffer that holds at least {@code minSize} bytes, and at most {@code maxSize} bytes unless the buffer
+     * is already larger, by growing {@code buffer} if needed.
+     */
+    private static byte[] grow(byte[] buffer, int minSize, int maxSize) {
+        if (buffer.length >= minSize) {
+            return buffer;
+        }
+        return Arrays.copyOf(buffer, Math.min(Math.max(minSize, buffer.length << 1), maxSize));
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static final class BlockOutputStream extends OutputStream {
+
+        private final StreamOutput out;
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        private byte[] compressed = BytesRef.EMPTY_BYTES;
+        private int length;
+        private boolean closed;
+
+        BlockOutputStream(StreamOutput out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (length == BLOCK_SIZE) {
+                writeBlock();
+            }
+            buffer = grow(buffer, length + 1, BLOCK_SIZE);
+            buffer[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (length == BLOCK_SIZE) {
+                    writeBlock();
+                }
+                final int toCopy = Math.min(len, BLOCK_SIZE - length);
+                buffer = grow(buffer, length + toCopy, BLOCK_SIZE);
+                System.arraycopy(b, off, buffer, length, toCopy);
+                length += toCopy;
+                off += toCopy;
+                len -= toCopy;
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            if (length == 0) {
+                return;
+            }
+            compressed = grow(compressed, maxCompressedLength(length), maxCompressedLength(BLOCK_SIZE));
+            final int compressedLength = compress(buffer, 0, length, compressed, HASH_TABLE.get());
+            writeInt(out, length);
+            if (compressedLength < length) {
+                writeInt(out, compressedLength);
+                out.write(compressed, 0, compressedLength);
+            } else {
+                writeInt(out, STORED);
+                out.write(buffer, 0, length);
+            }
+            length = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeBlock();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed == false) {
+                closed = true;
+                try {
+                    writeBlock();
+                    // end of stream marker
+                    writeInt(out, 0);
+                } finally {
+                    out.close();
+                }
+            }
+        }
+    }
+
+    private static final class BlockInputStream extends InputStream {
+
+        private final StreamInput in;
+        private byte[] buffer = BytesRef.EMPTY_BYTES;
+        private byte[] compressed = BytesRef.EMPTY_BYTES;
+        private int position;
+        private int length;
+        private boolean eof;
+
+        BlockInputStream(StreamInput in) {
+            this.in = in;
+        }
+
+        private int readInt() throws IOException {
+            return ((in.readByte() & 0xFF) << 24) | ((in.readByte() & 0xFF) << 16)
+                | ((in.readByte() & 0xFF) << 8) | (in.readByte() & 0xFF);
+        }
+
+        private boolean fill() throws IOException {
+            if (eof) {
+                return false;
+            }
+            final int uncompressedLength;
+            try {
+                uncompressedLength = readInt();
+            } catch (EOFException e) {
+                throw new EOFException("Unexpected end of LZ4 stream");
+            }
+            if (uncompressedLength == 0) {
+                eof = true;
+                return false;
+            }
+            if (uncompressedLength < 0 || uncompressedLength > BLOCK_SIZE) {
+                throw new IOException("Corrupted LZ4 stream: invalid block length [" + uncompressedLength + "]");
+            }
+            final int compressedLength = readInt();
+            buffer = grow(buffer, uncompressedLength, BLOCK_SIZE);
+            if (compressedLength == STORED) {
+                in.readBytes(buffer, 0, uncompressedLength);
+            } else {
+                if (compressedLength < 0 || compressedLength > maxCompressedLength(BLOCK_SIZE)) {
+                    throw new IOException("Corrupted LZ4 stream: invalid compressed block length [" + compressedLength + "]");
+                }
+                compressed = grow(compressed, compressedLength, maxCompressedLength(BLOCK_SIZE));
+                in.readBytes(compressed, 0, compressedLength);
+                final int decompressedLength = decompress(compressed, compressedLength, buffer);
+                if (decompressedLength != uncompressedLength) {
+                    throw new IOException("Corrupted LZ4 stream: expected [" + uncompressedLength + "] bytes but decompressed ["
+                        + decompressedLength + "]");
+                }
+            }
+            position = 0;
+            length = uncompressedLength;
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == length && fill() == false) {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position == length && fill() == false) {
+                return -1;
+            }
+            final int toCopy = Math.min(len, length - position);
+            System.arraycopy(buffer, position, b, off, toCopy);
+            position += toCopy;
+            return toCopy;
+        }
+
+        @Override
+        public int available() {
+            return length - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
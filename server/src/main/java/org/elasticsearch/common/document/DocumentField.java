@@ -101,7 +101,7 @@ public class DocumentField implements Streamable, ToXContentFragment, Iterable<O
 
     @Override
     public void readFrom(StreamInput in) throws IOException {
-        name = in.readString();
+        name = in.readSharedString();
         int size = in.readVInt();
         values = new ArrayList<>(size);
         for (int i = 0; i < size; i++) {
@@ -111,7 +111,7 @@ public class DocumentField implements Streamable, ToXContentFragment, Iterable<O
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
-        out.writeString(name);
+        out.writeSharedString(name);
         out.writeVInt(values.size());
         for (Object obj : values) {
             out.writeGenericValue(obj);
@@ -50,6 +50,12 @@ public abstract class FilterStreamInput extends StreamInput {
         delegate.reset();
     }
 
+    @Override
+    public String readSharedString() throws IOException {
+        // the strings are shared with the delegate, which may be read from before or after this stream is created
+        return delegate.readSharedString();
+    }
+
     @Override
     public int read() throws IOException {
         return delegate.read();
@@ -368,7 +368,81 @@ public abstract class StreamInput extends InputStream {
     // this prevents calling grow for every character since we don't need this
     private final CharsRef spare = new CharsRef();
 
+    /**
+     * A lossy cache of short strings that were read with {@link #readSharedString()}, indexed by their hash codes.
+     */
+    private static final String[] INTERNED_STRINGS = new String[1 << 12];
+    private static final int MAX_INTERNED_STRING_LENGTH = 64;
+    // the strings that were read with readSharedString, in the order in which they were first written
+    private List<String> sharedStrings;
+
     public String readString() throws IOException {
+        readStringChars();
+        return spare.toString();
+    }
+
+    /**
+     * Reads a string that was written with {@link StreamOutput#writeSharedString(String)}. Strings that were already read from this
+     * stream are returned again, and short strings are interned in a small cache that is shared by all streams, so that the same
+     * identifiers don't need to be allocated over and over.
+     */
+    public String readSharedString() throws IOException {
+        if (getVersion().onOrAfter(Version.V_7_0_0)) {
+            final int reference = readVInt();
+            if (reference > 0) {
+                if (sharedStrings == null || reference > sharedStrings.size()) {
+                    throw new IOException("invalid shared string reference [" + reference + "]");
+                }
+                return sharedStrings.get(reference - 1);
+            }
+        }
+        readStringChars();
+        final String string = internString(spare.chars, spare.length);
+        if (getVersion().onOrAfter(Version.V_7_0_0)) {
+            if (sharedStrings == null) {
+                sharedStrings = new ArrayList<>();
+            }
+            if (sharedStrings.size() < StreamOutput.MAX_SHARED_STRINGS) {
+                sharedStrings.add(string);
+            }
+        }
+        return string;
+    }
+
+    @Nullable
+    public String readOptionalSharedString() throws IOException {
+        if (readBoolean()) {
+            return readSharedString();
+        }
+        return null;
+    }
+
+    private static String internString(char[] chars, int length) {
+        if (length > MAX_INTERNED_STRING_LENGTH) {
+            return new String(chars, 0, length);
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        final int slot = (hash ^ (hash >>> 16)) & (INTERNED_STRINGS.length - 1);
+        final String interned = INTERNED_STRINGS[slot];
+        if (interned != null && interned.length() == length) {
+            boolean equal = true;
+            for (int i = 0; i < length && equal; i++) {
+                equal = interned.charAt(i) == chars[i];
+            }
+            if (equal) {
+                return interned;
+            }
+        }
+        // strings are immutable, so the slots can be replaced without synchronization
+        final String string = new String(chars, 0, length);
+        INTERNED_STRINGS[slot] = string;
+        return string;
+    }
+
+    private void readStringChars() throws IOException {
         // TODO it would be nice to not call readByte() for every character but we don't know how much to read up-front
         // we can make the loop much more complicated but that won't buy us much compared to the bounds checks in readByte()
         final int charCount = readArraySize();
@@ -402,7 +476,6 @@ public abstract class StreamInput extends InputStream {
                     throw new IOException("Invalid string; unexpected character: " + c + " hex: " + Integer.toHexString(c));
             }
         }
-        return spare.toString();
     }
 
 
@@ -103,8 +103,15 @@ public abstract class StreamOutput extends OutputStream {
         TIME_UNIT_BYTE_MAP = Collections.unmodifiableMap(timeUnitByteMap);
     }
 
+    /**
+     * The maximum number of strings that are written once per stream with {@link #writeSharedString(String)}.
+     */
+    static final int MAX_SHARED_STRINGS = 1 << 14;
+
     private Version version = Version.CURRENT;
     private Set<String> features = Collections.emptySet();
+    // the ids of the strings that were written with writeSharedString
+    private Map<String, Integer> sharedStrings;
 
     /**
      * The version of the node on the other side of this stream.
@@ -201,7 +208,7 @@ public abstract class StreamOutput extends OutputStream {
             return;
         }
         writeVInt(bytes.length());
-        bytes.writeTo(this);
+        writeReferencedBytes(bytes);
     }
 
     /**
@@ -214,6 +221,14 @@ public abstract class StreamOutput extends OutputStream {
             return;
         }
         writeVInt(bytes.length() + 1);
+        writeReferencedBytes(bytes);
+    }
+
+    /**
+     * Writes the content of a bytes reference without a length header. Streams that assemble their output from several references
+     * may keep a reference to the bytes rather than copying them, so the bytes must not be modified until the output was consumed.
+     */
+    protected void writeReferencedBytes(BytesReference bytes) throws IOException {
         bytes.writeTo(this);
     }
 
@@ -400,6 +415,45 @@ public abstract class StreamOutput extends OutputStream {
         writeBytes(buffer, offset);
     }
 
+    /**
+     * Writes a string that is likely to be repeated in this stream, such as an index name, a field name or a node id. It must be read
+     * with {@link StreamInput#readSharedString()}. As of 7.0.0, a string that was already written to this stream is written as a
+     * reference to its first occurrence.
+     */
+    public void writeSharedString(String str) throws IOException {
+        if (version.onOrAfter(Version.V_7_0_0)) {
+            if (sharedStrings == null) {
+                sharedStrings = new HashMap<>();
+            }
+            final Integer id = sharedStrings.get(str);
+            if (id != null) {
+                writeVInt(id + 1);
+                return;
+            }
+            if (sharedStrings.size() < MAX_SHARED_STRINGS) {
+                sharedStrings.put(str, sharedStrings.size());
+            }
+            writeVInt(0);
+        }
+        writeString(str);
+    }
+
+    public void writeOptionalSharedString(@Nullable String str) throws IOException {
+        if (str == null) {
+            writeBoolean(false);
+        } else {
+            writeBoolean(true);
+            writeSharedString(str);
+        }
+    }
+
+    /**
+     * Forgets the strings that were written with {@link #writeSharedString(String)}, for streams whose content is reset.
+     */
+    protected void clearSharedStrings() {
+        sharedStrings = null;
+    }
+
     public void writeFloat(float v) throws IOException {
         writeInt(Float.floatToIntBits(v));
     }
@@ -23,7 +23,9 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.CloseableThreadLocal;
+import org.apache.lucene.util.InPlaceMergeSorter;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 
 import java.io.IOException;
@@ -145,6 +147,61 @@ public final class VersionsAndSeqNoResolver {
         return null;
     }
 
+    /**
+     * Load the internal doc IDs and versions for a batch of uids from the reader. The returned array is aligned with
+     * {@code uids} and holds {@code null} for uids that weren't found or that are {@code null} themselves.
+     * <p>
+     * The uids are looked up in sorted order so that each segment's terms dictionary is only walked forward, which lets
+     * consecutive seeks reuse the blocks that were loaded by the previous one.
+     */
+    public static DocIdAndVersion[] loadDocIdsAndVersions(IndexReader reader, String uidField, BytesRef[] uids) throws IOException {
+        final DocIdAndVersion[] results = new DocIdAndVersion[uids.length];
+        int numUids = 0;
+        final int[] sortedSlots = new int[uids.length];
+        for (int i = 0; i < uids.length; i++) {
+            if (uids[i] != null) {
+                sortedSlots[numUids++] = i;
+            }
+        }
+        if (numUids == 0) {
+            return results;
+        }
+        new InPlaceMergeSorter() {
+            @Override
+            protected void swap(int i, int j) {
+                int tmp = sortedSlots[i];
+                sortedSlots[i] = sortedSlots[j];
+                sortedSlots[j] = tmp;
+            }
+
+            @Override
+            protected int compare(int i, int j) {
+                return uids[sortedSlots[i]].compareTo(uids[sortedSlots[j]]);
+            }
+        }.sort(0, numUids);
+
+        final PerThreadIDVersionAndSeqNoLookup[] lookups = getLookupState(reader, uidField);
+        final List<LeafReaderContext> leaves = reader.leaves();
+        int remaining = numUids;
+        // iterate backwards to optimize for the frequently updated documents
+        // which are likely to be in the last segments
+        for (int i = leaves.size() - 1; i >= 0 && remaining > 0; i--) {
+            final LeafReaderContext leaf = leaves.get(i);
+            final PerThreadIDVersionAndSeqNoLookup lookup = lookups[leaf.ord];
+            for (int j = 0; j < numUids; j++) {
+                final int slot = sortedSlots[j];
+                if (results[slot] == null) {
+                    final DocIdAndVersion result = lookup.lookupVersion(uids[slot], leaf);
+                    if (result != null) {
+                        results[slot] = result;
+                        remaining--;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
     /**
      * Loads the internal docId and sequence number of the latest copy for a given uid from the provided reader.
      * The flag {@link DocIdAndSeqNo#isLive} indicates whether the returned document is live or (soft)deleted.
@@ -65,6 +65,7 @@ import org.elasticsearch.gateway.GatewayService;
 import org.elasticsearch.http.HttpTransportSettings;
 import org.elasticsearch.index.IndexModule;
 import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.IndexingPressure;
 import org.elasticsearch.indices.IndexingMemoryController;
 import org.elasticsearch.indices.IndicesQueryCache;
 import org.elasticsearch.indices.IndicesRequestCache;
@@ -74,6 +75,7 @@ import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
 import org.elasticsearch.indices.fielddata.cache.IndicesFieldDataCache;
 import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.indices.store.IndicesStore;
+import org.elasticsearch.ingest.IngestService;
 import org.elasticsearch.monitor.fs.FsService;
 import org.elasticsearch.monitor.jvm.JvmGcMonitorService;
 import org.elasticsearch.monitor.jvm.JvmService;
@@ -251,6 +253,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     HttpTransportSettings.SETTING_HTTP_CONTENT_TYPE_REQUIRED,
                     HttpTransportSettings.SETTING_HTTP_MAX_CONTENT_LENGTH,
                     HttpTransportSettings.SETTING_HTTP_MAX_CHUNK_SIZE,
+                    HttpTransportSettings.SETTING_HTTP_RESPONSE_CHUNK_SIZE,
                     HttpTransportSettings.SETTING_HTTP_MAX_HEADER_SIZE,
                     HttpTransportSettings.SETTING_HTTP_MAX_WARNING_HEADER_COUNT,
                     HttpTransportSettings.SETTING_HTTP_MAX_WARNING_HEADER_SIZE,
@@ -302,6 +305,8 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     HierarchyCircuitBreakerService.FIELDDATA_CIRCUIT_BREAKER_TYPE_SETTING,
                     HierarchyCircuitBreakerService.REQUEST_CIRCUIT_BREAKER_TYPE_SETTING,
                     Transport.TRANSPORT_TCP_COMPRESS,
+                    Transport.TRANSPORT_TCP_COMPRESSION_SCHEME,
+                    Transport.TRANSPORT_TCP_COMPRESS_ACTIONS,
                     TcpTransport.HOST,
                     TcpTransport.PUBLISH_HOST,
                     TcpTransport.BIND_HOST,
@@ -323,6 +328,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     TransportService.CONNECTIONS_PER_NODE_PING,
                     TransportService.TCP_CONNECT_TIMEOUT,
                     TcpTransport.PING_SCHEDULE,
+                    TcpTransport.SLOW_OPERATION_THRESHOLD,
                     NetworkService.NETWORK_SERVER,
                     TcpTransport.TCP_NO_DELAY,
                     TcpTransport.TCP_KEEP_ALIVE,
@@ -344,6 +350,9 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     ScriptService.SCRIPT_CACHE_EXPIRE_SETTING,
                     ScriptService.SCRIPT_MAX_SIZE_IN_BYTES,
                     ScriptService.SCRIPT_MAX_COMPILATIONS_RATE,
+                    ScriptService.SCRIPT_CONTEXT_CACHE_SIZE_SETTING,
+                    ScriptService.SCRIPT_CONTEXT_CACHE_EXPIRE_SETTING,
+                    ScriptService.SCRIPT_CONTEXT_MAX_COMPILATIONS_RATE_SETTING,
                     ScriptService.TYPES_ALLOWED_SETTING,
                     ScriptService.CONTEXTS_ALLOWED_SETTING,
                     IndicesService.INDICES_CACHE_CLEAN_INTERVAL_SETTING,
@@ -391,6 +400,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     Node.NODE_DATA_SETTING,
                     Node.NODE_MASTER_SETTING,
                     Node.NODE_INGEST_SETTING,
+                    IngestService.PARALLEL_BULK_EXECUTION_SETTING,
                     Node.NODE_ATTRIBUTES,
                     Node.NODE_LOCAL_STORAGE_SETTING,
                     AutoCreateIndex.AUTO_CREATE_INDEX_SETTING,
@@ -432,6 +442,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     IndexingMemoryController.MAX_INDEX_BUFFER_SIZE_SETTING,
                     IndexingMemoryController.SHARD_INACTIVE_TIME_SETTING,
                     IndexingMemoryController.SHARD_MEMORY_INTERVAL_TIME_SETTING,
+                    IndexingPressure.MAX_INDEXING_BYTES,
                     ResourceWatcherService.ENABLED,
                     ResourceWatcherService.RELOAD_INTERVAL_HIGH,
                     ResourceWatcherService.RELOAD_INTERVAL_MEDIUM,
@@ -0,0 +1,247 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.time;
+
+/**
+ * Allocation free parsers for the date formats that make up most of the dates sent to elasticsearch. They only accept
+ * the canonical form of these formats and return {@link #UNPARSED} for anything else, in which case callers are expected
+ * to fall back to their general purpose parser, which will either parse the date or produce the appropriate error.
+ * Whatever they do parse yields exactly what the ISO 8601 and {@code epoch_millis} parsers would.
+ */
+public final class FastDateParser {
+
+    /**
+     * Returned when a date isn't in one of the forms the fast parsers understand.
+     */
+    public static final long UNPARSED = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int SECONDS_PER_DAY = 86_400;
+    // yyyy-MM-ddTHH:mm:ss
+    private static final int PREFIX_LENGTH = 19;
+
+    // dates that are parsed together, like the ones of a bulk request, tend to share the same second
+    private static final ThreadLocal<LastPrefix> LAST_PREFIX = ThreadLocal.withInitial(LastPrefix::new);
+
+    private FastDateParser() {}
+
+    /**
+     * Parses dates like {@code 2018-10-10}, {@code 2018-10-10T13:55:36Z} or {@code 2018-10-10T13:55:36.123+02:00}: a date,
+     * optionally followed by a time with seconds, up to nine fraction digits (of which only milliseconds are kept) and a
+     * {@code Z}, {@code +HH:mm} or {@code +HHmm} offset.
+     *
+     * @param utcWithoutOffset whether dates without an offset are in UTC; if {@code false} they are left unparsed
+     * @return the milliseconds since the epoch, or {@link #UNPARSED}
+     */
+    public static long parseIsoMillis(String text, boolean utcWithoutOffset) {
+        final int length = text.length();
+        if (length == 10) {
+            if (utcWithoutOffset == false) {
+                return UNPARSED;
+            }
+            long days = parseDays(text);
+            return days == UNPARSED ? UNPARSED : days * MILLIS_PER_DAY;
+        }
+        if (length < PREFIX_LENGTH) {
+            return UNPARSED;
+        }
+        final long seconds;
+        LastPrefix lastPrefix = LAST_PREFIX.get();
+        if (lastPrefix.matches(text)) {
+            seconds = lastPrefix.seconds;
+        } else {
+            seconds = parsePrefixSeconds(text);
+            if (seconds == UNPARSED) {
+                return UNPARSED;
+            }
+            lastPrefix.set(text, seconds);
+        }
+
+        int pos = PREFIX_LENGTH;
+        int millis = 0;
+        if (pos < length && (text.charAt(pos) == '.' || text.charAt(pos) == ',')) {
+            final int start = ++pos;
+            while (pos < length && pos - start < 9 && isDigit(text.charAt(pos))) {
+                if (pos - start < 3) {
+                    millis = millis * 10 + text.charAt(pos) - '0';
+                }
+                pos++;
+            }
+            final int digits = pos - start;
+            if (digits == 0) {
+                return UNPARSED;
+            }
+            for (int i = digits; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+
+        final int offsetSeconds;
+        if (pos == length) {
+            if (utcWithoutOffset == false) {
+                return UNPARSED;
+            }
+            offsetSeconds = 0;
+        } else if (text.charAt(pos) == 'Z') {
+            if (pos + 1 != length) {
+                return UNPARSED;
+            }
+            offsetSeconds = 0;
+        } else if (text.charAt(pos) == '+' || text.charAt(pos) == '-') {
+            final int sign = text.charAt(pos) == '+' ? 1 : -1;
+            final int hours = parseTwoDigits(text, pos + 1);
+            int minutesPos = pos + 3;
+            if (minutesPos < length && text.charAt(minutesPos) == ':') {
+                minutesPos++;
+            }
+            if (minutesPos + 2 != length) {
+                return UNPARSED;
+            }
+            final int minutes = parseTwoDigits(text, minutesPos);
+            if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+                return UNPARSED;
+            }
+            offsetSeconds = sign * (hours * 3600 + minutes * 60);
+        } else {
+            return UNPARSED;
+        }
+        return (seconds - offsetSeconds) * 1000 + millis;
+    }
+
+    /**
+     * Parses the milliseconds since the epoch written as a plain, positive number of at least five digits. Shorter numbers
+     * are left unparsed because formats like {@code strict_date_optional_time||epoch_millis} read them as a year.
+     *
+     * @return the milliseconds since the epoch, or {@link #UNPARSED}
+     */
+    public static long parseEpochMillis(String text) {
+        final int length = text.length();
+        if (length < 5 || length > 18) {
+            return UNPARSED;
+        }
+        long millis = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c) == false) {
+                return UNPARSED;
+            }
+            millis = millis * 10 + c - '0';
+        }
+        return millis;
+    }
+
+    private static long parsePrefixSeconds(String text) {
+        if (text.charAt(10) != 'T' || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return UNPARSED;
+        }
+        final long days = parseDays(text);
+        final int hour = parseTwoDigits(text, 11);
+        final int minute = parseTwoDigits(text, 14);
+        final int second = parseTwoDigits(text, 17);
+        if (days == UNPARSED || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return UNPARSED;
+        }
+        return days * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+    }
+
+    /**
+     * Parses the {@code yyyy-MM-dd} at the start of the text into the number of days since the epoch.
+     */
+    private static long parseDays(String text) {
+        if (text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return UNPARSED;
+        }
+        final int centuries = parseTwoDigits(text, 0);
+        final int years = parseTwoDigits(text, 2);
+        final int month = parseTwoDigits(text, 5);
+        final int day = parseTwoDigits(text, 8);
+        if (centuries < 0 || years < 0 || month < 1 || month > 12 || day < 1) {
+            return UNPARSED;
+        }
+        final int year = centuries * 100 + years;
+        if (day > daysInMonth(year, month)) {
+            return UNPARSED;
+        }
+        // days from the proleptic gregorian civil date, counting years from march so that leap days come last
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = Math.floorDiv(y, 400);
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return the value of the two digits at the given position, or {@code -1} if they aren't digits
+     */
+    private static int parseTwoDigits(String text, int pos) {
+        if (pos + 1 >= text.length()) {
+            return -1;
+        }
+        final char tens = text.charAt(pos);
+        final char ones = text.charAt(pos + 1);
+        if (isDigit(tens) == false || isDigit(ones) == false) {
+            return -1;
+        }
+        return (tens - '0') * 10 + ones - '0';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static final class LastPrefix {
+        private final char[] prefix = new char[PREFIX_LENGTH];
+        private boolean set = false;
+        private long seconds;
+
+        boolean matches(String text) {
+            if (set == false) {
+                return false;
+            }
+            for (int i = 0; i < PREFIX_LENGTH; i++) {
+                if (prefix[i] != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void set(String text, long seconds) {
+            text.getChars(0, PREFIX_LENGTH, prefix, 0);
+            this.seconds = seconds;
+            this.set = true;
+        }
+    }
+}
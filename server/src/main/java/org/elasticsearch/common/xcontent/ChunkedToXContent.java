@@ -0,0 +1,36 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.xcontent;
+
+import java.util.Iterator;
+
+/**
+ * An object whose xcontent representation can be very large, and that can therefore also be rendered as a sequence of
+ * fragments. Rendering all the fragments in order to the same builder must produce the same result as
+ * {@link #toXContent(XContentBuilder, Params)}, which allows to send the object incrementally instead of building it in memory.
+ */
+public interface ChunkedToXContent extends ToXContentObject {
+
+    /**
+     * Returns the fragments of the xcontent representation of this object, in order. The first fragment starts the object and
+     * the last one ends it.
+     */
+    Iterator<? extends ToXContent> toXContentChunked(Params params);
+}
@@ -30,10 +30,14 @@ import org.elasticsearch.common.network.CloseableChannel;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.rest.AbstractRestChannel;
+import org.elasticsearch.rest.ChunkedRestResponse;
+import org.elasticsearch.rest.ChunkedRestResponseBody;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestRequest;
 import org.elasticsearch.rest.RestResponse;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -42,7 +46,8 @@ import static org.elasticsearch.tasks.Task.X_OPAQUE_ID;
 
 /**
  * The default rest channel for incoming requests. This class implements the basic logic for sending a rest
- * response. It will set necessary headers nad ensure that bytes are released after the response is sent.
+ * response. It will set necessary headers nad ensure that bytes are released after the response is sent. The content of a
+ * {@link ChunkedRestResponse} that doesn't fit in a single chunk is streamed, except to HTTP 1.0 clients.
  */
 public class DefaultRestChannel extends AbstractRestChannel implements RestChannel {
 
@@ -76,11 +81,31 @@ public class DefaultRestChannel extends AbstractRestChannel implements RestChann
 
     @Override
     public void sendResponse(RestResponse restResponse) {
-        HttpResponse httpResponse;
+        final HttpResponse httpResponse;
+        // the length of the content, or null if the content is streamed
+        final String contentLength;
         if (RestRequest.Method.HEAD == request.method()) {
             httpResponse = httpRequest.createResponse(restResponse.status(), BytesArray.EMPTY);
+            contentLength = String.valueOf(restResponse.content().length());
+        } else if (restResponse instanceof ChunkedRestResponse && isHttp10() == false) {
+            // the response is only streamed if its content doesn't fit in a single chunk
+            final ChunkedRestResponseBody body = ((ChunkedRestResponse) restResponse).body();
+            final int chunkSize = settings.getResponseChunkSize();
+            try {
+                final BytesReference firstChunk = body.encodeChunk(chunkSize);
+                if (body.isDone()) {
+                    httpResponse = httpRequest.createResponse(restResponse.status(), firstChunk);
+                    contentLength = String.valueOf(firstChunk.length());
+                } else {
+                    httpResponse = httpRequest.createChunkedResponse(restResponse.status(), firstChunk, body, chunkSize);
+                    contentLength = null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         } else {
             httpResponse = httpRequest.createResponse(restResponse.status(), restResponse.content());
+            contentLength = String.valueOf(restResponse.content().length());
         }
 
         // TODO: Ideally we should move the setting of Cors headers into :server
@@ -102,13 +127,17 @@ public class DefaultRestChannel extends AbstractRestChannel implements RestChann
             // If our response doesn't specify a content-type header, set one
             setHeaderField(httpResponse, CONTENT_TYPE, restResponse.contentType(), false);
             // If our response has no content-length, calculate and set one
-            setHeaderField(httpResponse, CONTENT_LENGTH, String.valueOf(restResponse.content().length()), false);
+            if (contentLength != null) {
+                setHeaderField(httpResponse, CONTENT_LENGTH, contentLength, false);
+            }
 
             addCookies(httpResponse);
 
-            BytesReference content = restResponse.content();
-            if (content instanceof Releasable) {
-                toClose.add((Releasable) content);
+            if (restResponse instanceof ChunkedRestResponse == false) {
+                BytesReference content = restResponse.content();
+                if (content instanceof Releasable) {
+                    toClose.add((Releasable) content);
+                }
             }
             BytesStreamOutput bytesStreamOutput = bytesOutputOrNull();
             if (bytesStreamOutput instanceof ReleasableBytesStreamOutput) {
@@ -30,6 +30,7 @@ import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_MAX_CONT
 import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_MAX_HEADER_SIZE;
 import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_MAX_INITIAL_LINE_LENGTH;
 import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_RESET_COOKIES;
+import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_RESPONSE_CHUNK_SIZE;
 import static org.elasticsearch.http.HttpTransportSettings.SETTING_PIPELINING_MAX_EVENTS;
 
 public class HttpHandlingSettings {
@@ -44,10 +45,11 @@ public class HttpHandlingSettings {
     private final boolean detailedErrorsEnabled;
     private final int pipeliningMaxEvents;
     private boolean corsEnabled;
+    private final int responseChunkSize;
 
     public HttpHandlingSettings(int maxContentLength, int maxChunkSize, int maxHeaderSize, int maxInitialLineLength,
                                 boolean resetCookies, boolean compression, int compressionLevel, boolean detailedErrorsEnabled,
-                                int pipeliningMaxEvents, boolean corsEnabled) {
+                                int pipeliningMaxEvents, boolean corsEnabled, int responseChunkSize) {
         this.maxContentLength = maxContentLength;
         this.maxChunkSize = maxChunkSize;
         this.maxHeaderSize = maxHeaderSize;
@@ -58,6 +60,7 @@ public class HttpHandlingSettings {
         this.detailedErrorsEnabled = detailedErrorsEnabled;
         this.pipeliningMaxEvents = pipeliningMaxEvents;
         this.corsEnabled = corsEnabled;
+        this.responseChunkSize = responseChunkSize;
     }
 
     public static HttpHandlingSettings fromSettings(Settings settings) {
@@ -70,7 +73,8 @@ public class HttpHandlingSettings {
             SETTING_HTTP_COMPRESSION_LEVEL.get(settings),
             SETTING_HTTP_DETAILED_ERRORS_ENABLED.get(settings),
             SETTING_PIPELINING_MAX_EVENTS.get(settings),
-            SETTING_CORS_ENABLED.get(settings));
+            SETTING_CORS_ENABLED.get(settings),
+            Math.toIntExact(SETTING_HTTP_RESPONSE_CHUNK_SIZE.get(settings).getBytes()));
     }
 
     public int getMaxContentLength() {
@@ -112,4 +116,8 @@ public class HttpHandlingSettings {
     public boolean isCorsEnabled() {
         return corsEnabled;
     }
+
+    public int getResponseChunkSize() {
+        return responseChunkSize;
+    }
 }
@@ -20,9 +20,13 @@
 package org.elasticsearch.http;
 
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.rest.ChunkedRestResponse;
+import org.elasticsearch.rest.ChunkedRestResponseBody;
 import org.elasticsearch.rest.RestRequest;
 import org.elasticsearch.rest.RestStatus;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -62,4 +66,18 @@ public interface HttpRequest {
      */
     HttpResponse createResponse(RestStatus status, BytesReference content);
 
+    /**
+     * Create an http response from this request and the supplied status and body, whose first chunk was already encoded. The
+     * remaining chunks are encoded while the response is sent. Http modules that can't stream responses encode the whole body
+     * at once.
+     */
+    default HttpResponse createChunkedResponse(RestStatus status, BytesReference firstChunk, ChunkedRestResponseBody remainingChunks,
+                                               int chunkSize) throws IOException {
+        final BytesReference content =
+            new CompositeBytesReference(firstChunk, ChunkedRestResponse.encodeRemainingChunks(remainingChunks, chunkSize));
+        final HttpResponse response = createResponse(status, content);
+        response.addHeader(DefaultRestChannel.CONTENT_LENGTH, String.valueOf(content.length()));
+        return response;
+    }
+
 }
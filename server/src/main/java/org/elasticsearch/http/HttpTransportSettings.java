@@ -88,6 +88,13 @@ public final class HttpTransportSettings {
                 Property.NodeScope);
     public static final Setting<ByteSizeValue> SETTING_HTTP_MAX_CHUNK_SIZE =
         Setting.byteSizeSetting("http.max_chunk_size", new ByteSizeValue(8, ByteSizeUnit.KB), Property.NodeScope);
+    public static final Setting<ByteSizeValue> SETTING_HTTP_RESPONSE_CHUNK_SIZE =
+        Setting.byteSizeSetting(
+                "http.response_chunk_size",
+                new ByteSizeValue(256, ByteSizeUnit.KB),
+                new ByteSizeValue(1, ByteSizeUnit.KB),
+                new ByteSizeValue(Integer.MAX_VALUE, ByteSizeUnit.BYTES),
+                Property.NodeScope);
     public static final Setting<ByteSizeValue> SETTING_HTTP_MAX_HEADER_SIZE =
         Setting.byteSizeSetting("http.max_header_size", new ByteSizeValue(8, ByteSizeUnit.KB), Property.NodeScope);
     public static final Setting<Integer> SETTING_HTTP_MAX_WARNING_HEADER_COUNT =
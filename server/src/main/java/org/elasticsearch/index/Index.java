@@ -58,8 +58,8 @@ public class Index implements Writeable, ToXContentObject {
      * Read from a stream.
      */
     public Index(StreamInput in) throws IOException {
-        this.name = in.readString();
-        this.uuid = in.readString();
+        this.name = in.readSharedString();
+        this.uuid = in.readSharedString();
     }
 
     public String getName() {
@@ -103,8 +103,8 @@ public class Index implements Writeable, ToXContentObject {
 
     @Override
     public void writeTo(final StreamOutput out) throws IOException {
-        out.writeString(name);
-        out.writeString(uuid);
+        out.writeSharedString(name);
+        out.writeSharedString(uuid);
     }
 
     @Override
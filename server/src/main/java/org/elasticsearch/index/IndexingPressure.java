@@ -0,0 +1,163 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index;
+
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the bytes of the write requests that are in flight on this node, at the coordinating, primary and replica
+ * stages, and rejects new requests once they would push the node over {@link #MAX_INDEXING_BYTES}. This protects
+ * the node from running out of memory when clients send more data than the cluster can index, independently of the
+ * size of the write queue. Replicas are rejected at a higher limit since failing them fails the replica shard. A
+ * request is never rejected when nothing else is in flight, so that a single request above the limit can still make
+ * progress on an idle node.
+ */
+public class IndexingPressure {
+
+    public static final Setting<ByteSizeValue> MAX_INDEXING_BYTES =
+        Setting.memorySizeSetting("indexing_pressure.memory.limit", "10%", Setting.Property.NodeScope);
+
+    private final AtomicLong currentCombinedCoordinatingAndPrimaryBytes = new AtomicLong(0);
+    private final AtomicLong currentCoordinatingBytes = new AtomicLong(0);
+    private final AtomicLong currentPrimaryBytes = new AtomicLong(0);
+    private final AtomicLong currentReplicaBytes = new AtomicLong(0);
+
+    private final AtomicLong totalCoordinatingBytes = new AtomicLong(0);
+    private final AtomicLong totalPrimaryBytes = new AtomicLong(0);
+    private final AtomicLong totalReplicaBytes = new AtomicLong(0);
+
+    private final AtomicLong coordinatingRejections = new AtomicLong(0);
+    private final AtomicLong primaryRejections = new AtomicLong(0);
+    private final AtomicLong replicaRejections = new AtomicLong(0);
+
+    private final long primaryAndCoordinatingLimits;
+    private final long replicaLimits;
+
+    public IndexingPressure(Settings settings) {
+        this.primaryAndCoordinatingLimits = MAX_INDEXING_BYTES.get(settings).getBytes();
+        this.replicaLimits = (long) (this.primaryAndCoordinatingLimits * 1.5);
+    }
+
+    /**
+     * Accounts for a write request that is received on the coordinating node. The returned {@link Releasable} must be
+     * closed once the request completes.
+     *
+     * @throws EsRejectedExecutionException if the node already holds too many bytes of write requests
+     */
+    public Releasable markCoordinatingOperationStarted(long bytes) {
+        final long combinedBytes = currentCombinedCoordinatingAndPrimaryBytes.addAndGet(bytes);
+        if (combinedBytes > primaryAndCoordinatingLimits && bytes > 0 && combinedBytes - bytes > 0) {
+            currentCombinedCoordinatingAndPrimaryBytes.getAndAdd(-bytes);
+            coordinatingRejections.getAndIncrement();
+            throw rejection("coordinating", bytes, combinedBytes - bytes, primaryAndCoordinatingLimits);
+        }
+        currentCoordinatingBytes.getAndAdd(bytes);
+        totalCoordinatingBytes.getAndAdd(bytes);
+        return releaseOnce(() -> {
+            currentCombinedCoordinatingAndPrimaryBytes.getAndAdd(-bytes);
+            currentCoordinatingBytes.getAndAdd(-bytes);
+        });
+    }
+
+    /**
+     * Accounts for a write request that is executed on a primary shard. The returned {@link Releasable} must be closed
+     * once the request completes.
+     *
+     * @throws EsRejectedExecutionException if the node already holds too many bytes of write requests
+     */
+    public Releasable markPrimaryOperationStarted(long bytes) {
+        final long combinedBytes = currentCombinedCoordinatingAndPrimaryBytes.addAndGet(bytes);
+        if (combinedBytes > primaryAndCoordinatingLimits && bytes > 0 && combinedBytes - bytes > 0) {
+            currentCombinedCoordinatingAndPrimaryBytes.getAndAdd(-bytes);
+            primaryRejections.getAndIncrement();
+            throw rejection("primary", bytes, combinedBytes - bytes, primaryAndCoordinatingLimits);
+        }
+        currentPrimaryBytes.getAndAdd(bytes);
+        totalPrimaryBytes.getAndAdd(bytes);
+        return releaseOnce(() -> {
+            currentCombinedCoordinatingAndPrimaryBytes.getAndAdd(-bytes);
+            currentPrimaryBytes.getAndAdd(-bytes);
+        });
+    }
+
+    /**
+     * Accounts for a write request that is executed on a primary shard of the node that coordinates it. Its bytes are already
+     * accounted for by {@link #markCoordinatingOperationStarted(long)}, so they only count as primary bytes and the request
+     * is never rejected. The returned {@link Releasable} must be closed once the request completes.
+     */
+    public Releasable markPrimaryOperationLocalToCoordinatingNodeStarted(long bytes) {
+        currentPrimaryBytes.getAndAdd(bytes);
+        totalPrimaryBytes.getAndAdd(bytes);
+        return releaseOnce(() -> currentPrimaryBytes.getAndAdd(-bytes));
+    }
+
+    /**
+     * Accounts for a write request that is executed on a replica shard. The returned {@link Releasable} must be closed
+     * once the request completes.
+     *
+     * @throws EsRejectedExecutionException if the node already holds too many bytes of replica write requests
+     */
+    public Releasable markReplicaOperationStarted(long bytes) {
+        final long replicaBytes = currentReplicaBytes.addAndGet(bytes);
+        if (replicaBytes > replicaLimits && bytes > 0 && replicaBytes - bytes > 0) {
+            currentReplicaBytes.getAndAdd(-bytes);
+            replicaRejections.getAndIncrement();
+            throw rejection("replica", bytes, replicaBytes - bytes, replicaLimits);
+        }
+        totalReplicaBytes.getAndAdd(bytes);
+        return releaseOnce(() -> currentReplicaBytes.getAndAdd(-bytes));
+    }
+
+    private static EsRejectedExecutionException rejection(String stage, long bytes, long currentBytes, long limit) {
+        return new EsRejectedExecutionException("rejected execution of " + stage + " operation [bytes=" + bytes
+            + ", current_bytes=" + currentBytes + ", max_bytes=" + limit + "]", false);
+    }
+
+    private static Releasable releaseOnce(Releasable releasable) {
+        final AtomicBoolean released = new AtomicBoolean(false);
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                releasable.close();
+            }
+        };
+    }
+
+    public long getCurrentCombinedCoordinatingAndPrimaryBytes() {
+        return currentCombinedCoordinatingAndPrimaryBytes.get();
+    }
+
+    public long getCurrentReplicaBytes() {
+        return currentReplicaBytes.get();
+    }
+
+    public IndexingPressureStats stats() {
+        return new IndexingPressureStats(currentCombinedCoordinatingAndPrimaryBytes.get(), currentCoordinatingBytes.get(),
+            currentPrimaryBytes.get(), currentReplicaBytes.get(), totalCoordinatingBytes.get(), totalPrimaryBytes.get(),
+            totalReplicaBytes.get(), coordinatingRejections.get(), primaryRejections.get(), replicaRejections.get(),
+            primaryAndCoordinatingLimits);
+    }
+}
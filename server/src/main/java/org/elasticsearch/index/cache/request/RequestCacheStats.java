@@ -19,6 +19,7 @@
 
 package org.elasticsearch.index.cache.request;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
@@ -35,15 +36,21 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
     long evictions;
     long hitCount;
     long missCount;
+    long coalescedCount;
 
     public RequestCacheStats() {
     }
 
     public RequestCacheStats(long memorySize, long evictions, long hitCount, long missCount) {
+        this(memorySize, evictions, hitCount, missCount, 0);
+    }
+
+    public RequestCacheStats(long memorySize, long evictions, long hitCount, long missCount, long coalescedCount) {
         this.memorySize = memorySize;
         this.evictions = evictions;
         this.hitCount = hitCount;
         this.missCount = missCount;
+        this.coalescedCount = coalescedCount;
     }
 
     public void add(RequestCacheStats stats) {
@@ -51,6 +58,7 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         this.evictions += stats.evictions;
         this.hitCount += stats.hitCount;
         this.missCount += stats.missCount;
+        this.coalescedCount += stats.coalescedCount;
     }
 
     public long getMemorySizeInBytes() {
@@ -73,12 +81,23 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         return this.missCount;
     }
 
+    /**
+     * The number of cache hits that didn't find a cached value but waited for an identical concurrent request to compute it.
+     * These are included in {@link #getHitCount()}.
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount;
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         memorySize = in.readVLong();
         evictions = in.readVLong();
         hitCount = in.readVLong();
         missCount = in.readVLong();
+        if (in.getVersion().onOrAfter(Version.V_7_0_0)) {
+            coalescedCount = in.readVLong();
+        }
     }
 
     @Override
@@ -87,6 +106,9 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         out.writeVLong(evictions);
         out.writeVLong(hitCount);
         out.writeVLong(missCount);
+        if (out.getVersion().onOrAfter(Version.V_7_0_0)) {
+            out.writeVLong(coalescedCount);
+        }
     }
 
     @Override
@@ -96,6 +118,7 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         builder.field(Fields.EVICTIONS, getEvictions());
         builder.field(Fields.HIT_COUNT, getHitCount());
         builder.field(Fields.MISS_COUNT, getMissCount());
+        builder.field(Fields.COALESCED_COUNT, getCoalescedCount());
         builder.endObject();
         return builder;
     }
@@ -107,5 +130,6 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         static final String EVICTIONS = "evictions";
         static final String HIT_COUNT = "hit_count";
         static final String MISS_COUNT = "miss_count";
+        static final String COALESCED_COUNT = "coalesced_count";
     }
 }
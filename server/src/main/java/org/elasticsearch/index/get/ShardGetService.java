@@ -20,11 +20,14 @@
 package org.elasticsearch.index.get;
 
 import org.apache.lucene.index.Term;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.get.MultiGetRequest;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.document.DocumentField;
+import org.elasticsearch.common.lucene.uid.VersionsAndSeqNoResolver;
 import org.elasticsearch.common.lucene.uid.VersionsAndSeqNoResolver.DocIdAndVersion;
 import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.metrics.MeanMetric;
@@ -36,9 +39,12 @@ import org.elasticsearch.common.xcontent.support.XContentMapValues;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.engine.EngineException;
+import org.elasticsearch.index.engine.VersionConflictEngineException;
 import org.elasticsearch.index.fieldvisitor.CustomFieldsVisitor;
 import org.elasticsearch.index.fieldvisitor.FieldsVisitor;
 import org.elasticsearch.index.mapper.DocumentMapper;
+import org.elasticsearch.index.mapper.IdFieldMapper;
 import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.mapper.RoutingFieldMapper;
@@ -48,10 +54,15 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 public final class ShardGetService extends AbstractIndexShardComponent {
     private final MapperService mapperService;
@@ -93,6 +104,131 @@ public final class ShardGetService extends AbstractIndexShardComponent {
         }
     }
 
+    /**
+     * Loads a batch of documents from a single point-in-time searcher. Unlike {@link #get(String, String, String[], boolean, long,
+     * VersionType, FetchSourceContext)} this never consults the version map or the translog, so it is only suitable for non-realtime
+     * gets. All ids are resolved in one sorted pass over each segment's {@code _id} terms and the stored fields are then visited in
+     * doc id order, so that documents sharing a compressed stored fields block are read back to back. Field visitors are reused
+     * across documents that ask for the same fields.
+     * <p>
+     * {@code onResult} or {@code onFailure} is called exactly once for each item, with the item's position in {@code items}, in
+     * the order of {@code items}. A failure to load an item, including an {@link IOException}, only fails that item.
+     */
+    public void multiGet(List<MultiGetRequest.Item> items, BiConsumer<Integer, GetResult> onResult,
+                         BiConsumer<Integer, RuntimeException> onFailure) {
+        final int size = items.size();
+        final DocumentMapper defaultMapper = mapperService.documentMapper();
+        final String[] types = new String[size];
+        final BytesRef[] uids = new BytesRef[size];
+        for (int i = 0; i < size; i++) {
+            final MultiGetRequest.Item item = items.get(i);
+            String type = item.type();
+            if (type == null || type.equals("_all")) {
+                type = defaultMapper == null ? null : defaultMapper.type();
+            }
+            types[i] = type;
+            if (type != null) {
+                Term uidTerm = mapperService.createUidTerm(type, item.id());
+                if (uidTerm != null) {
+                    uids[i] = uidTerm.bytes();
+                }
+            }
+        }
+
+        currentMetric.inc(size);
+        try (Engine.Searcher searcher = indexShard.acquireSearcher("mget")) {
+            final long lookupStart = System.nanoTime();
+            final RuntimeException[] failures = new RuntimeException[size];
+            final DocIdAndVersion[] docIdAndVersions = loadDocIdsAndVersions(searcher, uids, failures);
+            // the id lookup is shared by the whole batch, so charge each item an equal part of it
+            final long lookupTookPerItem = (System.nanoTime() - lookupStart) / Math.max(1, size);
+
+            final Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingInt(slot -> docIdAndVersions[slot] == null ? -1
+                : docIdAndVersions[slot].docBase + docIdAndVersions[slot].docId));
+
+            final GetResult[] results = new GetResult[size];
+            final Map<Tuple<Set<String>, Boolean>, FieldsVisitor> fieldVisitors = new HashMap<>();
+            for (int slot : order) {
+                if (failures[slot] != null) {
+                    continue;
+                }
+                final MultiGetRequest.Item item = items.get(slot);
+                final long now = System.nanoTime();
+                final GetResult getResult;
+                try {
+                    final DocIdAndVersion docIdAndVersion = docIdAndVersions[slot];
+                    if (docIdAndVersion == null) {
+                        getResult = new GetResult(shardId.getIndexName(), types[slot], item.id(), -1, false, null, null);
+                    } else {
+                        if (item.versionType().isVersionConflictForReads(docIdAndVersion.version, item.version())) {
+                            throw new VersionConflictEngineException(shardId, types[slot], item.id(),
+                                item.versionType().explainConflictForReads(docIdAndVersion.version, item.version()));
+                        }
+                        final String[] gFields = item.storedFields();
+                        final FetchSourceContext fetchSourceContext = normalizeFetchSourceContent(item.fetchSourceContext(), gFields);
+                        final Set<String> fieldNames = gFields == null ? Collections.emptySet() : Sets.newHashSet(gFields);
+                        final FieldsVisitor fieldVisitor = fieldVisitors.computeIfAbsent(new Tuple<>(fieldNames,
+                            fetchSourceContext.fetchSource()), key -> buildFieldsVisitors(gFields, fetchSourceContext));
+                        if (fieldVisitor != null) {
+                            fieldVisitor.reset();
+                        }
+                        // the searcher is released once the whole batch is loaded, so the engine result is never closed on its own
+                        getResult = innerGetLoadFromStoredFields(types[slot], item.id(), gFields, fetchSourceContext,
+                            new Engine.GetResult(searcher, docIdAndVersion), mapperService, fieldVisitor);
+                    }
+                } catch (RuntimeException e) {
+                    failures[slot] = e;
+                    continue;
+                }
+                final long took = lookupTookPerItem + System.nanoTime() - now;
+                if (getResult.isExists()) {
+                    existsMetric.inc(took);
+                } else {
+                    missingMetric.inc(took);
+                }
+                results[slot] = getResult;
+            }
+
+            // report in request order, like the per item path does
+            for (int slot = 0; slot < size; slot++) {
+                if (failures[slot] != null) {
+                    onFailure.accept(slot, failures[slot]);
+                } else {
+                    onResult.accept(slot, results[slot]);
+                }
+            }
+        } finally {
+            currentMetric.dec(size);
+        }
+    }
+
+    /**
+     * Resolves the given uids with one sorted pass over the {@code _id} terms. If that fails, the uids are resolved one by
+     * one so that a failure only fails the items whose uid couldn't be resolved, which are recorded in {@code failures}.
+     */
+    private DocIdAndVersion[] loadDocIdsAndVersions(Engine.Searcher searcher, BytesRef[] uids, RuntimeException[] failures) {
+        try {
+            return VersionsAndSeqNoResolver.loadDocIdsAndVersions(searcher.reader(), IdFieldMapper.NAME, uids);
+        } catch (IOException e) {
+            final DocIdAndVersion[] docIdAndVersions = new DocIdAndVersion[uids.length];
+            for (int i = 0; i < uids.length; i++) {
+                if (uids[i] != null) {
+                    try {
+                        docIdAndVersions[i] = VersionsAndSeqNoResolver.loadDocIdAndVersion(searcher.reader(),
+                            new Term(IdFieldMapper.NAME, uids[i]));
+                    } catch (IOException inner) {
+                        failures[i] = new EngineException(shardId, "Couldn't resolve version", inner);
+                    }
+                }
+            }
+            return docIdAndVersions;
+        }
+    }
+
     public GetResult getForUpdate(String type, String id, long version, VersionType versionType) {
         return get(type, id, new String[]{RoutingFieldMapper.NAME}, true, version, versionType,
             FetchSourceContext.FETCH_SOURCE, true);
@@ -177,10 +313,15 @@ public final class ShardGetService extends AbstractIndexShardComponent {
     }
 
     private GetResult innerGetLoadFromStoredFields(String type, String id, String[] gFields, FetchSourceContext fetchSourceContext, Engine.GetResult get, MapperService mapperService) {
+        return innerGetLoadFromStoredFields(type, id, gFields, fetchSourceContext, get, mapperService,
+            buildFieldsVisitors(gFields, fetchSourceContext));
+    }
+
+    private GetResult innerGetLoadFromStoredFields(String type, String id, String[] gFields, FetchSourceContext fetchSourceContext,
+                                                   Engine.GetResult get, MapperService mapperService, FieldsVisitor fieldVisitor) {
         Map<String, DocumentField> fields = null;
         BytesReference source = null;
         DocIdAndVersion docIdAndVersion = get.docIdAndVersion();
-        FieldsVisitor fieldVisitor = buildFieldsVisitors(gFields, fetchSourceContext);
         if (fieldVisitor != null) {
             try {
                 docIdAndVersion.reader.document(docIdAndVersion.docId, fieldVisitor);
@@ -35,12 +35,14 @@ import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.Explicit;
 import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.geo.ShapeRelation;
 import org.elasticsearch.common.joda.FormatDateTimeFormatter;
 import org.elasticsearch.common.joda.Joda;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.time.DateMathParser;
 import org.elasticsearch.common.time.DateUtils;
+import org.elasticsearch.common.time.FastDateParser;
 import org.elasticsearch.common.util.LocaleUtils;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.support.XContentMapValues;
@@ -176,6 +178,9 @@ public class DateFieldMapper extends FieldMapper {
     public static final class DateFieldType extends MappedFieldType {
         protected FormatDateTimeFormatter dateTimeFormatter;
         protected DateMathParser dateMathParser;
+        // whether dates may be parsed with the fast parsers before the formatter's own parser, see #parse
+        private boolean fastIsoParsing;
+        private boolean fastEpochMillisParsing;
 
         DateFieldType() {
             super();
@@ -233,6 +238,16 @@ public class DateFieldMapper extends FieldMapper {
             checkIfFrozen();
             this.dateTimeFormatter = dateTimeFormatter;
             this.dateMathParser = dateTimeFormatter.toDateMathParser();
+            String[] formats = Strings.delimitedListToStringArray(dateTimeFormatter.format(), "||");
+            boolean strictIso = isStrictDateOptionalTime(formats[0]);
+            this.fastIsoParsing = strictIso || "date_optional_time".equals(formats[0]) || "dateOptionalTime".equals(formats[0]);
+            // the strict iso parser rejects every number the fast epoch parser accepts, unlike the lenient one
+            this.fastEpochMillisParsing = "epoch_millis".equals(formats[0])
+                || (strictIso && formats.length > 1 && "epoch_millis".equals(formats[1]));
+        }
+
+        private static boolean isStrictDateOptionalTime(String format) {
+            return "strict_date_optional_time".equals(format) || "strictDateOptionalTime".equals(format);
         }
 
         protected DateMathParser dateMathParser() {
@@ -240,6 +255,19 @@ public class DateFieldMapper extends FieldMapper {
         }
 
         long parse(String value) {
+            // only the first formats are tried with the fast parsers, as earlier formats would parse the date first
+            if (fastIsoParsing) {
+                long millis = FastDateParser.parseIsoMillis(value, true);
+                if (millis != FastDateParser.UNPARSED) {
+                    return millis;
+                }
+            }
+            if (fastEpochMillisParsing) {
+                long millis = FastDateParser.parseEpochMillis(value);
+                if (millis != FastDateParser.UNPARSED) {
+                    return millis;
+                }
+            }
             return dateTimeFormatter().parser().parseMillis(value);
         }
 
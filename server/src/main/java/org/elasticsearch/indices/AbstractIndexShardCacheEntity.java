@@ -49,6 +49,11 @@ abstract class AbstractIndexShardCacheEntity implements IndicesRequestCache.Cach
         stats().onMiss();
     }
 
+    @Override
+    public final void onCoalesced() {
+        stats().onCoalesced();
+    }
+
     @Override
     public final void onRemoval(RemovalNotification<IndicesRequestCache.Key, BytesReference> notification) {
         stats().onRemoval(notification.getKey(), notification.getValue(),
@@ -59,6 +59,9 @@ import java.util.function.Supplier;
  * eviction to evict old reader associated cache entries as well as scheduler reaper to clean readers that
  * are no longer used or closed shards.
  * <p>
+ * Concurrent identical requests against the same reader are coalesced: only the first one computes the response
+ * while the others wait for its result, and are reported as coalesced hits in the shard's request cache stats.
+ * <p>
  * Currently, the cache is only enabled for count requests, and can only be opted in on an index
  * level setting that can be dynamically changed and defaults to false.
  * <p>
@@ -83,6 +86,7 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
 
     private final ConcurrentMap<CleanupKey, Boolean> registeredClosedListeners = ConcurrentCollections.newConcurrentMap();
     private final Set<CleanupKey> keysToClean = ConcurrentCollections.newConcurrentSet();
+    private final Set<Key> loadingKeys = ConcurrentCollections.newConcurrentSet();
     private final ByteSizeValue size;
     private final TimeValue expire;
     private final Cache<Key, BytesReference> cache;
@@ -122,6 +126,8 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
         assert reader.getReaderCacheHelper() != null;
         final Key key =  new Key(cacheEntity, reader.getReaderCacheHelper().getKey(), cacheKey);
         Loader cacheLoader = new Loader(cacheEntity, loader);
+        // the cache invokes the loader at most once per key, concurrent callers wait for the value that is being loaded
+        final boolean loading = loadingKeys.contains(key);
         BytesReference value = cache.computeIfAbsent(key, cacheLoader);
         if (cacheLoader.isLoaded()) {
             key.entity.onMiss();
@@ -138,6 +144,9 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
             }
         } else {
             key.entity.onHit();
+            if (loading) {
+                key.entity.onCoalesced();
+            }
             if (logger.isTraceEnabled()) {
                 logger.trace("Cache hit for reader version [{}] and request:\n {}", reader.getVersion(), cacheKeyRenderer.get());
             }
@@ -156,7 +165,7 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
         cache.invalidate(new Key(cacheEntity, reader.getReaderCacheHelper().getKey(), cacheKey));
     }
 
-    private static class Loader implements CacheLoader<Key, BytesReference> {
+    private class Loader implements CacheLoader<Key, BytesReference> {
 
         private final CacheEntity entity;
         private final Supplier<BytesReference> loader;
@@ -173,10 +182,15 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
 
         @Override
         public BytesReference load(Key key) throws Exception {
-            BytesReference value = loader.get();
-            entity.onCached(key, value);
-            loaded = true;
-            return value;
+            loadingKeys.add(key);
+            try {
+                BytesReference value = loader.get();
+                entity.onCached(key, value);
+                loaded = true;
+                return value;
+            } finally {
+                loadingKeys.remove(key);
+            }
         }
     }
 
@@ -212,6 +226,12 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
          */
         void onMiss();
 
+        /**
+         * Called each time this entity has a cache hit that waited for the value to be loaded by a concurrent request,
+         * in addition to {@link #onHit()}.
+         */
+        void onCoalesced();
+
         /**
          * Called when this entity instance is removed
          */
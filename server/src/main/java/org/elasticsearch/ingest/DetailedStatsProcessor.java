@@ -0,0 +1,34 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest;
+
+import java.util.Map;
+
+/**
+ * A {@link Processor} that tracks statistics for the individual parts of its work, for instance for each of its patterns.
+ * These are reported underneath the processor's own statistics in {@link IngestStats}.
+ */
+public interface DetailedStatsProcessor extends Processor {
+
+    /**
+     * @return the statistics of each part of this processor, keyed by the name of the part, in the order they should be reported
+     */
+    Map<String, IngestStats.DetailedStats> getDetailedStats();
+}
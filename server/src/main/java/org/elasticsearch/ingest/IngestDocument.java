@@ -23,6 +23,8 @@ import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Set;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.mapper.IdFieldMapper;
 import org.elasticsearch.index.mapper.IndexFieldMapper;
@@ -63,8 +65,20 @@ public final class IngestDocument {
 
     public IngestDocument(String index, String type, String id, String routing,
                           Long version, VersionType versionType, Map<String, Object> source) {
-        this.sourceAndMetadata = new HashMap<>();
-        this.sourceAndMetadata.putAll(source);
+        this(new HashMap<>(source), index, type, id, routing, version, versionType);
+    }
+
+    /**
+     * Creates a document whose source is parsed lazily from the provided bytes, see {@link LazySourceMap}.
+     */
+    public IngestDocument(String index, String type, String id, String routing, Long version, VersionType versionType,
+                          BytesReference source, XContentType xContentType) {
+        this(LazySourceMap.parse(source, xContentType), index, type, id, routing, version, versionType);
+    }
+
+    private IngestDocument(Map<String, Object> sourceAndMetadata, String index, String type, String id, String routing,
+                           Long version, VersionType versionType) {
+        this.sourceAndMetadata = sourceAndMetadata;
         this.sourceAndMetadata.put(MetaData.INDEX.getFieldName(), index);
         this.sourceAndMetadata.put(MetaData.TYPE.getFieldName(), type);
         this.sourceAndMetadata.put(MetaData.ID.getFieldName(), id);
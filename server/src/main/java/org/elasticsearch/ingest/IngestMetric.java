@@ -48,6 +48,30 @@ class IngestMetric {
      * The only increasing count of failures
      */
     private final CounterMetric ingestFailed = new CounterMetric();
+    /**
+     * The distribution of the time it takes to complete the measured item, see {@link #latencyBucket(long)}
+     */
+    private final CounterMetric[] ingestTimeHistogram = new CounterMetric[LATENCY_BUCKETS];
+
+    /**
+     * The number of buckets of the latency histogram. The first bucket counts items that took less than one millisecond, bucket
+     * {@code i} counts items that took between {@code 2^(i-1)} inclusive and {@code 2^i} exclusive milliseconds, and the last bucket
+     * counts everything above.
+     */
+    static final int LATENCY_BUCKETS = 18;
+
+    IngestMetric() {
+        for (int i = 0; i < ingestTimeHistogram.length; i++) {
+            ingestTimeHistogram[i] = new CounterMetric();
+        }
+    }
+
+    static int latencyBucket(long ingestTimeInMillis) {
+        if (ingestTimeInMillis <= 0) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(ingestTimeInMillis), LATENCY_BUCKETS - 1);
+    }
 
     /**
      * Call this prior to the ingest action.
@@ -63,6 +87,7 @@ class IngestMetric {
     void postIngest(long ingestTimeInMillis) {
         ingestCurrent.dec();
         ingestTime.inc(ingestTimeInMillis);
+        ingestTimeHistogram[latencyBucket(ingestTimeInMillis)].inc();
         ingestCount.inc();
     }
 
@@ -84,12 +109,29 @@ class IngestMetric {
         ingestCount.inc(metrics.ingestCount.count());
         ingestTime.inc(metrics.ingestTime.sum());
         ingestFailed.inc(metrics.ingestFailed.count());
+        for (int i = 0; i < ingestTimeHistogram.length; i++) {
+            ingestTimeHistogram[i].inc(metrics.ingestTimeHistogram[i].count());
+        }
     }
 
     /**
      * Creates a serializable representation for these metrics.
      */
     IngestStats.Stats createStats() {
-        return new IngestStats.Stats(ingestCount.count(), ingestTime.sum(), ingestCurrent.count(), ingestFailed.count());
+        return createStats(false);
+    }
+
+    /**
+     * Creates a serializable representation for these metrics, optionally including the latency histogram.
+     */
+    IngestStats.Stats createStats(boolean includeLatencyHistogram) {
+        long[] histogram = IngestStats.Stats.EMPTY_HISTOGRAM;
+        if (includeLatencyHistogram) {
+            histogram = new long[ingestTimeHistogram.length];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = ingestTimeHistogram[i].count();
+            }
+        }
+        return new IngestStats.Stats(ingestCount.count(), ingestTime.sum(), ingestCurrent.count(), ingestFailed.count(), histogram);
     }
 }
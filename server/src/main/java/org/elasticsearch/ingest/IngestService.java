@@ -38,8 +38,13 @@ import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.regex.Regex;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
+import org.elasticsearch.common.util.concurrent.CountDown;
+import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.gateway.GatewayService;
@@ -49,6 +54,7 @@ import org.elasticsearch.plugins.IngestPlugin;
 import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -59,8 +65,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Holder class for several ingest related services.
@@ -69,6 +77,13 @@ public class IngestService implements ClusterStateApplier {
 
     public static final String NOOP_PIPELINE_NAME = "_none";
 
+    /**
+     * When enabled, the documents of a bulk request are run through their pipelines concurrently on the
+     * {@link ThreadPool.Names#INGEST} thread pool instead of one after the other on a single write thread.
+     */
+    public static final Setting<Boolean> PARALLEL_BULK_EXECUTION_SETTING =
+        Setting.boolSetting("ingest.bulk.parallel_execution", false, Property.NodeScope);
+
     private final ClusterService clusterService;
     private final ScriptService scriptService;
     private final Map<String, Processor.Factory> processorFactories;
@@ -79,8 +94,9 @@ public class IngestService implements ClusterStateApplier {
     private volatile Map<String, Pipeline> pipelines = new HashMap<>();
     private final ThreadPool threadPool;
     private final IngestMetric totalMetrics = new IngestMetric();
+    private final boolean parallelBulkExecution;
 
-    public IngestService(ClusterService clusterService, ThreadPool threadPool,
+    public IngestService(Settings settings, ClusterService clusterService, ThreadPool threadPool,
                          Environment env, ScriptService scriptService, AnalysisRegistry analysisRegistry,
                          List<IngestPlugin> ingestPlugins) {
         this.clusterService = clusterService;
@@ -96,6 +112,7 @@ public class IngestService implements ClusterStateApplier {
             )
         );
         this.threadPool = threadPool;
+        this.parallelBulkExecution = PARALLEL_BULK_EXECUTION_SETTING.get(settings);
     }
 
     private static Map<String, Processor.Factory> processorFactories(List<IngestPlugin> ingestPlugins,
@@ -374,9 +391,14 @@ public class IngestService implements ClusterStateApplier {
         ExceptionsHelper.rethrowAndSuppress(exceptions);
     }
 
+    /**
+     * Runs the documents of the given bulk items through their pipelines. Failures and dropped documents are reported
+     * by the position of the item in {@code actionRequests}, so that callers can map them back onto the bulk request
+     * regardless of the order in which the items were processed.
+     */
     public void executeBulkRequest(Iterable<DocWriteRequest<?>> actionRequests,
-        BiConsumer<IndexRequest, Exception> itemFailureHandler, Consumer<Exception> completionHandler,
-        Consumer<IndexRequest> itemDroppedHandler) {
+        BiConsumer<Integer, Exception> itemFailureHandler, Consumer<Exception> completionHandler,
+        IntConsumer itemDroppedHandler) {
 
         threadPool.executor(ThreadPool.Names.WRITE).execute(new AbstractRunnable() {
 
@@ -387,36 +409,130 @@ public class IngestService implements ClusterStateApplier {
 
             @Override
             protected void doRun() {
-                for (DocWriteRequest<?> actionRequest : actionRequests) {
-                    IndexRequest indexRequest = null;
-                    if (actionRequest instanceof IndexRequest) {
-                        indexRequest = (IndexRequest) actionRequest;
-                    } else if (actionRequest instanceof UpdateRequest) {
-                        UpdateRequest updateRequest = (UpdateRequest) actionRequest;
-                        indexRequest = updateRequest.docAsUpsert() ? updateRequest.doc() : updateRequest.upsertRequest();
-                    }
-                    if (indexRequest == null) {
-                        continue;
+                if (parallelBulkExecution) {
+                    executeInParallel(actionRequests, itemFailureHandler, completionHandler, itemDroppedHandler);
+                } else {
+                    int slot = 0;
+                    for (DocWriteRequest<?> actionRequest : actionRequests) {
+                        executeItem(slot++, actionRequest, itemFailureHandler, itemDroppedHandler);
                     }
-                    String pipelineId = indexRequest.getPipeline();
-                    if (NOOP_PIPELINE_NAME.equals(pipelineId) == false) {
-                        try {
-                            Pipeline pipeline = pipelines.get(pipelineId);
-                            if (pipeline == null) {
-                                throw new IllegalArgumentException("pipeline with id [" + pipelineId + "] does not exist");
-                            }
-                            innerExecute(indexRequest, pipeline, itemDroppedHandler);
-                            //this shouldn't be needed here but we do it for consistency with index api
-                            // which requires it to prevent double execution
-                            indexRequest.setPipeline(NOOP_PIPELINE_NAME);
-                        } catch (Exception e) {
-                            itemFailureHandler.accept(indexRequest, e);
+                    completionHandler.accept(null);
+                }
+            }
+        });
+    }
+
+    private void executeInParallel(Iterable<DocWriteRequest<?>> actionRequests, BiConsumer<Integer, Exception> itemFailureHandler,
+                                   Consumer<Exception> completionHandler, IntConsumer itemDroppedHandler) {
+        final List<DocWriteRequest<?>> items = new ArrayList<>();
+        for (DocWriteRequest<?> actionRequest : actionRequests) {
+            items.add(actionRequest);
+        }
+        final int numItems = items.size();
+        final int numPartitions = Math.min(numItems, threadPool.info(ThreadPool.Names.INGEST).getMax());
+        if (numPartitions <= 1) {
+            for (int slot = 0; slot < numItems; slot++) {
+                executeItem(slot, items.get(slot), itemFailureHandler, itemDroppedHandler);
+            }
+            completionHandler.accept(null);
+            return;
+        }
+        final CountDown countDown = new CountDown(numPartitions);
+        for (int partition = 0; partition < numPartitions; partition++) {
+            // contiguous ranges so that every item is handled by exactly one task
+            final int from = (int) ((long) numItems * partition / numPartitions);
+            final int to = (int) ((long) numItems * (partition + 1) / numPartitions);
+            // the first slot of the partition that wasn't processed yet, and the last slot that was reported to a handler
+            final AtomicInteger nextSlot = new AtomicInteger(from);
+            final AtomicInteger lastReportedSlot = new AtomicInteger(-1);
+            final BiConsumer<Integer, Exception> partitionFailureHandler = (slot, e) -> {
+                lastReportedSlot.set(slot);
+                itemFailureHandler.accept(slot, e);
+            };
+            final IntConsumer partitionDroppedHandler = slot -> {
+                lastReportedSlot.set(slot);
+                itemDroppedHandler.accept(slot);
+            };
+            final Runnable executePartition = () -> {
+                for (int slot = nextSlot.get(); slot < to; slot = nextSlot.incrementAndGet()) {
+                    executeItem(slot, items.get(slot), partitionFailureHandler, partitionDroppedHandler);
+                }
+            };
+            threadPool.executor(ThreadPool.Names.INGEST).execute(new AbstractRunnable() {
+
+                @Override
+                public void onFailure(Exception e) {
+                    // executeItem reports per-item failures to the handler, so we only get here on unexpected errors. Only the
+                    // items that still had to go through a pipeline are failed, the others were reported or need no ingest.
+                    for (int slot = nextSlot.get(); slot < to; slot++) {
+                        IndexRequest indexRequest = indexRequest(items.get(slot));
+                        if (slot != lastReportedSlot.get() && indexRequest != null
+                                && NOOP_PIPELINE_NAME.equals(indexRequest.getPipeline()) == false) {
+                            itemFailureHandler.accept(slot, e);
                         }
                     }
                 }
-                completionHandler.accept(null);
+
+                @Override
+                public void onRejection(Exception e) {
+                    // the ingest pool is saturated, fall back to running the partition on the calling thread
+                    try {
+                        executePartition.run();
+                    } catch (Exception inner) {
+                        onFailure(inner);
+                    }
+                }
+
+                @Override
+                protected void doRun() {
+                    executePartition.run();
+                }
+
+                @Override
+                public void onAfter() {
+                    if (countDown.countDown()) {
+                        completionHandler.accept(null);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the index request of the given bulk item that goes through ingest, or {@code null} if there is none,
+     * like for deletes or updates without upsert.
+     */
+    private static IndexRequest indexRequest(DocWriteRequest<?> actionRequest) {
+        if (actionRequest instanceof IndexRequest) {
+            return (IndexRequest) actionRequest;
+        } else if (actionRequest instanceof UpdateRequest) {
+            UpdateRequest updateRequest = (UpdateRequest) actionRequest;
+            return updateRequest.docAsUpsert() ? updateRequest.doc() : updateRequest.upsertRequest();
+        }
+        return null;
+    }
+
+    private void executeItem(int slot, DocWriteRequest<?> actionRequest, BiConsumer<Integer, Exception> itemFailureHandler,
+                             IntConsumer itemDroppedHandler) {
+        IndexRequest indexRequest = indexRequest(actionRequest);
+        if (indexRequest == null) {
+            return;
+        }
+        String pipelineId = indexRequest.getPipeline();
+        if (NOOP_PIPELINE_NAME.equals(pipelineId) == false) {
+            try {
+                Pipeline pipeline = pipelines.get(pipelineId);
+                if (pipeline == null) {
+                    throw new IllegalArgumentException("pipeline with id [" + pipelineId + "] does not exist");
+                }
+                innerExecute(slot, indexRequest, pipeline, itemDroppedHandler);
+                //this shouldn't be needed here but we do it for consistency with index api
+                // which requires it to prevent double execution
+                indexRequest.setPipeline(NOOP_PIPELINE_NAME);
+            } catch (Exception e) {
+                itemFailureHandler.accept(slot, e);
             }
-        });
+        }
     }
 
     public IngestStats stats() {
@@ -430,12 +546,22 @@ public class IngestService implements ClusterStateApplier {
             processorMetrics.forEach(t -> {
                 Processor processor = t.v1();
                 IngestMetric processorMetric = t.v2();
-                statsBuilder.addProcessorMetrics(id, getProcessorName(processor), processorMetric);
+                statsBuilder.addProcessorMetrics(id, getProcessorName(processor), processorMetric, getDetailedStats(processor));
             });
         });
         return statsBuilder.build();
     }
 
+    private static Map<String, IngestStats.DetailedStats> getDetailedStats(Processor processor) {
+        if (processor instanceof ConditionalProcessor) {
+            processor = ((ConditionalProcessor) processor).getProcessor();
+        }
+        if (processor instanceof DetailedStatsProcessor) {
+            return ((DetailedStatsProcessor) processor).getDetailedStats();
+        }
+        return Collections.emptyMap();
+    }
+
     //package private for testing
     static String getProcessorName(Processor processor){
         // conditionals are implemented as wrappers around the real processor, so get the real processor for the correct type for the name
@@ -458,7 +584,7 @@ public class IngestService implements ClusterStateApplier {
         return sb.toString();
     }
 
-    private void innerExecute(IndexRequest indexRequest, Pipeline pipeline, Consumer<IndexRequest> itemDroppedHandler) throws Exception {
+    private void innerExecute(int slot, IndexRequest indexRequest, Pipeline pipeline, IntConsumer itemDroppedHandler) throws Exception {
         if (pipeline.getProcessors().isEmpty()) {
             return;
         }
@@ -474,10 +600,10 @@ public class IngestService implements ClusterStateApplier {
             String routing = indexRequest.routing();
             Long version = indexRequest.version();
             VersionType versionType = indexRequest.versionType();
-            Map<String, Object> sourceAsMap = indexRequest.sourceAsMap();
-            IngestDocument ingestDocument = new IngestDocument(index, type, id, routing, version, versionType, sourceAsMap);
+            IngestDocument ingestDocument = new IngestDocument(index, type, id, routing, version, versionType,
+                indexRequest.source(), indexRequest.getContentType());
             if (pipeline.execute(ingestDocument) == null) {
-                itemDroppedHandler.accept(indexRequest);
+                itemDroppedHandler.accept(slot);
             } else {
                 Map<IngestDocument.MetaData, Object> metadataMap = ingestDocument.extractMetadata();
                 //it's fine to set all metadata fields all the time, as ingest document holds their starting values
@@ -490,7 +616,7 @@ public class IngestService implements ClusterStateApplier {
                 if (metadataMap.get(IngestDocument.MetaData.VERSION_TYPE) != null) {
                     indexRequest.versionType(VersionType.fromString((String) metadataMap.get(IngestDocument.MetaData.VERSION_TYPE)));
                 }
-                indexRequest.source(ingestDocument.getSourceAndMetadata());
+                setSource(indexRequest, ingestDocument.getSourceAndMetadata());
             }
         } catch (Exception e) {
             totalMetrics.ingestFailed();
@@ -501,6 +627,18 @@ public class IngestService implements ClusterStateApplier {
         }
     }
 
+    private static void setSource(IndexRequest indexRequest, Map<String, Object> source) throws IOException {
+        if (source instanceof LazySourceMap) {
+            // re-emit in the original content type so that untouched subtrees can be copied verbatim
+            LazySourceMap lazySource = (LazySourceMap) source;
+            XContentBuilder builder = XContentBuilder.builder(lazySource.getXContentType().xContent());
+            lazySource.toXContent(builder);
+            indexRequest.source(builder);
+        } else {
+            indexRequest.source(source);
+        }
+    }
+
     private void innerUpdatePipelines(ClusterState previousState, ClusterState state) {
         if (state.blocks().hasGlobalBlock(GatewayService.STATE_NOT_RECOVERED_BLOCK)) {
             return;
@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -70,7 +71,17 @@ public class IngestStats implements Writeable, ToXContentFragment {
                 for (int j = 0; j < processorsSize; j++) {
                     String processorName = in.readString();
                     Stats processorStat = new Stats(in);
-                    processorStatsPerPipeline.add(new ProcessorStat(processorName, processorStat));
+                    Map<String, DetailedStats> detailedStats = Collections.emptyMap();
+                    if (in.getVersion().onOrAfter(Version.V_7_0_0)) {
+                        int detailsSize = in.readVInt();
+                        if (detailsSize > 0) {
+                            detailedStats = new LinkedHashMap<>(detailsSize);
+                            for (int k = 0; k < detailsSize; k++) {
+                                detailedStats.put(in.readString(), new DetailedStats(in));
+                            }
+                        }
+                    }
+                    processorStatsPerPipeline.add(new ProcessorStat(processorName, processorStat, detailedStats));
                 }
                 this.processorStats.put(pipelineId, processorStatsPerPipeline);
             }
@@ -93,6 +104,13 @@ public class IngestStats implements Writeable, ToXContentFragment {
                     for (ProcessorStat processorStat : processorStatsForPipeline) {
                         out.writeString(processorStat.getName());
                         processorStat.getStats().writeTo(out);
+                        if (out.getVersion().onOrAfter(Version.V_7_0_0)) {
+                            out.writeVInt(processorStat.getDetailedStats().size());
+                            for (Map.Entry<String, DetailedStats> entry : processorStat.getDetailedStats().entrySet()) {
+                                out.writeString(entry.getKey());
+                                entry.getValue().writeTo(out);
+                            }
+                        }
                     }
                 }
             }
@@ -116,6 +134,15 @@ public class IngestStats implements Writeable, ToXContentFragment {
                     builder.startObject();
                     builder.startObject(processorStat.getName());
                     processorStat.getStats().toXContent(builder, params);
+                    if (processorStat.getDetailedStats().isEmpty() == false) {
+                        builder.startObject("details");
+                        for (Map.Entry<String, DetailedStats> entry : processorStat.getDetailedStats().entrySet()) {
+                            builder.startObject(entry.getKey());
+                            entry.getValue().toXContent(builder, params);
+                            builder.endObject();
+                        }
+                        builder.endObject();
+                    }
                     builder.endObject();
                     builder.endObject();
                 }
@@ -146,12 +173,20 @@ public class IngestStats implements Writeable, ToXContentFragment {
         private final long ingestTimeInMillis;
         private final long ingestCurrent;
         private final long ingestFailedCount;
+        private final long[] ingestTimeHistogram;
+
+        static final long[] EMPTY_HISTOGRAM = new long[0];
 
         public Stats(long ingestCount, long ingestTimeInMillis, long ingestCurrent, long ingestFailedCount) {
+            this(ingestCount, ingestTimeInMillis, ingestCurrent, ingestFailedCount, EMPTY_HISTOGRAM);
+        }
+
+        public Stats(long ingestCount, long ingestTimeInMillis, long ingestCurrent, long ingestFailedCount, long[] ingestTimeHistogram) {
             this.ingestCount = ingestCount;
             this.ingestTimeInMillis = ingestTimeInMillis;
             this.ingestCurrent = ingestCurrent;
             this.ingestFailedCount = ingestFailedCount;
+            this.ingestTimeHistogram = ingestTimeHistogram;
         }
 
         /**
@@ -162,6 +197,11 @@ public class IngestStats implements Writeable, ToXContentFragment {
             ingestTimeInMillis = in.readVLong();
             ingestCurrent = in.readVLong();
             ingestFailedCount = in.readVLong();
+            if (in.getVersion().onOrAfter(Version.V_7_0_0)) {
+                ingestTimeHistogram = in.readVLongArray();
+            } else {
+                ingestTimeHistogram = EMPTY_HISTOGRAM;
+            }
         }
 
         @Override
@@ -170,6 +210,9 @@ public class IngestStats implements Writeable, ToXContentFragment {
             out.writeVLong(ingestTimeInMillis);
             out.writeVLong(ingestCurrent);
             out.writeVLong(ingestFailedCount);
+            if (out.getVersion().onOrAfter(Version.V_7_0_0)) {
+                out.writeVLongArray(ingestTimeHistogram);
+            }
         }
 
         /**
@@ -200,12 +243,39 @@ public class IngestStats implements Writeable, ToXContentFragment {
             return ingestFailedCount;
         }
 
+        /**
+         * @return The number of ingest preprocessing operations per latency bucket, empty if the distribution isn't tracked. The first
+         * bucket holds operations that took less than one millisecond and bucket {@code i} those that took between {@code 2^(i-1)}
+         * inclusive and {@code 2^i} exclusive milliseconds, except for the last bucket which has no upper bound.
+         */
+        public long[] getIngestTimeHistogram() {
+            return ingestTimeHistogram;
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.field("count", ingestCount);
             builder.humanReadableField("time_in_millis", "time", new TimeValue(ingestTimeInMillis, TimeUnit.MILLISECONDS));
             builder.field("current", ingestCurrent);
             builder.field("failed", ingestFailedCount);
+            if (ingestTimeHistogram.length > 0) {
+                builder.startArray("time_in_millis_histogram");
+                for (int i = 0; i < ingestTimeHistogram.length; i++) {
+                    if (ingestTimeHistogram[i] == 0) {
+                        continue;
+                    }
+                    builder.startObject();
+                    if (i > 0) {
+                        builder.field("from", 1L << (i - 1));
+                    }
+                    if (i < ingestTimeHistogram.length - 1) {
+                        builder.field("to", 1L << i);
+                    }
+                    builder.field("count", ingestTimeHistogram[i]);
+                    builder.endObject();
+                }
+                builder.endArray();
+            }
             return builder;
         }
     }
@@ -225,13 +295,14 @@ public class IngestStats implements Writeable, ToXContentFragment {
         }
 
         Builder addPipelineMetrics(String pipelineId, IngestMetric pipelineMetric) {
-            this.pipelineStats.add(new PipelineStat(pipelineId, pipelineMetric.createStats()));
+            this.pipelineStats.add(new PipelineStat(pipelineId, pipelineMetric.createStats(true)));
             return this;
         }
 
-        Builder addProcessorMetrics(String pipelineId, String processorName, IngestMetric metric) {
+        Builder addProcessorMetrics(String pipelineId, String processorName, IngestMetric metric,
+                                    Map<String, DetailedStats> detailedStats) {
             this.processorStats.computeIfAbsent(pipelineId, k -> new ArrayList<>())
-                .add(new ProcessorStat(processorName, metric.createStats()));
+                .add(new ProcessorStat(processorName, metric.createStats(), detailedStats));
             return this;
         }
 
@@ -268,10 +339,16 @@ public class IngestStats implements Writeable, ToXContentFragment {
     public static class ProcessorStat {
         private final String name;
         private final Stats stats;
+        private final Map<String, DetailedStats> detailedStats;
 
         public ProcessorStat(String name, Stats stats) {
+            this(name, stats, Collections.emptyMap());
+        }
+
+        public ProcessorStat(String name, Stats stats, Map<String, DetailedStats> detailedStats) {
             this.name = name;
             this.stats = stats;
+            this.detailedStats = detailedStats;
         }
 
         public String getName() {
@@ -281,5 +358,74 @@ public class IngestStats implements Writeable, ToXContentFragment {
         public Stats getStats() {
             return stats;
         }
+
+        /**
+         * @return the stats of the parts of the processor, see {@link DetailedStatsProcessor}
+         */
+        public Map<String, DetailedStats> getDetailedStats() {
+            return detailedStats;
+        }
+    }
+
+    /**
+     * The stats of a part of a processor, see {@link DetailedStatsProcessor}. A part that runs without producing the result of the
+     * processor, like a grok pattern that doesn't match, didn't fail, so these runs are counted as no match rather than as failed.
+     */
+    public static class DetailedStats implements Writeable, ToXContentFragment {
+
+        private final long count;
+        private final long timeInMillis;
+        private final long noMatchCount;
+
+        public DetailedStats(long count, long timeInMillis, long noMatchCount) {
+            this.count = count;
+            this.timeInMillis = timeInMillis;
+            this.noMatchCount = noMatchCount;
+        }
+
+        /**
+         * Read from a stream.
+         */
+        public DetailedStats(StreamInput in) throws IOException {
+            count = in.readVLong();
+            timeInMillis = in.readVLong();
+            noMatchCount = in.readVLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(count);
+            out.writeVLong(timeInMillis);
+            out.writeVLong(noMatchCount);
+        }
+
+        /**
+         * @return The number of times the part ran.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return The total time spent running the part in millis.
+         */
+        public long getTimeInMillis() {
+            return timeInMillis;
+        }
+
+        /**
+         * @return The number of times the part ran without producing the result of the processor.
+         */
+        public long getNoMatchCount() {
+            return noMatchCount;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.field("count", count);
+            builder.humanReadableField("time_in_millis", "time", new TimeValue(timeInMillis, TimeUnit.MILLISECONDS));
+            builder.field("no_match", noMatchCount);
+            return builder;
+        }
     }
 }
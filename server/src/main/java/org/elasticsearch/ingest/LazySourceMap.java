@@ -0,0 +1,208 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest;
+
+import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A source map that only parses the top level of the document up front. Objects and arrays are kept as the raw bytes
+ * they were read from and are only turned into maps and lists once they are accessed, so that subtrees a pipeline never
+ * touches neither get materialized nor re-serialized: {@link #toXContent(XContentBuilder)} copies their bytes as-is.
+ */
+public final class LazySourceMap extends AbstractMap<String, Object> {
+
+    private final XContentType xContentType;
+    // holds a RawValue for every object or array that wasn't accessed yet
+    private final Map<String, Object> values;
+
+    private LazySourceMap(XContentType xContentType, Map<String, Object> values) {
+        this.xContentType = xContentType;
+        this.values = values;
+    }
+
+    /**
+     * Reads the top level fields of the given source.
+     */
+    public static LazySourceMap parse(BytesReference source, XContentType xContentType) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        try (XContentParser parser = XContentHelper.createParser(NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION, source, xContentType)) {
+            XContentParser.Token token = parser.nextToken();
+            if (token != XContentParser.Token.START_OBJECT) {
+                throw new ElasticsearchParseException("Failed to parse content to map, expected an object but found [{}]", token);
+            }
+            while ((token = parser.nextToken()) == XContentParser.Token.FIELD_NAME) {
+                final String name = parser.currentName();
+                token = parser.nextToken();
+                if (token == XContentParser.Token.START_OBJECT || token == XContentParser.Token.START_ARRAY) {
+                    try (XContentBuilder builder = XContentBuilder.builder(xContentType.xContent())) {
+                        builder.copyCurrentStructure(parser);
+                        values.put(name, new RawValue(BytesReference.bytes(builder)));
+                    }
+                } else {
+                    values.put(name, readScalar(parser, token));
+                }
+            }
+            if (token != XContentParser.Token.END_OBJECT) {
+                throw new ElasticsearchParseException("Failed to parse content to map, unexpected [{}]", token);
+            }
+        } catch (IOException e) {
+            throw new ElasticsearchParseException("Failed to parse content to map", e);
+        }
+        return new LazySourceMap(xContentType, values);
+    }
+
+    private static Object readScalar(XContentParser parser, XContentParser.Token token) throws IOException {
+        if (token == null) {
+            throw new ElasticsearchParseException("Failed to parse content to map, unexpected end of content");
+        }
+        switch (token) {
+            case VALUE_STRING:
+                return parser.text();
+            case VALUE_NUMBER:
+                return parser.numberValue();
+            case VALUE_BOOLEAN:
+                return parser.booleanValue();
+            case VALUE_EMBEDDED_OBJECT:
+                return parser.binaryValue();
+            default:
+                return null;
+        }
+    }
+
+    public XContentType getXContentType() {
+        return xContentType;
+    }
+
+    /**
+     * Writes the fields of this map into the given builder, which must be of the same {@link XContentType} as the source
+     * this map was parsed from for untouched subtrees to be copied without being parsed.
+     */
+    public void toXContent(XContentBuilder builder) throws IOException {
+        builder.startObject();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getValue() instanceof RawValue) {
+                try (InputStream stream = ((RawValue) entry.getValue()).bytes.streamInput()) {
+                    builder.rawField(entry.getKey(), stream, xContentType);
+                }
+            } else {
+                builder.field(entry.getKey(), entry.getValue());
+            }
+        }
+        builder.endObject();
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value = values.get(key);
+        if (value instanceof RawValue) {
+            value = ((RawValue) value).materialize(xContentType);
+            values.put((String) key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = values.put(key, value);
+        return previous instanceof RawValue ? ((RawValue) previous).materialize(xContentType) : previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Object previous = values.remove(key);
+        return previous instanceof RawValue ? ((RawValue) previous).materialize(xContentType) : previous;
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return values.keySet();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        // callers may read any value through the entries, so everything needs to be materialized
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getValue() instanceof RawValue) {
+                entry.setValue(((RawValue) entry.getValue()).materialize(xContentType));
+            }
+        }
+        return values.entrySet();
+    }
+
+    /**
+     * An object or array that hasn't been parsed yet.
+     */
+    private static final class RawValue {
+
+        private final BytesReference bytes;
+
+        private RawValue(BytesReference bytes) {
+            this.bytes = bytes;
+        }
+
+        Object materialize(XContentType xContentType) {
+            try (XContentParser parser = xContentType.xContent().createParser(NamedXContentRegistry.EMPTY,
+                    DeprecationHandler.THROW_UNSUPPORTED_OPERATION, bytes.streamInput())) {
+                if (parser.nextToken() == XContentParser.Token.START_OBJECT) {
+                    return parser.map();
+                } else {
+                    return parser.list();
+                }
+            } catch (IOException e) {
+                throw new ElasticsearchParseException("Failed to parse content to map", e);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.node;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -29,6 +30,7 @@ import org.elasticsearch.common.xcontent.ToXContentFragment;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -38,34 +40,63 @@ import java.util.stream.Collectors;
 /**
  * Class representing statistics about adaptive replica selection. This includes
  * EWMA of queue size, service time, and response time, as well as outgoing
- * searches to each node and the "rank" based on the ARS formula.
+ * searches to each node and the "rank" based on the ARS formula. Single shard
+ * reads are ranked separately, on their own outgoing requests and response time EWMA.
  */
 public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
 
     private final Map<String, Long> clientOutgoingConnections;
+    private final Map<String, Long> clientOutgoingReads;
     private final Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedStats;
+    private final Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedReadStats;
 
     public AdaptiveSelectionStats(Map<String, Long> clientConnections,
                                   Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedStats) {
+        this(clientConnections, Collections.emptyMap(), nodeComputedStats, Collections.emptyMap());
+    }
+
+    public AdaptiveSelectionStats(Map<String, Long> clientConnections,
+                                  Map<String, Long> clientReads,
+                                  Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedStats,
+                                  Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedReadStats) {
         this.clientOutgoingConnections = clientConnections;
+        this.clientOutgoingReads = clientReads;
         this.nodeComputedStats = nodeComputedStats;
+        this.nodeComputedReadStats = nodeComputedReadStats;
     }
 
     public AdaptiveSelectionStats(StreamInput in) throws IOException {
         this.clientOutgoingConnections = in.readMap(StreamInput::readString, StreamInput::readLong);
+        if (in.getVersion().onOrAfter(Version.V_7_0_0)) {
+            this.clientOutgoingReads = in.readMap(StreamInput::readString, StreamInput::readLong);
+        } else {
+            this.clientOutgoingReads = Collections.emptyMap();
+        }
         this.nodeComputedStats = in.readMap(StreamInput::readString, ResponseCollectorService.ComputedNodeStats::new);
+        if (in.getVersion().onOrAfter(Version.V_7_0_0)) {
+            this.nodeComputedReadStats = in.readMap(StreamInput::readString, ResponseCollectorService.ComputedNodeStats::new);
+        } else {
+            this.nodeComputedReadStats = Collections.emptyMap();
+        }
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeMap(this.clientOutgoingConnections, StreamOutput::writeString, StreamOutput::writeLong);
+        if (out.getVersion().onOrAfter(Version.V_7_0_0)) {
+            out.writeMap(this.clientOutgoingReads, StreamOutput::writeString, StreamOutput::writeLong);
+        }
         out.writeMap(this.nodeComputedStats, StreamOutput::writeString, (stream, stats) -> stats.writeTo(stream));
+        if (out.getVersion().onOrAfter(Version.V_7_0_0)) {
+            out.writeMap(this.nodeComputedReadStats, StreamOutput::writeString, (stream, stats) -> stats.writeTo(stream));
+        }
     }
 
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject("adaptive_selection");
-        Set<String> allNodeIds = Sets.union(clientOutgoingConnections.keySet(), nodeComputedStats.keySet());
+        Set<String> allNodeIds = Sets.union(Sets.union(clientOutgoingConnections.keySet(), clientOutgoingReads.keySet()),
+            Sets.union(nodeComputedStats.keySet(), nodeComputedReadStats.keySet()));
         for (String nodeId : allNodeIds) {
             builder.startObject(nodeId);
             ResponseCollectorService.ComputedNodeStats stats = nodeComputedStats.get(nodeId);
@@ -83,6 +114,17 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
                 builder.field("avg_response_time_ns", (long) stats.responseTime);
                 builder.field("rank", String.format(Locale.ROOT, "%.1f", stats.rank(outgoingSearches)));
             }
+            ResponseCollectorService.ComputedNodeStats readStats = nodeComputedReadStats.get(nodeId);
+            if (readStats != null) {
+                long outgoingReads = clientOutgoingReads.getOrDefault(nodeId, 0L);
+                builder.field("outgoing_reads", outgoingReads);
+                if (builder.humanReadable()) {
+                    builder.field("avg_read_response_time",
+                        new TimeValue((long) readStats.responseTime, TimeUnit.NANOSECONDS).toString());
+                }
+                builder.field("avg_read_response_time_ns", (long) readStats.responseTime);
+                builder.field("read_rank", String.format(Locale.ROOT, "%.1f", readStats.rank(outgoingReads)));
+            }
             builder.endObject();
         }
         builder.endObject();
@@ -96,6 +138,13 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
         return clientOutgoingConnections;
     }
 
+    /**
+     * Returns a map of node id to the outgoing single shard read requests to that node
+     */
+    public Map<String, Long> getOutgoingReads() {
+        return clientOutgoingReads;
+    }
+
     /**
      * Returns a map of node id to the computed stats
      */
@@ -103,6 +152,13 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
         return nodeComputedStats;
     }
 
+    /**
+     * Returns a map of node id to the computed stats used to rank the nodes for single shard reads
+     */
+    public Map<String, ResponseCollectorService.ComputedNodeStats> getComputedReadStats() {
+        return nodeComputedReadStats;
+    }
+
     /**
      * Returns a map of node id to the ranking of the nodes based on the adaptive replica formula
      */
@@ -111,4 +167,13 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
                 .collect(Collectors.toMap(Map.Entry::getKey,
                                 e -> e.getValue().rank(clientOutgoingConnections.getOrDefault(e.getKey(), 0L))));
     }
+
+    /**
+     * Returns a map of node id to the ranking of the nodes for single shard reads based on the adaptive replica formula
+     */
+    public Map<String, Double> getReadRanks() {
+        return nodeComputedReadStats.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                                e -> e.getValue().rank(clientOutgoingReads.getOrDefault(e.getKey(), 0L))));
+    }
 }
@@ -47,6 +47,9 @@ public final class ResponseCollectorService extends AbstractComponent implements
     private static final double ALPHA = 0.3;
 
     private final ConcurrentMap<String, NodeStatistics> nodeIdToStats = ConcurrentCollections.newConcurrentMap();
+    private final ConcurrentMap<String, ExponentiallyWeightedMovingAverage> nodeIdToReadResponseTime =
+        ConcurrentCollections.newConcurrentMap();
+    private final ConcurrentMap<String, Long> pendingReads = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
 
     public ResponseCollectorService(ClusterService clusterService) {
         clusterService.addListener(this);
@@ -63,6 +66,8 @@ public final class ResponseCollectorService extends AbstractComponent implements
 
     void removeNode(String nodeId) {
         nodeIdToStats.remove(nodeId);
+        nodeIdToReadResponseTime.remove(nodeId);
+        pendingReads.remove(nodeId);
     }
 
     public void addNodeStatistics(String nodeId, int queueSize, long responseTimeNanos, long avgServiceTimeNanos) {
@@ -80,6 +85,45 @@ public final class ResponseCollectorService extends AbstractComponent implements
         });
     }
 
+    /**
+     * Records the response time of a single shard read (get, multi-get, term vectors, explain, ...) sent to the given node. These
+     * requests are much cheaper than searches, so their response times are kept in a separate EWMA that is only used to rank the
+     * shard copies of single shard reads, see {@link #getReadNodeStatistics(String)}.
+     */
+    public void addReadResponseTime(String nodeId, long responseTimeNanos) {
+        nodeIdToReadResponseTime.compute(nodeId, (id, ewma) -> {
+            if (ewma == null) {
+                return new ExponentiallyWeightedMovingAverage(ALPHA, responseTimeNanos);
+            } else {
+                ewma.addValue((double) responseTimeNanos);
+                return ewma;
+            }
+        });
+    }
+
+    /**
+     * Called when a single shard read request is sent to the given node, so that it is accounted as outstanding when ranking
+     * shard copies. Every call must be followed by a call to {@link #onReadRequestCompleted(String)}.
+     */
+    public void onReadRequestSent(String nodeId) {
+        pendingReads.compute(nodeId, (id, reads) -> reads == null ? 1 : reads + 1);
+    }
+
+    /**
+     * Called when a single shard read request that was sent to the given node completed, successfully or not.
+     */
+    public void onReadRequestCompleted(String nodeId) {
+        // remove the entry when it drops to zero so we don't leak when nodes go away forever
+        pendingReads.computeIfPresent(nodeId, (id, reads) -> reads.longValue() == 1 ? null : reads - 1);
+    }
+
+    /**
+     * Returns a copy of the number of outstanding single shard read requests per node id.
+     */
+    public Map<String, Long> getPendingReadRequests() {
+        return new HashMap<>(pendingReads);
+    }
+
     public Map<String, ComputedNodeStats> getAllNodeStatistics() {
         final int clientNum = nodeIdToStats.size();
         // Transform the mutable object internally used for accounting into the computed version
@@ -90,8 +134,20 @@ public final class ResponseCollectorService extends AbstractComponent implements
         return nodeStats;
     }
 
+    /**
+     * Returns the {@code ComputedNodeStats} used to rank each node for single shard reads, see {@link #getReadNodeStatistics(String)}.
+     */
+    public Map<String, ComputedNodeStats> getAllReadNodeStatistics() {
+        Map<String, ComputedNodeStats> nodeStats = new HashMap<>(nodeIdToReadResponseTime.size());
+        for (String nodeId : nodeIdToReadResponseTime.keySet()) {
+            getReadNodeStatistics(nodeId).ifPresent(stats -> nodeStats.put(nodeId, stats));
+        }
+        return nodeStats;
+    }
+
     public AdaptiveSelectionStats getAdaptiveStats(Map<String, Long> clientSearchConnections) {
-        return new AdaptiveSelectionStats(clientSearchConnections, getAllNodeStatistics());
+        return new AdaptiveSelectionStats(clientSearchConnections, getPendingReadRequests(), getAllNodeStatistics(),
+            getAllReadNodeStatistics());
     }
 
     /**
@@ -104,6 +160,27 @@ public final class ResponseCollectorService extends AbstractComponent implements
         return Optional.ofNullable(nodeIdToStats.get(nodeId)).map(ns -> new ComputedNodeStats(clientNum, ns));
     }
 
+    /**
+     * Optionally return a {@code ComputedNodeStats} to rank the given node for single shard reads, if the response time of
+     * such reads was recorded for the node. The response time is the EWMA of the single shard reads, while the queue size and
+     * service time are the ones reported by searches. As long as the node didn't serve any search, its queue is assumed to be
+     * empty and the read response time is used as an upper bound of its service time. Returns an empty {@code Optional} if no
+     * single shard read was sent to the node.
+     */
+    public Optional<ComputedNodeStats> getReadNodeStatistics(final String nodeId) {
+        final ExponentiallyWeightedMovingAverage readResponseTime = nodeIdToReadResponseTime.get(nodeId);
+        if (readResponseTime == null) {
+            return Optional.empty();
+        }
+        final int clientNum = Math.max(nodeIdToStats.size(), nodeIdToReadResponseTime.size());
+        final double responseTime = readResponseTime.getAverage();
+        final NodeStatistics ns = nodeIdToStats.get(nodeId);
+        if (ns == null) {
+            return Optional.of(new ComputedNodeStats(nodeId, clientNum, 0, responseTime, responseTime));
+        }
+        return Optional.of(new ComputedNodeStats(nodeId, clientNum, (int) ns.queueSize.getAverage(), responseTime, ns.serviceTime));
+    }
+
     /**
      * Struct-like class encapsulating a point-in-time snapshot of a particular
      * node's statistics. This includes the EWMA of queue size, response time,
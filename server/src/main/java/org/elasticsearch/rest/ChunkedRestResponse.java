@@ -0,0 +1,87 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.rest;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A response whose body is encoded while it is being sent. Channels that can't stream responses use {@link #content()}, which
+ * encodes the whole body at once.
+ */
+public class ChunkedRestResponse extends RestResponse {
+
+    private final RestStatus status;
+    private final ChunkedRestResponseBody body;
+    private BytesReference content;
+
+    public ChunkedRestResponse(RestStatus status, ChunkedRestResponseBody body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    @Override
+    public String contentType() {
+        return body.getResponseContentTypeString();
+    }
+
+    /**
+     * Encodes the remaining chunks of the body at once. The body can't be streamed anymore once this method was called.
+     */
+    @Override
+    public BytesReference content() {
+        if (content == null) {
+            try {
+                content = encodeRemainingChunks(body, Integer.MAX_VALUE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * The body to stream.
+     */
+    public ChunkedRestResponseBody body() {
+        return body;
+    }
+
+    @Override
+    public RestStatus status() {
+        return status;
+    }
+
+    /**
+     * Encodes all the chunks of the given body that were not encoded yet.
+     */
+    public static BytesReference encodeRemainingChunks(ChunkedRestResponseBody body, int chunkSize) throws IOException {
+        List<BytesReference> chunks = new ArrayList<>();
+        while (body.isDone() == false) {
+            chunks.add(body.encodeChunk(chunkSize));
+        }
+        return chunks.size() == 1 ? chunks.get(0) : new CompositeBytesReference(chunks.toArray(new BytesReference[0]));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.rest;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStream;
+import org.elasticsearch.common.xcontent.ChunkedToXContent;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * The body of a {@link ChunkedRestResponse}, which is encoded one chunk at a time while the response is being sent so that
+ * the whole body never needs to be held in memory.
+ */
+public interface ChunkedRestResponseBody {
+
+    /**
+     * Whether the whole body was encoded.
+     */
+    boolean isDone();
+
+    /**
+     * Encodes the next chunk of the body. Must not be called once the body {@link #isDone() is done}.
+     *
+     * @param sizeHint the size of the chunk to aim for; chunks can be larger than this
+     */
+    BytesReference encodeChunk(int sizeHint) throws IOException;
+
+    /**
+     * The content type of the body.
+     */
+    String getResponseContentTypeString();
+
+    /**
+     * Creates a body that renders the fragments of the given object, using a builder created by the given channel so that the
+     * format, filtering and pretty printing of the request are applied. The channel's bytes output buffers a single chunk.
+     */
+    static ChunkedRestResponseBody fromXContent(ChunkedToXContent chunkedToXContent, ToXContent.Params params,
+                                                RestChannel channel) throws IOException {
+        final XContentBuilder builder = channel.newBuilder();
+        final BytesStream out = (BytesStream) builder.getOutputStream();
+        final Iterator<? extends ToXContent> fragments = chunkedToXContent.toXContentChunked(params);
+        return new ChunkedRestResponseBody() {
+
+            private boolean done = false;
+
+            @Override
+            public boolean isDone() {
+                return done;
+            }
+
+            @Override
+            public BytesReference encodeChunk(int sizeHint) throws IOException {
+                assert done == false : "body was already encoded";
+                while (fragments.hasNext() && out.bytes().length() < sizeHint) {
+                    fragments.next().toXContent(builder, params);
+                    builder.flush();
+                }
+                if (fragments.hasNext() == false) {
+                    builder.close();
+                    done = true;
+                }
+                // the channel's bytes output is reused for the next chunk, so the encoded bytes need to be copied
+                final BytesReference chunk = new BytesArray(BytesReference.toBytes(out.bytes()));
+                out.reset();
+                return chunk;
+            }
+
+            @Override
+            public String getResponseContentTypeString() {
+                return builder.contentType().mediaType();
+            }
+        };
+    }
+}
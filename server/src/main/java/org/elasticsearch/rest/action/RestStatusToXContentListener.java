@@ -64,4 +64,9 @@ public class RestStatusToXContentListener<Response extends StatusToXContentObjec
         }
         return restResponse;
     }
+
+    @Override
+    protected RestStatus getStatus(Response response) {
+        return response.status();
+    }
 }
@@ -19,17 +19,21 @@
 
 package org.elasticsearch.rest.action;
 
+import org.elasticsearch.common.xcontent.ChunkedToXContent;
 import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.ToXContentObject;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.rest.BytesRestResponse;
+import org.elasticsearch.rest.ChunkedRestResponse;
+import org.elasticsearch.rest.ChunkedRestResponseBody;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestResponse;
 import org.elasticsearch.rest.RestStatus;
 
 /**
  * A REST based action listener that assumes the response is of type {@link ToXContent} and automatically
- * builds an XContent based response (wrapping the toXContent in startObject/endObject).
+ * builds an XContent based response (wrapping the toXContent in startObject/endObject). Responses that are
+ * {@link ChunkedToXContent} are rendered while they are sent, and take their status from {@link #getStatus}.
  */
 public class RestToXContentListener<Response extends ToXContentObject> extends RestResponseListener<Response> {
 
@@ -39,6 +43,10 @@ public class RestToXContentListener<Response extends ToXContentObject> extends R
 
     @Override
     public final RestResponse buildResponse(Response response) throws Exception {
+        if (response instanceof ChunkedToXContent) {
+            return new ChunkedRestResponse(getStatus(response),
+                ChunkedRestResponseBody.fromXContent((ChunkedToXContent) response, channel.request(), channel));
+        }
         return buildResponse(response, channel.newBuilder());
     }
 
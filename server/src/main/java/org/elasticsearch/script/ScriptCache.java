@@ -0,0 +1,227 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.RemovalListener;
+import org.elasticsearch.common.cache.RemovalNotification;
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The compiled scripts of one or more script contexts, along with the limit on how many scripts may be compiled for these
+ * contexts per time window.
+ */
+class ScriptCache {
+
+    private static final Logger logger = LogManager.getLogger(ScriptService.class);
+
+    private final Cache<CacheKey, CachedScript> cache;
+    private final String rateSettingKey;
+    private final Function<String, ScriptMetrics> contextMetrics;
+
+    private Tuple<Integer, TimeValue> rate;
+    private long lastInlineCompileTime;
+    private double scriptsPerTimeWindow;
+    private double compilesAllowedPerNano;
+
+    /**
+     * @param rateSettingKey the setting that configures the compilation rate, for error messages
+     * @param contextMetrics the metrics of the context with the given name
+     */
+    ScriptCache(int cacheMaxSize, TimeValue cacheExpire, Tuple<Integer, TimeValue> rate, String rateSettingKey,
+                Function<String, ScriptMetrics> contextMetrics) {
+        CacheBuilder<CacheKey, CachedScript> cacheBuilder = CacheBuilder.builder();
+        if (cacheMaxSize >= 0) {
+            cacheBuilder.setMaximumWeight(cacheMaxSize);
+        }
+        if (cacheExpire.getNanos() != 0) {
+            cacheBuilder.setExpireAfterAccess(cacheExpire);
+        }
+        logger.debug("using script cache with max_size [{}], expire [{}]", cacheMaxSize, cacheExpire);
+        this.cache = cacheBuilder.removalListener(new ScriptCacheRemovalListener()).build();
+        this.rateSettingKey = rateSettingKey;
+        this.contextMetrics = contextMetrics;
+        this.lastInlineCompileTime = System.nanoTime();
+        setMaxCompilationRate(rate);
+    }
+
+    <FactoryType> FactoryType compile(ScriptContext<FactoryType> context, ScriptEngine scriptEngine, String lang, ScriptType type,
+                                      String id, String idOrCode, Map<String, String> options) {
+        CacheKey cacheKey = new CacheKey(lang, idOrCode, context.name, options);
+        CachedScript cachedScript = cache.get(cacheKey);
+
+        if (cachedScript != null) {
+            return context.factoryClazz.cast(cachedScript.compiledScript);
+        }
+
+        // Synchronize so we don't compile scripts many times during multiple shards all compiling a script
+        synchronized (this) {
+            // Retrieve it again in case it has been put by a different thread
+            cachedScript = cache.get(cacheKey);
+
+            if (cachedScript == null) {
+                final ScriptMetrics metrics = contextMetrics.apply(context.name);
+                final Object compiledScript;
+                final long startTime;
+                try {
+                    // Either an un-cached inline script or indexed script
+                    // If the script type is inline the name will be the same as the code for identification in exceptions
+                    // but give the script engine the chance to be better, give it separate name + source code
+                    // for the inline case, then its anonymous: null.
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("compiling script, type: [{}], lang: [{}], options: [{}]", type, lang, options);
+                    }
+                    // Check whether too many compilations have happened
+                    checkCompilationLimit(metrics);
+                    startTime = System.nanoTime();
+                    compiledScript = scriptEngine.compile(id, idOrCode, context, options);
+                } catch (ScriptException good) {
+                    // TODO: remove this try-catch completely, when all script engines have good exceptions!
+                    throw good; // its already good
+                } catch (Exception exception) {
+                    throw new GeneralScriptException("Failed to compile " + type + " script [" + id + "] using lang [" + lang + "]",
+                        exception);
+                }
+
+                // Since the cache key is the script content itself we don't need to
+                // invalidate/check the cache if an indexed script changes.
+                final long now = System.nanoTime();
+                metrics.onCompilation(now - startTime);
+                cachedScript = new CachedScript(compiledScript, now);
+                cache.put(cacheKey, cachedScript);
+            }
+
+            return context.factoryClazz.cast(cachedScript.compiledScript);
+        }
+    }
+
+    /**
+     * This configures the maximum script compilations per time window.
+     *
+     * @param newRate the new expected maximum number of compilations per time window
+     */
+    synchronized void setMaxCompilationRate(Tuple<Integer, TimeValue> newRate) {
+        this.rate = newRate;
+        // Reset the counter to allow new compilations
+        this.scriptsPerTimeWindow = rate.v1();
+        this.compilesAllowedPerNano = ((double) rate.v1()) / newRate.v2().nanos();
+    }
+
+    /**
+     * Check whether there have been too many compilations within the last minute, throwing a circuit breaking exception if so.
+     * This is a variant of the token bucket algorithm: https://en.wikipedia.org/wiki/Token_bucket
+     *
+     * It can be thought of as a bucket with water, every time the bucket is checked, water is added proportional to the amount of time that
+     * elapsed since the last time it was checked. If there is enough water, some is removed and the request is allowed. If there is not
+     * enough water the request is denied. Just like a normal bucket, if water is added that overflows the bucket, the extra water/capacity
+     * is discarded - there can never be more water in the bucket than the size of the bucket.
+     *
+     * @param metrics the metrics to count a rejected compilation in
+     */
+    synchronized void checkCompilationLimit(ScriptMetrics metrics) {
+        long now = System.nanoTime();
+        long timePassed = now - lastInlineCompileTime;
+        lastInlineCompileTime = now;
+
+        scriptsPerTimeWindow += (timePassed) * compilesAllowedPerNano;
+
+        // It's been over the time limit anyway, readjust the bucket to be level
+        if (scriptsPerTimeWindow > rate.v1()) {
+            scriptsPerTimeWindow = rate.v1();
+        }
+
+        // If there is enough tokens in the bucket, allow the request and decrease the tokens by 1
+        if (scriptsPerTimeWindow >= 1) {
+            scriptsPerTimeWindow -= 1.0;
+        } else {
+            metrics.onCompilationLimit();
+            // Otherwise reject the request
+            throw new CircuitBreakingException("[script] Too many dynamic script compilations within, max: [" +
+                    rate.v1() + "/" + rate.v2() +"]; please use indexed, or scripts with parameters instead; " +
+                            "this limit can be changed by the [" + rateSettingKey + "] setting",
+                CircuitBreaker.Durability.TRANSIENT);
+        }
+    }
+
+    /**
+     * A small listener for the script cache that counts the scripts that were
+     * removed from the cache in the metrics of their context
+     */
+    private class ScriptCacheRemovalListener implements RemovalListener<CacheKey, CachedScript> {
+        @Override
+        public void onRemoval(RemovalNotification<CacheKey, CachedScript> notification) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("removed {} from cache, reason: {}", notification.getValue().compiledScript,
+                    notification.getRemovalReason());
+            }
+            contextMetrics.apply(notification.getKey().context).onCacheEviction(System.nanoTime() - notification.getValue().cachedAt);
+        }
+    }
+
+    private static final class CachedScript {
+        final Object compiledScript;
+        final long cachedAt;
+
+        private CachedScript(Object compiledScript, long cachedAt) {
+            this.compiledScript = compiledScript;
+            this.cachedAt = cachedAt;
+        }
+    }
+
+    private static final class CacheKey {
+        final String lang;
+        final String idOrCode;
+        final String context;
+        final Map<String, String> options;
+
+        private CacheKey(String lang, String idOrCode, String context, Map<String, String> options) {
+            this.lang = lang;
+            this.idOrCode = idOrCode;
+            this.context = context;
+            this.options = options;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey cacheKey = (CacheKey) o;
+            return Objects.equals(lang, cacheKey.lang) &&
+                Objects.equals(idOrCode, cacheKey.idOrCode) &&
+                Objects.equals(context, cacheKey.context) &&
+                Objects.equals(options, cacheKey.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lang, idOrCode, context, options);
+        }
+    }
+}
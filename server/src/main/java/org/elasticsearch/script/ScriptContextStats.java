@@ -0,0 +1,104 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The script stats of a single {@link ScriptContext}.
+ */
+public class ScriptContextStats implements Writeable, ToXContentFragment, Comparable<ScriptContextStats> {
+    private final String context;
+    private final long compilations;
+    private final long compilationTimeInMillis;
+    private final long cacheEvictions;
+    private final long compilationLimitTriggered;
+
+    public ScriptContextStats(String context, long compilations, long compilationTimeInMillis, long cacheEvictions,
+                              long compilationLimitTriggered) {
+        this.context = context;
+        this.compilations = compilations;
+        this.compilationTimeInMillis = compilationTimeInMillis;
+        this.cacheEvictions = cacheEvictions;
+        this.compilationLimitTriggered = compilationLimitTriggered;
+    }
+
+    public ScriptContextStats(StreamInput in) throws IOException {
+        context = in.readString();
+        compilations = in.readVLong();
+        compilationTimeInMillis = in.readVLong();
+        cacheEvictions = in.readVLong();
+        compilationLimitTriggered = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(context);
+        out.writeVLong(compilations);
+        out.writeVLong(compilationTimeInMillis);
+        out.writeVLong(cacheEvictions);
+        out.writeVLong(compilationLimitTriggered);
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public long getCompilations() {
+        return compilations;
+    }
+
+    public long getCompilationTimeInMillis() {
+        return compilationTimeInMillis;
+    }
+
+    public long getCacheEvictions() {
+        return cacheEvictions;
+    }
+
+    public long getCompilationLimitTriggered() {
+        return compilationLimitTriggered;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(context);
+        builder.field(ScriptStats.Fields.COMPILATIONS, getCompilations());
+        builder.humanReadableField(ScriptStats.Fields.COMPILATION_TIME_IN_MILLIS, ScriptStats.Fields.COMPILATION_TIME,
+            new TimeValue(compilationTimeInMillis, TimeUnit.MILLISECONDS));
+        builder.field(ScriptStats.Fields.CACHE_EVICTIONS, getCacheEvictions());
+        builder.field(ScriptStats.Fields.COMPILATION_LIMIT_TRIGGERED, getCompilationLimitTriggered());
+        builder.endObject();
+        return builder;
+    }
+
+    @Override
+    public int compareTo(ScriptContextStats o) {
+        return context.compareTo(o.context);
+    }
+}
@@ -19,26 +19,120 @@
 
 package org.elasticsearch.script;
 
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.metrics.CounterMetric;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 public class ScriptMetrics {
+
+    /**
+     * The number of buckets of the histograms. The first bucket counts values below one unit, bucket {@code i} counts values
+     * between {@code 2^(i-1)} inclusive and {@code 2^i} exclusive units, and the last bucket counts everything above.
+     */
+    static final int HISTOGRAM_BUCKETS = 18;
+
     final CounterMetric compilationsMetric = new CounterMetric();
+    final CounterMetric compilationTimeInMillis = new CounterMetric();
     final CounterMetric cacheEvictionsMetric = new CounterMetric();
     final CounterMetric compilationLimitTriggered = new CounterMetric();
+    // in milliseconds
+    final CounterMetric[] compilationTimeHistogram = newHistogram();
+    // how long evicted scripts stayed in the cache, in seconds
+    final CounterMetric[] cacheEvictionAgeHistogram = newHistogram();
+
+    @Nullable
+    private final ScriptMetrics parent;
+
+    public ScriptMetrics() {
+        this(null);
+    }
+
+    /**
+     * Creates metrics that also count everything they count in the given parent metrics.
+     */
+    ScriptMetrics(@Nullable ScriptMetrics parent) {
+        this.parent = parent;
+    }
 
     public ScriptStats stats() {
-        return new ScriptStats(compilationsMetric.count(), cacheEvictionsMetric.count(), compilationLimitTriggered.count());
+        return stats(Collections.emptyMap());
     }
 
-    public void onCompilation() {
+    /**
+     * @param contextMetrics the metrics of the individual script contexts, which are only included if they counted anything
+     */
+    ScriptStats stats(Map<String, ScriptMetrics> contextMetrics) {
+        List<ScriptContextStats> contextStats = new ArrayList<>();
+        for (Map.Entry<String, ScriptMetrics> entry : contextMetrics.entrySet()) {
+            ScriptMetrics metrics = entry.getValue();
+            if (metrics.compilationsMetric.count() > 0 || metrics.cacheEvictionsMetric.count() > 0
+                    || metrics.compilationLimitTriggered.count() > 0) {
+                contextStats.add(new ScriptContextStats(entry.getKey(), metrics.compilationsMetric.count(),
+                    metrics.compilationTimeInMillis.count(), metrics.cacheEvictionsMetric.count(),
+                    metrics.compilationLimitTriggered.count()));
+            }
+        }
+        Collections.sort(contextStats);
+        return new ScriptStats(compilationsMetric.count(), cacheEvictionsMetric.count(), compilationLimitTriggered.count(),
+            compilationTimeInMillis.count(), counts(compilationTimeHistogram), counts(cacheEvictionAgeHistogram), contextStats);
+    }
+
+    /**
+     * Counts a compilation that took the given time.
+     */
+    public void onCompilation(long timeInNanos) {
+        long timeInMillis = TimeUnit.NANOSECONDS.toMillis(timeInNanos);
         compilationsMetric.inc();
+        compilationTimeInMillis.inc(timeInMillis);
+        compilationTimeHistogram[bucket(timeInMillis)].inc();
+        if (parent != null) {
+            parent.onCompilation(timeInNanos);
+        }
     }
 
-    public void onCacheEviction() {
+    /**
+     * Counts the eviction of a script that was in the cache for the given time.
+     */
+    public void onCacheEviction(long ageInNanos) {
         cacheEvictionsMetric.inc();
+        cacheEvictionAgeHistogram[bucket(TimeUnit.NANOSECONDS.toSeconds(ageInNanos))].inc();
+        if (parent != null) {
+            parent.onCacheEviction(ageInNanos);
+        }
     }
 
     public void onCompilationLimit() {
         compilationLimitTriggered.inc();
+        if (parent != null) {
+            parent.onCompilationLimit();
+        }
+    }
+
+    static int bucket(long value) {
+        if (value <= 0) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(value), HISTOGRAM_BUCKETS - 1);
+    }
+
+    private static CounterMetric[] newHistogram() {
+        CounterMetric[] histogram = new CounterMetric[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new CounterMetric();
+        }
+        return histogram;
+    }
+
+    private static long[] counts(CounterMetric[] histogram) {
+        long[] counts = new long[histogram.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = histogram[i].count();
+        }
+        return counts;
     }
 }
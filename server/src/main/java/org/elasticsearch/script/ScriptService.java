@@ -32,12 +32,6 @@ import org.elasticsearch.cluster.ClusterStateApplier;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Strings;
-import org.elasticsearch.common.breaker.CircuitBreaker;
-import org.elasticsearch.common.breaker.CircuitBreakingException;
-import org.elasticsearch.common.cache.Cache;
-import org.elasticsearch.common.cache.CacheBuilder;
-import org.elasticsearch.common.cache.RemovalListener;
-import org.elasticsearch.common.cache.RemovalNotification;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.settings.ClusterSettings;
@@ -51,6 +45,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -103,6 +98,17 @@ public class ScriptService extends AbstractComponent implements Closeable, Clust
     public static final Setting<Tuple<Integer, TimeValue>> SCRIPT_MAX_COMPILATIONS_RATE =
             new Setting<>("script.max_compilations_rate", "75/5m", MAX_COMPILATION_RATE_FUNCTION, Property.Dynamic, Property.NodeScope);
 
+    // script contexts that have any of the following settings get a cache of their own rather than sharing the general one
+    public static final Setting.AffixSetting<Integer> SCRIPT_CONTEXT_CACHE_SIZE_SETTING =
+        Setting.affixKeySetting("script.context.", "cache_max_size",
+            key -> Setting.intSetting(key, SCRIPT_CACHE_SIZE_SETTING, 0, Property.NodeScope));
+    public static final Setting.AffixSetting<TimeValue> SCRIPT_CONTEXT_CACHE_EXPIRE_SETTING =
+        Setting.affixKeySetting("script.context.", "cache_expire",
+            key -> Setting.positiveTimeSetting(key, SCRIPT_CACHE_EXPIRE_SETTING, TimeValue.timeValueMillis(0), Property.NodeScope));
+    public static final Setting.AffixSetting<Tuple<Integer, TimeValue>> SCRIPT_CONTEXT_MAX_COMPILATIONS_RATE_SETTING =
+        Setting.affixKeySetting("script.context.", "max_compilations_rate",
+            key -> new Setting<>(key, SCRIPT_MAX_COMPILATIONS_RATE, MAX_COMPILATION_RATE_FUNCTION, Property.Dynamic, Property.NodeScope));
+
     public static final String ALLOW_NONE = "none";
 
     public static final Setting<List<String>> TYPES_ALLOWED_SETTING =
@@ -117,19 +123,16 @@ public class ScriptService extends AbstractComponent implements Closeable, Clust
     private final Map<String, ScriptEngine> engines;
     private final Map<String, ScriptContext<?>> contexts;
 
-    private final Cache<CacheKey, Object> cache;
-
     private final ScriptMetrics scriptMetrics = new ScriptMetrics();
+    private final Map<String, ScriptMetrics> contextMetrics;
+
+    private final ScriptCache generalCache;
+    private final Map<String, ScriptCache> contextCaches;
 
     private ClusterState clusterState;
 
     private int maxSizeInBytes;
 
-    private Tuple<Integer, TimeValue> rate;
-    private long lastInlineCompileTime;
-    private double scriptsPerTimeWindow;
-    private double compilesAllowedPerNano;
-
     public ScriptService(Settings settings, Map<String, ScriptEngine> engines, Map<String, ScriptContext<?>> contexts) {
         this.settings = Objects.requireNonNull(settings);
         this.engines = Objects.requireNonNull(engines);
@@ -207,29 +210,55 @@ public class ScriptService extends AbstractComponent implements Closeable, Clust
             }
         }
 
-        int cacheMaxSize = SCRIPT_CACHE_SIZE_SETTING.get(settings);
-
-        CacheBuilder<CacheKey, Object> cacheBuilder = CacheBuilder.builder();
-        if (cacheMaxSize >= 0) {
-            cacheBuilder.setMaximumWeight(cacheMaxSize);
-        }
-
-        TimeValue cacheExpire = SCRIPT_CACHE_EXPIRE_SETTING.get(settings);
-        if (cacheExpire.getNanos() != 0) {
-            cacheBuilder.setExpireAfterAccess(cacheExpire);
+        Map<String, ScriptMetrics> contextMetrics = new HashMap<>();
+        for (String context : contexts.keySet()) {
+            contextMetrics.put(context, new ScriptMetrics(scriptMetrics));
         }
+        this.contextMetrics = Collections.unmodifiableMap(contextMetrics);
 
-        logger.debug("using script cache with max_size [{}], expire [{}]", cacheMaxSize, cacheExpire);
-        this.cache = cacheBuilder.removalListener(new ScriptCacheRemovalListener()).build();
+        this.generalCache = new ScriptCache(SCRIPT_CACHE_SIZE_SETTING.get(settings), SCRIPT_CACHE_EXPIRE_SETTING.get(settings),
+            SCRIPT_MAX_COMPILATIONS_RATE.get(settings), SCRIPT_MAX_COMPILATIONS_RATE.getKey(), this::getContextMetrics);
+        this.contextCaches = buildContextCaches(settings);
 
-        this.lastInlineCompileTime = System.nanoTime();
         this.setMaxSizeInBytes(SCRIPT_MAX_SIZE_IN_BYTES.get(settings));
-        this.setMaxCompilationRate(SCRIPT_MAX_COMPILATIONS_RATE.get(settings));
+    }
+
+    private Map<String, ScriptCache> buildContextCaches(Settings settings) {
+        Set<String> cachedContexts = new HashSet<>();
+        cachedContexts.addAll(SCRIPT_CONTEXT_CACHE_SIZE_SETTING.getNamespaces(settings));
+        cachedContexts.addAll(SCRIPT_CONTEXT_CACHE_EXPIRE_SETTING.getNamespaces(settings));
+        cachedContexts.addAll(SCRIPT_CONTEXT_MAX_COMPILATIONS_RATE_SETTING.getNamespaces(settings));
+        Map<String, ScriptCache> contextCaches = new HashMap<>();
+        for (String context : cachedContexts) {
+            if (contexts.containsKey(context) == false) {
+                throw new IllegalArgumentException("unknown script context [" + context + "] found in setting [" +
+                    SCRIPT_CONTEXT_CACHE_SIZE_SETTING.getConcreteSettingForNamespace(context).getKey() + "] or similar.");
+            }
+            int cacheMaxSize = SCRIPT_CONTEXT_CACHE_SIZE_SETTING.getConcreteSettingForNamespace(context).get(settings);
+            TimeValue cacheExpire = SCRIPT_CONTEXT_CACHE_EXPIRE_SETTING.getConcreteSettingForNamespace(context).get(settings);
+            Setting<Tuple<Integer, TimeValue>> rateSetting =
+                SCRIPT_CONTEXT_MAX_COMPILATIONS_RATE_SETTING.getConcreteSettingForNamespace(context);
+            contextCaches.put(context,
+                new ScriptCache(cacheMaxSize, cacheExpire, rateSetting.get(settings), rateSetting.getKey(), this::getContextMetrics));
+        }
+        return Collections.unmodifiableMap(contextCaches);
+    }
+
+    private ScriptMetrics getContextMetrics(String context) {
+        return contextMetrics.getOrDefault(context, scriptMetrics);
     }
 
     void registerClusterSettingsListeners(ClusterSettings clusterSettings) {
         clusterSettings.addSettingsUpdateConsumer(SCRIPT_MAX_SIZE_IN_BYTES, this::setMaxSizeInBytes);
         clusterSettings.addSettingsUpdateConsumer(SCRIPT_MAX_COMPILATIONS_RATE, this::setMaxCompilationRate);
+        clusterSettings.addAffixUpdateConsumer(SCRIPT_CONTEXT_MAX_COMPILATIONS_RATE_SETTING,
+            (context, rate) -> contextCaches.get(context).setMaxCompilationRate(rate),
+            (context, rate) -> {
+                if (contextCaches.containsKey(context) == false) {
+                    throw new IllegalArgumentException("script context [" + context + "] uses the general script cache, its compilation " +
+                        "rate can only be changed if the node was started with a [script.context." + context + ".*] setting");
+                }
+            });
     }
 
     @Override
@@ -262,15 +291,12 @@ public class ScriptService extends AbstractComponent implements Closeable, Clust
     }
 
     /**
-     * This configures the maximum script compilations per five minute window.
+     * This configures the maximum script compilations per five minute window of the contexts that share the general cache.
      *
      * @param newRate the new expected maximum number of compilations per five minute window
      */
     void setMaxCompilationRate(Tuple<Integer, TimeValue> newRate) {
-        this.rate = newRate;
-        // Reset the counter to allow new compilations
-        this.scriptsPerTimeWindow = rate.v1();
-        this.compilesAllowedPerNano = ((double) rate.v1()) / newRate.v2().nanos();
+        generalCache.setMaxCompilationRate(newRate);
     }
 
     /**
@@ -326,79 +352,16 @@ public class ScriptService extends AbstractComponent implements Closeable, Clust
             logger.trace("compiling lang: [{}] type: [{}] script: {}", lang, type, idOrCode);
         }
 
-        CacheKey cacheKey = new CacheKey(lang, idOrCode, context.name, options);
-        Object compiledScript = cache.get(cacheKey);
-
-        if (compiledScript != null) {
-            return context.factoryClazz.cast(compiledScript);
-        }
-
-        // Synchronize so we don't compile scripts many times during multiple shards all compiling a script
-        synchronized (this) {
-            // Retrieve it again in case it has been put by a different thread
-            compiledScript = cache.get(cacheKey);
-
-            if (compiledScript == null) {
-                try {
-                    // Either an un-cached inline script or indexed script
-                    // If the script type is inline the name will be the same as the code for identification in exceptions
-                    // but give the script engine the chance to be better, give it separate name + source code
-                    // for the inline case, then its anonymous: null.
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("compiling script, type: [{}], lang: [{}], options: [{}]", type, lang, options);
-                    }
-                    // Check whether too many compilations have happened
-                    checkCompilationLimit();
-                    compiledScript = scriptEngine.compile(id, idOrCode, context, options);
-                } catch (ScriptException good) {
-                    // TODO: remove this try-catch completely, when all script engines have good exceptions!
-                    throw good; // its already good
-                } catch (Exception exception) {
-                    throw new GeneralScriptException("Failed to compile " + type + " script [" + id + "] using lang [" + lang + "]", exception);
-                }
-
-                // Since the cache key is the script content itself we don't need to
-                // invalidate/check the cache if an indexed script changes.
-                scriptMetrics.onCompilation();
-                cache.put(cacheKey, compiledScript);
-            }
-
-            return context.factoryClazz.cast(compiledScript);
-        }
+        ScriptCache scriptCache = contextCaches.getOrDefault(context.name, generalCache);
+        return scriptCache.compile(context, scriptEngine, lang, type, id, idOrCode, options);
     }
 
     /**
-     * Check whether there have been too many compilations within the last minute, throwing a circuit breaking exception if so.
-     * This is a variant of the token bucket algorithm: https://en.wikipedia.org/wiki/Token_bucket
-     *
-     * It can be thought of as a bucket with water, every time the bucket is checked, water is added proportional to the amount of time that
-     * elapsed since the last time it was checked. If there is enough water, some is removed and the request is allowed. If there is not
-     * enough water the request is denied. Just like a normal bucket, if water is added that overflows the bucket, the extra water/capacity
-     * is discarded - there can never be more water in the bucket than the size of the bucket.
+     * Check whether there have been too many compilations of scripts that share the general cache within the last minute,
+     * throwing a circuit breaking exception if so.
      */
     void checkCompilationLimit() {
-        long now = System.nanoTime();
-        long timePassed = now - lastInlineCompileTime;
-        lastInlineCompileTime = now;
-
-        scriptsPerTimeWindow += (timePassed) * compilesAllowedPerNano;
-
-        // It's been over the time limit anyway, readjust the bucket to be level
-        if (scriptsPerTimeWindow > rate.v1()) {
-            scriptsPerTimeWindow = rate.v1();
-        }
-
-        // If there is enough tokens in the bucket, allow the request and decrease the tokens by 1
-        if (scriptsPerTimeWindow >= 1) {
-            scriptsPerTimeWindow -= 1.0;
-        } else {
-            scriptMetrics.onCompilationLimit();
-            // Otherwise reject the request
-            throw new CircuitBreakingException("[script] Too many dynamic script compilations within, max: [" +
-                    rate.v1() + "/" + rate.v2() +"]; please use indexed, or scripts with parameters instead; " +
-                            "this limit can be changed by the [" + SCRIPT_MAX_COMPILATIONS_RATE.getKey() + "] setting",
-                CircuitBreaker.Durability.TRANSIENT);
-        }
+        generalCache.checkCompilationLimit(scriptMetrics);
     }
 
     public boolean isLangSupported(String lang) {
@@ -534,56 +497,11 @@ public class ScriptService extends AbstractComponent implements Closeable, Clust
     }
 
     public ScriptStats stats() {
-        return scriptMetrics.stats();
+        return scriptMetrics.stats(contextMetrics);
     }
 
     @Override
     public void applyClusterState(ClusterChangedEvent event) {
         clusterState = event.state();
     }
-
-    /**
-     * A small listener for the script cache that calls each
-     * {@code ScriptEngine}'s {@code scriptRemoved} method when the
-     * script has been removed from the cache
-     */
-    private class ScriptCacheRemovalListener implements RemovalListener<CacheKey, Object> {
-        @Override
-        public void onRemoval(RemovalNotification<CacheKey, Object> notification) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("removed {} from cache, reason: {}", notification.getValue(), notification.getRemovalReason());
-            }
-            scriptMetrics.onCacheEviction();
-        }
-    }
-
-    private static final class CacheKey {
-        final String lang;
-        final String idOrCode;
-        final String context;
-        final Map<String, String> options;
-
-        private CacheKey(String lang, String idOrCode, String context, Map<String, String> options) {
-            this.lang = lang;
-            this.idOrCode = idOrCode;
-            this.context = context;
-            this.options = options;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            CacheKey cacheKey = (CacheKey) o;
-            return Objects.equals(lang, cacheKey.lang) &&
-                Objects.equals(idOrCode, cacheKey.idOrCode) &&
-                Objects.equals(context, cacheKey.context) &&
-                Objects.equals(options, cacheKey.options);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(lang, idOrCode, context, options);
-        }
-    }
 }
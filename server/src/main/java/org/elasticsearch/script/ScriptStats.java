@@ -23,26 +23,62 @@ import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.ToXContentFragment;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class ScriptStats implements Writeable, ToXContentFragment {
+    private static final long[] EMPTY_HISTOGRAM = new long[0];
+
     private final long compilations;
     private final long cacheEvictions;
     private final long compilationLimitTriggered;
+    private final long compilationTimeInMillis;
+    private final long[] compilationTimeHistogram;
+    private final long[] cacheEvictionAgeHistogram;
+    private final List<ScriptContextStats> contextStats;
 
     public ScriptStats(long compilations, long cacheEvictions, long compilationLimitTriggered) {
+        this(compilations, cacheEvictions, compilationLimitTriggered, 0, EMPTY_HISTOGRAM, EMPTY_HISTOGRAM, Collections.emptyList());
+    }
+
+    /**
+     * @param compilationTimeHistogram the distribution of compilation times, see {@link ScriptMetrics#HISTOGRAM_BUCKETS}
+     * @param cacheEvictionAgeHistogram the distribution of how many seconds evicted scripts stayed in the cache
+     * @param contextStats the stats of the script contexts that compiled scripts
+     */
+    public ScriptStats(long compilations, long cacheEvictions, long compilationLimitTriggered, long compilationTimeInMillis,
+                       long[] compilationTimeHistogram, long[] cacheEvictionAgeHistogram, List<ScriptContextStats> contextStats) {
         this.compilations = compilations;
         this.cacheEvictions = cacheEvictions;
         this.compilationLimitTriggered = compilationLimitTriggered;
+        this.compilationTimeInMillis = compilationTimeInMillis;
+        this.compilationTimeHistogram = compilationTimeHistogram;
+        this.cacheEvictionAgeHistogram = cacheEvictionAgeHistogram;
+        this.contextStats = contextStats;
     }
 
     public ScriptStats(StreamInput in) throws IOException {
         compilations = in.readVLong();
         cacheEvictions = in.readVLong();
-        compilationLimitTriggered = in.getVersion().onOrAfter(Version.V_7_0_0) ? in.readVLong() : 0;
+        if (in.getVersion().onOrAfter(Version.V_7_0_0)) {
+            compilationLimitTriggered = in.readVLong();
+            compilationTimeInMillis = in.readVLong();
+            compilationTimeHistogram = in.readVLongArray();
+            cacheEvictionAgeHistogram = in.readVLongArray();
+            contextStats = in.readList(ScriptContextStats::new);
+        } else {
+            compilationLimitTriggered = 0;
+            compilationTimeInMillis = 0;
+            compilationTimeHistogram = EMPTY_HISTOGRAM;
+            cacheEvictionAgeHistogram = EMPTY_HISTOGRAM;
+            contextStats = Collections.emptyList();
+        }
     }
 
     @Override
@@ -51,6 +87,10 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         out.writeVLong(cacheEvictions);
         if (out.getVersion().onOrAfter(Version.V_7_0_0)) {
             out.writeVLong(compilationLimitTriggered);
+            out.writeVLong(compilationTimeInMillis);
+            out.writeVLongArray(compilationTimeHistogram);
+            out.writeVLongArray(cacheEvictionAgeHistogram);
+            out.writeList(contextStats);
         }
     }
 
@@ -66,20 +106,74 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         return compilationLimitTriggered;
     }
 
+    public long getCompilationTimeInMillis() {
+        return compilationTimeInMillis;
+    }
+
+    public long[] getCompilationTimeHistogram() {
+        return compilationTimeHistogram;
+    }
+
+    public long[] getCacheEvictionAgeHistogram() {
+        return cacheEvictionAgeHistogram;
+    }
+
+    public List<ScriptContextStats> getContextStats() {
+        return contextStats;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.SCRIPT_STATS);
         builder.field(Fields.COMPILATIONS, getCompilations());
         builder.field(Fields.CACHE_EVICTIONS, getCacheEvictions());
         builder.field(Fields.COMPILATION_LIMIT_TRIGGERED, getCompilationLimitTriggered());
+        builder.humanReadableField(Fields.COMPILATION_TIME_IN_MILLIS, Fields.COMPILATION_TIME,
+            new TimeValue(compilationTimeInMillis, TimeUnit.MILLISECONDS));
+        histogramToXContent(builder, Fields.COMPILATION_TIME_IN_MILLIS_HISTOGRAM, compilationTimeHistogram);
+        histogramToXContent(builder, Fields.CACHE_EVICTION_AGE_IN_SECONDS_HISTOGRAM, cacheEvictionAgeHistogram);
+        if (contextStats.isEmpty() == false) {
+            builder.startObject(Fields.CONTEXTS);
+            for (ScriptContextStats stats : contextStats) {
+                stats.toXContent(builder, params);
+            }
+            builder.endObject();
+        }
         builder.endObject();
         return builder;
     }
 
+    private static void histogramToXContent(XContentBuilder builder, String name, long[] histogram) throws IOException {
+        if (histogram.length == 0) {
+            return;
+        }
+        builder.startArray(name);
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] == 0) {
+                continue;
+            }
+            builder.startObject();
+            if (i > 0) {
+                builder.field("from", 1L << (i - 1));
+            }
+            if (i < histogram.length - 1) {
+                builder.field("to", 1L << i);
+            }
+            builder.field("count", histogram[i]);
+            builder.endObject();
+        }
+        builder.endArray();
+    }
+
     static final class Fields {
         static final String SCRIPT_STATS = "script";
         static final String COMPILATIONS = "compilations";
         static final String CACHE_EVICTIONS = "cache_evictions";
         static final String COMPILATION_LIMIT_TRIGGERED = "compilation_limit_triggered";
+        static final String COMPILATION_TIME = "compilation_time";
+        static final String COMPILATION_TIME_IN_MILLIS = "compilation_time_in_millis";
+        static final String COMPILATION_TIME_IN_MILLIS_HISTOGRAM = "compilation_time_in_millis_histogram";
+        static final String CACHE_EVICTION_AGE_IN_SECONDS_HISTOGRAM = "cache_eviction_age_in_seconds_histogram";
+        static final String CONTEXTS = "contexts";
     }
 }
@@ -23,6 +23,7 @@ import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.ToXContent.Params;
 import org.elasticsearch.common.xcontent.ToXContentFragment;
 import org.elasticsearch.common.xcontent.XContentBuilder;
@@ -31,6 +32,7 @@ import org.elasticsearch.common.xcontent.XContentParser;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -104,6 +106,26 @@ public final class SearchHits implements Streamable, ToXContentFragment, Iterabl
 
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        startHits(builder, params);
+        for (SearchHit hit : hits) {
+            hit.toXContent(builder, params);
+        }
+        return endHits(builder, params);
+    }
+
+    /**
+     * Returns the fragments that render these hits like {@link #toXContent(XContentBuilder, Params)} does, with one fragment
+     * per hit.
+     */
+    public List<ToXContent> toXContentChunks() {
+        List<ToXContent> chunks = new ArrayList<>(hits.length + 2);
+        chunks.add(this::startHits);
+        Collections.addAll(chunks, hits);
+        chunks.add(SearchHits::endHits);
+        return chunks;
+    }
+
+    private XContentBuilder startHits(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.HITS);
         builder.field(Fields.TOTAL, totalHits);
         if (Float.isNaN(maxScore)) {
@@ -112,13 +134,12 @@ public final class SearchHits implements Streamable, ToXContentFragment, Iterabl
             builder.field(Fields.MAX_SCORE, maxScore);
         }
         builder.field(Fields.HITS);
-        builder.startArray();
-        for (SearchHit hit : hits) {
-            hit.toXContent(builder, params);
-        }
+        return builder.startArray();
+    }
+
+    private static XContentBuilder endHits(XContentBuilder builder, Params params) throws IOException {
         builder.endArray();
-        builder.endObject();
-        return builder;
+        return builder.endObject();
     }
 
     public static SearchHits fromXContent(XContentParser parser) throws IOException {
@@ -20,13 +20,18 @@
 package org.elasticsearch.transport;
 
 import org.elasticsearch.core.internal.io.IOUtils;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.compress.Compressor;
 import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.io.stream.BytesStream;
 import org.elasticsearch.common.io.stream.StreamOutput;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.DeflaterOutputStream;
 
 /**
@@ -41,18 +46,37 @@ import java.util.zip.DeflaterOutputStream;
  *
  * {@link CompressibleBytesOutputStream#close()} should be called when the bytes are no longer needed and
  * can be safely released.
+ *
+ * If compression is disabled, bytes references of at least {@link #MIN_REFERENCED_BYTES} bytes that are written with
+ * {@link #writeBytesReference(BytesReference)} are not copied to the underlying {@link BytesStream}. The materialized bytes are
+ * then a composite of the slices of the stream and these references, which the channels write with gathering writes.
  */
 final class CompressibleBytesOutputStream extends StreamOutput {
 
+    /**
+     * Smaller references are copied, as they are cheaper to copy than to write as separate buffers.
+     */
+    static final int MIN_REFERENCED_BYTES = 4 * 1024;
+
     private final StreamOutput stream;
     private final BytesStream bytesStreamOutput;
     private final boolean shouldCompress;
+    // the references that were not copied, and the lengths of the stream at which they were written
+    private final List<BytesReference> references = new ArrayList<>();
+    private final List<Integer> referenceOffsets = new ArrayList<>();
 
     CompressibleBytesOutputStream(BytesStream bytesStreamOutput, boolean shouldCompress) throws IOException {
+        this(bytesStreamOutput, shouldCompress ? CompressorFactory.COMPRESSOR : null);
+    }
+
+    /**
+     * Creates a stream that compresses the bytes with the given compressor, or leaves them uncompressed if it is <code>null</code>.
+     */
+    CompressibleBytesOutputStream(BytesStream bytesStreamOutput, @Nullable Compressor compressor) throws IOException {
         this.bytesStreamOutput = bytesStreamOutput;
-        this.shouldCompress = shouldCompress;
+        this.shouldCompress = compressor != null;
         if (shouldCompress) {
-            this.stream = CompressorFactory.COMPRESSOR.streamOutput(Streams.flushOnCloseStream(bytesStreamOutput));
+            this.stream = compressor.streamOutput(Streams.flushOnCloseStream(bytesStreamOutput));
         } else {
             this.stream = bytesStreamOutput;
         }
@@ -72,7 +96,25 @@ final class CompressibleBytesOutputStream extends StreamOutput {
             stream.close();
         }
 
-        return bytesStreamOutput.bytes();
+        final BytesReference bytes = bytesStreamOutput.bytes();
+        if (references.isEmpty()) {
+            return bytes;
+        }
+        // the stream is only sliced now, as its pages may have been reallocated while it grew
+        final List<BytesReference> parts = new ArrayList<>(references.size() * 2 + 1);
+        int from = 0;
+        for (int i = 0; i < references.size(); i++) {
+            final int offset = referenceOffsets.get(i);
+            if (offset > from) {
+                parts.add(bytes.slice(from, offset - from));
+            }
+            parts.add(references.get(i));
+            from = offset;
+        }
+        if (bytes.length() > from) {
+            parts.add(bytes.slice(from, bytes.length() - from));
+        }
+        return new CompositeBytesReference(parts.toArray(new BytesReference[0]));
     }
 
     @Override
@@ -85,6 +127,16 @@ final class CompressibleBytesOutputStream extends StreamOutput {
         stream.writeBytes(b, offset, length);
     }
 
+    @Override
+    protected void writeReferencedBytes(BytesReference bytes) throws IOException {
+        if (shouldCompress || bytes.length() < MIN_REFERENCED_BYTES) {
+            super.writeReferencedBytes(bytes);
+        } else {
+            referenceOffsets.add(bytesStreamOutput.bytes().length());
+            references.add(bytes);
+        }
+    }
+
     @Override
     public void flush() throws IOException {
         stream.flush();
@@ -231,6 +231,18 @@ public final class ConnectionProfile {
         throw new AssertionError("no handle found for type: "  + type);
     }
 
+    /**
+     * Returns the types of the requests that are sent over the channel with the given index
+     */
+    Set<TransportRequestOptions.Type> getTypes(int channelIndex) {
+        for (ConnectionTypeHandle handle : handles) {
+            if (channelIndex >= handle.offset && channelIndex < handle.offset + handle.length) {
+                return handle.getTypes();
+            }
+        }
+        throw new IllegalArgumentException("no handle for channel [" + channelIndex + "]");
+    }
+
     /**
      * Returns the type handles for this connection profile
      */
@@ -21,10 +21,13 @@ package org.elasticsearch.transport;
 
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.tasks.Task;
 import org.elasticsearch.tasks.TaskManager;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.LongAccumulator;
 
 public class RequestHandlerRegistry<Request extends TransportRequest> {
 
@@ -35,6 +38,13 @@ public class RequestHandlerRegistry<Request extends TransportRequest> {
     private final String executor;
     private final TaskManager taskManager;
     private final Writeable.Reader<Request> requestReader;
+    // the handling times of the requests that were received from other nodes
+    private final MeanMetric networkTime = new MeanMetric();
+    private final LongAccumulator maxNetworkTime = new LongAccumulator(Math::max, 0L);
+    private final CounterMetric queueTime = new CounterMetric();
+    private final LongAccumulator maxQueueTime = new LongAccumulator(Math::max, 0L);
+    private final CounterMetric executionTime = new CounterMetric();
+    private final LongAccumulator maxExecutionTime = new LongAccumulator(Math::max, 0L);
 
     public RequestHandlerRegistry(String action, Writeable.Reader<Request> requestReader, TaskManager taskManager,
                                   TransportRequestHandler<Request> handler, String executor, boolean forceExecution,
@@ -81,6 +91,34 @@ public class RequestHandlerRegistry<Request extends TransportRequest> {
         return executor;
     }
 
+    /**
+     * Records the time that a request received from another node spent on the network thread until it was handed off to the
+     * executor of this handler.
+     */
+    void onRequestHandedOff(long networkTimeInNanos) {
+        networkTime.inc(networkTimeInNanos);
+        maxNetworkTime.accumulate(networkTimeInNanos);
+    }
+
+    /**
+     * Records the time that a request received from another node waited in the queue of the executor of this handler, and the
+     * time that this handler then took to process it.
+     */
+    void onRequestExecuted(long queueTimeInNanos, long executionTimeInNanos) {
+        queueTime.inc(queueTimeInNanos);
+        maxQueueTime.accumulate(queueTimeInNanos);
+        executionTime.inc(executionTimeInNanos);
+        maxExecutionTime.accumulate(executionTimeInNanos);
+    }
+
+    /**
+     * The handling times of the requests that were received from other nodes.
+     */
+    public TransportStats.ActionStats getStats() {
+        return new TransportStats.ActionStats(networkTime.count(), networkTime.sum(), maxNetworkTime.get(), queueTime.count(),
+            maxQueueTime.get(), executionTime.count(), maxExecutionTime.get());
+    }
+
     @Override
     public String toString() {
         return handler.toString();
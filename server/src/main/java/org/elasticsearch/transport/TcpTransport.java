@@ -28,6 +28,7 @@ import org.elasticsearch.action.NotifyOnceListener;
 import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.Booleans;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.bytes.BytesArray;
@@ -50,6 +51,7 @@ import org.elasticsearch.common.network.CloseableChannel;
 import org.elasticsearch.common.network.NetworkAddress;
 import org.elasticsearch.common.network.NetworkService;
 import org.elasticsearch.common.network.NetworkUtils;
+import org.elasticsearch.common.regex.Regex;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.BoundTransportAddress;
@@ -88,6 +90,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -108,6 +111,7 @@ import static org.elasticsearch.common.settings.Setting.affixKeySetting;
 import static org.elasticsearch.common.settings.Setting.boolSetting;
 import static org.elasticsearch.common.settings.Setting.intSetting;
 import static org.elasticsearch.common.settings.Setting.listSetting;
+import static org.elasticsearch.common.settings.Setting.positiveTimeSetting;
 import static org.elasticsearch.common.settings.Setting.timeSetting;
 import static org.elasticsearch.common.transport.NetworkExceptionHelper.isCloseConnectionException;
 import static org.elasticsearch.common.transport.NetworkExceptionHelper.isConnectException;
@@ -131,6 +135,9 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
     // the scheduled internal ping interval setting, defaults to disabled (-1)
     public static final Setting<TimeValue> PING_SCHEDULE =
         timeSetting("transport.ping_schedule", TimeValue.timeValueSeconds(-1), Setting.Property.NodeScope);
+    // the time after which the handling of an inbound message on a network thread is logged as slow, 0 disables the logging
+    public static final Setting<TimeValue> SLOW_OPERATION_THRESHOLD =
+        positiveTimeSetting("transport.slow_operation_logging_threshold", TimeValue.timeValueSeconds(5), Setting.Property.NodeScope);
     public static final Setting<Boolean> TCP_NO_DELAY =
         boolSetting("transport.tcp_no_delay", NetworkService.TCP_NO_DELAY, Setting.Property.NodeScope);
     public static final Setting<Boolean> TCP_KEEP_ALIVE =
@@ -195,17 +202,23 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
     // connections while no connect operations is going on
     private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
     protected final boolean compress;
+    private final Transport.CompressionScheme compressionScheme;
+    private final String[] compressActions;
     private volatile BoundTransportAddress boundAddress;
     private final String transportName;
 
     private final MeanMetric readBytesMetric = new MeanMetric();
     private final MeanMetric transmittedBytesMetric = new MeanMetric();
+    private final Map<TransportRequestOptions.Type, ConnectionTypeMetrics> connectionTypeMetrics;
+    // the metrics of the channels that this node opened and that carry a single type of requests
+    private final ConcurrentMap<TcpChannel, ConnectionTypeMetrics> channelTypeMetrics = newConcurrentMap();
     private volatile Map<String, RequestHandlerRegistry<? extends TransportRequest>> requestHandlers = Collections.emptyMap();
     private final ResponseHandlers responseHandlers = new ResponseHandlers();
     private final TcpTransportHandshaker handshaker;
     private final TransportLogger transportLogger;
     private final BytesReference pingMessage;
     private final String nodeName;
+    private final long slowOperationThresholdNanos;
 
     public TcpTransport(String transportName, Settings settings,  Version version, ThreadPool threadPool, BigArrays bigArrays,
                         CircuitBreakerService circuitBreakerService, NamedWriteableRegistry namedWriteableRegistry,
@@ -219,6 +232,8 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         this.circuitBreakerService = circuitBreakerService;
         this.namedWriteableRegistry = namedWriteableRegistry;
         this.compress = Transport.TRANSPORT_TCP_COMPRESS.get(settings);
+        this.compressionScheme = Transport.TRANSPORT_TCP_COMPRESSION_SCHEME.get(settings);
+        this.compressActions = Transport.TRANSPORT_TCP_COMPRESS_ACTIONS.get(settings).toArray(Strings.EMPTY_ARRAY);
         this.networkService = networkService;
         this.transportName = transportName;
         this.transportLogger = new TransportLogger();
@@ -229,6 +244,11 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             (v, features, channel, response, requestId) -> sendResponse(v, features, channel, response, requestId,
                 TcpTransportHandshaker.HANDSHAKE_ACTION_NAME, TransportResponseOptions.EMPTY, TransportStatus.setHandshake((byte) 0)));
         this.nodeName = Node.NODE_NAME_SETTING.get(settings);
+        this.slowOperationThresholdNanos = SLOW_OPERATION_THRESHOLD.get(settings).nanos();
+        this.connectionTypeMetrics = new EnumMap<>(TransportRequestOptions.Type.class);
+        for (TransportRequestOptions.Type type : TransportRequestOptions.Type.values()) {
+            connectionTypeMetrics.put(type, new ConnectionTypeMetrics());
+        }
 
         final Settings defaultFeatures = DEFAULT_FEATURES_SETTING.get(settings);
         if (defaultFeatures == null) {
@@ -430,9 +450,14 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
 
         for (int i = 0; i < numConnections; ++i) {
             try {
-                TcpChannel channel = initiateChannel(node);
+                Set<TransportRequestOptions.Type> types = connectionProfile.getTypes(i);
+                TcpChannel channel = initiateChannel(node, types);
                 logger.trace(() -> new ParameterizedMessage("Tcp transport client channel opened: {}", channel));
                 channels.add(channel);
+                if (types.size() == 1) {
+                    channelTypeMetrics.put(channel, connectionTypeMetrics.get(types.iterator().next()));
+                    channel.addCloseListener(ActionListener.wrap(() -> channelTypeMetrics.remove(channel)));
+                }
             } catch (ConnectTransportException e) {
                 CloseableChannel.closeChannels(channels, false);
                 listener.onFailure(e);
@@ -806,6 +831,19 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
      */
     protected abstract TcpChannel initiateChannel(DiscoveryNode node) throws IOException;
 
+    /**
+     * Initiate a single tcp socket channel that will carry the given types of requests. Transports that isolate the channels of
+     * some types of requests override this method, the default implementation ignores the types.
+     *
+     * @param node for the initiated connection
+     * @param types the types of the requests that will be sent over the channel
+     * @return the pending connection
+     * @throws IOException if an I/O exception occurs while opening the channel
+     */
+    protected TcpChannel initiateChannel(DiscoveryNode node, Set<TransportRequestOptions.Type> types) throws IOException {
+        return initiateChannel(node);
+    }
+
     /**
      * Called to tear down internal resources
      */
@@ -815,10 +853,30 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         return compress && (!(request instanceof BytesTransportRequest));
     }
 
+    /**
+     * Returns <code>true</code> if messages of the given action should be compressed by default, that is if compression is enabled and
+     * the action matches {@link Transport#TRANSPORT_TCP_COMPRESS_ACTIONS}.
+     */
+    boolean shouldCompress(String action) {
+        return compress && (compressActions.length == 0 || Regex.simpleMatch(compressActions, action));
+    }
+
+    /**
+     * Returns the compressor to use for a message serialized with the given version. LZ4 is only understood by nodes on or after
+     * 7.0.0, so we fall back to deflate for older nodes, which includes handshakes as they are always serialized with the minimum
+     * compatible version.
+     */
+    Compressor compressor(Version version) {
+        if (compressionScheme == Transport.CompressionScheme.LZ4 && version.onOrAfter(Version.V_7_0_0)) {
+            return CompressorFactory.LZ4;
+        }
+        return CompressorFactory.COMPRESSOR;
+    }
+
     private void sendRequestToChannel(final DiscoveryNode node, final TcpChannel channel, final long requestId, final String action,
                                       final TransportRequest request, TransportRequestOptions options, Version channelVersion,
                                       byte status) throws IOException, TransportException {
-        if (compress) {
+        if (shouldCompress(action)) {
             options = TransportRequestOptions.builder(options).withCompress(true).build();
         }
 
@@ -826,20 +884,21 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         // the header part is compressed, and the "body" can't be extracted as compressed
         final boolean compressMessage = options.compress() && canCompress(request);
 
+        // we pick the smallest of the 2, to support both backward and forward compatibility
+        // note, this is the only place we need to do this, since from here on, we use the serialized version
+        // as the version to use also when the node receiving this request will send the response with
+        final Version version = Version.min(this.version, channelVersion);
+
         status = TransportStatus.setRequest(status);
         ReleasableBytesStreamOutput bStream = new ReleasableBytesStreamOutput(bigArrays);
-        final CompressibleBytesOutputStream stream = new CompressibleBytesOutputStream(bStream, compressMessage);
+        final CompressibleBytesOutputStream stream =
+            new CompressibleBytesOutputStream(bStream, compressMessage ? compressor(version) : null);
         boolean addedReleaseListener = false;
         try {
             if (compressMessage) {
                 status = TransportStatus.setCompress(status);
             }
 
-            // we pick the smallest of the 2, to support both backward and forward compatibility
-            // note, this is the only place we need to do this, since from here on, we use the serialized version
-            // as the version to use also when the node receiving this request will send the response with
-            Version version = Version.min(this.version, channelVersion);
-
             stream.setVersion(version);
             threadPool.getThreadContext().writeTo(stream);
             if (version.onOrAfter(Version.V_6_3_0)) {
@@ -865,6 +924,10 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
      */
     private void internalSendMessage(TcpChannel channel, BytesReference message, SendMetricListener listener) {
         transportLogger.logOutboundMessage(channel, message);
+        listener.typeMetrics = channelTypeMetrics.get(channel);
+        if (listener.typeMetrics != null) {
+            listener.startNanos = System.nanoTime();
+        }
         try {
             channel.sendMessage(message, listener);
         } catch (Exception ex) {
@@ -935,12 +998,13 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         final String action,
         TransportResponseOptions options,
         byte status) throws IOException {
-        if (compress) {
+        if (shouldCompress(action)) {
             options = TransportResponseOptions.builder(options).withCompress(true).build();
         }
         status = TransportStatus.setResponse(status); // TODO share some code with sendRequest
         ReleasableBytesStreamOutput bStream = new ReleasableBytesStreamOutput(bigArrays);
-        CompressibleBytesOutputStream stream = new CompressibleBytesOutputStream(bStream, options.compress());
+        CompressibleBytesOutputStream stream =
+            new CompressibleBytesOutputStream(bStream, options.compress() ? compressor(nodeVersion) : null);
         boolean addedReleaseListener = false;
         try {
             if (options.compress()) {
@@ -1177,14 +1241,21 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
      * This method handles the message receive part for both request and responses
      */
     public final void messageReceived(BytesReference reference, TcpChannel channel) throws IOException {
+        final long startNanos = System.nanoTime();
         String profileName = channel.getProfile();
         InetSocketAddress remoteAddress = channel.getRemoteAddress();
         int messageLengthBytes = reference.length();
         final int totalMessageSize = messageLengthBytes + TcpHeader.MARKER_BYTES_SIZE + TcpHeader.MESSAGE_LENGTH_SIZE;
         readBytesMetric.inc(totalMessageSize);
+        final ConnectionTypeMetrics typeMetrics = channelTypeMetrics.get(channel);
+        if (typeMetrics != null) {
+            typeMetrics.readBytes.inc(totalMessageSize);
+        }
         // we have additional bytes to read, outside of the header
         boolean hasMessageBytesToRead = (totalMessageSize - TcpHeader.HEADER_SIZE) > 0;
         StreamInput streamIn = reference.streamInput();
+        // the action of a request or the handler of a response, to identify slow messages
+        Object handledBy = null;
         boolean success = false;
         try (ThreadContext.StoredContext tCtx = threadPool.getThreadContext().stashContext()) {
             long requestId = streamIn.readLong();
@@ -1194,7 +1265,7 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
                 Compressor compressor;
                 try {
                     final int bytesConsumed = TcpHeader.REQUEST_ID_SIZE + TcpHeader.STATUS_SIZE + TcpHeader.VERSION_ID_SIZE;
-                    compressor = CompressorFactory.compressor(reference.slice(bytesConsumed, reference.length() - bytesConsumed));
+                    compressor = CompressorFactory.transportCompressor(reference.slice(bytesConsumed, reference.length() - bytesConsumed));
                 } catch (NotCompressedException ex) {
                     int maxToRead = Math.min(reference.length(), 10);
                     StringBuilder sb = new StringBuilder("stream marked as compressed, but no compressor found, first [").append(maxToRead)
@@ -1215,7 +1286,7 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             threadPool.getThreadContext().readHeaders(streamIn);
             threadPool.getThreadContext().putTransient("_remote_address", remoteAddress);
             if (TransportStatus.isRequest(status)) {
-                handleRequest(channel, profileName, streamIn, requestId, messageLengthBytes, version, remoteAddress, status);
+                handledBy = handleRequest(channel, profileName, streamIn, requestId, messageLengthBytes, version, remoteAddress, status);
             } else {
                 final TransportResponseHandler<?> handler;
                 if (isHandshake) {
@@ -1229,6 +1300,7 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
                         handler = theHandler;
                     }
                 }
+                handledBy = handler;
                 // ignore if its null, the service logs it
                 if (handler != null) {
                     if (TransportStatus.isError(status)) {
@@ -1252,6 +1324,12 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             } else {
                 IOUtils.closeWhileHandlingException(streamIn);
             }
+            final long tookNanos = System.nanoTime() - startNanos;
+            if (slowOperationThresholdNanos > 0 && tookNanos > slowOperationThresholdNanos) {
+                logger.warn("handling inbound transport message [{}] from [{}] took [{}ms] which is above the warn threshold of [{}ms]",
+                    handledBy, remoteAddress, TimeUnit.NANOSECONDS.toMillis(tookNanos),
+                    TimeUnit.NANOSECONDS.toMillis(slowOperationThresholdNanos));
+            }
         }
     }
 
@@ -1323,6 +1401,7 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
     protected String handleRequest(TcpChannel channel, String profileName, final StreamInput stream, long requestId,
                                    int messageLengthBytes, Version version, InetSocketAddress remoteAddress, byte status)
         throws IOException {
+        final long startNanos = System.nanoTime();
         final Set<String> features;
         if (version.onOrAfter(Version.V_6_3_0)) {
             features = Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(stream.readStringArray())));
@@ -1351,7 +1430,9 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
                 request.remoteAddress(new TransportAddress(remoteAddress));
                 // in case we throw an exception, i.e. when the limit is hit, we don't want to verify
                 validateRequest(stream, requestId, action);
-                threadPool.executor(reg.getExecutor()).execute(new RequestHandler(reg, request, transportChannel));
+                final long handOffNanos = System.nanoTime();
+                reg.onRequestHandedOff(handOffNanos - startNanos);
+                threadPool.executor(reg.getExecutor()).execute(new RequestHandler(reg, request, transportChannel, handOffNanos));
             }
         } catch (Exception e) {
             // the circuit breaker tripped
@@ -1383,17 +1464,24 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         private final RequestHandlerRegistry reg;
         private final TransportRequest request;
         private final TransportChannel transportChannel;
+        private final long handOffNanos;
 
-        RequestHandler(RequestHandlerRegistry reg, TransportRequest request, TransportChannel transportChannel) {
+        RequestHandler(RequestHandlerRegistry reg, TransportRequest request, TransportChannel transportChannel, long handOffNanos) {
             this.reg = reg;
             this.request = request;
             this.transportChannel = transportChannel;
+            this.handOffNanos = handOffNanos;
         }
 
         @SuppressWarnings({"unchecked"})
         @Override
         protected void doRun() throws Exception {
-            reg.processMessageReceived(request, transportChannel);
+            final long startNanos = System.nanoTime();
+            try {
+                reg.processMessageReceived(request, transportChannel);
+            } finally {
+                reg.onRequestExecuted(startNanos - handOffNanos, System.nanoTime() - startNanos);
+            }
         }
 
         @Override
@@ -1444,6 +1532,9 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
      */
     private abstract class SendMetricListener extends NotifyOnceListener<Void> {
         private final long messageSize;
+        // set before the message is sent if the channel carries a single type of requests
+        private ConnectionTypeMetrics typeMetrics;
+        private long startNanos;
 
         private SendMetricListener(long messageSize) {
             this.messageSize = messageSize;
@@ -1452,6 +1543,10 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         @Override
         protected final void innerOnResponse(Void object) {
             transmittedBytesMetric.inc(messageSize);
+            if (typeMetrics != null) {
+                typeMetrics.transmittedBytes.inc(messageSize);
+                typeMetrics.sendTimeInNanos.inc(System.nanoTime() - startNanos);
+            }
             innerInnerOnResponse(object);
         }
 
@@ -1495,8 +1590,43 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
 
     @Override
     public final TransportStats getStats() {
+        Map<TransportRequestOptions.Type, TransportStats.ConnectionTypeStats> connectionTypes =
+            new EnumMap<>(TransportRequestOptions.Type.class);
+        for (Map.Entry<TransportRequestOptions.Type, ConnectionTypeMetrics> entry : connectionTypeMetrics.entrySet()) {
+            ConnectionTypeMetrics metrics = entry.getValue();
+            if (metrics.readBytes.count() > 0 || metrics.transmittedBytes.count() > 0) {
+                connectionTypes.put(entry.getKey(), new TransportStats.ConnectionTypeStats(metrics.readBytes.count(),
+                    metrics.readBytes.sum(), metrics.transmittedBytes.count(), metrics.transmittedBytes.sum(),
+                    metrics.sendTimeInNanos.count()));
+            }
+        }
+        Map<String, TransportStats.ActionStats> actions = new TreeMap<>();
+        for (RequestHandlerRegistry<? extends TransportRequest> reg : requestHandlers.values()) {
+            TransportStats.ActionStats actionStats = reg.getStats();
+            if (actionStats.getCount() > 0) {
+                actions.put(reg.getAction(), actionStats);
+            }
+        }
         return new TransportStats(acceptedChannels.size(), readBytesMetric.count(), readBytesMetric.sum(), transmittedBytesMetric.count(),
-            transmittedBytesMetric.sum());
+            transmittedBytesMetric.sum(), getBufferPoolStats(), connectionTypes, actions);
+    }
+
+    /**
+     * The traffic of the channels that this node opened and that carry a single type of requests.
+     */
+    private static final class ConnectionTypeMetrics {
+        private final MeanMetric readBytes = new MeanMetric();
+        private final MeanMetric transmittedBytes = new MeanMetric();
+        private final CounterMetric sendTimeInNanos = new CounterMetric();
+    }
+
+    /**
+     * Returns the stats of the direct buffers that this transport pools for its network reads and writes, or {@code null} if it
+     * doesn't pool them.
+     */
+    @Nullable
+    protected TransportStats.BufferPoolStats getBufferPoolStats() {
+        return null;
     }
 
     /**
@@ -36,14 +36,50 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 public interface Transport extends LifecycleComponent {
 
     Setting<Boolean> TRANSPORT_TCP_COMPRESS = Setting.boolSetting("transport.tcp.compress", false, Property.NodeScope);
+    Setting<CompressionScheme> TRANSPORT_TCP_COMPRESSION_SCHEME = new Setting<>("transport.tcp.compression_scheme",
+        CompressionScheme.DEFLATE.toString(), CompressionScheme::fromString, Property.NodeScope);
+    /**
+     * Actions whose requests and responses are compressed when {@link #TRANSPORT_TCP_COMPRESS} is enabled. Supports simple
+     * wildcards, all actions are compressed if empty.
+     */
+    Setting<List<String>> TRANSPORT_TCP_COMPRESS_ACTIONS = Setting.listSetting("transport.tcp.compress_actions",
+        Collections.emptyList(), Function.identity(), Property.NodeScope);
+
+    /**
+     * The algorithm used to compress transport messages. Nodes fall back to {@link #DEFLATE} when talking to nodes that
+     * don't support the configured scheme.
+     */
+    enum CompressionScheme {
+        DEFLATE,
+        LZ4;
+
+        public static CompressionScheme fromString(String scheme) {
+            switch (scheme) {
+                case "deflate":
+                    return DEFLATE;
+                case "lz4":
+                    return LZ4;
+                default:
+                    throw new IllegalArgumentException("unknown compression scheme [" + scheme + "], must be one of [deflate, lz4]");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
 
     /**
      * Registers a new request handler
@@ -86,7 +86,8 @@ public final class TransportLogger {
                         Compressor compressor;
                         try {
                             final int bytesConsumed = TcpHeader.REQUEST_ID_SIZE + TcpHeader.STATUS_SIZE + TcpHeader.VERSION_ID_SIZE;
-                            compressor = CompressorFactory.compressor(message.slice(bytesConsumed, message.length() - bytesConsumed));
+                            compressor = CompressorFactory.transportCompressor(
+                                message.slice(bytesConsumed, message.length() - bytesConsumed));
                         } catch (NotCompressedException ex) {
                             throw new IllegalStateException(ex);
                         }
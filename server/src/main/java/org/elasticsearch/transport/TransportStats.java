@@ -19,15 +19,24 @@
 
 package org.elasticsearch.transport;
 
+import org.elasticsearch.Version;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.ToXContent.Params;
 import org.elasticsearch.common.xcontent.ToXContentFragment;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 public class TransportStats implements Writeable, ToXContentFragment {
 
@@ -36,13 +45,34 @@ public class TransportStats implements Writeable, ToXContentFragment {
     private final long rxSize;
     private final long txCount;
     private final long txSize;
+    @Nullable
+    private final BufferPoolStats bufferPool;
+    private final Map<TransportRequestOptions.Type, ConnectionTypeStats> connectionTypes;
+    private final Map<String, ActionStats> actions;
 
     public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize) {
+        this(serverOpen, rxCount, rxSize, txCount, txSize, null);
+    }
+
+    public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize, @Nullable BufferPoolStats bufferPool) {
+        this(serverOpen, rxCount, rxSize, txCount, txSize, bufferPool, Collections.emptyMap());
+    }
+
+    public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize, @Nullable BufferPoolStats bufferPool,
+                          Map<TransportRequestOptions.Type, ConnectionTypeStats> connectionTypes) {
+        this(serverOpen, rxCount, rxSize, txCount, txSize, bufferPool, connectionTypes, Collections.emptyMap());
+    }
+
+    public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize, @Nullable BufferPoolStats bufferPool,
+                          Map<TransportRequestOptions.Type, ConnectionTypeStats> connectionTypes, Map<String, ActionStats> actions) {
         this.serverOpen = serverOpen;
         this.rxCount = rxCount;
         this.rxSize = rxSize;
         this.txCount = txCount;
         this.txSize = txSize;
+        this.bufferPool = bufferPool;
+        this.connectionTypes = connectionTypes;
+        this.actions = actions;
     }
 
     public TransportStats(StreamInput in) throws IOException {
@@ -51,6 +81,19 @@ public class TransportStats implements Writeable, ToXContentFragment {
         rxSize = in.readVLong();
         txCount = in.readVLong();
         txSize = in.readVLong();
+        if (in.getVersion().onOrAfter(Version.V_7_0_0)) {
+            bufferPool = in.readOptionalWriteable(BufferPoolStats::new);
+            int numConnectionTypes = in.readVInt();
+            connectionTypes = new EnumMap<>(TransportRequestOptions.Type.class);
+            for (int i = 0; i < numConnectionTypes; i++) {
+                connectionTypes.put(in.readEnum(TransportRequestOptions.Type.class), new ConnectionTypeStats(in));
+            }
+            actions = new TreeMap<>(in.readMap(StreamInput::readString, ActionStats::new));
+        } else {
+            bufferPool = null;
+            connectionTypes = Collections.emptyMap();
+            actions = Collections.emptyMap();
+        }
     }
 
     @Override
@@ -60,6 +103,15 @@ public class TransportStats implements Writeable, ToXContentFragment {
         out.writeVLong(rxSize);
         out.writeVLong(txCount);
         out.writeVLong(txSize);
+        if (out.getVersion().onOrAfter(Version.V_7_0_0)) {
+            out.writeOptionalWriteable(bufferPool);
+            out.writeVInt(connectionTypes.size());
+            for (Map.Entry<TransportRequestOptions.Type, ConnectionTypeStats> entry : connectionTypes.entrySet()) {
+                out.writeEnum(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+            out.writeMap(actions, StreamOutput::writeString, (o, stats) -> stats.writeTo(o));
+        }
     }
 
     public long serverOpen() {
@@ -102,6 +154,31 @@ public class TransportStats implements Writeable, ToXContentFragment {
         return txSize();
     }
 
+    /**
+     * The stats of the direct buffers that the transport pools for its network reads and writes, or {@code null} if the
+     * transport doesn't pool them.
+     */
+    @Nullable
+    public BufferPoolStats getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * The stats of the connections that this node opened to other nodes, per type of the requests that they carry. Connections
+     * that carry several types of requests are not included.
+     */
+    public Map<TransportRequestOptions.Type, ConnectionTypeStats> getConnectionTypes() {
+        return connectionTypes;
+    }
+
+    /**
+     * The stats of the handling of the requests that this node received from other nodes, per action. Actions that didn't
+     * receive any request are not included.
+     */
+    public Map<String, ActionStats> getActions() {
+        return actions;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.TRANSPORT);
@@ -110,6 +187,27 @@ public class TransportStats implements Writeable, ToXContentFragment {
         builder.humanReadableField(Fields.RX_SIZE_IN_BYTES, Fields.RX_SIZE, new ByteSizeValue(rxSize));
         builder.field(Fields.TX_COUNT, txCount);
         builder.humanReadableField(Fields.TX_SIZE_IN_BYTES, Fields.TX_SIZE, new ByteSizeValue(txSize));
+        if (bufferPool != null) {
+            bufferPool.toXContent(builder, params);
+        }
+        if (connectionTypes.isEmpty() == false) {
+            builder.startObject(Fields.CONNECTION_TYPES);
+            for (Map.Entry<TransportRequestOptions.Type, ConnectionTypeStats> entry : connectionTypes.entrySet()) {
+                builder.startObject(entry.getKey().name().toLowerCase(Locale.ROOT));
+                entry.getValue().toXContent(builder, params);
+                builder.endObject();
+            }
+            builder.endObject();
+        }
+        if (actions.isEmpty() == false) {
+            builder.startObject(Fields.ACTIONS);
+            for (Map.Entry<String, ActionStats> entry : actions.entrySet()) {
+                builder.startObject(entry.getKey());
+                entry.getValue().toXContent(builder, params);
+                builder.endObject();
+            }
+            builder.endObject();
+        }
         builder.endObject();
         return builder;
     }
@@ -123,5 +221,258 @@ public class TransportStats implements Writeable, ToXContentFragment {
         static final String TX_COUNT = "tx_count";
         static final String TX_SIZE = "tx_size";
         static final String TX_SIZE_IN_BYTES = "tx_size_in_bytes";
+        static final String DIRECT_BUFFER_POOL = "direct_buffer_pool";
+        static final String HITS = "hits";
+        static final String MISSES = "misses";
+        static final String POOLED = "pooled";
+        static final String POOLED_IN_BYTES = "pooled_in_bytes";
+        static final String IN_USE = "in_use";
+        static final String IN_USE_IN_BYTES = "in_use_in_bytes";
+        static final String CONNECTION_TYPES = "connection_types";
+        static final String SEND_TIME = "send_time";
+        static final String SEND_TIME_IN_MILLIS = "send_time_in_millis";
+        static final String ACTIONS = "actions";
+        static final String COUNT = "count";
+        static final String NETWORK_TIME = "network_time";
+        static final String NETWORK_TIME_IN_MILLIS = "network_time_in_millis";
+        static final String MAX_NETWORK_TIME = "max_network_time";
+        static final String MAX_NETWORK_TIME_IN_MILLIS = "max_network_time_in_millis";
+        static final String QUEUE_TIME = "queue_time";
+        static final String QUEUE_TIME_IN_MILLIS = "queue_time_in_millis";
+        static final String MAX_QUEUE_TIME = "max_queue_time";
+        static final String MAX_QUEUE_TIME_IN_MILLIS = "max_queue_time_in_millis";
+        static final String EXECUTION_TIME = "execution_time";
+        static final String EXECUTION_TIME_IN_MILLIS = "execution_time_in_millis";
+        static final String MAX_EXECUTION_TIME = "max_execution_time";
+        static final String MAX_EXECUTION_TIME_IN_MILLIS = "max_execution_time_in_millis";
+    }
+
+    /**
+     * The stats of a pool of direct buffers, summed over the network threads that own the pools.
+     */
+    public static class BufferPoolStats implements Writeable, ToXContentFragment {
+
+        private final long hits;
+        private final long misses;
+        private final long pooledBytes;
+        private final long bytesInUse;
+
+        public BufferPoolStats(long hits, long misses, long pooledBytes, long bytesInUse) {
+            this.hits = hits;
+            this.misses = misses;
+            this.pooledBytes = pooledBytes;
+            this.bytesInUse = bytesInUse;
+        }
+
+        public BufferPoolStats(StreamInput in) throws IOException {
+            hits = in.readVLong();
+            misses = in.readVLong();
+            pooledBytes = in.readVLong();
+            bytesInUse = in.readVLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(hits);
+            out.writeVLong(misses);
+            out.writeVLong(pooledBytes);
+            out.writeVLong(bytesInUse);
+        }
+
+        /**
+         * The number of buffers that were reused from the pool.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * The number of buffers that had to be allocated because the pool was empty.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        public ByteSizeValue getPooled() {
+            return new ByteSizeValue(pooledBytes);
+        }
+
+        public ByteSizeValue getInUse() {
+            return new ByteSizeValue(bytesInUse);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject(Fields.DIRECT_BUFFER_POOL);
+            builder.field(Fields.HITS, hits);
+            builder.field(Fields.MISSES, misses);
+            builder.humanReadableField(Fields.POOLED_IN_BYTES, Fields.POOLED, new ByteSizeValue(pooledBytes));
+            builder.humanReadableField(Fields.IN_USE_IN_BYTES, Fields.IN_USE, new ByteSizeValue(bytesInUse));
+            builder.endObject();
+            return builder;
+        }
+    }
+
+    /**
+     * The traffic of the connections that carry a single type of requests, as seen by the node that opened them. The send time is
+     * the time between a message being handed to a channel and the channel reporting it written, which includes the time the
+     * message waited for the network thread of the channel.
+     */
+    public static class ConnectionTypeStats implements Writeable, ToXContentFragment {
+
+        private final long rxCount;
+        private final long rxSize;
+        private final long txCount;
+        private final long txSize;
+        private final long sendTimeInNanos;
+
+        public ConnectionTypeStats(long rxCount, long rxSize, long txCount, long txSize, long sendTimeInNanos) {
+            this.rxCount = rxCount;
+            this.rxSize = rxSize;
+            this.txCount = txCount;
+            this.txSize = txSize;
+            this.sendTimeInNanos = sendTimeInNanos;
+        }
+
+        public ConnectionTypeStats(StreamInput in) throws IOException {
+            rxCount = in.readVLong();
+            rxSize = in.readVLong();
+            txCount = in.readVLong();
+            txSize = in.readVLong();
+            sendTimeInNanos = in.readVLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(rxCount);
+            out.writeVLong(rxSize);
+            out.writeVLong(txCount);
+            out.writeVLong(txSize);
+            out.writeVLong(sendTimeInNanos);
+        }
+
+        public long getRxCount() {
+            return rxCount;
+        }
+
+        public ByteSizeValue getRxSize() {
+            return new ByteSizeValue(rxSize);
+        }
+
+        public long getTxCount() {
+            return txCount;
+        }
+
+        public ByteSizeValue getTxSize() {
+            return new ByteSizeValue(txSize);
+        }
+
+        /**
+         * The total time it took to send the {@link #getTxCount() sent messages}.
+         */
+        public TimeValue getSendTime() {
+            return new TimeValue(sendTimeInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.field(Fields.RX_COUNT, rxCount);
+            builder.humanReadableField(Fields.RX_SIZE_IN_BYTES, Fields.RX_SIZE, new ByteSizeValue(rxSize));
+            builder.field(Fields.TX_COUNT, txCount);
+            builder.humanReadableField(Fields.TX_SIZE_IN_BYTES, Fields.TX_SIZE, new ByteSizeValue(txSize));
+            builder.humanReadableField(Fields.SEND_TIME_IN_MILLIS, Fields.SEND_TIME, getSendTime());
+            return builder;
+        }
+    }
+
+    /**
+     * The time that the requests of an action spent in the three stages of their handling: reading them on the network thread
+     * until they were handed off to their executor, waiting in the queue of the executor, and running the request handler. The
+     * execution time doesn't include the asynchronous work that handlers fork to other threads.
+     */
+    public static class ActionStats implements Writeable, ToXContentFragment {
+
+        private final long count;
+        private final long networkTimeInNanos;
+        private final long maxNetworkTimeInNanos;
+        private final long queueTimeInNanos;
+        private final long maxQueueTimeInNanos;
+        private final long executionTimeInNanos;
+        private final long maxExecutionTimeInNanos;
+
+        public ActionStats(long count, long networkTimeInNanos, long maxNetworkTimeInNanos, long queueTimeInNanos,
+                           long maxQueueTimeInNanos, long executionTimeInNanos, long maxExecutionTimeInNanos) {
+            this.count = count;
+            this.networkTimeInNanos = networkTimeInNanos;
+            this.maxNetworkTimeInNanos = maxNetworkTimeInNanos;
+            this.queueTimeInNanos = queueTimeInNanos;
+            this.maxQueueTimeInNanos = maxQueueTimeInNanos;
+            this.executionTimeInNanos = executionTimeInNanos;
+            this.maxExecutionTimeInNanos = maxExecutionTimeInNanos;
+        }
+
+        public ActionStats(StreamInput in) throws IOException {
+            count = in.readVLong();
+            networkTimeInNanos = in.readVLong();
+            maxNetworkTimeInNanos = in.readVLong();
+            queueTimeInNanos = in.readVLong();
+            maxQueueTimeInNanos = in.readVLong();
+            executionTimeInNanos = in.readVLong();
+            maxExecutionTimeInNanos = in.readVLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(count);
+            out.writeVLong(networkTimeInNanos);
+            out.writeVLong(maxNetworkTimeInNanos);
+            out.writeVLong(queueTimeInNanos);
+            out.writeVLong(maxQueueTimeInNanos);
+            out.writeVLong(executionTimeInNanos);
+            out.writeVLong(maxExecutionTimeInNanos);
+        }
+
+        /**
+         * The number of requests that were received.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        public TimeValue getNetworkTime() {
+            return new TimeValue(networkTimeInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public TimeValue getMaxNetworkTime() {
+            return new TimeValue(maxNetworkTimeInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public TimeValue getQueueTime() {
+            return new TimeValue(queueTimeInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public TimeValue getMaxQueueTime() {
+            return new TimeValue(maxQueueTimeInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public TimeValue getExecutionTime() {
+            return new TimeValue(executionTimeInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public TimeValue getMaxExecutionTime() {
+            return new TimeValue(maxExecutionTimeInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.field(Fields.COUNT, count);
+            builder.humanReadableField(Fields.NETWORK_TIME_IN_MILLIS, Fields.NETWORK_TIME, getNetworkTime());
+            builder.humanReadableField(Fields.MAX_NETWORK_TIME_IN_MILLIS, Fields.MAX_NETWORK_TIME, getMaxNetworkTime());
+            builder.humanReadableField(Fields.QUEUE_TIME_IN_MILLIS, Fields.QUEUE_TIME, getQueueTime());
+            builder.humanReadableField(Fields.MAX_QUEUE_TIME_IN_MILLIS, Fields.MAX_QUEUE_TIME, getMaxQueueTime());
+            builder.humanReadableField(Fields.EXECUTION_TIME_IN_MILLIS, Fields.EXECUTION_TIME, getExecutionTime());
+            builder.humanReadableField(Fields.MAX_EXECUTION_TIME_IN_MILLIS, Fields.MAX_EXECUTION_TIME, getMaxExecutionTime());
+            return builder;
+        }
     }
 }
@@ -26,6 +26,7 @@ import org.elasticsearch.discovery.DiscoveryStats;
 import org.elasticsearch.discovery.zen.PendingClusterStateStats;
 import org.elasticsearch.discovery.zen.PublishClusterStateStats;
 import org.elasticsearch.http.HttpStats;
+import org.elasticsearch.index.IndexingPressureStats;
 import org.elasticsearch.indices.breaker.AllCircuitBreakerStats;
 import org.elasticsearch.indices.breaker.CircuitBreakerStats;
 import org.elasticsearch.ingest.IngestStats;
@@ -35,15 +36,19 @@ import org.elasticsearch.monitor.os.OsStats;
 import org.elasticsearch.monitor.process.ProcessStats;
 import org.elasticsearch.node.AdaptiveSelectionStats;
 import org.elasticsearch.node.ResponseCollectorService;
+import org.elasticsearch.script.ScriptContextStats;
 import org.elasticsearch.script.ScriptStats;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.VersionUtils;
 import org.elasticsearch.threadpool.ThreadPoolStats;
+import org.elasticsearch.transport.TransportRequestOptions;
 import org.elasticsearch.transport.TransportStats;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -218,6 +223,44 @@ public class NodeStatsTests extends ESTestCase {
                     assertEquals(nodeStats.getTransport().getServerOpen(), deserializedNodeStats.getTransport().getServerOpen());
                     assertEquals(nodeStats.getTransport().getTxCount(), deserializedNodeStats.getTransport().getTxCount());
                     assertEquals(nodeStats.getTransport().getTxSize(), deserializedNodeStats.getTransport().getTxSize());
+                    TransportStats.BufferPoolStats bufferPool = nodeStats.getTransport().getBufferPool();
+                    TransportStats.BufferPoolStats deserializedBufferPool = deserializedNodeStats.getTransport().getBufferPool();
+                    if (bufferPool == null) {
+                        assertNull(deserializedBufferPool);
+                    } else {
+                        assertEquals(bufferPool.getHits(), deserializedBufferPool.getHits());
+                        assertEquals(bufferPool.getMisses(), deserializedBufferPool.getMisses());
+                        assertEquals(bufferPool.getPooled(), deserializedBufferPool.getPooled());
+                        assertEquals(bufferPool.getInUse(), deserializedBufferPool.getInUse());
+                    }
+                    Map<TransportRequestOptions.Type, TransportStats.ConnectionTypeStats> connectionTypes =
+                        nodeStats.getTransport().getConnectionTypes();
+                    Map<TransportRequestOptions.Type, TransportStats.ConnectionTypeStats> deserializedConnectionTypes =
+                        deserializedNodeStats.getTransport().getConnectionTypes();
+                    assertEquals(connectionTypes.keySet(), deserializedConnectionTypes.keySet());
+                    for (TransportRequestOptions.Type type : connectionTypes.keySet()) {
+                        TransportStats.ConnectionTypeStats typeStats = connectionTypes.get(type);
+                        TransportStats.ConnectionTypeStats deserializedTypeStats = deserializedConnectionTypes.get(type);
+                        assertEquals(typeStats.getRxCount(), deserializedTypeStats.getRxCount());
+                        assertEquals(typeStats.getRxSize(), deserializedTypeStats.getRxSize());
+                        assertEquals(typeStats.getTxCount(), deserializedTypeStats.getTxCount());
+                        assertEquals(typeStats.getTxSize(), deserializedTypeStats.getTxSize());
+                        assertEquals(typeStats.getSendTime(), deserializedTypeStats.getSendTime());
+                    }
+                    Map<String, TransportStats.ActionStats> actions = nodeStats.getTransport().getActions();
+                    Map<String, TransportStats.ActionStats> deserializedActions = deserializedNodeStats.getTransport().getActions();
+                    assertEquals(actions.keySet(), deserializedActions.keySet());
+                    for (String action : actions.keySet()) {
+                        TransportStats.ActionStats actionStats = actions.get(action);
+                        TransportStats.ActionStats deserializedActionStats = deserializedActions.get(action);
+                        assertEquals(actionStats.getCount(), deserializedActionStats.getCount());
+                        assertEquals(actionStats.getNetworkTime(), deserializedActionStats.getNetworkTime());
+                        assertEquals(actionStats.getMaxNetworkTime(), deserializedActionStats.getMaxNetworkTime());
+                        assertEquals(actionStats.getQueueTime(), deserializedActionStats.getQueueTime());
+                        assertEquals(actionStats.getMaxQueueTime(), deserializedActionStats.getMaxQueueTime());
+                        assertEquals(actionStats.getExecutionTime(), deserializedActionStats.getExecutionTime());
+                        assertEquals(actionStats.getMaxExecutionTime(), deserializedActionStats.getMaxExecutionTime());
+                    }
                 }
                 if (nodeStats.getHttp() == null) {
                     assertNull(deserializedNodeStats.getHttp());
@@ -245,6 +288,22 @@ public class NodeStatsTests extends ESTestCase {
                 } else {
                     assertEquals(scriptStats.getCacheEvictions(), deserializedNodeStats.getScriptStats().getCacheEvictions());
                     assertEquals(scriptStats.getCompilations(), deserializedNodeStats.getScriptStats().getCompilations());
+                    assertEquals(scriptStats.getCompilationLimitTriggered(),
+                        deserializedNodeStats.getScriptStats().getCompilationLimitTriggered());
+                    assertEquals(scriptStats.getCompilationTimeInMillis(),
+                        deserializedNodeStats.getScriptStats().getCompilationTimeInMillis());
+                    assertArrayEquals(scriptStats.getCompilationTimeHistogram(),
+                        deserializedNodeStats.getScriptStats().getCompilationTimeHistogram());
+                    assertArrayEquals(scriptStats.getCacheEvictionAgeHistogram(),
+                        deserializedNodeStats.getScriptStats().getCacheEvictionAgeHistogram());
+                    assertEquals(scriptStats.getContextStats().size(), deserializedNodeStats.getScriptStats().getContextStats().size());
+                    for (int i = 0; i < scriptStats.getContextStats().size(); i++) {
+                        ScriptContextStats contextStats = scriptStats.getContextStats().get(i);
+                        ScriptContextStats deserializedContextStats = deserializedNodeStats.getScriptStats().getContextStats().get(i);
+                        assertEquals(contextStats.getContext(), deserializedContextStats.getContext());
+                        assertEquals(contextStats.getCompilations(), deserializedContextStats.getCompilations());
+                        assertEquals(contextStats.getCacheEvictions(), deserializedContextStats.getCacheEvictions());
+                    }
                 }
                 DiscoveryStats discoveryStats = nodeStats.getDiscoveryStats();
                 DiscoveryStats deserializedDiscoveryStats = deserializedNodeStats.getDiscoveryStats();
@@ -301,7 +360,9 @@ public class NodeStatsTests extends ESTestCase {
                     assertNull(deserializedAdaptiveStats);
                 } else {
                     assertEquals(adaptiveStats.getOutgoingConnections(), deserializedAdaptiveStats.getOutgoingConnections());
+                    assertEquals(adaptiveStats.getOutgoingReads(), deserializedAdaptiveStats.getOutgoingReads());
                     assertEquals(adaptiveStats.getRanks(), deserializedAdaptiveStats.getRanks());
+                    assertEquals(adaptiveStats.getReadRanks(), deserializedAdaptiveStats.getReadRanks());
                     adaptiveStats.getComputedStats().forEach((k, v) -> {
                         ResponseCollectorService.ComputedNodeStats aStats = adaptiveStats.getComputedStats().get(k);
                         ResponseCollectorService.ComputedNodeStats bStats = deserializedAdaptiveStats.getComputedStats().get(k);
@@ -310,6 +371,36 @@ public class NodeStatsTests extends ESTestCase {
                         assertEquals(aStats.serviceTime, bStats.serviceTime, 0.01);
                         assertEquals(aStats.responseTime, bStats.responseTime, 0.01);
                     });
+                    adaptiveStats.getComputedReadStats().forEach((k, aStats) -> {
+                        ResponseCollectorService.ComputedNodeStats bStats = deserializedAdaptiveStats.getComputedReadStats().get(k);
+                        assertEquals(aStats.nodeId, bStats.nodeId);
+                        assertEquals(aStats.queueSize, bStats.queueSize, 0.01);
+                        assertEquals(aStats.serviceTime, bStats.serviceTime, 0.01);
+                        assertEquals(aStats.responseTime, bStats.responseTime, 0.01);
+                    });
+                }
+                IndexingPressureStats indexingPressureStats = nodeStats.getIndexingPressureStats();
+                IndexingPressureStats deserializedIndexingPressureStats = deserializedNodeStats.getIndexingPressureStats();
+                if (indexingPressureStats == null) {
+                    assertNull(deserializedIndexingPressureStats);
+                } else {
+                    assertEquals(indexingPressureStats.getCurrentCombinedCoordinatingAndPrimaryBytes(),
+                        deserializedIndexingPressureStats.getCurrentCombinedCoordinatingAndPrimaryBytes());
+                    assertEquals(indexingPressureStats.getCurrentCoordinatingBytes(),
+                        deserializedIndexingPressureStats.getCurrentCoordinatingBytes());
+                    assertEquals(indexingPressureStats.getCurrentPrimaryBytes(),
+                        deserializedIndexingPressureStats.getCurrentPrimaryBytes());
+                    assertEquals(indexingPressureStats.getCurrentReplicaBytes(),
+                        deserializedIndexingPressureStats.getCurrentReplicaBytes());
+                    assertEquals(indexingPressureStats.getTotalCoordinatingBytes(),
+                        deserializedIndexingPressureStats.getTotalCoordinatingBytes());
+                    assertEquals(indexingPressureStats.getTotalPrimaryBytes(), deserializedIndexingPressureStats.getTotalPrimaryBytes());
+                    assertEquals(indexingPressureStats.getTotalReplicaBytes(), deserializedIndexingPressureStats.getTotalReplicaBytes());
+                    assertEquals(indexingPressureStats.getCoordinatingRejections(),
+                        deserializedIndexingPressureStats.getCoordinatingRejections());
+                    assertEquals(indexingPressureStats.getPrimaryRejections(), deserializedIndexingPressureStats.getPrimaryRejections());
+                    assertEquals(indexingPressureStats.getReplicaRejections(), deserializedIndexingPressureStats.getReplicaRejections());
+                    assertEquals(indexingPressureStats.getMemoryLimit(), deserializedIndexingPressureStats.getMemoryLimit());
                 }
             }
         }
@@ -412,8 +503,26 @@ public class NodeStatsTests extends ESTestCase {
             }
             fsInfo = new FsInfo(randomNonNegativeLong(), ioStats, paths);
         }
-        TransportStats transportStats = frequently() ? new TransportStats(randomNonNegativeLong(), randomNonNegativeLong(),
+        TransportStats.BufferPoolStats bufferPoolStats = randomBoolean() ? new TransportStats.BufferPoolStats(randomNonNegativeLong(),
                 randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong()) : null;
+        Map<TransportRequestOptions.Type, TransportStats.ConnectionTypeStats> connectionTypes =
+                new EnumMap<>(TransportRequestOptions.Type.class);
+        for (TransportRequestOptions.Type type : TransportRequestOptions.Type.values()) {
+            if (randomBoolean()) {
+                connectionTypes.put(type, new TransportStats.ConnectionTypeStats(randomNonNegativeLong(), randomNonNegativeLong(),
+                        randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong()));
+            }
+        }
+        Map<String, TransportStats.ActionStats> actions = new HashMap<>();
+        int numActions = randomIntBetween(0, 5);
+        for (int i = 0; i < numActions; i++) {
+            actions.put(randomAlphaOfLengthBetween(3, 10), new TransportStats.ActionStats(randomNonNegativeLong(),
+                    randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+                    randomNonNegativeLong(), randomNonNegativeLong()));
+        }
+        TransportStats transportStats = frequently() ? new TransportStats(randomNonNegativeLong(), randomNonNegativeLong(),
+                randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), bufferPoolStats, connectionTypes,
+                actions) : null;
         HttpStats httpStats = frequently() ? new HttpStats(randomNonNegativeLong(), randomNonNegativeLong()) : null;
         AllCircuitBreakerStats allCircuitBreakerStats = null;
         if (frequently()) {
@@ -425,8 +534,16 @@ public class NodeStatsTests extends ESTestCase {
             }
             allCircuitBreakerStats = new AllCircuitBreakerStats(circuitBreakerStatsArray);
         }
-        ScriptStats scriptStats = frequently() ?
-                new ScriptStats(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong()) : null;
+        ScriptStats scriptStats = null;
+        if (frequently()) {
+            List<ScriptContextStats> contextStats = new ArrayList<>();
+            for (String context : randomSubsetOf(Arrays.asList("aggs", "score", "update"))) {
+                contextStats.add(new ScriptContextStats(context, randomNonNegativeLong(), randomNonNegativeLong(),
+                    randomNonNegativeLong(), randomNonNegativeLong()));
+            }
+            scriptStats = new ScriptStats(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+                randomNonNegativeLong(), randomHistogram(), randomHistogram(), contextStats);
+        }
         DiscoveryStats discoveryStats = frequently()
             ? new DiscoveryStats(
                 randomBoolean()
@@ -466,13 +583,18 @@ public class NodeStatsTests extends ESTestCase {
         if (frequently()) {
             int numNodes = randomIntBetween(0,10);
             Map<String, Long> nodeConnections = new HashMap<>();
+            Map<String, Long> nodeReads = new HashMap<>();
             Map<String, ResponseCollectorService.ComputedNodeStats> nodeStats = new HashMap<>();
+            Map<String, ResponseCollectorService.ComputedNodeStats> nodeReadStats = new HashMap<>();
             for (int i = 0; i < numNodes; i++) {
                 String nodeId = randomAlphaOfLengthBetween(3, 10);
                 // add outgoing connection info
                 if (frequently()) {
                     nodeConnections.put(nodeId, randomLongBetween(0, 100));
                 }
+                if (frequently()) {
+                    nodeReads.put(nodeId, randomLongBetween(0, 100));
+                }
                 // add node calculations
                 if (frequently()) {
                     ResponseCollectorService.ComputedNodeStats stats = new ResponseCollectorService.ComputedNodeStats(nodeId,
@@ -481,13 +603,35 @@ public class NodeStatsTests extends ESTestCase {
                             randomDoubleBetween(1.0, 10000000.0, true));
                     nodeStats.put(nodeId, stats);
                 }
+                if (frequently()) {
+                    ResponseCollectorService.ComputedNodeStats readStats = new ResponseCollectorService.ComputedNodeStats(nodeId,
+                            randomIntBetween(1,10), randomIntBetween(0, 2000),
+                            randomDoubleBetween(1.0, 10000000.0, true),
+                            randomDoubleBetween(1.0, 10000000.0, true));
+                    nodeReadStats.put(nodeId, readStats);
+                }
             }
-            adaptiveSelectionStats = new AdaptiveSelectionStats(nodeConnections, nodeStats);
+            adaptiveSelectionStats = new AdaptiveSelectionStats(nodeConnections, nodeReads, nodeStats, nodeReadStats);
+        }
+        IndexingPressureStats indexingPressureStats = null;
+        if (frequently()) {
+            indexingPressureStats = new IndexingPressureStats(randomNonNegativeLong(), randomNonNegativeLong(),
+                randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+                randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+                randomNonNegativeLong());
         }
         //TODO NodeIndicesStats are not tested here, way too complicated to create, also they need to be migrated to Writeable yet
         return new NodeStats(node, randomNonNegativeLong(), null, osStats, processStats, jvmStats, threadPoolStats,
                 fsInfo, transportStats, httpStats, allCircuitBreakerStats, scriptStats, discoveryStats,
-                ingestStats, adaptiveSelectionStats);
+                ingestStats, adaptiveSelectionStats, indexingPressureStats);
+    }
+
+    private static long[] randomHistogram() {
+        long[] histogram = new long[randomIntBetween(0, 18)];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = randomNonNegativeLong();
+        }
+        return histogram;
     }
 
     private IngestStats.Stats getPipelineStats(List<IngestStats.PipelineStat> pipelineStats, String id) {
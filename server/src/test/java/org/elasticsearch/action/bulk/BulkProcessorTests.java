@@ -20,10 +20,12 @@
 package org.elasticsearch.action.bulk;
 
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
@@ -103,6 +105,53 @@ public class BulkProcessorTests extends ESTestCase {
         assertTrue(called.get());
     }
 
+    public void testAdaptiveConcurrentRequests() throws Exception {
+        final int concurrentRequests = randomIntBetween(2, 8);
+        final AtomicBoolean reject = new AtomicBoolean(false);
+        BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer = (request, listener) -> {
+            final BulkItemResponse[] items;
+            if (reject.get()) {
+                items = new BulkItemResponse[] {new BulkItemResponse(0, DocWriteRequest.OpType.INDEX,
+                    new BulkItemResponse.Failure("index", "type", "id", new EsRejectedExecutionException("rejected")))};
+            } else {
+                items = new BulkItemResponse[0];
+            }
+            listener.onResponse(new BulkResponse(items, 1));
+        };
+        BulkProcessor bulkProcessor = BulkProcessor.builder(consumer, emptyListener())
+            .setConcurrentRequests(concurrentRequests)
+            .setBulkActions(1)
+            .setBackoffPolicy(BackoffPolicy.noBackoff())
+            .setTargetLatency(TimeValue.timeValueHours(1))
+            .build();
+        assertEquals(1, bulkProcessor.stats().getConcurrentRequests());
+
+        // every bulk request keeps up, so the processor allows one more concurrent request after each of them
+        for (int i = 0; i < concurrentRequests + 2; i++) {
+            bulkProcessor.add(new IndexRequest());
+            assertEquals(Math.min(i + 2, concurrentRequests), bulkProcessor.stats().getConcurrentRequests());
+        }
+
+        reject.set(true);
+        bulkProcessor.add(new IndexRequest());
+        BulkProcessor.Stats stats = bulkProcessor.stats();
+        assertEquals(concurrentRequests / 2, stats.getConcurrentRequests());
+        assertEquals(concurrentRequests + 3, stats.getCompletedBulks());
+        assertEquals(concurrentRequests + 3, stats.getActions());
+        assertEquals(0, stats.getFailedBulks());
+        assertEquals(1, stats.getRejectedActions());
+
+        assertTrue(bulkProcessor.awaitClose(10, TimeUnit.SECONDS));
+    }
+
+    public void testTargetLatencyRequiresConcurrentRequests() {
+        BulkProcessor.Builder builder = BulkProcessor.builder((request, listener) -> {}, emptyListener())
+            .setConcurrentRequests(0)
+            .setTargetLatency(TimeValue.timeValueSeconds(1));
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, builder::build);
+        assertEquals("a target latency requires at least one concurrent request but got [0]", e.getMessage());
+    }
+
     private BulkProcessor.Listener emptyListener() {
         return new BulkProcessor.Listener() {
             @Override
@@ -606,4 +606,46 @@ public class OperationRoutingTests extends ESTestCase{
         terminate(threadPool);
     }
 
+    public void testAdaptiveReplicaSelectionForSingleShardReads() throws Exception {
+        final String[] indexNames = new String[] {"test"};
+        ClusterState state = ClusterStateCreationUtils.stateWithAssignedPrimariesAndReplicas(indexNames, 1, 2);
+        OperationRouting opRouting = new OperationRouting(Settings.EMPTY,
+                new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
+        opRouting.setUseAdaptiveReplicaSelection(true);
+        TestThreadPool threadPool = new TestThreadPool("testAdaptiveReplicaSelectionForSingleShardReads");
+        ClusterService clusterService = ClusterServiceUtils.createClusterService(threadPool);
+        ResponseCollectorService collector = new ResponseCollectorService(clusterService);
+
+        // searches are the fastest on node 2
+        collector.addNodeStatistics("node_0", 1, TimeValue.timeValueMillis(200).nanos(), TimeValue.timeValueMillis(150).nanos());
+        collector.addNodeStatistics("node_1", 1, TimeValue.timeValueMillis(200).nanos(), TimeValue.timeValueMillis(150).nanos());
+        collector.addNodeStatistics("node_2", 1, TimeValue.timeValueMillis(100).nanos(), TimeValue.timeValueMillis(50).nanos());
+        // while single shard reads are the fastest on node 1
+        collector.addReadResponseTime("node_0", TimeValue.timeValueMillis(10).nanos());
+        collector.addReadResponseTime("node_1", TimeValue.timeValueMillis(1).nanos());
+        collector.addReadResponseTime("node_2", TimeValue.timeValueMillis(10).nanos());
+
+        Map<String, Long> outstandingReads = new HashMap<>();
+        outstandingReads.put("node_0", 1L);
+        outstandingReads.put("node_1", 1L);
+        outstandingReads.put("node_2", 1L);
+        ShardIterator shardIterator = opRouting.getShards(state, "test", 0, null, collector, outstandingReads);
+        assertThat(shardIterator.nextOrNull().currentNodeId(), equalTo("node_1"));
+
+        // ranking reads only adjusts the response times of reads
+        assertThat(collector.getNodeStatistics("node_0").get().responseTime, equalTo((double) TimeValue.timeValueMillis(200).nanos()));
+        assertThat(collector.getNodeStatistics("node_2").get().responseTime, equalTo((double) TimeValue.timeValueMillis(100).nanos()));
+
+        Map<String, Long> outstandingSearches = new HashMap<>();
+        outstandingSearches.put("node_0", 1L);
+        outstandingSearches.put("node_1", 1L);
+        outstandingSearches.put("node_2", 1L);
+        GroupShardsIterator<ShardIterator> groupIterator = opRouting.searchShards(state, indexNames, null, null, collector,
+            outstandingSearches);
+        assertThat(groupIterator.get(0).nextOrNull().currentNodeId(), equalTo("node_2"));
+
+        IOUtils.close(clusterService);
+        terminate(threadPool);
+    }
+
 }
@@ -19,8 +19,13 @@
 
 package org.elasticsearch.common.bytes;
 
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
+import org.elasticsearch.common.io.stream.StreamInput;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 public class ByteBufferReferenceTests extends AbstractBytesReferenceTestCase {
 
@@ -41,4 +46,39 @@ public class ByteBufferReferenceTests extends AbstractBytesReferenceTestCase {
         initializeBytes(bytes);
         return new ByteBufferReference(ByteBuffer.wrap(bytes));
     }
+
+    public void testSliceOfDirectBuffer() throws IOException {
+        final int length = randomIntBetween(16, PAGE_SIZE);
+        final byte[] bytes = new byte[length];
+        initializeBytes(bytes);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        buffer.put(bytes);
+        buffer.flip();
+        final BytesReference reference = new ByteBufferReference(buffer);
+
+        // like a transport message sliced past its header
+        final int offset = randomIntBetween(1, length - 1);
+        final BytesReference slice = reference.slice(offset, length - offset);
+        final byte[] expected = Arrays.copyOfRange(bytes, offset, length);
+        assertArrayEquals(expected, BytesReference.toBytes(slice));
+        final BytesRef bytesRef = slice.toBytesRef();
+        assertArrayEquals(expected, Arrays.copyOfRange(bytesRef.bytes, bytesRef.offset, bytesRef.offset + bytesRef.length));
+        final byte[] read = new byte[length - offset];
+        try (StreamInput input = slice.streamInput()) {
+            input.readBytes(read, 0, read.length);
+        }
+        assertArrayEquals(expected, read);
+        final BytesRefIterator iterator = slice.iterator();
+        int position = 0;
+        for (BytesRef ref = iterator.next(); ref != null; ref = iterator.next()) {
+            for (int i = 0; i < ref.length; i++) {
+                assertEquals(expected[position++], ref.bytes[ref.offset + i]);
+            }
+        }
+        assertEquals(expected.length, position);
+
+        // the markers of the shared buffer are left alone
+        assertEquals(0, buffer.position());
+        assertEquals(length, buffer.limit());
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.compress;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Runs the streaming compression tests against {@link Lz4Compressor}
+ */
+public class Lz4CompressTests extends DeflateCompressTests {
+
+    @Override
+    protected Compressor newCompressor() {
+        return new Lz4Compressor();
+    }
+
+    public void testDetection() throws IOException {
+        final byte[] bytes = randomByteArrayOfLength(randomIntBetween(0, Lz4Compressor.BLOCK_SIZE * 3));
+        final BytesStreamOutput bos = new BytesStreamOutput();
+        try (StreamOutput out = CompressorFactory.LZ4.streamOutput(bos)) {
+            out.writeBytes(bytes);
+        }
+        final BytesReference compressed = bos.bytes();
+        assertSame(CompressorFactory.LZ4, CompressorFactory.transportCompressor(compressed));
+        assertFalse(CompressorFactory.COMPRESSOR.isCompressed(compressed));
+        // LZ4 is only detected on transport messages, not on content
+        expectThrows(NotXContentException.class, () -> CompressorFactory.compressor(compressed));
+        try (StreamInput in = CompressorFactory.LZ4.streamInput(compressed.streamInput())) {
+            final byte[] uncompressed = new byte[bytes.length];
+            in.readBytes(uncompressed, 0, uncompressed.length);
+            assertArrayEquals(bytes, uncompressed);
+            assertEquals(-1, in.read());
+        }
+    }
+
+    public void testBlockRoundTrip() throws IOException {
+        final byte[] bytes = new byte[randomIntBetween(0, Lz4Compressor.BLOCK_SIZE)];
+        // mix repeated runs with random bytes so that both literals and matches get exercised
+        for (int i = 0; i < bytes.length; ) {
+            final int runLength = Math.min(bytes.length - i, randomIntBetween(1, 300));
+            if (randomBoolean()) {
+                Arrays.fill(bytes, i, i + runLength, randomByte());
+            } else {
+                for (int j = i; j < i + runLength; j++) {
+                    bytes[j] = randomByte();
+                }
+            }
+            i += runLength;
+        }
+        final byte[] compressed = new byte[Lz4Compressor.maxCompressedLength(bytes.length)];
+        final int compressedLength = Lz4Compressor.compress(bytes, 0, bytes.length, compressed, new int[1 << 12]);
+        final byte[] restored = new byte[bytes.length];
+        assertEquals(bytes.length, Lz4Compressor.decompress(compressed, compressedLength, restored));
+        assertArrayEquals(bytes, restored);
+    }
+}
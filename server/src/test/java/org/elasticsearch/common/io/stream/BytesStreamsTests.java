@@ -21,6 +21,7 @@ package org.elasticsearch.common.io.stream;
 
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.Constants;
+import org.elasticsearch.Version;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.geo.GeoPoint;
@@ -28,6 +29,7 @@ import org.elasticsearch.common.lucene.BytesRefs;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.VersionUtils;
 import org.joda.time.DateTimeZone;
 
 import java.io.EOFException;
@@ -677,6 +679,85 @@ public class BytesStreamsTests extends ESTestCase {
         }
     }
 
+    public void testWriteSharedStrings() throws IOException {
+        final Version version = randomBoolean() ? Version.CURRENT : VersionUtils.randomVersion(random());
+        List<String> distinct = new ArrayList<>();
+        for (int i = randomIntBetween(1, 20); i > 0; i--) {
+            distinct.add(randomRealisticUnicodeOfLengthBetween(0, 100));
+        }
+        List<String> strings = new ArrayList<>();
+        int numStrings = randomIntBetween(1, 1000);
+        try (BytesStreamOutput output = new BytesStreamOutput(0)) {
+            output.setVersion(version);
+            for (int i = 0; i < numStrings; i++) {
+                String s = randomFrom(distinct);
+                strings.add(s);
+                if (i % 2 == 0) {
+                    output.writeSharedString(s);
+                } else {
+                    output.writeOptionalSharedString(s);
+                }
+                output.writeOptionalSharedString(null);
+            }
+
+            try (StreamInput streamInput = new NamedWriteableAwareStreamInput(output.bytes().streamInput(),
+                    new NamedWriteableRegistry(Collections.emptyList()))) {
+                streamInput.setVersion(version);
+                for (int i = 0; i < numStrings; i++) {
+                    // a filtered stream must share the strings of the stream it wraps
+                    StreamInput in = randomBoolean() ? streamInput : new FilterStreamInput(streamInput) {};
+                    assertEquals(strings.get(i), i % 2 == 0 ? in.readSharedString() : in.readOptionalSharedString());
+                    assertNull(in.readOptionalSharedString());
+                }
+                assertEquals(0, streamInput.available());
+            }
+        }
+    }
+
+    public void testSharedStringsAreWrittenOnce() throws IOException {
+        String string = randomAlphaOfLength(64);
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            output.writeSharedString(string);
+            int length = output.size();
+            output.writeSharedString(string);
+            assertEquals(length + 1, output.size());
+
+            // the stream forgets the strings when it is reset
+            output.reset();
+            output.writeSharedString(string);
+            assertEquals(length, output.size());
+
+            try (StreamInput streamInput = output.bytes().streamInput()) {
+                assertEquals(string, streamInput.readSharedString());
+            }
+        }
+    }
+
+    public void testSharedStringsAreInterned() throws IOException {
+        String string = randomAlphaOfLength(randomIntBetween(0, 64));
+        String[] read = new String[2];
+        for (int i = 0; i < read.length; i++) {
+            try (BytesStreamOutput output = new BytesStreamOutput()) {
+                output.writeSharedString(string);
+                try (StreamInput streamInput = output.bytes().streamInput()) {
+                    read[i] = streamInput.readSharedString();
+                }
+            }
+        }
+        assertEquals(string, read[0]);
+        assertSame(read[0], read[1]);
+    }
+
+    public void testInvalidSharedStringReference() throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            output.writeVInt(5);
+            try (StreamInput streamInput = output.bytes().streamInput()) {
+                IOException e = expectThrows(IOException.class, streamInput::readSharedString);
+                assertEquals("invalid shared string reference [5]", e.getMessage());
+            }
+        }
+    }
+
     /*
      * tests the extreme case where characters use more than 2 bytes
      */
@@ -26,8 +26,10 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.common.lucene.uid.VersionsAndSeqNoResolver.DocIdAndVersion;
 import org.elasticsearch.index.mapper.IdFieldMapper;
 import org.elasticsearch.index.mapper.VersionFieldMapper;
 import org.elasticsearch.index.shard.ShardId;
@@ -39,6 +41,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.elasticsearch.common.lucene.uid.VersionsAndSeqNoResolver.loadDocIdAndVersion;
+import static org.elasticsearch.common.lucene.uid.VersionsAndSeqNoResolver.loadDocIdsAndVersions;
 import static org.elasticsearch.common.lucene.uid.VersionsAndSeqNoResolver.loadVersion;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
@@ -143,6 +146,49 @@ public class VersionsTests extends ESTestCase {
         dir.close();
     }
 
+    public void testLoadDocIdsAndVersions() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(Lucene.STANDARD_ANALYZER));
+        int numDocs = randomIntBetween(1, 50);
+        for (int i = 0; i < numDocs; i++) {
+            Document doc = new Document();
+            doc.add(new Field(IdFieldMapper.NAME, Integer.toString(i), IdFieldMapper.Defaults.FIELD_TYPE));
+            doc.add(new NumericDocValuesField(VersionFieldMapper.NAME, i + 1));
+            writer.updateDocument(new Term(IdFieldMapper.NAME, Integer.toString(i)), doc);
+            if (rarely()) {
+                // spread the documents over several segments
+                writer.commit();
+            }
+        }
+        DirectoryReader directoryReader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), new ShardId("foo", "_na_", 1));
+
+        int numIds = randomIntBetween(1, 100);
+        BytesRef[] uids = new BytesRef[numIds];
+        for (int i = 0; i < numIds; i++) {
+            // a mix of existing ids, missing ids and null slots, in random order and with duplicates
+            uids[i] = rarely() ? null : new BytesRef(Integer.toString(randomIntBetween(0, numDocs * 2)));
+        }
+        DocIdAndVersion[] results = loadDocIdsAndVersions(directoryReader, IdFieldMapper.NAME, uids);
+        assertThat(results.length, equalTo(numIds));
+        for (int i = 0; i < numIds; i++) {
+            if (uids[i] == null) {
+                assertThat(results[i], nullValue());
+                continue;
+            }
+            DocIdAndVersion expected = loadDocIdAndVersion(directoryReader, new Term(IdFieldMapper.NAME, uids[i]));
+            if (expected == null) {
+                assertThat(results[i], nullValue());
+            } else {
+                assertThat(results[i].version, equalTo(expected.version));
+                assertThat(results[i].docBase, equalTo(expected.docBase));
+                assertThat(results[i].docId, equalTo(expected.docId));
+            }
+        }
+        directoryReader.close();
+        writer.close();
+        dir.close();
+    }
+
     /** Test that version map cache works, is evicted on close, etc */
     public void testCache() throws Exception {
         int size = VersionsAndSeqNoResolver.lookupStates.size();
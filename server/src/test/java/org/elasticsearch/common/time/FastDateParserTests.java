@@ -0,0 +1,108 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.time;
+
+import org.elasticsearch.common.joda.FormatDateTimeFormatter;
+import org.elasticsearch.common.joda.Joda;
+import org.elasticsearch.test.ESTestCase;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.ISODateTimeFormat;
+
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class FastDateParserTests extends ESTestCase {
+
+    public void testParseIsoMillisLikeJoda() {
+        FormatDateTimeFormatter formatter = Joda.forPattern("strict_date_optional_time", Locale.ROOT);
+        for (int i = 0; i < 1000; i++) {
+            // years with four digits
+            DateTimeZone zone = DateTimeZone.forOffsetHoursMinutes(randomIntBetween(-14, 14), randomFrom(0, 30, 45));
+            DateTime dateTime = new DateTime(randomLongBetween(-62135596800000L, 253402300799000L), zone);
+            String text;
+            switch (randomIntBetween(0, 3)) {
+                case 0:
+                    text = ISODateTimeFormat.dateTime().print(dateTime);
+                    break;
+                case 1:
+                    text = ISODateTimeFormat.dateTimeNoMillis().print(dateTime);
+                    break;
+                case 2:
+                    text = ISODateTimeFormat.dateTime().print(dateTime.withZone(DateTimeZone.UTC)).replace("Z", "123456Z");
+                    break;
+                default:
+                    text = ISODateTimeFormat.dateHourMinuteSecond().print(dateTime);
+                    break;
+            }
+            long millis = FastDateParser.parseIsoMillis(text, true);
+            assertThat(text, millis, equalTo(formatter.parser().parseMillis(text)));
+            // a second time, which uses the last seen second
+            assertThat(text, FastDateParser.parseIsoMillis(text, true), equalTo(millis));
+        }
+    }
+
+    public void testParseIsoMillis() {
+        assertThat(FastDateParser.parseIsoMillis("2018-10-10", true), equalTo(1539129600000L));
+        assertThat(FastDateParser.parseIsoMillis("2018-10-10T13:55:36Z", false), equalTo(1539179736000L));
+        assertThat(FastDateParser.parseIsoMillis("2018-10-10T13:55:36.5Z", false), equalTo(1539179736500L));
+        assertThat(FastDateParser.parseIsoMillis("2018-10-10T13:55:36,123456789Z", false), equalTo(1539179736123L));
+        assertThat(FastDateParser.parseIsoMillis("2018-10-10T15:55:36.123+02:00", false), equalTo(1539179736123L));
+        assertThat(FastDateParser.parseIsoMillis("2018-10-10T11:25:36.123-0230", false), equalTo(1539179736123L));
+        assertThat(FastDateParser.parseIsoMillis("1969-12-31T23:59:59.999Z", false), equalTo(-1L));
+        assertThat(FastDateParser.parseIsoMillis("2016-02-29T00:00:00Z", false), equalTo(1456704000000L));
+    }
+
+    public void testIsoFormsLeftToGeneralParser() {
+        // no offset, while dates without one aren't in UTC
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-10-10", false));
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-10-10T13:55:36.123", false));
+        // forms that are valid but not canonical
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-10-10T13:55Z", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-10-10T13:55:36+02", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-W41-3", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("+12018-10-10T13:55:36Z", true));
+        // invalid dates
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-02-29T13:55:36Z", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-13-10T13:55:36Z", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-10-10T24:00:00Z", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-10-10T13:55:36.Z", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-10-10T13:55:36.1234567891Z", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("2018-10-10T13:55:36Z ", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("2018/10/10", true));
+        assertUnparsed(FastDateParser.parseIsoMillis("1539179736", true));
+    }
+
+    public void testParseEpochMillis() {
+        long millis = randomLongBetween(10000, 253402300799000L);
+        assertThat(FastDateParser.parseEpochMillis(Long.toString(millis)), equalTo(millis));
+        assertThat(FastDateParser.parseEpochMillis("00012345"), equalTo(12345L));
+        // may be years
+        assertUnparsed(FastDateParser.parseEpochMillis("2018"));
+        assertUnparsed(FastDateParser.parseEpochMillis("-1539179736000"));
+        assertUnparsed(FastDateParser.parseEpochMillis("1539179736000.5"));
+        assertUnparsed(FastDateParser.parseEpochMillis("1234567890123456789"));
+    }
+
+    private static void assertUnparsed(long millis) {
+        assertThat(millis, equalTo(FastDateParser.UNPARSED));
+    }
+}
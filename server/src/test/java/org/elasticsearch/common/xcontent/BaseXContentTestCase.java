@@ -914,6 +914,35 @@ public abstract class BaseXContentTestCase extends ESTestCase {
         }
     }
 
+    public void testManyLargeRawFields() throws Exception {
+        // the raw fields are copied with a buffer that is reused, so they must not leak into each other
+        String[] values = new String[randomIntBetween(2, 10)];
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (XContentGenerator generator = xcontentType().xContent().createGenerator(os)) {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                values[i] = randomAlphaOfLength(randomIntBetween(1, 3 * 8192));
+                ByteArrayOutputStream rawOs = new ByteArrayOutputStream();
+                try (XContentGenerator rawGenerator = xcontentType().xContent().createGenerator(rawOs)) {
+                    rawGenerator.writeStartObject();
+                    rawGenerator.writeStringField("value", values[i]);
+                    rawGenerator.writeEndObject();
+                }
+                generator.writeRawField("field" + i, new BytesArray(rawOs.toByteArray()).streamInput());
+            }
+            generator.writeEndObject();
+        }
+
+        try (XContentParser parser = xcontentType().xContent()
+            .createParser(NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, os.toByteArray())) {
+            Map<String, Object> map = parser.map();
+            assertEquals(values.length, map.size());
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(singletonMap("value", values[i]), map.get("field" + i));
+            }
+        }
+    }
+
     public void testRawValue() throws Exception {
         for (XContentType xcontentType : XContentType.values()) {
             doTestRawValue(xcontentType.xContent());
@@ -28,10 +28,14 @@ import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.MockBigArrays;
 import org.elasticsearch.common.util.MockPageCacheRecycler;
+import org.elasticsearch.common.xcontent.ChunkedToXContent;
+import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.rest.BytesRestResponse;
+import org.elasticsearch.rest.ChunkedRestResponse;
+import org.elasticsearch.rest.ChunkedRestResponseBody;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestRequest;
 import org.elasticsearch.rest.RestResponse;
@@ -51,6 +55,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -264,6 +269,55 @@ public class DefaultRestChannelTests extends ESTestCase {
         // ESTestCase#after will invoke ensureAllArraysAreReleased which will fail if the response content was not released
     }
 
+    @SuppressWarnings("unchecked")
+    public void testChunkedResponse() throws IOException {
+        final Settings settings = Settings.builder()
+            .put(HttpTransportSettings.SETTING_HTTP_RESPONSE_CHUNK_SIZE.getKey(), "1kb")
+            .build();
+        final TestRequest httpRequest = new TestRequest(HttpRequest.HttpVersion.HTTP_1_1, RestRequest.Method.GET, "/");
+        final RestRequest request = RestRequest.request(xContentRegistry(), httpRequest, httpChannel);
+        HttpHandlingSettings handlingSettings = HttpHandlingSettings.fromSettings(settings);
+        DefaultRestChannel channel = new DefaultRestChannel(httpChannel, httpRequest, request, bigArrays, handlingSettings,
+            threadPool.getThreadContext());
+
+        final List<String> values = new ArrayList<>();
+        final int numberOfValues = randomIntBetween(0, 200);
+        for (int i = 0; i < numberOfValues; i++) {
+            values.add(randomAlphaOfLengthBetween(1, 20));
+        }
+        final ChunkedToXContent chunkedToXContent = new ChunkedToXContent() {
+            @Override
+            public Iterator<? extends ToXContent> toXContentChunked(Params params) {
+                List<ToXContent> chunks = new ArrayList<>();
+                chunks.add((builder, p) -> builder.startObject().startArray("values"));
+                for (String value : values) {
+                    chunks.add((builder, p) -> builder.value(value));
+                }
+                chunks.add((builder, p) -> builder.endArray().endObject());
+                return chunks.iterator();
+            }
+
+            @Override
+            public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+                return builder.startObject().field("values", values).endObject();
+            }
+        };
+        channel.sendResponse(new ChunkedRestResponse(RestStatus.OK,
+            ChunkedRestResponseBody.fromXContent(chunkedToXContent, request, channel)));
+
+        Class<ActionListener<Void>> listenerClass = (Class<ActionListener<Void>>) (Class) ActionListener.class;
+        ArgumentCaptor<TestResponse> responseCaptor = ArgumentCaptor.forClass(TestResponse.class);
+        ArgumentCaptor<ActionListener<Void>> listenerCaptor = ArgumentCaptor.forClass(listenerClass);
+        verify(httpChannel).sendResponse(responseCaptor.capture(), listenerCaptor.capture());
+        TestResponse httpResponse = responseCaptor.getValue();
+        String expected = BytesReference.bytes(chunkedToXContent.toXContent(JsonXContent.contentBuilder(), request)).utf8ToString();
+        assertEquals(expected, httpResponse.content().utf8ToString());
+        assertEquals(Integer.toString(expected.length()), httpResponse.headers.get(DefaultRestChannel.CONTENT_LENGTH).get(0));
+        assertEquals("application/json; charset=UTF-8", httpResponse.headers.get(DefaultRestChannel.CONTENT_TYPE).get(0));
+        // ESTestCase#after will invoke ensureAllArraysAreReleased which will fail if the chunk buffer was not released
+        listenerCaptor.getValue().onResponse(null);
+    }
+
     @SuppressWarnings("unchecked")
     public void testConnectionClose() throws Exception {
         final Settings settings = Settings.builder().build();
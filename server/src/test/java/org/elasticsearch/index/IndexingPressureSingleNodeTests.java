@@ -0,0 +1,55 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.index;
+
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.ESSingleNodeTestCase;
+
+public class IndexingPressureSingleNodeTests extends ESSingleNodeTestCase {
+
+    @Override
+    protected Settings nodeSettings() {
+        return Settings.builder().put(super.nodeSettings()).put(IndexingPressure.MAX_INDEXING_BYTES.getKey(), "1KB").build();
+    }
+
+    public void testLargeBulkOnIdleNode() {
+        createIndex("test", Settings.builder()
+            .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1)
+            .put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0)
+            .build());
+        // a single bulk above the limit is accepted when nothing else is in flight, even though its primary is on the
+        // coordinating node
+        BulkRequestBuilder bulkRequest = client().prepareBulk();
+        for (int i = 0; i < 10; i++) {
+            bulkRequest.add(client().prepareIndex("test", "_doc", Integer.toString(i)).setSource("field", randomAlphaOfLength(512)));
+        }
+        BulkResponse response = bulkRequest.get();
+        assertFalse(response.buildFailureMessage(), response.hasFailures());
+
+        IndexingPressureStats stats = getInstanceFromNode(IndexingPressure.class).stats();
+        assertEquals(0, stats.getCoordinatingRejections());
+        assertEquals(0, stats.getPrimaryRejections());
+        assertEquals(0, stats.getCurrentCombinedCoordinatingAndPrimaryBytes());
+        assertEquals(0, stats.getCurrentPrimaryBytes());
+        assertEquals(stats.getTotalCoordinatingBytes(), stats.getTotalPrimaryBytes());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index;
+
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.test.ESTestCase;
+
+public class IndexingPressureTests extends ESTestCase {
+
+    private final Settings settings = Settings.builder().put(IndexingPressure.MAX_INDEXING_BYTES.getKey(), "10KB").build();
+
+    public void testMemoryBytesMarkedAndReleased() {
+        IndexingPressure indexingPressure = new IndexingPressure(settings);
+        try (Releasable coordinating = indexingPressure.markCoordinatingOperationStarted(10);
+             Releasable coordinating2 = indexingPressure.markCoordinatingOperationStarted(50);
+             Releasable primary = indexingPressure.markPrimaryOperationStarted(15);
+             Releasable replica = indexingPressure.markReplicaOperationStarted(25)) {
+            IndexingPressureStats stats = indexingPressure.stats();
+            assertEquals(75, stats.getCurrentCombinedCoordinatingAndPrimaryBytes());
+            assertEquals(60, stats.getCurrentCoordinatingBytes());
+            assertEquals(15, stats.getCurrentPrimaryBytes());
+            assertEquals(25, stats.getCurrentReplicaBytes());
+        }
+        IndexingPressureStats stats = indexingPressure.stats();
+        assertEquals(0, stats.getCurrentCombinedCoordinatingAndPrimaryBytes());
+        assertEquals(0, stats.getCurrentCoordinatingBytes());
+        assertEquals(0, stats.getCurrentPrimaryBytes());
+        assertEquals(0, stats.getCurrentReplicaBytes());
+        assertEquals(60, stats.getTotalCoordinatingBytes());
+        assertEquals(15, stats.getTotalPrimaryBytes());
+        assertEquals(25, stats.getTotalReplicaBytes());
+        assertEquals(10 * 1024, stats.getMemoryLimit());
+    }
+
+    public void testReleaseIsIdempotent() {
+        IndexingPressure indexingPressure = new IndexingPressure(settings);
+        Releasable releasable = indexingPressure.markCoordinatingOperationStarted(100);
+        Releasable other = indexingPressure.markCoordinatingOperationStarted(10);
+        releasable.close();
+        releasable.close();
+        assertEquals(10, indexingPressure.getCurrentCombinedCoordinatingAndPrimaryBytes());
+        other.close();
+        assertEquals(0, indexingPressure.getCurrentCombinedCoordinatingAndPrimaryBytes());
+    }
+
+    public void testCoordinatingAndPrimaryRejections() {
+        IndexingPressure indexingPressure = new IndexingPressure(settings);
+        try (Releasable coordinating = indexingPressure.markCoordinatingOperationStarted(6 * 1024);
+             Releasable primary = indexingPressure.markPrimaryOperationStarted(2 * 1024)) {
+            EsRejectedExecutionException e = expectThrows(EsRejectedExecutionException.class,
+                () -> indexingPressure.markCoordinatingOperationStarted(3 * 1024));
+            assertEquals(RestStatus.TOO_MANY_REQUESTS, ExceptionsHelper.status(e));
+            expectThrows(EsRejectedExecutionException.class, () -> indexingPressure.markPrimaryOperationStarted(3 * 1024));
+            // replicas have their own, higher limit
+            indexingPressure.markReplicaOperationStarted(12 * 1024).close();
+
+            IndexingPressureStats stats = indexingPressure.stats();
+            assertEquals(1, stats.getCoordinatingRejections());
+            assertEquals(1, stats.getPrimaryRejections());
+            assertEquals(0, stats.getReplicaRejections());
+            assertEquals(8 * 1024, stats.getCurrentCombinedCoordinatingAndPrimaryBytes());
+        }
+        assertEquals(0, indexingPressure.getCurrentCombinedCoordinatingAndPrimaryBytes());
+    }
+
+    public void testReplicaRejections() {
+        IndexingPressure indexingPressure = new IndexingPressure(settings);
+        try (Releasable replica = indexingPressure.markReplicaOperationStarted(14 * 1024)) {
+            expectThrows(EsRejectedExecutionException.class, () -> indexingPressure.markReplicaOperationStarted(2 * 1024));
+            assertEquals(1, indexingPressure.stats().getReplicaRejections());
+            assertEquals(14 * 1024, indexingPressure.getCurrentReplicaBytes());
+        }
+        assertEquals(0, indexingPressure.getCurrentReplicaBytes());
+    }
+
+    public void testPrimaryLocalToCoordinatingNodeIsNotAccountedTwice() {
+        IndexingPressure indexingPressure = new IndexingPressure(settings);
+        try (Releasable coordinating = indexingPressure.markCoordinatingOperationStarted(8 * 1024);
+             Releasable primary = indexingPressure.markPrimaryOperationLocalToCoordinatingNodeStarted(8 * 1024)) {
+            IndexingPressureStats stats = indexingPressure.stats();
+            assertEquals(8 * 1024, stats.getCurrentCombinedCoordinatingAndPrimaryBytes());
+            assertEquals(8 * 1024, stats.getCurrentCoordinatingBytes());
+            assertEquals(8 * 1024, stats.getCurrentPrimaryBytes());
+            assertEquals(0, stats.getPrimaryRejections());
+        }
+        IndexingPressureStats stats = indexingPressure.stats();
+        assertEquals(0, stats.getCurrentCombinedCoordinatingAndPrimaryBytes());
+        assertEquals(0, stats.getCurrentPrimaryBytes());
+        assertEquals(8 * 1024, stats.getTotalPrimaryBytes());
+    }
+
+    public void testLargeRequestAcceptedOnIdleNode() {
+        IndexingPressure indexingPressure = new IndexingPressure(settings);
+        try (Releasable coordinating = indexingPressure.markCoordinatingOperationStarted(20 * 1024)) {
+            assertEquals(20 * 1024, indexingPressure.getCurrentCombinedCoordinatingAndPrimaryBytes());
+            expectThrows(EsRejectedExecutionException.class, () -> indexingPressure.markPrimaryOperationStarted(1));
+        }
+    }
+}
@@ -19,16 +19,26 @@
 package org.elasticsearch.index.shard;
 
 import org.elasticsearch.Version;
+import org.elasticsearch.action.get.MultiGetRequest;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.engine.VersionConflictEngineException;
 import org.elasticsearch.index.get.GetResult;
 import org.elasticsearch.index.mapper.RoutingFieldMapper;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 
 public class ShardGetServiceTests extends IndexShardTestCase {
 
@@ -77,4 +87,86 @@ public class ShardGetServiceTests extends IndexShardTestCase {
 
         closeShards(primary);
     }
+
+    public void testMultiGet() throws IOException {
+        Settings settings = Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT)
+            .put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 1)
+            .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1)
+            .build();
+        IndexMetaData metaData = IndexMetaData.builder("test")
+            .putMapping("test", "{ \"properties\": { \"foo\":  { \"type\": \"keyword\", \"store\": true}," +
+                " \"bar\":  { \"type\": \"keyword\", \"store\": true}}}")
+            .settings(settings)
+            .primaryTerm(0, 1).build();
+        IndexShard primary = newShard(new ShardId(metaData.getIndex(), 0), true, "n1", metaData, null);
+        recoverShardFromStore(primary);
+        final int numDocs = randomIntBetween(5, 20);
+        final long[] versions = new long[numDocs];
+        for (int i = 0; i < numDocs; i++) {
+            versions[i] = indexDoc(primary, "test", Integer.toString(i), "{\"foo\" : \"foo" + i + "\", \"bar\" : \"bar" + i + "\"}")
+                .getVersion();
+        }
+        primary.refresh("test");
+
+        // few variants of requested fields, so that field visitors are reused across items
+        final int numItems = randomIntBetween(10, 50);
+        final List<MultiGetRequest.Item> items = new ArrayList<>(numItems);
+        for (int i = 0; i < numItems; i++) {
+            // the last ids are missing
+            final int doc = randomIntBetween(0, numDocs + 2);
+            MultiGetRequest.Item item = new MultiGetRequest.Item("test", randomBoolean() ? "test" : null, Integer.toString(doc));
+            switch (randomIntBetween(0, 3)) {
+                case 0:
+                    item.storedFields("foo");
+                    break;
+                case 1:
+                    item.storedFields("foo", "bar");
+                    break;
+                case 2:
+                    item.fetchSourceContext(new FetchSourceContext(true, new String[] {"foo"}, null));
+                    break;
+                default:
+                    break;
+            }
+            if (doc < numDocs && randomBoolean()) {
+                // the item fails with a version conflict if the version doesn't match
+                item.version(randomBoolean() ? versions[doc] : versions[doc] + 1);
+            }
+            items.add(item);
+        }
+
+        final List<Integer> slots = new ArrayList<>(numItems);
+        final GetResult[] results = new GetResult[numItems];
+        final RuntimeException[] failures = new RuntimeException[numItems];
+        primary.getService().multiGet(items,
+            (slot, getResult) -> {
+                slots.add(slot);
+                results[slot] = getResult;
+            },
+            (slot, e) -> {
+                slots.add(slot);
+                failures[slot] = e;
+            });
+        // one callback per item, in the order of the request
+        assertThat(slots, equalTo(IntStream.range(0, numItems).boxed().collect(Collectors.toList())));
+
+        // the results match the ones of the single get path
+        for (int i = 0; i < numItems; i++) {
+            final MultiGetRequest.Item item = items.get(i);
+            final GetResult expected;
+            try {
+                expected = primary.getService().get(item.type(), item.id(), item.storedFields(), false, item.version(),
+                    item.versionType(), item.fetchSourceContext());
+            } catch (VersionConflictEngineException e) {
+                assertThat(failures[i], instanceOf(VersionConflictEngineException.class));
+                assertNull(results[i]);
+                continue;
+            }
+            assertNull(failures[i]);
+            assertEquals(expected, results[i]);
+            assertEquals(Integer.parseInt(item.id()) < numDocs, results[i].isExists());
+        }
+
+        closeShards(primary);
+    }
 }
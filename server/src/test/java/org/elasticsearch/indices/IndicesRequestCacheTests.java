@@ -47,7 +47,10 @@ import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 public class IndicesRequestCacheTests extends ESTestCase {
@@ -108,6 +111,81 @@ public class IndicesRequestCacheTests extends ESTestCase {
         assertEquals(0, cache.numRegisteredCloseListeners());
     }
 
+    public void testConcurrentIdenticalRequestsAreCoalesced() throws Exception {
+        ShardRequestCache requestCacheStats = new ShardRequestCache();
+        IndicesRequestCache cache = new IndicesRequestCache(Settings.EMPTY);
+        Directory dir = newDirectory();
+        IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig());
+
+        writer.addDocument(newDoc(0, "foo"));
+        DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+            new ShardId("foo", "bar", 1));
+        TermQueryBuilder termQuery = new TermQueryBuilder("id", "0");
+        BytesReference termBytes = XContentHelper.toXContent(termQuery, XContentType.JSON, false);
+        AtomicBoolean indexShard = new AtomicBoolean(true);
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Loader blockingLoader = new Loader(reader, 0) {
+            @Override
+            public BytesReference get() {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    releaseLoad.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                return super.get();
+            }
+        };
+        AtomicReference<BytesReference> firstValue = new AtomicReference<>();
+        Thread first = new Thread(() -> {
+            try {
+                firstValue.set(cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), blockingLoader, reader, termBytes,
+                    () -> termQuery.toString()));
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        first.start();
+        loading.await();
+
+        Loader loader = new Loader(reader, 0);
+        AtomicReference<BytesReference> secondValue = new AtomicReference<>();
+        Thread second = new Thread(() -> {
+            try {
+                secondValue.set(cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), loader, reader, termBytes,
+                    () -> termQuery.toString()));
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        second.start();
+        // wait for the second request to block on the value that is being loaded by the first one
+        assertBusy(() -> assertEquals(Thread.State.WAITING, second.getState()));
+        releaseLoad.countDown();
+        first.join();
+        second.join();
+
+        assertEquals(1, loads.get());
+        assertTrue(loader.loadedFromCache);
+        assertEquals("foo", firstValue.get().streamInput().readString());
+        assertEquals("foo", secondValue.get().streamInput().readString());
+        assertEquals(1, requestCacheStats.stats().getMissCount());
+        assertEquals(1, requestCacheStats.stats().getHitCount());
+        assertEquals(1, requestCacheStats.stats().getCoalescedCount());
+
+        // a later identical request is a plain hit
+        cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(reader, 0), reader, termBytes,
+            () -> termQuery.toString());
+        assertEquals(2, requestCacheStats.stats().getHitCount());
+        assertEquals(1, requestCacheStats.stats().getCoalescedCount());
+
+        IOUtils.close(reader, writer, dir, cache);
+    }
+
     public void testCacheDifferentReaders() throws Exception {
         IndicesRequestCache cache = new IndicesRequestCache(Settings.EMPTY);
         AtomicBoolean indexShard =  new AtomicBoolean(true);
@@ -39,26 +39,37 @@ import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.plugins.IngestPlugin;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.hamcrest.CustomTypeSafeMatcher;
 import org.mockito.ArgumentMatcher;
 import org.mockito.invocation.InvocationOnMock;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
@@ -68,8 +79,8 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
-import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
@@ -92,7 +103,7 @@ public class IngestServiceTests extends ESTestCase {
 
     public void testIngestPlugin() {
         ThreadPool tp = mock(ThreadPool.class);
-        IngestService ingestService = new IngestService(mock(ClusterService.class), tp, null, null,
+        IngestService ingestService = new IngestService(Settings.EMPTY, mock(ClusterService.class), tp, null, null,
             null, Collections.singletonList(DUMMY_PLUGIN));
         Map<String, Processor.Factory> factories = ingestService.getProcessorFactories();
         assertTrue(factories.containsKey("foo"));
@@ -102,7 +113,7 @@ public class IngestServiceTests extends ESTestCase {
     public void testIngestPluginDuplicate() {
         ThreadPool tp = mock(ThreadPool.class);
         IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () ->
-            new IngestService(mock(ClusterService.class), tp, null, null,
+            new IngestService(Settings.EMPTY, mock(ClusterService.class), tp, null, null,
             null, Arrays.asList(DUMMY_PLUGIN, DUMMY_PLUGIN)));
         assertTrue(e.getMessage(), e.getMessage().contains("already registered"));
     }
@@ -111,14 +122,14 @@ public class IngestServiceTests extends ESTestCase {
         ThreadPool threadPool = mock(ThreadPool.class);
         final ExecutorService executorService = EsExecutors.newDirectExecutorService();
         when(threadPool.executor(anyString())).thenReturn(executorService);
-        IngestService ingestService = new IngestService(mock(ClusterService.class), threadPool, null, null,
+        IngestService ingestService = new IngestService(Settings.EMPTY, mock(ClusterService.class), threadPool, null, null,
             null, Collections.singletonList(DUMMY_PLUGIN));
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
 
         final SetOnce<Boolean> failure = new SetOnce<>();
-        final BiConsumer<IndexRequest, Exception> failureHandler = (request, e) -> {
+        final BiConsumer<Integer, Exception> failureHandler = (slot, e) -> {
             failure.set(true);
-            assertThat(request, sameInstance(indexRequest));
+            assertThat(slot, equalTo(0));
             assertThat(e, instanceOf(IllegalArgumentException.class));
             assertThat(e.getMessage(), equalTo("pipeline with id [_id] does not exist"));
         };
@@ -126,7 +137,7 @@ public class IngestServiceTests extends ESTestCase {
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
 
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
 
         assertTrue(failure.get());
         verify(completionHandler, times(1)).accept(null);
@@ -443,7 +454,7 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         final SetOnce<Boolean> failure = new SetOnce<>();
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline(id);
-        final BiConsumer<IndexRequest, Exception> failureHandler = (request, e) -> {
+        final BiConsumer<Integer, Exception> failureHandler = (request, e) -> {
             assertThat(e.getCause(), instanceOf(IllegalArgumentException.class));
             assertThat(e.getCause().getCause(), instanceOf(IllegalStateException.class));
             assertThat(e.getCause().getCause().getMessage(), equalTo("error"));
@@ -453,7 +464,7 @@ public class IngestServiceTests extends ESTestCase {
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
 
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
 
         assertTrue(failure.get());
         verify(completionHandler, times(1)).accept(null);
@@ -478,18 +489,12 @@ public class IngestServiceTests extends ESTestCase {
             new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("does_not_exist");
         bulkRequest.add(indexRequest2);
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Exception> completionHandler = mock(Consumer.class);
-        ingestService.executeBulkRequest(bulkRequest.requests(), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(bulkRequest.requests(), failureHandler, completionHandler, slot -> {});
         verify(failureHandler, times(1)).accept(
-            argThat(new CustomTypeSafeMatcher<IndexRequest>("failure handler was not called with the expected arguments") {
-                @Override
-                protected boolean matchesSafely(IndexRequest item) {
-                    return item == indexRequest2;
-                }
-
-            }),
+            eq(1),
             argThat(new CustomTypeSafeMatcher<IllegalArgumentException>("failure handler was not called with the expected arguments") {
                 @Override
                 protected boolean matchesSafely(IllegalArgumentException iae) {
@@ -511,10 +516,10 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
         verify(failureHandler, never()).accept(any(), any());
         verify(completionHandler, times(1)).accept(null);
     }
@@ -529,10 +534,10 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
         verify(failureHandler, never()).accept(any(), any());
         verify(completionHandler, times(1)).accept(null);
     }
@@ -564,10 +569,10 @@ public class IngestServiceTests extends ESTestCase {
         }).when(processor).execute(any());
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
         verify(processor).execute(any());
         verify(failureHandler, never()).accept(any(), any());
         verify(completionHandler, times(1)).accept(null);
@@ -594,12 +599,12 @@ public class IngestServiceTests extends ESTestCase {
             .when(processor)
             .execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
         verify(processor).execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), emptyMap()));
-        verify(failureHandler, times(1)).accept(eq(indexRequest), any(RuntimeException.class));
+        verify(failureHandler, times(1)).accept(eq(0), any(RuntimeException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -621,11 +626,11 @@ public class IngestServiceTests extends ESTestCase {
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         doThrow(new RuntimeException()).when(processor).execute(eqIndexTypeId(emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
-        verify(failureHandler, never()).accept(eq(indexRequest), any(ElasticsearchException.class));
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
+        verify(failureHandler, never()).accept(eq(0), any(ElasticsearchException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -658,12 +663,12 @@ public class IngestServiceTests extends ESTestCase {
             .when(processor)
             .execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
         verify(processor).execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), emptyMap()));
-        verify(failureHandler, times(1)).accept(eq(indexRequest), any(RuntimeException.class));
+        verify(failureHandler, times(1)).accept(eq(0), any(RuntimeException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -704,12 +709,12 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
 
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Exception> requestItemErrorHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Exception> requestItemErrorHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Exception> completionHandler = mock(Consumer.class);
-        ingestService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler, slot -> {});
 
-        verify(requestItemErrorHandler, times(numIndexRequests)).accept(any(IndexRequest.class), argThat(new ArgumentMatcher<Exception>() {
+        verify(requestItemErrorHandler, times(numIndexRequests)).accept(anyInt(), argThat(new ArgumentMatcher<Exception>() {
             @Override
             public boolean matches(final Object o) {
                 return ((Exception)o).getCause().getCause().equals(error);
@@ -738,10 +743,10 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
 
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Exception> requestItemErrorHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Exception> requestItemErrorHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Exception> completionHandler = mock(Consumer.class);
-        ingestService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler, slot -> {});
 
         verify(requestItemErrorHandler, never()).accept(any(), any());
         verify(completionHandler, times(1)).accept(null);
@@ -777,13 +782,13 @@ public class IngestServiceTests extends ESTestCase {
         clusterState = IngestService.innerPut(putRequest, clusterState);
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
 
-        @SuppressWarnings("unchecked") final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        @SuppressWarnings("unchecked") final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked") final Consumer<Exception> completionHandler = mock(Consumer.class);
 
         final IndexRequest indexRequest = new IndexRequest("_index");
         indexRequest.setPipeline("_id1");
         indexRequest.source(randomAlphaOfLength(10), randomAlphaOfLength(10));
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
         final IngestStats afterFirstRequestStats = ingestService.stats();
         assertThat(afterFirstRequestStats.getPipelineStats().size(), equalTo(2));
 
@@ -801,7 +806,7 @@ public class IngestServiceTests extends ESTestCase {
 
 
         indexRequest.setPipeline("_id2");
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
         final IngestStats afterSecondRequestStats = ingestService.stats();
         assertThat(afterSecondRequestStats.getPipelineStats().size(), equalTo(2));
         //total
@@ -820,7 +825,7 @@ public class IngestServiceTests extends ESTestCase {
         clusterState = IngestService.innerPut(putRequest, clusterState);
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         indexRequest.setPipeline("_id1");
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
         final IngestStats afterThirdRequestStats = ingestService.stats();
         assertThat(afterThirdRequestStats.getPipelineStats().size(), equalTo(2));
         //total
@@ -844,7 +849,7 @@ public class IngestServiceTests extends ESTestCase {
         clusterState = IngestService.innerPut(putRequest, clusterState);
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         indexRequest.setPipeline("_id1");
-        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
+        ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, slot -> {});
         final IngestStats afterForthRequestStats = ingestService.stats();
         assertThat(afterForthRequestStats.getPipelineStats().size(), equalTo(2));
         //total
@@ -910,15 +915,243 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         @SuppressWarnings("unchecked")
-        final Consumer<IndexRequest> dropHandler = mock(Consumer.class);
+        final IntConsumer dropHandler = mock(IntConsumer.class);
         ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, dropHandler);
         verify(failureHandler, never()).accept(any(), any());
         verify(completionHandler, times(1)).accept(null);
-        verify(dropHandler, times(1)).accept(indexRequest);
+        verify(dropHandler, times(1)).accept(0);
+    }
+
+    public void testExecuteBulkRequestInParallel() throws Exception {
+        final ThreadPool threadPool = new TestThreadPool(getTestName());
+        try {
+            Map<String, Processor.Factory> factories = new HashMap<>();
+            factories.put("drop", new DropProcessor.Factory());
+            factories.put("mock", (processorFactories, tag, config) -> new Processor() {
+                @Override
+                public IngestDocument execute(final IngestDocument ingestDocument) {
+                    if (ingestDocument.hasField("fail")) {
+                        throw new IllegalStateException("failed [" + ingestDocument.getFieldValue("_id", String.class) + "]");
+                    }
+                    ingestDocument.setFieldValue("processed", true);
+                    return ingestDocument;
+                }
+
+                @Override
+                public String getType() {
+                    return "mock";
+                }
+
+                @Override
+                public String getTag() {
+                    return null;
+                }
+            });
+            IngestService ingestService = new IngestService(
+                Settings.builder().put(IngestService.PARALLEL_BULK_EXECUTION_SETTING.getKey(), true).build(),
+                mock(ClusterService.class), threadPool, null, null, null, Collections.singletonList(new IngestPlugin() {
+                    @Override
+                    public Map<String, Processor.Factory> getProcessors(final Processor.Parameters parameters) {
+                        return factories;
+                    }
+                }));
+            ClusterState clusterState = ClusterState.builder(new ClusterName("_name")).build(); // Start empty
+            ClusterState previousClusterState = clusterState;
+            clusterState = IngestService.innerPut(new PutPipelineRequest("_id",
+                new BytesArray("{\"processors\": [{\"mock\" : {}}]}"), XContentType.JSON), clusterState);
+            clusterState = IngestService.innerPut(new PutPipelineRequest("_drop",
+                new BytesArray("{\"processors\": [{\"drop\" : {}}]}"), XContentType.JSON), clusterState);
+            ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
+
+            final int numRequests = scaledRandomIntBetween(8, 256);
+            final BulkRequest bulkRequest = new BulkRequest();
+            final Map<Integer, String> expectedFailures = new HashMap<>();
+            final List<Integer> expectedDrops = new ArrayList<>();
+            final List<Integer> expectedProcessed = new ArrayList<>();
+            for (int i = 0; i < numRequests; i++) {
+                IndexRequest indexRequest = new IndexRequest("_index", "_type", Integer.toString(i));
+                switch (randomIntBetween(0, 3)) {
+                    case 0:
+                        indexRequest.source(Collections.singletonMap("fail", true)).setPipeline("_id");
+                        expectedFailures.put(i, "failed [" + i + "]");
+                        break;
+                    case 1:
+                        indexRequest.source(emptyMap()).setPipeline("_drop");
+                        expectedDrops.add(i);
+                        break;
+                    case 2:
+                        indexRequest.source(emptyMap()).setPipeline(IngestService.NOOP_PIPELINE_NAME);
+                        break;
+                    default:
+                        indexRequest.source(emptyMap()).setPipeline("_id");
+                        expectedProcessed.add(i);
+                        break;
+                }
+                bulkRequest.add(indexRequest);
+            }
+
+            final Map<Integer, String> failures = new ConcurrentHashMap<>();
+            final Map<Integer, Boolean> drops = new ConcurrentHashMap<>();
+            final AtomicInteger completions = new AtomicInteger();
+            final CountDownLatch latch = new CountDownLatch(1);
+            ingestService.executeBulkRequest(bulkRequest.requests(),
+                (slot, e) -> assertNull(failures.put(slot, e.getCause().getCause().getMessage())),
+                e -> {
+                    assertNull(e);
+                    completions.incrementAndGet();
+                    latch.countDown();
+                },
+                slot -> assertNull(drops.put(slot, true)));
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+            assertThat(completions.get(), equalTo(1));
+            assertThat(failures, equalTo(expectedFailures));
+            assertThat(drops.size(), equalTo(expectedDrops.size()));
+            for (Integer slot : expectedDrops) {
+                assertTrue(drops.containsKey(slot));
+            }
+            for (int i = 0; i < numRequests; i++) {
+                IndexRequest indexRequest = (IndexRequest) bulkRequest.requests().get(i);
+                if (expectedFailures.containsKey(i)) {
+                    assertThat(indexRequest.getPipeline(), equalTo("_id"));
+                } else {
+                    assertThat(indexRequest.getPipeline(), equalTo(IngestService.NOOP_PIPELINE_NAME));
+                }
+                assertThat(indexRequest.sourceAsMap().containsKey("processed"), equalTo(expectedProcessed.contains(i)));
+            }
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+    public void testUnexpectedFailureInParallelPartitionOnlyFailsUnprocessedItems() throws Exception {
+        final int ingestThreads = randomIntBetween(2, 4);
+        final ThreadPool threadPool = new TestThreadPool(getTestName(),
+            Settings.builder().put("thread_pool." + ThreadPool.Names.INGEST + ".size", ingestThreads).build());
+        try {
+            Map<String, Processor.Factory> factories = new HashMap<>();
+            factories.put("drop", new DropProcessor.Factory());
+            factories.put("mock", (processorFactories, tag, config) -> new Processor() {
+                @Override
+                public IngestDocument execute(final IngestDocument ingestDocument) {
+                    if (ingestDocument.hasField("fail")) {
+                        throw new IllegalStateException("failed [" + ingestDocument.getFieldValue("_id", String.class) + "]");
+                    }
+                    return ingestDocument;
+                }
+
+                @Override
+                public String getType() {
+                    return "mock";
+                }
+
+                @Override
+                public String getTag() {
+                    return null;
+                }
+            });
+            IngestService ingestService = new IngestService(
+                Settings.builder().put(IngestService.PARALLEL_BULK_EXECUTION_SETTING.getKey(), true).build(),
+                mock(ClusterService.class), threadPool, null, null, null, Collections.singletonList(new IngestPlugin() {
+                    @Override
+                    public Map<String, Processor.Factory> getProcessors(final Processor.Parameters parameters) {
+                        return factories;
+                    }
+                }));
+            ClusterState clusterState = ClusterState.builder(new ClusterName("_name")).build(); // Start empty
+            ClusterState previousClusterState = clusterState;
+            clusterState = IngestService.innerPut(new PutPipelineRequest("_id",
+                new BytesArray("{\"processors\": [{\"mock\" : {}}]}"), XContentType.JSON), clusterState);
+            clusterState = IngestService.innerPut(new PutPipelineRequest("_drop",
+                new BytesArray("{\"processors\": [{\"drop\" : {}}]}"), XContentType.JSON), clusterState);
+            ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
+
+            final int numRequests = randomIntBetween(ingestThreads * 2, 64);
+            // the failure handler throws when told about the failure of this item, which fails the rest of its partition
+            final int throwingSlot = randomIntBetween(0, numRequests - 1);
+            final List<DocWriteRequest<?>> requests = new ArrayList<>();
+            final List<Integer> needIngest = new ArrayList<>();
+            final Map<Integer, String> expectedFailures = new HashMap<>();
+            final List<Integer> expectedDrops = new ArrayList<>();
+            for (int i = 0; i < numRequests; i++) {
+                final int type = i == throwingSlot ? 0 : randomIntBetween(0, 4);
+                switch (type) {
+                    case 0:
+                        requests.add(new IndexRequest("_index", "_type", Integer.toString(i))
+                            .source(Collections.singletonMap("fail", true)).setPipeline("_id"));
+                        expectedFailures.put(i, "failed [" + i + "]");
+                        needIngest.add(i);
+                        break;
+                    case 1:
+                        requests.add(new IndexRequest("_index", "_type", Integer.toString(i)).source(emptyMap()).setPipeline("_drop"));
+                        expectedDrops.add(i);
+                        needIngest.add(i);
+                        break;
+                    case 2:
+                        requests.add(new IndexRequest("_index", "_type", Integer.toString(i)).source(emptyMap())
+                            .setPipeline(IngestService.NOOP_PIPELINE_NAME));
+                        break;
+                    case 3:
+                        requests.add(new DeleteRequest("_index", "_type", Integer.toString(i)));
+                        break;
+                    default:
+                        requests.add(new IndexRequest("_index", "_type", Integer.toString(i)).source(emptyMap()).setPipeline("_id"));
+                        needIngest.add(i);
+                        break;
+                }
+            }
+            // the items of the partition of the throwing item that come after it were never processed
+            final int numPartitions = Math.min(numRequests, ingestThreads);
+            int partitionEnd = numRequests;
+            for (int partition = 0; partition < numPartitions; partition++) {
+                final int to = (int) ((long) numRequests * (partition + 1) / numPartitions);
+                if (throwingSlot < to) {
+                    partitionEnd = to;
+                    break;
+                }
+            }
+            final Set<Integer> expectedUnexpectedFailures = new HashSet<>();
+            for (int slot = throwingSlot + 1; slot < partitionEnd; slot++) {
+                if (needIngest.contains(slot)) {
+                    expectedUnexpectedFailures.add(slot);
+                    expectedFailures.remove(slot);
+                    expectedDrops.remove(Integer.valueOf(slot));
+                }
+            }
+
+            final IllegalStateException unexpected = new IllegalStateException("unexpected");
+            final Map<Integer, String> failures = new ConcurrentHashMap<>();
+            final Set<Integer> unexpectedFailures = ConcurrentCollections.newConcurrentSet();
+            final Map<Integer, Boolean> drops = new ConcurrentHashMap<>();
+            final CountDownLatch latch = new CountDownLatch(1);
+            ingestService.executeBulkRequest(requests,
+                (slot, e) -> {
+                    if (e == unexpected) {
+                        assertTrue(unexpectedFailures.add(slot));
+                    } else {
+                        assertNull(failures.put(slot, e.getCause().getCause().getMessage()));
+                        if (slot == throwingSlot) {
+                            throw unexpected;
+                        }
+                    }
+                },
+                e -> {
+                    assertNull(e);
+                    latch.countDown();
+                },
+                slot -> assertNull(drops.put(slot, true)));
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+            assertThat(failures, equalTo(expectedFailures));
+            assertThat(unexpectedFailures, equalTo(expectedUnexpectedFailures));
+            assertThat(drops.keySet(), equalTo(new HashSet<>(expectedDrops)));
+        } finally {
+            terminate(threadPool);
+        }
     }
 
     private IngestDocument eqIndexTypeId(final Map<String, Object> source) {
@@ -979,7 +1212,7 @@ public class IngestServiceTests extends ESTestCase {
         ThreadPool threadPool = mock(ThreadPool.class);
         final ExecutorService executorService = EsExecutors.newDirectExecutorService();
         when(threadPool.executor(anyString())).thenReturn(executorService);
-        return new IngestService(mock(ClusterService.class), threadPool, null, null,
+        return new IngestService(Settings.EMPTY, mock(ClusterService.class), threadPool, null, null,
             null, Collections.singletonList(new IngestPlugin() {
             @Override
             public Map<String, Processor.Factory> getProcessors(final Processor.Parameters parameters) {
@@ -66,6 +66,42 @@ public class IngestStatsTests extends ESTestCase {
         assertIngestStats(expectedStats, serializedStats, false);
     }
 
+    public void testLatencyHistogram() throws IOException {
+        assertEquals(0, IngestMetric.latencyBucket(0));
+        assertEquals(1, IngestMetric.latencyBucket(1));
+        assertEquals(2, IngestMetric.latencyBucket(2));
+        assertEquals(2, IngestMetric.latencyBucket(3));
+        assertEquals(11, IngestMetric.latencyBucket(1024));
+        assertEquals(IngestMetric.LATENCY_BUCKETS - 1, IngestMetric.latencyBucket(Long.MAX_VALUE));
+
+        IngestMetric metric = new IngestMetric();
+        long[] expected = new long[IngestMetric.LATENCY_BUCKETS];
+        int numOps = randomIntBetween(1, 64);
+        for (int i = 0; i < numOps; i++) {
+            long tookInMillis = randomFrom(0L, randomLongBetween(1, 100), randomLongBetween(100, 1000000));
+            metric.preIngest();
+            metric.postIngest(tookInMillis);
+            expected[IngestMetric.latencyBucket(tookInMillis)]++;
+        }
+        assertEquals(0, metric.createStats().getIngestTimeHistogram().length);
+
+        IngestStats.Stats stats = metric.createStats(true);
+        assertArrayEquals(expected, stats.getIngestTimeHistogram());
+
+        IngestStats ingestStats = new IngestStats(stats,
+            Collections.singletonList(new IngestStats.PipelineStat("pipeline", stats)), Collections.emptyMap());
+        IngestStats serializedStats = serialize(ingestStats);
+        assertArrayEquals(expected, serializedStats.getTotalStats().getIngestTimeHistogram());
+        assertArrayEquals(expected, serializedStats.getPipelineStats().get(0).getStats().getIngestTimeHistogram());
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(VersionUtils.getPreviousVersion(Version.V_7_0_0));
+        ingestStats.writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        in.setVersion(VersionUtils.getPreviousVersion(Version.V_7_0_0));
+        assertEquals(0, new IngestStats(in).getTotalStats().getIngestTimeHistogram().length);
+    }
+
     private List<IngestStats.PipelineStat> createPipelineStats() {
         IngestStats.PipelineStat pipeline1Stats = new IngestStats.PipelineStat("pipeline1", new IngestStats.Stats(3, 3, 3, 3));
         IngestStats.PipelineStat pipeline2Stats = new IngestStats.PipelineStat("pipeline2", new IngestStats.Stats(47, 97, 197, 297));
@@ -77,7 +113,11 @@ public class IngestStatsTests extends ESTestCase {
         assert(pipelineStats.size() >= 2);
         IngestStats.ProcessorStat processor1Stat = new IngestStats.ProcessorStat("processor1", new IngestStats.Stats(1, 1, 1, 1));
         IngestStats.ProcessorStat processor2Stat = new IngestStats.ProcessorStat("processor2", new IngestStats.Stats(2, 2, 2, 2));
-        IngestStats.ProcessorStat processor3Stat = new IngestStats.ProcessorStat("processor3", new IngestStats.Stats(47, 97, 197, 297));
+        IngestStats.ProcessorStat processor3Stat = new IngestStats.ProcessorStat("processor3", new IngestStats.Stats(47, 97, 197, 297),
+            MapBuilder.<String, IngestStats.DetailedStats>newMapBuilder()
+                .put("0", new IngestStats.DetailedStats(47, 90, 12))
+                .put("1", new IngestStats.DetailedStats(12, 7, 0))
+                .map());
         //pipeline1 -> processor1,processor2; pipeline2 -> processor3
         return MapBuilder.<String, List<IngestStats.ProcessorStat>>newMapBuilder()
             .put(pipelineStats.get(0).getPipelineId(), Stream.of(processor1Stat, processor2Stat).collect(Collectors.toList()))
@@ -115,6 +155,13 @@ public class IngestStatsTests extends ESTestCase {
                         IngestStats.ProcessorStat ps = it.next();
                         assertEquals(ps.getName(), serializedProcessorStat.getName());
                         assertStats(ps.getStats(), serializedProcessorStat.getStats());
+                        assertEquals(ps.getDetailedStats().keySet(), serializedProcessorStat.getDetailedStats().keySet());
+                        ps.getDetailedStats().forEach((part, stats) -> {
+                            IngestStats.DetailedStats serializedPartStats = serializedProcessorStat.getDetailedStats().get(part);
+                            assertEquals(stats.getCount(), serializedPartStats.getCount());
+                            assertEquals(stats.getTimeInMillis(), serializedPartStats.getTimeInMillis());
+                            assertEquals(stats.getNoMatchCount(), serializedPartStats.getNoMatchCount());
+                        });
                     }
                     assertFalse(it.hasNext());
                 }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest;
+
+import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.VersionType;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+public class LazySourceMapTests extends ESTestCase {
+
+    private static final String SOURCE = "{\"message\":\"hello\",\"count\":3,\"flag\":true,\"missing\":null," +
+        "\"nested\":{\"a\":{\"b\":[1,2,{\"c\":\"d\"}]}},\"tags\":[\"x\",\"y\"]}";
+
+    public void testMatchesEagerlyParsedMap() {
+        XContentType xContentType = randomFrom(XContentType.values());
+        BytesReference source = convert(SOURCE, xContentType);
+        Map<String, Object> expected = XContentHelper.convertToMap(source, false, xContentType).v2();
+        LazySourceMap lazySource = LazySourceMap.parse(source, xContentType);
+        assertThat(lazySource.size(), equalTo(expected.size()));
+        assertThat(lazySource.keySet(), equalTo(expected.keySet()));
+        assertEquals(expected, lazySource);
+        assertEquals(lazySource, expected);
+        assertEquals(expected.hashCode(), lazySource.hashCode());
+    }
+
+    public void testAccessOnlyMaterializesTouchedFields() throws IOException {
+        LazySourceMap lazySource = LazySourceMap.parse(new BytesArray(SOURCE), XContentType.JSON);
+        assertTrue(lazySource.containsKey("nested"));
+        @SuppressWarnings("unchecked")
+        List<Object> tags = (List<Object>) lazySource.get("tags");
+        assertThat(tags, equalTo(Arrays.asList("x", "y")));
+        tags.add("z");
+        lazySource.put("message", "bye");
+        lazySource.remove("count");
+
+        XContentBuilder builder = XContentBuilder.builder(XContentType.JSON.xContent());
+        lazySource.toXContent(builder);
+        String json = BytesReference.bytes(builder).utf8ToString();
+        // the untouched subtree is copied verbatim
+        assertThat(json, containsString("\"nested\":{\"a\":{\"b\":[1,2,{\"c\":\"d\"}]}}"));
+
+        Map<String, Object> expected = XContentHelper.convertToMap(new BytesArray(SOURCE), false, XContentType.JSON).v2();
+        expected.put("tags", Arrays.asList("x", "y", "z"));
+        expected.put("message", "bye");
+        expected.remove("count");
+        assertEquals(expected, XContentHelper.convertToMap(BytesReference.bytes(builder), false, XContentType.JSON).v2());
+    }
+
+    public void testIngestDocument() {
+        XContentType xContentType = randomFrom(XContentType.values());
+        BytesReference source = convert(SOURCE, xContentType);
+        Map<String, Object> sourceAsMap = XContentHelper.convertToMap(source, false, xContentType).v2();
+        IngestDocument eager = new IngestDocument("_index", "_type", "_id", "_routing", 1L, VersionType.INTERNAL, sourceAsMap);
+        IngestDocument lazy = new IngestDocument("_index", "_type", "_id", "_routing", 1L, VersionType.INTERNAL, source, xContentType);
+        assertEquals(eager.getSourceAndMetadata(), lazy.getSourceAndMetadata());
+        assertThat(lazy.getFieldValue("nested.a.b.2.c", String.class), equalTo("d"));
+        lazy.setFieldValue("nested.a.e", "f");
+        eager.setFieldValue("nested.a.e", "f");
+        assertEquals(eager.extractMetadata(), lazy.extractMetadata());
+        assertEquals(eager.getSourceAndMetadata(), lazy.getSourceAndMetadata());
+    }
+
+    public void testNotAnObject() {
+        expectThrows(ElasticsearchParseException.class, () -> LazySourceMap.parse(new BytesArray("[1,2]"), XContentType.JSON));
+        expectThrows(ElasticsearchParseException.class, () -> LazySourceMap.parse(new BytesArray("{\"a\":"), XContentType.JSON));
+    }
+
+    private static BytesReference convert(String json, XContentType xContentType) {
+        try (XContentBuilder builder = XContentBuilder.builder(xContentType.xContent())) {
+            builder.map(XContentHelper.convertToMap(new BytesArray(json), true, XContentType.JSON).v2());
+            return BytesReference.bytes(builder);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
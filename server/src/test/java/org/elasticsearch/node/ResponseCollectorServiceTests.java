@@ -34,11 +34,15 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.After;
 import org.junit.Before;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
 
 public class ResponseCollectorServiceTests extends ESTestCase {
 
@@ -71,6 +75,63 @@ public class ResponseCollectorServiceTests extends ESTestCase {
         assertThat(nodeStats.get("node1").serviceTime, equalTo(10.0));
     }
 
+    public void testReadResponseTime() throws Exception {
+        // a node that only served single shard reads so far isn't ranked for searches
+        collector.addReadResponseTime("node1", 100);
+        assertFalse(collector.getAllNodeStatistics().containsKey("node1"));
+        assertFalse(collector.getNodeStatistics("node1").isPresent());
+        ResponseCollectorService.ComputedNodeStats readStats = collector.getReadNodeStatistics("node1").get();
+        assertThat(readStats.queueSize, equalTo(0));
+        assertThat(readStats.responseTime, equalTo(100.0));
+        assertThat(readStats.serviceTime, equalTo(100.0));
+
+        // reads don't update the statistics used to rank searches
+        collector.addNodeStatistics("node2", 1, 100, 10);
+        assertFalse(collector.getReadNodeStatistics("node2").isPresent());
+        collector.addReadResponseTime("node2", 200);
+        ResponseCollectorService.ComputedNodeStats searchStats = collector.getNodeStatistics("node2").get();
+        assertThat(searchStats.queueSize, equalTo(1));
+        assertThat(searchStats.responseTime, equalTo(100.0));
+        assertThat(searchStats.serviceTime, equalTo(10.0));
+
+        // but reads are ranked with the queue size and service time reported by searches
+        readStats = collector.getReadNodeStatistics("node2").get();
+        assertThat(readStats.queueSize, equalTo(1));
+        assertThat(readStats.responseTime, equalTo(200.0));
+        assertThat(readStats.serviceTime, equalTo(10.0));
+
+        collector.addReadResponseTime("node2", 100);
+        assertThat(collector.getReadNodeStatistics("node2").get().responseTime, lessThan(200.0));
+
+        // the read statistics are reported separately from the ones of searches
+        AdaptiveSelectionStats adaptiveStats = collector.getAdaptiveStats(Collections.emptyMap());
+        assertThat(adaptiveStats.getComputedStats().keySet(), equalTo(Collections.singleton("node2")));
+        assertThat(adaptiveStats.getComputedReadStats().keySet(), equalTo(new HashSet<>(Arrays.asList("node1", "node2"))));
+        assertThat(adaptiveStats.getComputedReadStats().get("node2").responseTime, lessThan(200.0));
+
+        collector.removeNode("node2");
+        assertFalse(collector.getReadNodeStatistics("node2").isPresent());
+    }
+
+    public void testPendingReadRequests() throws Exception {
+        collector.onReadRequestSent("node1");
+        collector.onReadRequestSent("node1");
+        collector.onReadRequestSent("node2");
+        Map<String, Long> pendingReads = collector.getPendingReadRequests();
+        assertThat(pendingReads.get("node1"), equalTo(2L));
+        assertThat(pendingReads.get("node2"), equalTo(1L));
+
+        // the returned map is a snapshot that may be modified when ranking shard copies
+        pendingReads.put("node1", 5L);
+        assertThat(collector.getPendingReadRequests().get("node1"), equalTo(2L));
+
+        collector.onReadRequestCompleted("node1");
+        collector.onReadRequestCompleted("node2");
+        pendingReads = collector.getPendingReadRequests();
+        assertThat(pendingReads.get("node1"), equalTo(1L));
+        assertFalse(pendingReads.containsKey("node2"));
+    }
+
     /*
      * Test that concurrently adding values and removing nodes does not cause exceptions
      */
@@ -37,10 +37,12 @@ import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.elasticsearch.script.ScriptService.MAX_COMPILATION_RATE_FUNCTION;
 import static org.hamcrest.CoreMatchers.containsString;
@@ -273,6 +275,59 @@ public class ScriptServiceTests extends ESTestCase {
         assertEquals(1L, scriptService.stats().getCacheEvictions());
     }
 
+    public void testContextCache() throws IOException {
+        Settings.Builder builder = Settings.builder();
+        builder.put(ScriptService.SCRIPT_CONTEXT_CACHE_SIZE_SETTING.getConcreteSettingForNamespace(ScoreScript.CONTEXT.name).getKey(), 1);
+        buildScriptService(builder.build());
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap()), ScoreScript.CONTEXT);
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), ScoreScript.CONTEXT);
+        // the general cache isn't affected by the cache of the score context
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap()), FieldScript.CONTEXT);
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), FieldScript.CONTEXT);
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap()), FieldScript.CONTEXT);
+
+        ScriptStats stats = scriptService.stats();
+        assertEquals(4L, stats.getCompilations());
+        assertEquals(1L, stats.getCacheEvictions());
+        assertEquals(4L, Arrays.stream(stats.getCompilationTimeHistogram()).sum());
+        assertEquals(1L, Arrays.stream(stats.getCacheEvictionAgeHistogram()).sum());
+        assertThat(stats.getContextStats().size(), is(2));
+        Map<String, ScriptContextStats> contextStats = stats.getContextStats().stream()
+            .collect(Collectors.toMap(ScriptContextStats::getContext, Function.identity()));
+        assertEquals(2L, contextStats.get(ScoreScript.CONTEXT.name).getCompilations());
+        assertEquals(1L, contextStats.get(ScoreScript.CONTEXT.name).getCacheEvictions());
+        assertEquals(2L, contextStats.get(FieldScript.CONTEXT.name).getCompilations());
+        assertEquals(0L, contextStats.get(FieldScript.CONTEXT.name).getCacheEvictions());
+    }
+
+    public void testContextCompilationRate() throws IOException {
+        String rateKey = ScriptService.SCRIPT_CONTEXT_MAX_COMPILATIONS_RATE_SETTING
+            .getConcreteSettingForNamespace(ScoreScript.CONTEXT.name).getKey();
+        buildScriptService(Settings.builder().put(rateKey, "1/1m").build());
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap()), ScoreScript.CONTEXT);
+        CircuitBreakingException e = expectThrows(CircuitBreakingException.class, () ->
+            scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), ScoreScript.CONTEXT));
+        assertThat(e.getMessage(), containsString(rateKey));
+        // other contexts still compile
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), FieldScript.CONTEXT);
+        assertEquals(1L, scriptService.stats().getCompilationLimitTriggered());
+
+        clusterSettings.applySettings(Settings.builder().put(rateKey, "10/1m").build());
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), ScoreScript.CONTEXT);
+
+        String otherRateKey = ScriptService.SCRIPT_CONTEXT_MAX_COMPILATIONS_RATE_SETTING
+            .getConcreteSettingForNamespace(FieldScript.CONTEXT.name).getKey();
+        IllegalArgumentException iae = expectThrows(IllegalArgumentException.class,
+            () -> clusterSettings.applySettings(Settings.builder().put(otherRateKey, "10/1m").build()));
+        assertThat(iae.getMessage(), containsString("uses the general script cache"));
+    }
+
+    public void testUnknownContextCacheSetting() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> buildScriptService(Settings.builder().put("script.context.unknown.cache_max_size", 10).build()));
+        assertThat(e.getMessage(), containsString("unknown script context [unknown]"));
+    }
+
     public void testStoreScript() throws Exception {
         BytesReference script = BytesReference.bytes(XContentFactory.jsonBuilder()
             .startObject()
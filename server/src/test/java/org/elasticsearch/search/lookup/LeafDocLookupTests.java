@@ -30,6 +30,8 @@ import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class LeafDocLookupTests extends ESTestCase {
@@ -72,4 +74,16 @@ public class LeafDocLookupTests extends ESTestCase {
         ScriptDocValues<?> fetchedDocValues = docLookup.get("alias");
         assertEquals(docValues, fetchedDocValues);
     }
+
+    public void testDocValuesReadOncePerDocument() throws Exception {
+        docLookup.setDocument(3);
+        docLookup.get("field");
+        docLookup.get("field");
+        verify(docValues, times(1)).setNextDocId(3);
+
+        docLookup.setDocument(5);
+        docLookup.get("field");
+        docLookup.get("field");
+        verify(docValues, times(1)).setNextDocId(5);
+    }
 }
@@ -19,11 +19,13 @@
 
 package org.elasticsearch.transport;
 
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.io.stream.BytesStream;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.EOFException;
@@ -81,6 +83,42 @@ public class CompressibleBytesOutputStreamTests extends ESTestCase {
         }
     }
 
+    public void testLargeBytesReferencesAreNotCopiedWithoutCompression() throws IOException {
+        BytesStream bStream = new ZeroOutOnCloseStream();
+        CompressibleBytesOutputStream stream = new CompressibleBytesOutputStream(bStream, false);
+        BytesReference large = new BytesArray(randomBytes(randomIntBetween(CompressibleBytesOutputStream.MIN_REFERENCED_BYTES, 1 << 16)));
+        BytesReference small = new BytesArray(randomBytes(randomIntBetween(0, CompressibleBytesOutputStream.MIN_REFERENCED_BYTES - 1)));
+        String string = randomAlphaOfLength(randomIntBetween(0, 30));
+
+        BytesStreamOutput expected = new BytesStreamOutput();
+        for (StreamOutput out : new StreamOutput[] {expected, stream}) {
+            out.writeBytesReference(large);
+            out.writeString(string);
+            out.writeOptionalBytesReference(small);
+            out.writeBytesReference(large);
+        }
+
+        BytesReference bytesRef = stream.materializeBytes();
+        assertEquals(expected.bytes(), bytesRef);
+        // only the small reference and the other values were copied to the underlying stream
+        assertEquals(expected.bytes().length() - 2 * large.length(), bStream.bytes().length());
+        stream.close();
+    }
+
+    public void testLargeBytesReferencesAreCopiedWithCompression() throws IOException {
+        BytesStream bStream = new ZeroOutOnCloseStream();
+        CompressibleBytesOutputStream stream = new CompressibleBytesOutputStream(bStream, true);
+        BytesReference large = new BytesArray(randomBytes(randomIntBetween(CompressibleBytesOutputStream.MIN_REFERENCED_BYTES, 1 << 16)));
+        stream.writeBytesReference(large);
+
+        BytesReference bytesRef = stream.materializeBytes();
+        assertTrue(CompressorFactory.COMPRESSOR.isCompressed(bytesRef));
+        StreamInput streamInput = CompressorFactory.COMPRESSOR.streamInput(bytesRef.streamInput());
+        assertEquals(large, streamInput.readBytesReference());
+        assertEquals(-1, streamInput.read());
+        stream.close();
+    }
+
     public void testCompressionWithCallingMaterializeFails() throws IOException {
         BytesStream bStream = new ZeroOutOnCloseStream();
         CompressibleBytesOutputStream stream = new CompressibleBytesOutputStream(bStream, true);
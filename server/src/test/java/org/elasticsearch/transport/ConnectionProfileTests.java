@@ -112,6 +112,14 @@ public class ConnectionProfileTests extends ESTestCase {
         assertEquals(2, build.getNumConnectionsPerType(TransportRequestOptions.Type.STATE));
         assertEquals(2, build.getNumConnectionsPerType(TransportRequestOptions.Type.RECOVERY));
         assertEquals(1, build.getNumConnectionsPerType(TransportRequestOptions.Type.BULK));
+
+        assertEquals(EnumSet.of(TransportRequestOptions.Type.BULK), build.getTypes(0));
+        assertEquals(EnumSet.of(TransportRequestOptions.Type.STATE, TransportRequestOptions.Type.RECOVERY), build.getTypes(1));
+        assertEquals(EnumSet.of(TransportRequestOptions.Type.STATE, TransportRequestOptions.Type.RECOVERY), build.getTypes(2));
+        assertEquals(EnumSet.of(TransportRequestOptions.Type.PING), build.getTypes(5));
+        assertEquals(EnumSet.of(TransportRequestOptions.Type.REG), build.getTypes(9));
+        final ConnectionProfile profile = build;
+        expectThrows(IllegalArgumentException.class, () -> profile.getTypes(10));
     }
 
     public void testNoChannels() {
@@ -23,6 +23,7 @@ import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.compress.Compressor;
 import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
@@ -40,6 +41,8 @@ import java.io.IOException;
 import java.io.StreamCorruptedException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -182,13 +185,22 @@ public class TcpTransportTests extends ESTestCase {
     }
 
     public void testCompressRequest() throws IOException {
-        final boolean compressed = randomBoolean();
+        final boolean compress = randomBoolean();
+        final Transport.CompressionScheme scheme = randomFrom(Transport.CompressionScheme.values());
+        final List<String> compressActions = randomBoolean()
+            ? Collections.emptyList() : Collections.singletonList(randomFrom("foo*", "bar*"));
+        final boolean compressed = compress && compressActions.contains("bar*") == false;
+        final Settings settings = Settings.builder()
+            .put("transport.tcp.compress", compress)
+            .put("transport.tcp.compression_scheme", scheme.toString())
+            .putList("transport.tcp.compress_actions", compressActions)
+            .build();
         Req request = new Req(randomRealisticUnicodeOfLengthBetween(10, 100));
         ThreadPool threadPool = new TestThreadPool(TcpTransportTests.class.getName());
         AtomicReference<BytesReference> messageCaptor = new AtomicReference<>();
         try {
             TcpTransport transport = new TcpTransport(
-                "test", Settings.builder().put("transport.tcp.compress", compressed).build(), Version.CURRENT, threadPool,
+                "test", settings, Version.CURRENT, threadPool,
                 new BigArrays(new PageCacheRecycler(Settings.EMPTY), null), null, null, null) {
 
                 @Override
@@ -235,9 +247,11 @@ public class TcpTransportTests extends ESTestCase {
             assertEquals(compressed, TransportStatus.isCompress(status));
             if (compressed) {
                 final int bytesConsumed = TcpHeader.HEADER_SIZE;
-                streamIn = CompressorFactory.compressor(reference.slice(bytesConsumed, reference.length() - bytesConsumed))
-                    .streamInput(streamIn);
-                }
+                final Compressor compressor =
+                    CompressorFactory.transportCompressor(reference.slice(bytesConsumed, reference.length() - bytesConsumed));
+                assertSame(scheme == Transport.CompressionScheme.LZ4 ? CompressorFactory.LZ4 : CompressorFactory.COMPRESSOR, compressor);
+                streamIn = compressor.streamInput(streamIn);
+            }
             threadPool.getThreadContext().readHeaders(streamIn);
             assertThat(streamIn.readStringArray(), equalTo(new String[0])); // features
             assertEquals("foobar", streamIn.readString());
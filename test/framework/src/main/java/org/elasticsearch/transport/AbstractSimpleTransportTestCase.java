@@ -19,6 +19,9 @@
 
 package org.elasticsearch.transport;
 
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.util.Supplier;
 import org.apache.lucene.util.CollectionUtil;
@@ -34,6 +37,7 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.network.CloseableChannel;
 import org.elasticsearch.common.network.NetworkService;
 import org.elasticsearch.common.network.NetworkUtils;
@@ -51,6 +55,7 @@ import org.elasticsearch.mocksocket.MockServerSocket;
 import org.elasticsearch.node.Node;
 import org.elasticsearch.tasks.Task;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.MockLogAppender;
 import org.elasticsearch.test.VersionUtils;
 import org.elasticsearch.test.transport.MockTransportService;
 import org.elasticsearch.test.transport.StubbableTransport;
@@ -92,6 +97,7 @@ import static java.util.Collections.emptySet;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasToString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.notNullValue;
@@ -2700,6 +2706,89 @@ public abstract class AbstractSimpleTransportTestCase extends ESTestCase {
         }
     }
 
+    public void testHandlingTimesAreTrackedPerAction() throws Exception {
+        assumeTrue("only tcp transport tracks the handling times", serviceA.getOriginalTransport() instanceof TcpTransport);
+        serviceA.registerRequestHandler("internal:timed", TransportRequest.Empty::new, ThreadPool.Names.GENERIC,
+            (request, channel, task) -> {
+                Thread.sleep(10);
+                channel.sendResponse(TransportResponse.Empty.INSTANCE);
+            });
+        // requests to the local node don't go through the transport and aren't tracked
+        serviceA.submitRequest(nodeA, "internal:timed", TransportRequest.Empty.INSTANCE, EmptyTransportResponseHandler.INSTANCE_SAME)
+            .txGet();
+        serviceB.submitRequest(nodeA, "internal:timed", TransportRequest.Empty.INSTANCE, EmptyTransportResponseHandler.INSTANCE_SAME)
+            .txGet();
+        // the queue and execution times are recorded when the handler returns, which can be after the response was received
+        assertBusy(() -> {
+            TransportStats.ActionStats stats = serviceA.stats().getActions().get("internal:timed");
+            assertThat(stats, notNullValue());
+            assertEquals(1, stats.getCount());
+            assertThat(stats.getExecutionTime().millis(), greaterThanOrEqualTo(10L));
+            assertEquals(stats.getNetworkTime().nanos(), stats.getMaxNetworkTime().nanos());
+            assertEquals(stats.getQueueTime().nanos(), stats.getMaxQueueTime().nanos());
+            assertEquals(stats.getExecutionTime().nanos(), stats.getMaxExecutionTime().nanos());
+        });
+        assertNull(serviceB.stats().getActions().get("internal:timed"));
+    }
+
+    public void testSlowInboundMessagesAreLogged() throws Exception {
+        assertSlowInboundMessageLogging("1ms", true);
+    }
+
+    public void testSlowInboundMessageLoggingCanBeDisabled() throws Exception {
+        assertSlowInboundMessageLogging("0", false);
+    }
+
+    private void assertSlowInboundMessageLogging(String threshold, boolean expectWarning) throws Exception {
+        assumeTrue("only tcp transport logs slow inbound messages", serviceA.getOriginalTransport() instanceof TcpTransport);
+        Settings settings = Settings.builder().put(TcpTransport.SLOW_OPERATION_THRESHOLD.getKey(), threshold).build();
+        try (MockTransportService serviceC = buildService("TS_C", version0, null, settings)) {
+            // the handlers run on the network thread, so their time is part of the handling of the inbound message
+            serviceC.registerRequestHandler("internal:slow", TransportRequest.Empty::new, ThreadPool.Names.SAME,
+                (request, channel, task) -> {
+                    Thread.sleep(50);
+                    channel.sendResponse(TransportResponse.Empty.INSTANCE);
+                });
+            serviceC.registerRequestHandler("internal:fast", TransportRequest.Empty::new, ThreadPool.Names.SAME,
+                (request, channel, task) -> channel.sendResponse(TransportResponse.Empty.INSTANCE));
+            Logger transportLogger = LogManager.getLogger(serviceC.getOriginalTransport().getClass());
+            String message = "handling inbound transport message [internal:slow] from *";
+            MockLogAppender appender = new MockLogAppender();
+            if (expectWarning) {
+                appender.addExpectation(new MockLogAppender.SeenEventExpectation("slow inbound message", transportLogger.getName(),
+                    Level.WARN, message + " which is above the warn threshold of [1ms]"));
+            } else {
+                appender.addExpectation(new MockLogAppender.UnseenEventExpectation("slow inbound message", transportLogger.getName(),
+                    Level.WARN, message));
+            }
+            appender.start();
+            Loggers.addAppender(transportLogger, appender);
+            ConnectionProfile.Builder builder = new ConnectionProfile.Builder();
+            builder.addConnections(1,
+                TransportRequestOptions.Type.BULK,
+                TransportRequestOptions.Type.PING,
+                TransportRequestOptions.Type.RECOVERY,
+                TransportRequestOptions.Type.REG,
+                TransportRequestOptions.Type.STATE);
+            try (Transport.Connection connection = serviceB.openConnection(serviceC.getLocalNode(), builder.build())) {
+                sendEmptyRequest(connection, "internal:slow");
+                // the messages of a channel are handled one after the other, so the slow message was completely handled, and
+                // possibly logged, once the response to the next one is received
+                sendEmptyRequest(connection, "internal:fast");
+                appender.assertAllExpectationsMatched();
+            } finally {
+                Loggers.removeAppender(transportLogger, appender);
+                appender.stop();
+            }
+        }
+    }
+
+    private void sendEmptyRequest(Transport.Connection connection, String action) {
+        PlainTransportFuture<TransportResponse.Empty> future = new PlainTransportFuture<>(EmptyTransportResponseHandler.INSTANCE_SAME);
+        serviceB.sendRequest(connection, action, TransportRequest.Empty.INSTANCE, TransportRequestOptions.EMPTY, future);
+        future.txGet();
+    }
+
     private void closeConnectionChannel(Transport.Connection connection) {
         StubbableTransport.WrappedConnection wrappedConnection = (StubbableTransport.WrappedConnection) connection;
         TcpTransport.NodeChannels channels = (TcpTransport.NodeChannels) wrappedConnection.getConnection();